@@ -0,0 +1,179 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static com.flipkart.krystal.data.Errable.errableFrom;
+import static com.flipkart.krystal.data.Errable.withValue;
+import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.delayedExecutor;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.function.Function.identity;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ComputeLogicDefinition;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/** Builds synthetic kryon graphs which are used by the krystex benchmarks. */
+final class BenchmarkGraphs {
+
+  static final String FAN_OUT = "fanOut";
+  static final String INDEX = "index";
+  static final String DEP = "dep";
+
+  /**
+   * Creates a graph in which a root kryon fans out to {@code fanOut} executions of a chain of
+   * {@code depth} kryons. Every kryon in the chain passes its input on to the next kryon, the last
+   * kryon in the chain returns its input as is, and the root kryon sums up the results of all the
+   * fan-out executions.
+   *
+   * @return the id of the root kryon. The root kryon expects the input {@link #FAN_OUT}.
+   */
+  static KryonId fanOutChain(KryonDefinitionRegistry kryonDefinitionRegistry, int depth) {
+    String leafId = "chain_" + depth;
+    KryonId depKryonId =
+        kryonDefinitionRegistry
+            .newKryonDefinition(
+                leafId,
+                newComputeLogic(
+                        kryonDefinitionRegistry.logicDefinitionRegistry(),
+                        leafId,
+                        ImmutableSet.of(INDEX),
+                        facets -> facets.<Integer>getInputValueOrThrow(INDEX))
+                    .kryonLogicId())
+            .kryonId();
+    for (int level = depth - 1; level > 0; level--) {
+      depKryonId =
+          newDependantKryon(kryonDefinitionRegistry, "chain_" + level, INDEX, depKryonId, List::of);
+    }
+    return newDependantKryon(
+        kryonDefinitionRegistry,
+        "root",
+        FAN_OUT,
+        depKryonId,
+        fanOut -> IntStream.range(0, fanOut).boxed().toList());
+  }
+
+  /**
+   * Creates a graph in which a root kryon fans out to {@code fanOut} executions of an IO kryon
+   * which returns its input after {@code ioLatencyMicros}. The root kryon sums up the results of
+   * all the fan-out executions.
+   *
+   * @return the id of the root kryon. The root kryon expects the input {@link #FAN_OUT}.
+   */
+  static KryonId ioFanOut(KryonDefinitionRegistry kryonDefinitionRegistry, long ioLatencyMicros) {
+    String ioKryonId = "io";
+    Executor ioExecutor = delayedExecutor(ioLatencyMicros, MICROSECONDS);
+    IOLogicDefinition<Integer> ioLogic =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId(ioKryonId), ioKryonId),
+            ImmutableSet.of(INDEX),
+            inputsList ->
+                inputsList.stream()
+                    .collect(
+                        toImmutableMap(
+                            identity(),
+                            facets ->
+                                supplyAsync(
+                                    () -> facets.<Integer>getInputValueOrThrow(INDEX),
+                                    ioExecutor))),
+            ImmutableMap.of());
+    kryonDefinitionRegistry.logicDefinitionRegistry().addOutputLogic(ioLogic);
+    KryonId depKryonId =
+        kryonDefinitionRegistry.newKryonDefinition(ioKryonId, ioLogic.kryonLogicId()).kryonId();
+    return newDependantKryon(
+        kryonDefinitionRegistry,
+        "root",
+        FAN_OUT,
+        depKryonId,
+        fanOut -> IntStream.range(0, fanOut).boxed().toList());
+  }
+
+  /**
+   * Creates a kryon which has a single dependency {@link #DEP} on {@code depKryonId}, and whose
+   * resolver computes the {@link #INDEX} inputs of the dependency from {@code inputName}. The kryon
+   * returns the sum of the results of all the executions of its dependency.
+   */
+  private static KryonId newDependantKryon(
+      KryonDefinitionRegistry kryonDefinitionRegistry,
+      String kryonId,
+      String inputName,
+      KryonId depKryonId,
+      Function<Integer, List<Integer>> resolver) {
+    LogicDefinitionRegistry logicDefinitionRegistry =
+        kryonDefinitionRegistry.logicDefinitionRegistry();
+    KryonLogicId multiResolverId =
+        new KryonLogicId(new KryonId(kryonId), kryonId + ":multiResolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            ImmutableSet.of(inputName),
+            (resolutionRequests, facets) ->
+                ImmutableMap.of(
+                    DEP,
+                    multiExecuteWith(
+                        resolver.apply(facets.<Integer>getInputValueOrThrow(inputName)).stream()
+                            .map(index -> new Facets(ImmutableMap.of(INDEX, withValue(index))))
+                            .collect(toImmutableList()))),
+            ImmutableMap.of()));
+    return kryonDefinitionRegistry
+        .newKryonDefinition(
+            kryonId,
+            newComputeLogic(
+                    logicDefinitionRegistry,
+                    kryonId,
+                    ImmutableSet.of(inputName, DEP),
+                    facets ->
+                        facets.<Integer>getDepValue(DEP).values().values().stream()
+                            .mapToInt(errable -> errable.value().orElse(0))
+                            .sum())
+                .kryonLogicId(),
+            ImmutableMap.of(DEP, depKryonId),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    new KryonLogicId(new KryonId(kryonId), kryonId + ":resolver"),
+                    ImmutableSet.of(inputName),
+                    DEP,
+                    ImmutableSet.of(INDEX))),
+            multiResolverId)
+        .kryonId();
+  }
+
+  private static <T> OutputLogicDefinition<T> newComputeLogic(
+      LogicDefinitionRegistry logicDefinitionRegistry,
+      String kryonId,
+      Set<String> inputs,
+      Function<Facets, T> logic) {
+    ComputeLogicDefinition<T> def =
+        new ComputeLogicDefinition<>(
+            new KryonLogicId(new KryonId(kryonId), kryonId),
+            inputs,
+            inputsList ->
+                inputsList.stream()
+                    .collect(toImmutableMap(identity(), errableFrom(logic)))
+                    .entrySet()
+                    .stream()
+                    .collect(toImmutableMap(Entry::getKey, e -> e.getValue().toFuture())),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(def);
+    return def;
+  }
+
+  private BenchmarkGraphs() {}
+}
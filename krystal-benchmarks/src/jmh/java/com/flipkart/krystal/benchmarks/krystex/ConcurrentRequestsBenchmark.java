@@ -0,0 +1,122 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static com.flipkart.krystal.benchmarks.krystex.BenchmarkGraphs.FAN_OUT;
+import static com.flipkart.krystal.benchmarks.krystex.BenchmarkGraphs.ioFanOut;
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.VirtualThreadExecutorPool;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.utils.MultiLeasePool;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link ForkJoinExecutorPool} and {@link VirtualThreadExecutorPool} when a large number
+ * of requests are in flight at the same time.
+ *
+ * <p>Every operation submits {@link #concurrentRequests} requests - each with a {@link
+ * KryonExecutor} of its own, as is the case in a server - and waits for all of them to complete.
+ * Every request fans out to {@link #fanOut} IO calls which complete after {@link #ioLatencyMicros}
+ * (See {@link BenchmarkGraphs#ioFanOut}). The time taken by an operation is hence the latency of
+ * the slowest of the concurrent requests, and the {@code SampleTime} percentiles of this benchmark
+ * are the distribution of that tail latency.
+ *
+ * <p>{@link PoolType#VIRTUAL_THREADS} needs JDK 21+ to run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrentRequestsBenchmark {
+
+  public enum PoolType {
+    FORK_JOIN,
+    VIRTUAL_THREADS
+  }
+
+  @Param({"FORK_JOIN", "VIRTUAL_THREADS"})
+  public PoolType poolType;
+
+  @Param({"BATCH", "GRANULAR"})
+  public KryonExecStrategy kryonExecStrategy;
+
+  @Param({"10000"})
+  public int concurrentRequests;
+
+  @Param({"1", "10"})
+  public int fanOut;
+
+  @Param({"1000"})
+  public long ioLatencyMicros;
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private KryonId rootKryonId;
+  private KryonExecutorConfig executorConfig;
+  private MultiLeasePool<? extends ExecutorService> executorPool;
+  private Facets rootFacets;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+    rootKryonId = ioFanOut(kryonDefinitionRegistry, ioLatencyMicros);
+    executorConfig = KryonExecutorConfig.builder().kryonExecStrategy(kryonExecStrategy).build();
+    executorPool =
+        switch (poolType) {
+          case FORK_JOIN -> new ForkJoinExecutorPool(1);
+          case VIRTUAL_THREADS -> new VirtualThreadExecutorPool();
+        };
+    rootFacets = new Facets(ImmutableMap.of(FAN_OUT, withValue(fanOut)));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorPool.close();
+  }
+
+  @Benchmark
+  public void executeConcurrentRequests(Blackhole blackhole) {
+    CompletableFuture<?>[] futures = new CompletableFuture[concurrentRequests];
+    for (int i = 0; i < concurrentRequests; i++) {
+      try (KryonExecutor kryonExecutor =
+          new KryonExecutor(
+              kryonDefinitionRegistry, executorPool, executorConfig, "request_" + i)) {
+        futures[i] =
+            kryonExecutor.executeKryon(
+                rootKryonId,
+                rootFacets,
+                KryonExecutionConfig.builder().executionId("execution").build());
+      }
+    }
+    allOf(futures).join();
+    for (CompletableFuture<?> future : futures) {
+      blackhole.consume(future.join());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static com.flipkart.krystal.benchmarks.krystex.BenchmarkGraphs.FAN_OUT;
+import static com.flipkart.krystal.benchmarks.krystex.BenchmarkGraphs.fanOutChain;
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the end-to-end latency of executing a kryon graph with a {@link KryonExecutor} - from
+ * the creation of the executor, through {@link KryonExecutor#executeKryon} and {@link
+ * KryonExecutor#flush()}, till the completion of the response futures.
+ *
+ * <p>The graph is a root kryon which fans out to {@link #fanOut} executions of a chain of {@link
+ * #depth} kryons (See {@link BenchmarkGraphs#fanOutChain}). This exercises the command handling of
+ * {@code BatchKryon} and {@code GranularKryon} for both graph traversal strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KryonExecutorBenchmark {
+
+  @Param({"BATCH", "GRANULAR"})
+  public KryonExecStrategy kryonExecStrategy;
+
+  @Param({"DEPTH", "BREADTH"})
+  public GraphTraversalStrategy graphTraversalStrategy;
+
+  @Param({"1", "10", "100"})
+  public int fanOut;
+
+  @Param({"1", "5"})
+  public int depth;
+
+  /** Number of executions submitted to a single {@link KryonExecutor} before it is flushed. */
+  @Param({"1", "100"})
+  public int executionsPerExecutor;
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private KryonId rootKryonId;
+  private KryonExecutorConfig executorConfig;
+  private ForkJoinExecutorPool executorPool;
+  private Facets rootFacets;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+    rootKryonId = fanOutChain(kryonDefinitionRegistry, depth);
+    executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .build();
+    executorPool = new ForkJoinExecutorPool(1);
+    rootFacets = new Facets(ImmutableMap.of(FAN_OUT, withValue(fanOut)));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorPool.close();
+  }
+
+  @Benchmark
+  public void executeKryon(Blackhole blackhole) {
+    CompletableFuture<?>[] futures = new CompletableFuture[executionsPerExecutor];
+    try (KryonExecutor kryonExecutor =
+        new KryonExecutor(kryonDefinitionRegistry, executorPool, executorConfig, "benchmark")) {
+      for (int i = 0; i < executionsPerExecutor; i++) {
+        futures[i] =
+            kryonExecutor.executeKryon(
+                rootKryonId,
+                rootFacets,
+                KryonExecutionConfig.builder().executionId("execution_" + i).build());
+      }
+    }
+    allOf(futures).join();
+    for (CompletableFuture<?> future : futures) {
+      blackhole.consume(future.join());
+    }
+  }
+}
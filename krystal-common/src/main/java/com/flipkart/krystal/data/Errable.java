@@ -4,6 +4,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -23,31 +24,53 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  *   <li>{@link #value()} is not empty and {@link #error()} is not empty - this scenario is
  *       impossible.
  * </ul>
+ *
+ * <p>Each of the possible states is represented by its own subtype ({@link Success}, {@link
+ * Failure} and {@link Nil}) which holds the value or error directly. So wrapping a computed value
+ * allocates a single object, and null values share a single instance. The {@link Optional}s
+ * returned by {@link #value()} and {@link #error()} are created on demand - performance sensitive
+ * code can use {@link #valueOrNull()} and {@link #errorOrNull()} instead.
  */
-public record Errable<T>(Optional<T> value, Optional<Throwable> error) implements FacetValue<T> {
+public sealed interface Errable<T> extends FacetValue<T>
+    permits Errable.Success, Errable.Failure, Errable.Nil {
 
-  private static final Errable<?> EMPTY = new Errable<>(Optional.empty(), Optional.empty());
+  Optional<T> value();
 
-  public Errable {
-    if ((value.isPresent() && error.isPresent())) {
-      throw new IllegalArgumentException("Both of 'value' and 'error' cannot be present together");
-    }
+  Optional<Throwable> error();
+
+  /** Returns the value if present, else null. Unlike {@link #value()}, this does not allocate. */
+  @Nullable T valueOrNull();
+
+  /** Returns the error if present, else null. Unlike {@link #error()}, this does not allocate. */
+  @Nullable Throwable errorOrNull();
+
+  /**
+   * Creates an errable from the given value and error, like the canonical constructor of {@code
+   * Errable} did when it was a record.
+   *
+   * @throws IllegalArgumentException if both the value and the error are present
+   * @deprecated Use {@link #withValue}, {@link #withError}, {@link #empty} or {@link
+   *     #errableFrom(Object, Throwable)} instead.
+   */
+  @Deprecated
+  static <T> Errable<T> of(Optional<T> value, Optional<Throwable> error) {
+    return errableFrom(value.orElse(null), error.orElse(null));
   }
 
-  public static <T> Errable<T> empty() {
+  static <T> Errable<T> empty() {
     //noinspection unchecked
-    return (Errable<T>) EMPTY;
+    return (Errable<T>) Nil.INSTANCE;
   }
 
-  public static <T> Errable<T> withValue(@Nullable T t) {
+  static <T> Errable<T> withValue(@Nullable T t) {
     return errableFrom(t, null);
   }
 
-  public static <T> Errable<T> withError(Throwable t) {
-    return errableFrom(null, t);
+  static <T> Errable<T> withError(Throwable t) {
+    return new Failure<>(t);
   }
 
-  public static <T> Errable<T> errableFrom(Callable<T> valueProvider) {
+  static <T> Errable<T> errableFrom(Callable<T> valueProvider) {
     try {
       return withValue(valueProvider.call());
     } catch (Throwable e) {
@@ -55,15 +78,26 @@ public record Errable<T>(Optional<T> value, Optional<Throwable> error) implement
     }
   }
 
-  public static <S, T> Function<S, Errable<T>> errableFrom(Function<S, T> valueComputer) {
+  static <S, T> Function<S, Errable<T>> errableFrom(Function<S, T> valueComputer) {
     return s -> errableFrom(() -> valueComputer.apply(s));
   }
 
-  public static <T> Errable<T> errableFrom(@Nullable Object value, @Nullable Throwable error) {
-    //noinspection unchecked,rawtypes
-    return new Errable<T>(
-        (value instanceof Optional o) ? o : (Optional<T>) Optional.ofNullable(value),
-        Optional.ofNullable(error));
+  static <T> Errable<T> errableFrom(@Nullable Object value, @Nullable Throwable error) {
+    if (value instanceof Optional<?> optional) {
+      value = optional.orElse(null);
+    }
+    if (error != null) {
+      if (value != null) {
+        throw new IllegalArgumentException(
+            "Both of 'value' and 'error' cannot be present together");
+      }
+      return new Failure<>(error);
+    }
+    if (value == null) {
+      return empty();
+    }
+    //noinspection unchecked
+    return new Success<>((T) value);
   }
 
   /**
@@ -71,32 +105,147 @@ public record Errable<T>(Optional<T> value, Optional<Throwable> error) implement
    *     {@link #error()} if it is present, or completed normally with contents of {@link #value()}
    *     (or null if it is empty)
    */
-  public CompletableFuture<@Nullable T> toFuture() {
-    if (error().isPresent()) {
-      return CompletableFuture.failedFuture(error().get());
+  default CompletableFuture<@Nullable T> toFuture() {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      return CompletableFuture.failedFuture(error);
     } else {
-      return CompletableFuture.completedFuture(value().orElse(null));
+      return CompletableFuture.completedFuture(valueOrNull());
     }
   }
 
-  public Optional<T> getValueOrThrow() {
-    Optional<Throwable> error = error();
-    if (error.isPresent()) {
-      if (error.get() instanceof RuntimeException e) {
+  default Optional<T> getValueOrThrow() {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      if (error instanceof RuntimeException e) {
         throw e;
       } else {
-        throw new RuntimeException(error.get());
+        throw new RuntimeException(error);
       }
     }
     return value();
   }
 
-  @Override
-  public String toString() {
-    if (error.isPresent()) {
+  /** A successfully computed non-null value. */
+  final class Success<T> implements Errable<T> {
+
+    private final @NonNull T value;
+
+    private Success(@NonNull T value) {
+      this.value = value;
+    }
+
+    @Override
+    public Optional<T> value() {
+      return Optional.of(value);
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.empty();
+    }
+
+    @Override
+    public @NonNull T valueOrNull() {
+      return value;
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      return o == this || (o instanceof Success<?> other && value.equals(other.value));
+    }
+
+    @Override
+    public int hashCode() {
+      return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(value);
+    }
+  }
+
+  /** A value which could not be computed because of an error. */
+  final class Failure<T> implements Errable<T> {
+
+    private final Throwable error;
+
+    private Failure(Throwable error) {
+      this.error = error;
+    }
+
+    @Override
+    public Optional<T> value() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.of(error);
+    }
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public Throwable errorOrNull() {
+      return error;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      return o == this || (o instanceof Failure<?> other && error.equals(other.error));
+    }
+
+    @Override
+    public int hashCode() {
+      return error.hashCode();
+    }
+
+    @Override
+    public String toString() {
       return error.toString();
-    } else {
-      return String.valueOf(value().orElse(null));
+    }
+  }
+
+  /** A null value. There is a single instance of this class - {@link Errable#empty()}. */
+  final class Nil<T> implements Errable<T> {
+
+    private static final Nil<?> INSTANCE = new Nil<>();
+
+    private Nil() {}
+
+    @Override
+    public Optional<T> value() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<Throwable> error() {
+      return Optional.empty();
+    }
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "null";
     }
   }
 }
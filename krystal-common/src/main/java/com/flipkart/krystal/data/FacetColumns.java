@@ -0,0 +1,122 @@
+package com.flipkart.krystal.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A columnar view of the facets of a batch of requests. The values of each facet of the {@link
+ * FacetLayout} across all the requests are stored in one array (the column of the facet) indexed by
+ * the position of the request in the batch (the row of the request).
+ *
+ * <p>This allows logic which processes a batch of requests (like batch resolvers) to read the
+ * values of a facet for all requests in one go, without materializing a {@link Facets} object per
+ * request. {@link #row(int)} is available for logic which needs to process one request at a time.
+ */
+public final class FacetColumns {
+
+  private final FacetLayout layout;
+  private final int size;
+  private final @Nullable FacetValue<Object>[][] columns;
+
+  /**
+   * Creates facet columns where {@code columns[i][r]} is the value of the facet at index {@code i}
+   * of the layout for the request at row {@code r}, null if the facet has no value for that
+   * request. The arrays are owned by the created object and must not be modified after this call.
+   *
+   * @param size the number of requests (rows).
+   */
+  public FacetColumns(FacetLayout layout, int size, @Nullable FacetValue<Object>[][] columns) {
+    if (columns.length != layout.size()) {
+      throw new IllegalArgumentException(
+          "Expected %s columns for %s. Found %s".formatted(layout.size(), layout, columns.length));
+    }
+    for (@Nullable FacetValue<Object>[] column : columns) {
+      if (column.length != size) {
+        throw new IllegalArgumentException(
+            "Expected %s rows in every column. Found %s".formatted(size, column.length));
+      }
+    }
+    this.layout = layout;
+    this.size = size;
+    this.columns = columns;
+  }
+
+  /** Creates facet columns containing the values of the given facets, one row per facets. */
+  public static FacetColumns ofRows(FacetLayout layout, List<Facets> rows) {
+    @Nullable FacetValue<Object>[][] columns = newColumns(layout, rows.size());
+    for (int r = 0; r < rows.size(); r++) {
+      for (var entry : rows.get(r).values().entrySet()) {
+        int index = layout.indexOf(entry.getKey());
+        if (index < 0) {
+          throw new IllegalArgumentException(
+              "Facet %s is not part of %s".formatted(entry.getKey(), layout));
+        }
+        columns[index][r] = entry.getValue();
+      }
+    }
+    return new FacetColumns(layout, rows.size(), columns);
+  }
+
+  /** Returns new empty columns which can be filled and passed to the constructor. */
+  @SuppressWarnings("unchecked")
+  public static @Nullable FacetValue<Object>[][] newColumns(FacetLayout layout, int size) {
+    return (@Nullable FacetValue<Object>[][]) new @Nullable FacetValue<?>[layout.size()][size];
+  }
+
+  public FacetLayout layout() {
+    return layout;
+  }
+
+  /** The number of requests (rows) in this batch. */
+  public int size() {
+    return size;
+  }
+
+  public @Nullable FacetValue<Object> get(int facetIndex, int row) {
+    return columns[facetIndex][row];
+  }
+
+  /**
+   * Returns the value of the input at the given index of the layout for the request at the given
+   * row. Same as {@link Facets#getInputValue(FacetLayout, int)} on the facets of the row.
+   */
+  public <T> Errable<T> getInputValue(int facetIndex, int row) {
+    return Facets.asErrable(layout.nameAt(facetIndex), columns[facetIndex][row]);
+  }
+
+  /**
+   * Returns the value of the dependency at the given index of the layout for the request at the
+   * given row. Same as {@link Facets#getDepValue(FacetLayout, int)} on the facets of the row.
+   */
+  public <T> Results<T> getDepValue(int facetIndex, int row) {
+    return Facets.asResults(layout.nameAt(facetIndex), columns[facetIndex][row]);
+  }
+
+  /**
+   * Returns an unmodifiable view of the values of the given facet across all rows. Every element
+   * is null if the facet is not part of the layout.
+   */
+  public List<@Nullable FacetValue<Object>> column(String facetName) {
+    int index = layout.indexOf(facetName);
+    if (index < 0) {
+      return Collections.nCopies(size, null);
+    }
+    return Collections.unmodifiableList(Arrays.asList(columns[index]));
+  }
+
+  /** Returns the facets of the request at the given row. */
+  public Facets row(int row) {
+    @Nullable FacetValue<Object>[] slots = Facets.newSlots(layout);
+    for (int i = 0; i < columns.length; i++) {
+      slots[i] = columns[i][row];
+    }
+    return new Facets(layout, slots);
+  }
+
+  @Override
+  public String toString() {
+    return "FacetColumns{layout=" + layout + ", size=" + size + '}';
+  }
+}
@@ -0,0 +1,65 @@
+package com.flipkart.krystal.data;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a stable integer slot to each facet of a vajram/kryon. {@link Facets} created with a
+ * layout store their values in an array indexed by these slots, so that facet values can be read
+ * without a hash lookup of the facet name.
+ *
+ * <p>Layouts are interned: {@link #of} returns the same instance for the same list of facet names.
+ * This allows code generated at compile time and the runtime to independently create the layout of
+ * a vajram and still agree on it via a reference comparison.
+ */
+public final class FacetLayout {
+
+  private static final Map<ImmutableList<String>, FacetLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+  private final ImmutableList<String> facetNames;
+  private final ImmutableMap<String, Integer> indices;
+
+  private FacetLayout(ImmutableList<String> facetNames) {
+    this.facetNames = facetNames;
+    ImmutableMap.Builder<String, Integer> indices =
+        ImmutableMap.builderWithExpectedSize(facetNames.size());
+    for (int i = 0; i < facetNames.size(); i++) {
+      indices.put(facetNames.get(i), i);
+    }
+    this.indices = indices.build();
+  }
+
+  public static FacetLayout of(String... facetNames) {
+    return of(ImmutableList.copyOf(facetNames));
+  }
+
+  public static FacetLayout of(Collection<String> facetNames) {
+    return LAYOUTS.computeIfAbsent(ImmutableList.copyOf(facetNames), FacetLayout::new);
+  }
+
+  /** Returns the slot assigned to the given facet, or -1 if the facet is not part of this layout */
+  public int indexOf(String facetName) {
+    Integer index = indices.get(facetName);
+    return index == null ? -1 : index;
+  }
+
+  public String nameAt(int index) {
+    return facetNames.get(index);
+  }
+
+  public int size() {
+    return facetNames.size();
+  }
+
+  public ImmutableList<String> facetNames() {
+    return facetNames;
+  }
+
+  @Override
+  public String toString() {
+    return "FacetLayout" + facetNames;
+  }
+}
@@ -1,54 +1,233 @@
 package com.flipkart.krystal.data;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import lombok.EqualsAndHashCode;
-import lombok.EqualsAndHashCode.CacheStrategy;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.PolyNull;
 
-@EqualsAndHashCode(callSuper = false, cacheStrategy = CacheStrategy.LAZY)
+/**
+ * The values of the facets of a vajram/kryon.
+ *
+ * <p>Facets are either backed by a map from facet name to value, or by an array of values whose
+ * slots are assigned by a {@link FacetLayout}. Array backed facets can be read in constant time
+ * via the accessors which accept a layout and an index. These accessors also work on facets which
+ * were created with a different layout (or with a map) by falling back to a lookup by name. Both
+ * representations are interchangeable - {@link #equals} and {@link #hashCode} only consider the
+ * facet names and values.
+ *
+ * <p>Facets can also carry a typed representation of themselves - for example the generated
+ * request class of a vajram which created them (see {@link #withTyped(Object)}). Code which needs
+ * the typed representation can get it via {@link #toTyped(Class, Function)} without converting
+ * the facet values again.
+ */
 public final class Facets {
-  private final ImmutableMap<String, FacetValue<Object>> values;
+
+  private static final Facets EMPTY = new Facets(ImmutableMap.of());
+
+  private final @Nullable FacetLayout layout;
+  private final @Nullable FacetValue<Object> @Nullable [] slots;
+  private @MonotonicNonNull ImmutableMap<String, FacetValue<Object>> values;
+  private int hashCode;
+
+  /**
+   * Set at most once (via {@link #associateTyped}), so that all the threads sharing these facets
+   * see the same typed representation. Never set on {@link #EMPTY}, which is shared by unrelated
+   * callers.
+   */
+  private volatile @Nullable Object typed;
 
   public Facets(Map<String, FacetValue<Object>> values) {
+    this.layout = null;
+    this.slots = null;
     this.values = ImmutableMap.copyOf(values);
   }
 
-  private static final Facets EMPTY = new Facets(ImmutableMap.of());
+  /**
+   * Creates array backed facets. The value of the facet at index {@code i} of the layout is {@code
+   * slots[i]}, null if the facet has no value. The array is owned by the created object and must
+   * not be modified after this call.
+   */
+  public Facets(FacetLayout layout, @Nullable FacetValue<Object>[] slots) {
+    if (slots.length != layout.size()) {
+      throw new IllegalArgumentException(
+          "Expected %s slots for %s. Found %s".formatted(layout.size(), layout, slots.length));
+    }
+    this.layout = layout;
+    this.slots = slots;
+  }
 
   public <T> Errable<T> getInputValue(String inputName) {
-    FacetValue<?> facetValue = values.getOrDefault(inputName, Errable.empty());
-    if (facetValue instanceof Errable<?> voe) {
-      //noinspection unchecked
-      return (Errable<T>) voe;
-    }
-    throw new IllegalArgumentException("%s is not of type Errable".formatted(inputName));
+    return asErrable(inputName, getFacetValue(inputName));
+  }
+
+  public <T> Errable<T> getInputValue(FacetLayout layout, int index) {
+    return asErrable(layout.nameAt(index), getFacetValue(layout, index));
   }
 
   public <T> Optional<T> getInputValueOpt(String inputName) {
     return this.<T>getInputValue(inputName).value();
   }
 
+  public <T> Optional<T> getInputValueOpt(FacetLayout layout, int index) {
+    return this.<T>getInputValue(layout, index).value();
+  }
+
   public <T> @NonNull T getInputValueOrThrow(String inputName) {
-    return this.<@NonNull T>getInputValue(inputName)
-        .getValueOrThrow()
-        .orElseThrow(
-            () -> new IllegalStateException("Could not find input value %s".formatted(inputName)));
+    return orThrow(inputName, this.<@NonNull T>getInputValue(inputName));
+  }
+
+  public <T> @NonNull T getInputValueOrThrow(FacetLayout layout, int index) {
+    return orThrow(layout.nameAt(index), this.<@NonNull T>getInputValue(layout, index));
   }
 
   public <T> @PolyNull T getInputValueOrDefault(String inputName, @PolyNull T defaultValue) {
     return this.<T>getInputValueOpt(inputName).orElse(defaultValue);
   }
 
+  public <T> @PolyNull T getInputValueOrDefault(
+      FacetLayout layout, int index, @PolyNull T defaultValue) {
+    return this.<T>getInputValueOpt(layout, index).orElse(defaultValue);
+  }
+
   public <T> Results<T> getDepValue(String inputName) {
-    FacetValue<?> facetValue = values.getOrDefault(inputName, Results.empty());
-    if (facetValue instanceof Results<?> voe) {
+    return asResults(inputName, getFacetValue(inputName));
+  }
+
+  public <T> Results<T> getDepValue(FacetLayout layout, int index) {
+    return asResults(layout.nameAt(index), getFacetValue(layout, index));
+  }
+
+  /**
+   * Returns the values of these facets placed in the slots of the given layout, or null if any of
+   * these facets is not part of the layout. The returned array is a copy and can be modified.
+   */
+  public @Nullable FacetValue<Object> @Nullable [] toSlots(FacetLayout layout) {
+    @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+    if (layout == this.layout && slots != null) {
+      return slots.clone();
+    }
+    @Nullable FacetValue<Object>[] newSlots = newSlots(layout);
+    for (Map.Entry<String, FacetValue<Object>> entry : values().entrySet()) {
+      int index = layout.indexOf(entry.getKey());
+      if (index < 0) {
+        return null;
+      }
+      newSlots[index] = entry.getValue();
+    }
+    return newSlots;
+  }
+
+  /**
+   * Returns facets containing these facets overridden by the given values. If these facets are
+   * array backed and the layout contains all the given facets, the returned facets share the same
+   * layout.
+   */
+  public Facets withValues(Map<String, ? extends FacetValue<Object>> newValues) {
+    FacetLayout layout = this.layout;
+    if (layout != null) {
+      @Nullable FacetValue<Object> @Nullable [] newSlots = toSlots(layout);
+      if (newSlots != null) {
+        boolean allInLayout = true;
+        for (Map.Entry<String, ? extends FacetValue<Object>> entry : newValues.entrySet()) {
+          int index = layout.indexOf(entry.getKey());
+          if (index < 0) {
+            allInLayout = false;
+            break;
+          }
+          newSlots[index] = entry.getValue();
+        }
+        if (allInLayout) {
+          return new Facets(layout, newSlots);
+        }
+      }
+    }
+    Map<String, FacetValue<Object>> merged = new LinkedHashMap<>(values());
+    merged.putAll(newValues);
+    return new Facets(merged);
+  }
+
+  /**
+   * Returns facets containing these facets overridden by the values present in the given facets.
+   * If both are array backed with the same layout, the values are merged slot by slot without
+   * creating a map.
+   */
+  public Facets withValues(Facets newValues) {
+    FacetLayout layout = this.layout;
+    @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+    @Nullable FacetValue<Object> @Nullable [] newSlots = newValues.slots;
+    if (layout != null && layout == newValues.layout && slots != null && newSlots != null) {
+      @Nullable FacetValue<Object>[] merged = slots.clone();
+      for (int i = 0; i < newSlots.length; i++) {
+        @Nullable FacetValue<Object> newSlot = newSlots[i];
+        if (newSlot != null) {
+          merged[i] = newSlot;
+        }
+      }
+      return new Facets(layout, merged);
+    }
+    return withValues(newValues.values());
+  }
+
+  /**
+   * Associates a typed representation of these facets (for example, the generated request object
+   * from which these facets were created) so that {@link #toTyped(Class, Function)} can return it
+   * without a conversion. Has no effect if a typed representation has already been associated.
+   * This must be called only by the creator of these facets, before they are shared.
+   *
+   * @return this, or new empty facets carrying the typed representation if this is {@link
+   *     #empty()}
+   */
+  public Facets withTyped(Object typed) {
+    if (this == EMPTY) {
+      return new Facets(ImmutableMap.of()).withTyped(typed);
+    }
+    associateTyped(typed);
+    return this;
+  }
+
+  /**
+   * Returns the typed representation of these facets. If the typed representation associated with
+   * these facets is of the given type, it is returned. Else it is created using the converter, and
+   * associated with these facets if there was no typed representation.
+   */
+  public <T> T toTyped(Class<? super T> type, Function<? super Facets, ? extends T> converter) {
+    @Nullable Object typed = this.typed;
+    if (type.isInstance(typed)) {
       //noinspection unchecked
-      return (Results<T>) voe;
+      return (T) typed;
     }
-    throw new IllegalArgumentException("%s is not of type Results".formatted(inputName));
+    T converted = converter.apply(this);
+    if (typed != null || this == EMPTY) {
+      return converted;
+    }
+    // If another thread associated a typed representation concurrently, prefer it so that all the
+    // threads get the same object.
+    typed = associateTyped(converted);
+    if (type.isInstance(typed)) {
+      //noinspection unchecked
+      return (T) typed;
+    }
+    return converted;
+  }
+
+  /**
+   * Associates the given typed representation with these facets if none has been associated yet.
+   *
+   * @return the typed representation associated with these facets
+   */
+  private synchronized Object associateTyped(Object typed) {
+    @Nullable Object current = this.typed;
+    if (current != null) {
+      return current;
+    }
+    this.typed = typed;
+    return typed;
   }
 
   public static Facets union(
@@ -67,12 +246,122 @@ public final class Facets {
     return EMPTY;
   }
 
+  /** Returns empty slots to be filled and passed to {@link #Facets(FacetLayout, FacetValue[])} */
+  @SuppressWarnings("unchecked")
+  public static @Nullable FacetValue<Object>[] newSlots(FacetLayout layout) {
+    return (@Nullable FacetValue<Object>[]) new @Nullable FacetValue<?>[layout.size()];
+  }
+
   public ImmutableMap<String, FacetValue<Object>> values() {
+    ImmutableMap<String, FacetValue<Object>> values = this.values;
+    if (values == null) {
+      FacetLayout layout = this.layout;
+      @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+      if (layout == null || slots == null) {
+        throw new AssertionError("Either values or slots must be present. This is a bug.");
+      }
+      ImmutableMap.Builder<String, FacetValue<Object>> builder =
+          ImmutableMap.builderWithExpectedSize(slots.length);
+      for (int i = 0; i < slots.length; i++) {
+        @Nullable FacetValue<Object> slot = slots[i];
+        if (slot != null) {
+          builder.put(layout.nameAt(i), slot);
+        }
+      }
+      values = builder.build();
+      this.values = values;
+    }
     return values;
   }
 
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Facets other)) {
+      return false;
+    }
+    if (hashCode != 0 && other.hashCode != 0 && hashCode != other.hashCode) {
+      return false;
+    }
+    if (layout != null && layout == other.layout && slots != null && other.slots != null) {
+      return Arrays.equals(slots, other.slots);
+    }
+    return values().equals(other.values());
+  }
+
+  /** Consistent with {@link Map#hashCode()} of {@link #values()} irrespective of representation */
+  @Override
+  public int hashCode() {
+    int hashCode = this.hashCode;
+    if (hashCode == 0) {
+      FacetLayout layout = this.layout;
+      @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+      if (layout != null && slots != null) {
+        for (int i = 0; i < slots.length; i++) {
+          @Nullable FacetValue<Object> slot = slots[i];
+          if (slot != null) {
+            hashCode += layout.nameAt(i).hashCode() ^ slot.hashCode();
+          }
+        }
+      } else {
+        hashCode = values().hashCode();
+      }
+      this.hashCode = hashCode;
+    }
+    return hashCode;
+  }
+
   @Override
   public String toString() {
     return values().toString();
   }
+
+  private @Nullable FacetValue<?> getFacetValue(String facetName) {
+    FacetLayout layout = this.layout;
+    @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+    if (layout != null && slots != null) {
+      int index = layout.indexOf(facetName);
+      return index < 0 ? null : slots[index];
+    }
+    return values().get(facetName);
+  }
+
+  private @Nullable FacetValue<?> getFacetValue(FacetLayout layout, int index) {
+    @Nullable FacetValue<Object> @Nullable [] slots = this.slots;
+    if (layout == this.layout && slots != null) {
+      return slots[index];
+    }
+    return getFacetValue(layout.nameAt(index));
+  }
+
+  static <T> Errable<T> asErrable(String inputName, @Nullable FacetValue<?> facetValue) {
+    if (facetValue == null) {
+      return Errable.empty();
+    }
+    if (facetValue instanceof Errable<?> voe) {
+      //noinspection unchecked
+      return (Errable<T>) voe;
+    }
+    throw new IllegalArgumentException("%s is not of type Errable".formatted(inputName));
+  }
+
+  static <T> Results<T> asResults(String inputName, @Nullable FacetValue<?> facetValue) {
+    if (facetValue == null) {
+      return Results.empty();
+    }
+    if (facetValue instanceof Results<?> voe) {
+      //noinspection unchecked
+      return (Results<T>) voe;
+    }
+    throw new IllegalArgumentException("%s is not of type Results".formatted(inputName));
+  }
+
+  private static <T> @NonNull T orThrow(String inputName, Errable<@NonNull T> errable) {
+    return errable
+        .getValueOrThrow()
+        .orElseThrow(
+            () -> new IllegalStateException("Could not find input value %s".formatted(inputName)));
+  }
 }
@@ -10,4 +10,12 @@ public record Results<T>(ImmutableMap<Facets, Errable<T>> values) implements Fac
     //noinspection unchecked
     return (Results<T>) EMPTY;
   }
+
+  /**
+   * Returns results with a single entry - like the result of a dependency which is not a fan-out.
+   * This is a shorthand for {@code new Results<>(ImmutableMap.of(facets, errable))}.
+   */
+  public static <T> Results<T> single(Facets facets, Errable<T> errable) {
+    return new Results<>(ImmutableMap.of(facets, errable));
+  }
 }
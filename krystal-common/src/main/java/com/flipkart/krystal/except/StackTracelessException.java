@@ -1,5 +1,7 @@
 package com.flipkart.krystal.except;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * An exception whose stacktrace is not useful. For example, exceptions used for internal purposes
  * or for failing completable futures with a marker exception.
@@ -13,6 +15,15 @@ public class StackTracelessException extends RuntimeException {
     super(message);
   }
 
+  /**
+   * @param enableSuppression whether suppressed exceptions can be added to this exception.
+   *     Exceptions which are shared across threads or requests should disable suppression so that
+   *     they are immutable.
+   */
+  protected StackTracelessException(@Nullable String message, boolean enableSuppression) {
+    super(message, null, enableSuppression, false);
+  }
+
   @SuppressWarnings("NonSynchronizedMethodOverridesSynchronizedMethod")
   @Override
   public final Throwable fillInStackTrace() {
@@ -0,0 +1,228 @@
+package com.flipkart.krystal.utils;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * A timer optimized for scheduling a large number of short-lived timeouts which are mostly
+ * cancelled before they expire (for example, the max-wait deadlines of input batchers).
+ *
+ * <p>Scheduling and cancelling a timeout are constant time, lock-free operations. Timeouts are
+ * placed in the buckets of a wheel which is advanced by a single worker thread once every tick.
+ * This means that timeouts expire with a precision of one tick - a timeout never expires before
+ * its deadline, but might expire up to one tick later.
+ *
+ * <p>Expired tasks are executed serially in the worker thread of the timer. So tasks must be short
+ * and non-blocking - longer work should be handed off to an appropriate executor by the task.
+ * Exceptions thrown by tasks are passed to the uncaught exception handler of the worker thread.
+ */
+public final class HashedWheelTimer implements AutoCloseable {
+
+  private static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(1);
+  private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+  private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100_000;
+  private static final AtomicInteger TIMER_COUNT = new AtomicInteger();
+
+  private static @MonotonicNonNull HashedWheelTimer sharedTimer;
+
+  private final long tickNanos;
+  private final Queue<Timeout>[] wheel;
+  private final int mask;
+  private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+  private final Thread workerThread;
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final long startTime = System.nanoTime();
+  private volatile boolean closed;
+
+  public HashedWheelTimer() {
+    this(DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+  }
+
+  /**
+   * @param tickDuration The duration between two ticks of the wheel. This is the precision of the
+   *     timer.
+   * @param ticksPerWheel The number of buckets in the wheel. Rounded up to a power of two.
+   */
+  public HashedWheelTimer(Duration tickDuration, int ticksPerWheel) {
+    if (tickDuration.isNegative() || tickDuration.isZero()) {
+      throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+    }
+    if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+      throw new IllegalArgumentException("ticksPerWheel out of range: " + ticksPerWheel);
+    }
+    this.tickNanos = tickDuration.toNanos();
+    int wheelSize = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+    if (wheelSize == 0) {
+      wheelSize = 1;
+    }
+    @SuppressWarnings("unchecked")
+    Queue<Timeout>[] wheel = new Queue[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = new ArrayDeque<>();
+    }
+    this.wheel = wheel;
+    this.mask = wheelSize - 1;
+    this.workerThread =
+        new Thread(this::run, "Krystal-WheelTimer-" + TIMER_COUNT.incrementAndGet());
+    this.workerThread.setDaemon(true);
+  }
+
+  /**
+   * Returns a timer which is shared by all users in this JVM. The worker thread of this timer is a
+   * daemon thread, and the timer is never closed.
+   */
+  public static synchronized HashedWheelTimer shared() {
+    HashedWheelTimer sharedTimer = HashedWheelTimer.sharedTimer;
+    if (sharedTimer == null) {
+      sharedTimer = new HashedWheelTimer();
+      HashedWheelTimer.sharedTimer = sharedTimer;
+    }
+    return sharedTimer;
+  }
+
+  /**
+   * Schedules the given task to be executed in the worker thread of this timer after the given
+   * delay.
+   *
+   * @return a handle which can be used to cancel the timeout.
+   * @throws IllegalStateException if this timer is closed.
+   */
+  public Timeout schedule(Runnable task, Duration delay) {
+    if (closed) {
+      throw new IllegalStateException("HashedWheelTimer is already closed");
+    }
+    startIfNeeded();
+    long deadline = System.nanoTime() + Math.max(0, delay.toNanos()) - startTime;
+    Timeout timeout = new Timeout(task, deadline);
+    newTimeouts.add(timeout);
+    return timeout;
+  }
+
+  /** Stops the worker thread of this timer. Pending timeouts are never executed. */
+  @Override
+  public void close() {
+    if (this == sharedTimer) {
+      throw new UnsupportedOperationException("The shared HashedWheelTimer cannot be closed");
+    }
+    closed = true;
+    if (started.get()) {
+      LockSupport.unpark(workerThread);
+    }
+  }
+
+  private void startIfNeeded() {
+    if (started.compareAndSet(false, true)) {
+      workerThread.start();
+    }
+  }
+
+  private void run() {
+    long tick = (System.nanoTime() - startTime) / tickNanos;
+    while (!closed) {
+      long tickDeadline = (tick + 1) * tickNanos;
+      long sleepNanos;
+      while (!closed && (sleepNanos = tickDeadline - (System.nanoTime() - startTime)) > 0) {
+        LockSupport.parkNanos(this, sleepNanos);
+      }
+      if (closed) {
+        break;
+      }
+      transferNewTimeouts(tick);
+      expireTimeouts(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  private void transferNewTimeouts(long currentTick) {
+    Timeout timeout;
+    for (int i = 0;
+        i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK && (timeout = newTimeouts.poll()) != null;
+        i++) {
+      if (timeout.isCancelled()) {
+        continue;
+      }
+      long expiryTick = Math.max(timeout.deadline / tickNanos, currentTick);
+      timeout.remainingRounds = (expiryTick - currentTick) / wheel.length;
+      wheel[(int) (expiryTick & mask)].add(timeout);
+    }
+  }
+
+  private void expireTimeouts(Queue<Timeout> bucket) {
+    Iterator<Timeout> iterator = bucket.iterator();
+    while (iterator.hasNext()) {
+      Timeout timeout = iterator.next();
+      if (timeout.isCancelled()) {
+        iterator.remove();
+      } else if (timeout.remainingRounds <= 0) {
+        iterator.remove();
+        timeout.expire();
+      } else {
+        timeout.remainingRounds--;
+      }
+    }
+  }
+
+  /** A handle to a task scheduled in a {@link HashedWheelTimer}. */
+  public static final class Timeout {
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+
+    /** Only accessed from the worker thread */
+    private long remainingRounds;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels this timeout so that its task is never executed.
+     *
+     * @return true if the timeout was cancelled by this call. False if the timeout was already
+     *     cancelled or has already expired.
+     */
+    public boolean cancel() {
+      return state.compareAndSet(INIT, CANCELLED);
+    }
+
+    public boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+
+    public boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(INIT, EXPIRED)) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Timeout{deadline=" + NANOSECONDS.toMillis(deadline) + "ms, state=" + state + '}';
+    }
+  }
+}
@@ -4,6 +4,9 @@ import static java.lang.Math.max;
 
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -15,12 +18,24 @@ public class MultiLeasePool<T> implements AutoCloseable {
   private final MultiLeasePolicy leasePolicy;
 
   private final Consumer<T> destroyer;
-  private volatile double peakAvgActiveLeasesPerObject;
+
+  // The stats are atomic since the lock-free fast path of lease() updates them concurrently
+  private final DoubleAccumulator peakAvgActiveLeasesPerObject =
+      new DoubleAccumulator(Math::max, 0);
+  private final AtomicInteger maxActiveLeasesPerObject = new AtomicInteger();
   private volatile int maxPoolSize;
 
   private final Deque<PooledObject<T>> queue = new LinkedList<>();
   private volatile boolean closed;
-  private volatile int maxActiveLeasesPerObject;
+
+  /** The total number of active leases across all objects of the pool */
+  private final AtomicInteger activeLeases = new AtomicInteger();
+
+  /**
+   * When all leases share a single object (See {@link #sharesSingleObject(MultiLeasePolicy)}), the
+   * shared object once it has been created. Such leases are handed out without locking.
+   */
+  private volatile @Nullable PooledObject<T> sharedObject;
 
   public MultiLeasePool(Supplier<T> creator, MultiLeasePolicy leasePolicy, Consumer<T> destroyer) {
     this.creator = creator;
@@ -29,6 +44,21 @@ public class MultiLeasePool<T> implements AutoCloseable {
   }
 
   public final Lease<T> lease() {
+    PooledObject<T> sharedObject = this.sharedObject;
+    if (sharedObject != null && !closed) {
+      // Lock-free fast path
+      sharedObject.incrementActiveLeases();
+      int leases = activeLeases.incrementAndGet();
+      if (closed) {
+        // The pool was closed concurrently, and the shared object might have been destroyed
+        sharedObject.decrementActiveLeases();
+        activeLeases.decrementAndGet();
+        throw new IllegalStateException("MultiLeasePool already closed");
+      }
+      maxActiveLeasesPerObject.accumulateAndGet(leases, Math::max);
+      peakAvgActiveLeasesPerObject.accumulate(leases);
+      return new Lease<>(sharedObject, this::giveBack);
+    }
     synchronized (this) {
       if (closed) {
         throw new IllegalStateException("MultiLeasePool already closed");
@@ -45,15 +75,18 @@ public class MultiLeasePool<T> implements AutoCloseable {
       PooledObject<T> leasable;
       if (head == null || !shouldLeaseOut(head)) {
         leasable = createNewForLeasing();
+        if (sharesSingleObject(leasePolicy)) {
+          this.sharedObject = leasable;
+        }
       } else {
         leasable = head;
         leasable.incrementActiveLeases();
       }
-      maxActiveLeasesPerObject = max(maxActiveLeasesPerObject, leasable.activeLeases());
-      peakAvgActiveLeasesPerObject =
-          max(
-              peakAvgActiveLeasesPerObject,
-              queue.stream().mapToInt(PooledObject::activeLeases).average().orElse(0));
+      int leases = activeLeases.incrementAndGet();
+      maxActiveLeasesPerObject.accumulateAndGet(leasable.activeLeases(), Math::max);
+      if (!queue.isEmpty()) {
+        peakAvgActiveLeasesPerObject.accumulate((double) leases / queue.size());
+      }
       return new Lease<>(leasable, this::giveBack);
     }
   }
@@ -119,12 +152,29 @@ public class MultiLeasePool<T> implements AutoCloseable {
     }
   }
 
-  private synchronized void giveBack(PooledObject<T> pooledObject) {
-    if (shouldDelete(pooledObject) && pooledObject.activeLeases() == 0) {
-      destroyer.accept(pooledObject.ref());
+  private void giveBack(PooledObject<T> pooledObject) {
+    activeLeases.decrementAndGet();
+    if (pooledObject == sharedObject) {
+      // The shared object is never deleted while the pool is open
+      return;
+    }
+    synchronized (this) {
+      if (shouldDelete(pooledObject) && pooledObject.activeLeases() == 0) {
+        destroyer.accept(pooledObject.ref());
+      }
     }
   }
 
+  /**
+   * Returns true if the given policy leads to a single object which is shared by any number of
+   * leases.
+   */
+  private static boolean sharesSingleObject(MultiLeasePolicy leasePolicy) {
+    return leasePolicy instanceof PreferObjectReuse preferObjectReuse
+        && preferObjectReuse.maxActiveLeasesPerObject() == Integer.MAX_VALUE
+        && preferObjectReuse.maxActiveObjects().equals(Optional.of(1));
+  }
+
   private PooledObject<T> createNewForLeasing() {
     PooledObject<T> pooledObject = new PooledObject<>(creator.get(), maxActiveLeasesPerObject());
     pooledObject.incrementActiveLeases();
@@ -134,11 +184,11 @@ public class MultiLeasePool<T> implements AutoCloseable {
   }
 
   public final int maxActiveLeasesPerObject() {
-    return maxActiveLeasesPerObject;
+    return maxActiveLeasesPerObject.get();
   }
 
   public final double peakAvgActiveLeasesPerObject() {
-    return peakAvgActiveLeasesPerObject;
+    return peakAvgActiveLeasesPerObject.get();
   }
 
   public final int maxPoolSize() {
@@ -147,10 +197,15 @@ public class MultiLeasePool<T> implements AutoCloseable {
 
   @Override
   public void close() {
+    // Set before destroying the objects so that concurrent lock-free leases of the shared object
+    // see it and fail
     this.closed = true;
-    PooledObject<T> pooledObject;
-    while ((pooledObject = queue.pollLast()) != null) {
-      destroyer.accept(pooledObject.ref());
+    synchronized (this) {
+      this.sharedObject = null;
+      PooledObject<T> pooledObject;
+      while ((pooledObject = queue.pollLast()) != null) {
+        destroyer.accept(pooledObject.ref());
+      }
     }
   }
 
@@ -186,8 +241,9 @@ public class MultiLeasePool<T> implements AutoCloseable {
 
     private final T ref;
     private final int deletionThreshold;
-    private int activeLeases = 0;
-    private int markForDeletion;
+    // Atomic since leases can be closed concurrently
+    private final AtomicInteger activeLeases = new AtomicInteger();
+    private volatile int markForDeletion;
 
     private PooledObject(T ref, int deletionThreshold) {
       this.ref = ref;
@@ -199,19 +255,17 @@ public class MultiLeasePool<T> implements AutoCloseable {
     }
 
     private int activeLeases() {
-      return activeLeases;
+      return activeLeases.get();
     }
 
     private void incrementActiveLeases() {
-      activeLeases++;
-      if (activeLeases() == deletionThreshold) {
+      if (activeLeases.incrementAndGet() == deletionThreshold) {
         markForDeletion = 0;
       }
     }
 
     private void decrementActiveLeases() {
-      activeLeases--;
-      if (activeLeases() < deletionThreshold) {
+      if (activeLeases.decrementAndGet() < deletionThreshold) {
         markForDeletion++;
       }
     }
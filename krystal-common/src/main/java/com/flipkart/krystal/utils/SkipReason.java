@@ -0,0 +1,94 @@
+package com.flipkart.krystal.utils;
+
+import static com.google.common.base.Throwables.getStackTraceAsString;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * The reason due to which the execution of a kryon/vajram was skipped.
+ *
+ * <p>Skip reasons are rendered into a message only when the message is needed (for example when
+ * the skip is logged or reported to a client). Since most skips are never inspected, this avoids
+ * building strings (and stack trace strings) on the hot path. The rendered message is cached.
+ *
+ * <p>A skip reason also holds a {@link SkippedExecutionException} which is created once and can be
+ * shared by all the requests skipped for this reason.
+ */
+public final class SkipReason {
+
+  private final Supplier<String> messageRenderer;
+  private volatile @MonotonicNonNull String message;
+  private volatile @MonotonicNonNull SkippedExecutionException exception;
+
+  private SkipReason(Supplier<String> messageRenderer) {
+    this.messageRenderer = messageRenderer;
+  }
+
+  /** A skip reason with the given constant message. */
+  public static SkipReason of(String message) {
+    SkipReason skipReason = new SkipReason(() -> message);
+    skipReason.message = message;
+    return skipReason;
+  }
+
+  /** A skip reason whose message is rendered by the given supplier when needed. */
+  public static SkipReason lazy(Supplier<String> messageRenderer) {
+    return new SkipReason(messageRenderer);
+  }
+
+  /**
+   * The skip reason when a resolver threw an exception. The stack trace of the exception is
+   * rendered only if the message is needed.
+   */
+  public static SkipReason resolverFailed(Throwable throwable) {
+    return lazy(() -> "Resolver threw exception: %s".formatted(getStackTraceAsString(throwable)));
+  }
+
+  /**
+   * A skip reason which combines the given reasons. Reasons which are the same instance are
+   * rendered only once. Returns the only reason if all the given reasons are the same instance.
+   */
+  public static SkipReason combine(Collection<SkipReason> skipReasons) {
+    Set<SkipReason> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+    distinct.addAll(skipReasons);
+    if (distinct.size() == 1) {
+      return distinct.iterator().next();
+    }
+    return lazy(
+        () -> distinct.stream().map(SkipReason::message).collect(Collectors.joining(", ")));
+  }
+
+  /** Renders (if not already rendered) and returns the message of this skip reason. */
+  public String message() {
+    String message = this.message;
+    if (message == null) {
+      message = messageRenderer.get();
+      this.message = message;
+    }
+    return message;
+  }
+
+  /**
+   * Returns the exception representing this skip reason. The same instance is returned every time,
+   * so the exception can be used to fail the results of all requests skipped for this reason.
+   */
+  public SkippedExecutionException asException() {
+    SkippedExecutionException exception = this.exception;
+    if (exception == null) {
+      exception = new SkippedExecutionException(this);
+      this.exception = exception;
+    }
+    return exception;
+  }
+
+  @Override
+  public String toString() {
+    return message();
+  }
+}
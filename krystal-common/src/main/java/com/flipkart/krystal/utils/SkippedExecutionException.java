@@ -2,9 +2,33 @@ package com.flipkart.krystal.utils;
 
 import com.flipkart.krystal.except.StackTracelessException;
 
+/**
+ * Signifies that the execution of a kryon/vajram was skipped.
+ *
+ * <p>This exception neither has a stack trace nor supports suppressed exceptions, and its message
+ * is rendered lazily from its {@link SkipReason}. This makes it immutable and cheap to create, so a
+ * single instance (see {@link SkipReason#asException()}) can be shared by all the requests skipped
+ * for the same reason.
+ */
 public class SkippedExecutionException extends StackTracelessException {
 
+  private final SkipReason skipReason;
+
   public SkippedExecutionException(String message) {
-    super(message);
+    this(SkipReason.of(message));
+  }
+
+  public SkippedExecutionException(SkipReason skipReason) {
+    super(null, false);
+    this.skipReason = skipReason;
+  }
+
+  public SkipReason skipReason() {
+    return skipReason;
+  }
+
+  @Override
+  public String getMessage() {
+    return skipReason.message();
   }
 }
@@ -0,0 +1,128 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.data.Errable.Failure;
+import com.flipkart.krystal.data.Errable.Nil;
+import com.flipkart.krystal.data.Errable.Success;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class ErrableTest {
+
+  @Test
+  void withValue_nonNull_success() {
+    Errable<String> errable = Errable.withValue("value");
+
+    assertThat(errable).isInstanceOf(Success.class);
+    assertThat(errable.value()).contains("value");
+    assertThat(errable.valueOrNull()).isEqualTo("value");
+    assertThat(errable.error()).isEmpty();
+    assertThat(errable.errorOrNull()).isNull();
+    assertThat(errable.toFuture()).isCompletedWithValue("value");
+    assertThat(errable.getValueOrThrow()).contains("value");
+  }
+
+  @Test
+  void withValue_null_sharedNilInstance() {
+    Errable<String> errable = Errable.withValue(null);
+
+    assertThat(errable).isInstanceOf(Nil.class).isSameAs(Errable.empty());
+    assertThat(errable.value()).isEmpty();
+    assertThat(errable.valueOrNull()).isNull();
+    assertThat(errable.error()).isEmpty();
+    assertThat(errable.errorOrNull()).isNull();
+    assertThat(errable.toFuture()).isCompletedWithValue(null);
+    assertThat(errable.getValueOrThrow()).isEmpty();
+  }
+
+  @Test
+  void withError_failure() {
+    IOException error = new IOException("io failed");
+    Errable<String> errable = Errable.withError(error);
+
+    assertThat(errable).isInstanceOf(Failure.class);
+    assertThat(errable.value()).isEmpty();
+    assertThat(errable.valueOrNull()).isNull();
+    assertThat(errable.error()).containsSame(error);
+    assertThat(errable.errorOrNull()).isSameAs(error);
+    assertThat(errable.toFuture()).isCompletedExceptionally();
+    // Checked exceptions are wrapped, runtime exceptions are thrown as is
+    assertThatThrownBy(errable::getValueOrThrow).hasCause(error);
+    RuntimeException runtimeError = new IllegalStateException("failed");
+    assertThatThrownBy(Errable.withError(runtimeError)::getValueOrThrow).isSameAs(runtimeError);
+  }
+
+  @Test
+  void errableFrom_optionalValues_unwrapped() {
+    assertThat(Errable.errableFrom(Optional.of("value"), null))
+        .isEqualTo(Errable.withValue("value"));
+    assertThat(Errable.errableFrom(Optional.empty(), null)).isSameAs(Errable.empty());
+    assertThat(Errable.errableFrom(null, null)).isSameAs(Errable.empty());
+  }
+
+  @Test
+  void errableFrom_errorWithoutValue_failure() {
+    RuntimeException error = new RuntimeException();
+
+    assertThat(Errable.errableFrom(null, error)).isEqualTo(Errable.withError(error));
+    assertThat(Errable.errableFrom(Optional.empty(), error)).isEqualTo(Errable.withError(error));
+  }
+
+  @Test
+  void errableFrom_valueAndError_throws() {
+    assertThatThrownBy(() -> Errable.errableFrom("value", new RuntimeException()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Errable.errableFrom(Optional.of("value"), new RuntimeException()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void errableFrom_callableAndFunction_captureErrors() {
+    RuntimeException error = new RuntimeException();
+    Callable<String> failing =
+        () -> {
+          throw error;
+        };
+    Function<String, Errable<Integer>> length = Errable.errableFrom(String::length);
+
+    assertThat(Errable.errableFrom(() -> "value")).isEqualTo(Errable.withValue("value"));
+    assertThat(Errable.<String>errableFrom(() -> null)).isSameAs(Errable.empty());
+    assertThat(Errable.errableFrom(failing)).isEqualTo(Errable.withError(error));
+    assertThat(length.apply("value")).isEqualTo(Errable.withValue(5));
+  }
+
+  @Test
+  void equals_sameStates_equal() {
+    RuntimeException error = new RuntimeException();
+
+    assertThat(Errable.withValue("value"))
+        .isEqualTo(Errable.withValue("value"))
+        .hasSameHashCodeAs(Errable.withValue("value"))
+        .isNotEqualTo(Errable.withValue("other"))
+        .isNotEqualTo(Errable.empty());
+    assertThat(Errable.withError(error))
+        .isEqualTo(Errable.withError(error))
+        .hasSameHashCodeAs(Errable.withError(error))
+        .isNotEqualTo(Errable.withError(new RuntimeException()))
+        .isNotEqualTo(Errable.empty());
+  }
+
+  @SuppressWarnings("deprecation")
+  @Test
+  void of_deprecatedFactory_sameAsRecordConstructor() {
+    RuntimeException error = new RuntimeException();
+
+    assertThat(Errable.of(Optional.of("value"), Optional.empty()))
+        .isEqualTo(Errable.withValue("value"));
+    assertThat(Errable.of(Optional.empty(), Optional.of(error)))
+        .isEqualTo(Errable.withError(error));
+    assertThat(Errable.of(Optional.empty(), Optional.empty())).isSameAs(Errable.empty());
+    assertThatThrownBy(() -> Errable.of(Optional.of("value"), Optional.of(error)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
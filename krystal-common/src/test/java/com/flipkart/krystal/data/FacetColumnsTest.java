@@ -0,0 +1,79 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class FacetColumnsTest {
+
+  private static final FacetLayout LAYOUT = FacetLayout.of("a", "b", "c");
+
+  @Test
+  void ofRows_rowsOfDifferentFacets_rowsRoundTrip() {
+    Facets row0 = new Facets(Map.of("a", Errable.withValue(1), "b", Errable.withValue("x")));
+    Facets row1 = new Facets(Map.of("c", Errable.withError(new RuntimeException("c failed"))));
+    Facets row2 = Facets.empty();
+
+    FacetColumns facetColumns = FacetColumns.ofRows(LAYOUT, List.of(row0, row1, row2));
+
+    assertThat(facetColumns.size()).isEqualTo(3);
+    assertThat(facetColumns.layout()).isSameAs(LAYOUT);
+    assertThat(facetColumns.row(0)).isEqualTo(row0);
+    assertThat(facetColumns.row(1)).isEqualTo(row1);
+    assertThat(facetColumns.row(2)).isEqualTo(row2);
+  }
+
+  @Test
+  void column_facetInLayout_returnsValuesOfAllRows() {
+    Errable<Object> a0 = Errable.withValue(1);
+    Errable<Object> a2 = Errable.withValue(3);
+    FacetColumns facetColumns =
+        FacetColumns.ofRows(
+            LAYOUT,
+            List.of(new Facets(Map.of("a", a0)), Facets.empty(), new Facets(Map.of("a", a2))));
+
+    assertThat(facetColumns.column("a")).containsExactly(a0, null, a2);
+    assertThat(facetColumns.get(LAYOUT.indexOf("a"), 2)).isSameAs(a2);
+    assertThat(facetColumns.get(LAYOUT.indexOf("b"), 0)).isNull();
+  }
+
+  @Test
+  void column_facetNotInLayout_returnsNulls() {
+    FacetColumns facetColumns =
+        FacetColumns.ofRows(LAYOUT, List.of(Facets.empty(), Facets.empty()));
+
+    assertThat(facetColumns.column("d")).hasSize(2).containsOnlyNulls();
+  }
+
+  @Test
+  void column_modified_throws() {
+    FacetColumns facetColumns = FacetColumns.ofRows(LAYOUT, List.of(Facets.empty()));
+
+    assertThatThrownBy(() -> facetColumns.column("a").set(0, Errable.withValue(1)))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void ofRows_facetNotInLayout_throws() {
+    Facets row = new Facets(Map.of("d", Errable.withValue(1)));
+
+    assertThatThrownBy(() -> FacetColumns.ofRows(LAYOUT, List.of(row)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void constructor_columnsNotMatchingLayoutOrSize_throws() {
+    @Nullable FacetValue<Object>[][] tooFewColumns =
+        FacetColumns.newColumns(FacetLayout.of("a"), 2);
+    @Nullable FacetValue<Object>[][] tooFewRows = FacetColumns.newColumns(LAYOUT, 1);
+
+    assertThatThrownBy(() -> new FacetColumns(LAYOUT, 2, tooFewColumns))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new FacetColumns(LAYOUT, 2, tooFewRows))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,92 @@
+package com.flipkart.krystal.data;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class FacetsTest {
+
+  private record Request(Facets facets) {}
+
+  @Test
+  void withTyped_calledTwice_firstTypedKept() {
+    Facets facets = new Facets(Map.of("a", Errable.withValue(1)));
+    Request first = new Request(facets);
+
+    assertThat(facets.withTyped(first).withTyped(new Request(facets))).isSameAs(facets);
+    assertThat(facets.<Request>toTyped(Request.class, Request::new)).isSameAs(first);
+  }
+
+  @Test
+  void withTyped_emptyFacets_sharedEmptyFacetsNotMutated() {
+    Request typed = new Request(Facets.empty());
+
+    Facets withTyped = Facets.empty().withTyped(typed);
+
+    assertThat(withTyped).isNotSameAs(Facets.empty()).isEqualTo(Facets.empty());
+    assertThat(withTyped.<Request>toTyped(Request.class, Request::new)).isSameAs(typed);
+    assertThat(Facets.empty().<Request>toTyped(Request.class, Request::new)).isNotSameAs(typed);
+  }
+
+  @Test
+  void toTyped_emptyFacets_convertedEveryTime() {
+    AtomicInteger conversions = new AtomicInteger();
+    Function<Facets, Request> converter =
+        facets -> {
+          conversions.incrementAndGet();
+          return new Request(facets);
+        };
+
+    Facets.empty().toTyped(Request.class, converter);
+    Facets.empty().toTyped(Request.class, converter);
+
+    assertThat(conversions.get()).isEqualTo(2);
+  }
+
+  @Test
+  void toTyped_convertedOnce_sameObjectReturnedAfterwards() {
+    Facets facets = new Facets(Map.of("a", Errable.withValue(1)));
+
+    Request typed = facets.toTyped(Request.class, Request::new);
+
+    assertThat(facets.<Request>toTyped(Request.class, Request::new)).isSameAs(typed);
+    // A different type is converted without replacing the associated typed representation
+    assertThat(facets.<String>toTyped(String.class, f -> "typed")).isEqualTo("typed");
+    assertThat(facets.<Request>toTyped(Request.class, Request::new)).isSameAs(typed);
+  }
+
+  @Test
+  void toTyped_concurrentConversions_allThreadsGetSameObject() throws Exception {
+    int threads = 8;
+    Facets facets = new Facets(Map.of("a", Errable.withValue(1)));
+    CyclicBarrier start = new CyclicBarrier(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Request>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return facets.<Request>toTyped(Request.class, Request::new);
+                }));
+      }
+      Request first = results.get(0).get(5, SECONDS);
+      for (Future<Request> result : results) {
+        assertThat(result.get(5, SECONDS)).isSameAs(first);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ResultsTest {
+
+  @Test
+  void single_sameAsResultsOfSingleEntryMap() {
+    Facets facets = new Facets(Map.of("input", Errable.withValue(1)));
+    Errable<String> errable = Errable.withValue("value");
+
+    Results<String> results = Results.single(facets, errable);
+
+    assertThat(results.values()).containsExactly(Map.entry(facets, errable));
+    assertThat(results).isEqualTo(new Results<>(ImmutableMap.of(facets, errable)));
+  }
+
+  @Test
+  void empty_noValues() {
+    assertThat(Results.empty().values()).isEmpty();
+    assertThat(Results.<String>empty()).isSameAs(Results.<Integer>empty());
+  }
+}
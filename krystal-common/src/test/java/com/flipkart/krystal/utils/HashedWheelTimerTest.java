@@ -0,0 +1,128 @@
+package com.flipkart.krystal.utils;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+  private HashedWheelTimer timer;
+
+  @BeforeEach
+  void setUp() {
+    // A small wheel so that the longer delays in these tests span multiple rounds of the wheel
+    timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.close();
+  }
+
+  @Test
+  void schedule_delayElapses_executesTaskInTimerThreadNotBeforeDeadline() throws Exception {
+    Duration delay = Duration.ofMillis(30);
+    CompletableFuture<Long> executedAt = new CompletableFuture<>();
+    CompletableFuture<String> executedIn = new CompletableFuture<>();
+    long scheduledAt = System.nanoTime();
+
+    Timeout timeout =
+        timer.schedule(
+            () -> {
+              executedAt.complete(System.nanoTime());
+              executedIn.complete(Thread.currentThread().getName());
+            },
+            delay);
+
+    assertThat(executedAt.get(1, SECONDS) - scheduledAt).isGreaterThanOrEqualTo(delay.toNanos());
+    assertThat(executedIn.get()).startsWith("Krystal-WheelTimer-");
+    assertThat(timeout.isExpired()).isTrue();
+    assertThat(timeout.isCancelled()).isFalse();
+  }
+
+  @Test
+  void cancel_beforeExpiry_taskNeverExecuted() throws Exception {
+    CompletableFuture<Void> cancelledTask = new CompletableFuture<>();
+    CountDownLatch laterTaskExecuted = new CountDownLatch(1);
+
+    Timeout timeout = timer.schedule(() -> cancelledTask.complete(null), Duration.ofMillis(10));
+    assertThat(timeout.cancel()).isTrue();
+    // A task scheduled after the cancelled one's deadline proves that the wheel has moved past it
+    timer.schedule(laterTaskExecuted::countDown, Duration.ofMillis(50));
+
+    assertThat(laterTaskExecuted.await(1, SECONDS)).isTrue();
+    assertThat(cancelledTask).isNotDone();
+    assertThat(timeout.isCancelled()).isTrue();
+    assertThat(timeout.isExpired()).isFalse();
+    assertThat(timeout.cancel()).isFalse();
+  }
+
+  @Test
+  void cancel_afterExpiry_returnsFalse() throws Exception {
+    CountDownLatch executed = new CountDownLatch(1);
+
+    Timeout timeout = timer.schedule(executed::countDown, Duration.ZERO);
+
+    assertThat(executed.await(1, SECONDS)).isTrue();
+    assertThat(timeout.cancel()).isFalse();
+    assertThat(timeout.isExpired()).isTrue();
+  }
+
+  @Test
+  void schedule_multipleDelays_executesTasksInDeadlineOrder() throws Exception {
+    List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<>());
+    int[] delaysMillis = {40, 5, 25, 15, 35};
+    CountDownLatch allExecuted = new CountDownLatch(delaysMillis.length);
+
+    for (int delayMillis : delaysMillis) {
+      timer.schedule(
+          () -> {
+            executionOrder.add(delayMillis);
+            allExecuted.countDown();
+          },
+          Duration.ofMillis(delayMillis));
+    }
+
+    assertThat(allExecuted.await(1, SECONDS)).isTrue();
+    assertThat(executionOrder).containsExactly(5, 15, 25, 35, 40);
+  }
+
+  @Test
+  void schedule_taskThrows_laterTasksStillExecuted() throws Exception {
+    CountDownLatch executed = new CountDownLatch(1);
+
+    timer.schedule(
+        () -> {
+          throw new RuntimeException("Intentional failure");
+        },
+        Duration.ZERO);
+    timer.schedule(executed::countDown, Duration.ofMillis(5));
+
+    assertThat(executed.await(1, SECONDS)).isTrue();
+  }
+
+  @Test
+  void schedule_afterClose_throws() {
+    timer.close();
+
+    assertThatThrownBy(() -> timer.schedule(() -> {}, Duration.ZERO))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void close_sharedTimer_throws() {
+    assertThatThrownBy(() -> HashedWheelTimer.shared().close())
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
@@ -0,0 +1,103 @@
+package com.flipkart.krystal.utils;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.utils.MultiLeasePool.Lease;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MultiLeasePoolTest {
+
+  @Test
+  void lease_sharedObjectLeasedConcurrently_statsCountEveryLease() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    MultiLeasePool<Object> pool = sharedObjectPool(created);
+    int threads = 8;
+    int leasesPerThread = 100;
+    CyclicBarrier start = new CyclicBarrier(threads);
+    CountDownLatch allLeased = new CountDownLatch(threads);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Thread> leasingThreads = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                List<Lease<Object>> leases = new ArrayList<>();
+                try {
+                  start.await();
+                  for (int j = 0; j < leasesPerThread; j++) {
+                    leases.add(pool.lease());
+                  }
+                  allLeased.countDown();
+                  release.await();
+                } catch (Exception e) {
+                  throw new IllegalStateException(e);
+                } finally {
+                  leases.forEach(Lease::close);
+                }
+              });
+      thread.start();
+      leasingThreads.add(thread);
+    }
+
+    assertThat(allLeased.await(5, SECONDS)).isTrue();
+    release.countDown();
+    for (Thread thread : leasingThreads) {
+      thread.join();
+    }
+
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(pool.maxPoolSize()).isEqualTo(1);
+    assertThat(pool.maxActiveLeasesPerObject()).isEqualTo(threads * leasesPerThread);
+    assertThat(pool.peakAvgActiveLeasesPerObject()).isEqualTo(threads * leasesPerThread);
+    pool.close();
+  }
+
+  @Test
+  void lease_afterClose_throws() {
+    MultiLeasePool<Object> pool = sharedObjectPool(new AtomicInteger());
+    pool.lease().close();
+
+    pool.close();
+
+    assertThatThrownBy(pool::lease)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("closed");
+  }
+
+  @Test
+  void close_destroysPooledObjects() {
+    List<Object> destroyed = new ArrayList<>();
+    MultiLeasePool<Object> pool =
+        new MultiLeasePool<>(
+            Object::new, new PreferObjectReuse(1, Optional.empty()), destroyed::add);
+    Object first;
+    Object second;
+    try (Lease<Object> lease1 = pool.lease();
+        Lease<Object> lease2 = pool.lease()) {
+      first = lease1.get();
+      second = lease2.get();
+    }
+
+    pool.close();
+
+    assertThat(destroyed).containsExactlyInAnyOrder(first, second);
+  }
+
+  private static MultiLeasePool<Object> sharedObjectPool(AtomicInteger created) {
+    return new MultiLeasePool<>(
+        () -> {
+          created.incrementAndGet();
+          return new Object();
+        },
+        new PreferObjectReuse(Integer.MAX_VALUE, Optional.of(1)),
+        o -> {});
+  }
+}
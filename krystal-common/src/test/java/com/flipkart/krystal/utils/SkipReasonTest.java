@@ -0,0 +1,61 @@
+package com.flipkart.krystal.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SkipReasonTest {
+
+  @Test
+  void combine_sameInstance_returnsThatInstance() {
+    SkipReason skipReason = SkipReason.of("skipped");
+
+    assertThat(SkipReason.combine(List.of(skipReason, skipReason, skipReason)))
+        .isSameAs(skipReason);
+  }
+
+  @Test
+  void combine_distinctInstances_rendersEachInstanceOnce() {
+    SkipReason first = SkipReason.of("first");
+    SkipReason second = SkipReason.of("second");
+
+    assertThat(SkipReason.combine(List.of(first, second, first)).message())
+        .isEqualTo("first, second");
+  }
+
+  @Test
+  void asException_calledRepeatedly_returnsSameStacklessException() {
+    SkipReason skipReason = SkipReason.of("skipped");
+
+    SkippedExecutionException exception = skipReason.asException();
+
+    assertThat(skipReason.asException()).isSameAs(exception);
+    assertThat(exception.getStackTrace()).isEmpty();
+    assertThat(exception.skipReason()).isSameAs(skipReason);
+    assertThat(exception).hasMessage("skipped");
+  }
+
+  @Test
+  void resolverFailed_stackTraceRenderedOnlyWhenMessageIsNeeded() {
+    AtomicInteger renderCount = new AtomicInteger();
+    RuntimeException resolverException =
+        new RuntimeException("resolver failed") {
+          @Override
+          public void printStackTrace(PrintWriter s) {
+            renderCount.incrementAndGet();
+            super.printStackTrace(s);
+          }
+        };
+
+    SkipReason skipReason = SkipReason.resolverFailed(resolverException);
+    SkippedExecutionException exception = skipReason.asException();
+    assertThat(renderCount).hasValue(0);
+
+    assertThat(skipReason.message()).contains("resolver failed");
+    assertThat(exception.getMessage()).isEqualTo(skipReason.message());
+    assertThat(renderCount).hasValue(1);
+  }
+}
@@ -0,0 +1,124 @@
+package com.flipkart.krystal.krystex;
+
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+
+import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.PreferObjectReuse;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool which leases out a single executor service whose number of threads adapts to the observed
+ * load.
+ *
+ * <p>Like {@link VirtualThreadExecutorPool}, all leases share the same executor. This is safe since
+ * KryonExecutors submit at most one task at a time (the drain task of their command queue), so the
+ * non-thread-safe state of a KryonExecutor is never accessed concurrently even though successive
+ * tasks of the KryonExecutor might run on different threads. Since there is a single shared object,
+ * leasing does not need any locking (See {@link MultiLeasePool#lease()}).
+ *
+ * <p>A new thread is started (up to {@code maxThreads}) whenever a task is submitted and no thread
+ * is idle, i.e. when utilization is at 100%. Only when {@code maxThreads} threads are busy are
+ * tasks queued. Threads beyond {@code minThreads} which stay idle for {@code keepAlive} are
+ * stopped. So under bursty traffic the pool does not leave cores idle while KryonExecutors wait in
+ * the queue of a busy thread, and between bursts it does not hold on to unused threads. This is
+ * unlike {@link ForkJoinExecutorPool} where every KryonExecutor is pinned to one of a fixed number
+ * of single-threaded executors.
+ */
+public final class AdaptiveExecutorPool extends MultiLeasePool<ExecutorService> {
+
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Creates a pool with a minimum of one thread and a maximum of {@code availableProcessors *
+   * maxParallelismPerCore} threads. Idle threads are stopped after a minute.
+   */
+  public AdaptiveExecutorPool(double maxParallelismPerCore) {
+    //noinspection NumericCastThatLosesPrecision
+    this(
+        1,
+        max(1, (int) (getRuntime().availableProcessors() * maxParallelismPerCore)),
+        Duration.ofMinutes(1));
+  }
+
+  /**
+   * @param minThreads The number of threads which are kept alive even when idle. Must be at least
+   *     one, since a task queued while all threads are busy is picked up only by an existing
+   *     thread.
+   */
+  public AdaptiveExecutorPool(int minThreads, int maxThreads, Duration keepAlive) {
+    this(newAdaptiveExecutor(minThreads, maxThreads, keepAlive));
+  }
+
+  private AdaptiveExecutorPool(ThreadPoolExecutor executor) {
+    super(
+        () -> executor,
+        new PreferObjectReuse(Integer.MAX_VALUE, Optional.of(1)),
+        ExecutorService::shutdown);
+    this.executor = executor;
+  }
+
+  /** The number of threads currently in the pool. */
+  public int poolSize() {
+    return executor.getPoolSize();
+  }
+
+  /** The number of threads which are currently executing tasks. */
+  public int activeThreads() {
+    return executor.getActiveCount();
+  }
+
+  /** The number of tasks waiting for a thread because all {@code maxThreads} threads are busy. */
+  public int queuedTasks() {
+    return executor.getQueue().size();
+  }
+
+  private static ThreadPoolExecutor newAdaptiveExecutor(
+      int minThreads, int maxThreads, Duration keepAlive) {
+    if (minThreads < 1 || maxThreads < minThreads) {
+      throw new IllegalArgumentException(
+          "Invalid thread limits. min: %s, max: %s".formatted(minThreads, maxThreads));
+    }
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            minThreads,
+            maxThreads,
+            keepAlive.toNanos(),
+            TimeUnit.NANOSECONDS,
+            new HandOffQueue(),
+            new ThreadFactoryBuilder().setNameFormat("Krystal-adaptive-%d").build(),
+            (task, threadPoolExecutor) -> {
+              if (threadPoolExecutor.isShutdown()) {
+                throw new RejectedExecutionException("AdaptiveExecutorPool has been closed");
+              }
+              // All threads are busy and no more threads can be created. Queue the task.
+              ((HandOffQueue) threadPoolExecutor.getQueue()).enqueue(task);
+            });
+    executor.prestartCoreThread();
+    return executor;
+  }
+
+  /**
+   * A queue which accepts a task via {@link #offer(Runnable)} only if an idle thread is waiting for
+   * it. Since {@link ThreadPoolExecutor} creates a new thread only when the queue rejects a task,
+   * this makes the executor prefer creating new threads over queuing tasks.
+   */
+  private static final class HandOffQueue extends LinkedTransferQueue<Runnable> {
+
+    @Override
+    public boolean offer(Runnable task) {
+      return tryTransfer(task);
+    }
+
+    private void enqueue(Runnable task) {
+      super.offer(task);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.config.Tag;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.google.common.collect.ImmutableMap;
 import java.util.Set;
@@ -14,4 +15,13 @@ public final class ComputeLogicDefinition<T> extends OutputLogicDefinition<T> {
       ImmutableMap<Object, Tag> logicTags) {
     super(kryonLogicId, inputs, logicTags, outputLogic);
   }
+
+  public ComputeLogicDefinition(
+      KryonLogicId kryonLogicId,
+      Set<String> inputs,
+      FacetLayout facetLayout,
+      OutputLogic<T> outputLogic,
+      ImmutableMap<Object, Tag> logicTags) {
+    super(kryonLogicId, inputs, facetLayout, logicTags, outputLogic);
+  }
 }
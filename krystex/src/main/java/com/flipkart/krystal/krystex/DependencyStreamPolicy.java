@@ -0,0 +1,50 @@
+package com.flipkart.krystal.krystex;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import java.util.Map;
+
+/**
+ * Opts a fan-out dependency of a kryon into streaming. The response of every request of a streaming
+ * dependency is delivered to the dependant kryon as soon as it is computed, instead of after all
+ * the requests of the dependency have been computed. After every response, this policy is
+ * consulted to decide whether the responses received so far are sufficient for the dependant. Once
+ * they are sufficient for all the requests of a batch, the output logic of the dependant is
+ * executed with the responses received so far, without waiting for the slowest dependency request.
+ * Responses received after that are ignored.
+ *
+ * <p>The policy is invoked on the command queue of the dependant kryon, once per dependant request,
+ * and must be thread safe if it is stateful.
+ *
+ * <p>See {@link OutputLogicDefinition#registerStreamingDependency(String, DependencyStreamPolicy)}
+ */
+@FunctionalInterface
+public interface DependencyStreamPolicy {
+
+  /**
+   * @param receivedResponses the responses of the dependency received so far for one request of
+   *     the dependant, keyed by the facets with which the dependency was invoked.
+   * @param pendingResponses the number of responses which are yet to be received for the request.
+   * @return true if the dependant does not need to wait for the pending responses.
+   */
+  boolean isComplete(Map<Facets, Errable<Object>> receivedResponses, int pendingResponses);
+
+  /** Waits for all the responses. Responses are still accumulated as and when they arrive. */
+  static DependencyStreamPolicy awaitAll() {
+    return (receivedResponses, pendingResponses) -> pendingResponses == 0;
+  }
+
+  /**
+   * Stops waiting as soon as the given number of successful responses have been received (or all
+   * responses have been received).
+   */
+  static DependencyStreamPolicy firstSuccesses(int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("count must be positive. Found: " + count);
+    }
+    return (receivedResponses, pendingResponses) ->
+        pendingResponses == 0
+            || receivedResponses.values().stream().filter(e -> e.value().isPresent()).count()
+                >= count;
+  }
+}
@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.config.Tag;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonDefinition;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -27,12 +29,41 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<OutputLogic<T>>
     permits IOLogicDefinition, ComputeLogicDefinition {
 
+  private final FacetLayout facetLayout;
+
+  protected OutputLogicDefinition(
+      KryonLogicId kryonLogicId,
+      Set<String> inputs,
+      ImmutableMap<Object, Tag> logicTags,
+      OutputLogic<T> outputLogic) {
+    this(kryonLogicId, inputs, FacetLayout.of(inputs), logicTags, outputLogic);
+  }
+
+  /**
+   * Creates an output logic definition whose facets are laid out as per the given layout.
+   *
+   * @param facetLayout The layout of the facets with which this logic is executed. Must contain all
+   *     the {@code inputs}. Passing the same layout as the one the logic was compiled against
+   *     allows the logic to read the facets by index.
+   */
   protected OutputLogicDefinition(
       KryonLogicId kryonLogicId,
       Set<String> inputs,
+      FacetLayout facetLayout,
       ImmutableMap<Object, Tag> logicTags,
       OutputLogic<T> outputLogic) {
     super(kryonLogicId, inputs, logicTags, outputLogic);
+    for (String input : inputs) {
+      if (facetLayout.indexOf(input) < 0) {
+        throw new IllegalArgumentException(
+            "Input %s of logic %s is not part of %s".formatted(input, kryonLogicId, facetLayout));
+      }
+    }
+    this.facetLayout = facetLayout;
+  }
+
+  public FacetLayout facetLayout() {
+    return facetLayout;
   }
 
   public final ImmutableMap<Facets, CompletableFuture<@Nullable T>> execute(
@@ -44,12 +75,20 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
   private ImmutableMap<String, List<OutputLogicDecoratorConfig>>
       requestScopedLogicDecoratorConfigs = ImmutableMap.of();
 
+  /** Dependency name -> policy. See {@link #registerStreamingDependency} */
+  @Getter
+  private ImmutableMap<String, DependencyStreamPolicy> streamingDependencies = ImmutableMap.of();
+
   /** LogicDecorator Id -> LogicDecorator */
   private final Map<String, OutputLogicDecoratorConfig> sessionScopedLogicDecoratorConfigs =
       new HashMap<>();
 
+  /**
+   * LogicDecorator Id -> (Instance Id -> LogicDecorator). Populated lazily by all the
+   * KryonExecutors which use this logic definition - possibly concurrently.
+   */
   private final Map<String, Map<String, OutputLogicDecorator>> sessionScopedDecorators =
-      new LinkedHashMap<>();
+      new ConcurrentHashMap<>();
 
   public ImmutableMap<String, OutputLogicDecorator> getSessionScopedLogicDecorators(
       KryonDefinition kryonDefinition, DependantChain dependants) {
@@ -69,13 +108,15 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
               decorators.put(
                   s,
                   sessionScopedDecorators
-                      .computeIfAbsent(s, k -> new LinkedHashMap<>())
+                      .computeIfAbsent(s, k -> new ConcurrentHashMap<>())
                       .computeIfAbsent(
                           instanceId,
                           k ->
                               decoratorConfig
                                   .factory()
-                                  .apply(new DecoratorContext(instanceId, logicExecutionContext))));
+                                  .apply(
+                                      new DecoratorContext(
+                                          instanceId, logicExecutionContext, Runnable::run))));
             }
           } catch (Exception e) {
             log.error(
@@ -114,4 +155,21 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
   public void registerSessionScopedLogicDecorator(OutputLogicDecoratorConfig decoratorConfig) {
     sessionScopedLogicDecoratorConfigs.put(decoratorConfig.decoratorType(), decoratorConfig);
   }
+
+  /**
+   * Streams the responses of the given dependency to this logic's kryon as and when they are
+   * computed. Must be called before the kryon is executed. Kryons executed with the {@code
+   * GRANULAR} exec strategy do not support streaming - they always wait for all the responses.
+   *
+   * @see DependencyStreamPolicy
+   */
+  public void registerStreamingDependency(String dependencyName, DependencyStreamPolicy policy) {
+    //noinspection UnstableApiUsage
+    streamingDependencies =
+        ImmutableMap.<String, DependencyStreamPolicy>builderWithExpectedSize(
+                streamingDependencies.size() + 1)
+            .putAll(streamingDependencies)
+            .put(dependencyName, policy)
+            .buildKeepingLast();
+  }
 }
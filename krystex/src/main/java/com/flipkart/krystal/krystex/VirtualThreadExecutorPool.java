@@ -0,0 +1,62 @@
+package com.flipkart.krystal.krystex;
+
+import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.PreferObjectReuse;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A pool which leases out an executor service which runs every task in a new virtual thread.
+ *
+ * <p>Unlike {@link ForkJoinExecutorPool}, this pool does not need to multiplex many KryonExecutors
+ * onto a handful of single-threaded platform executors. KryonExecutors submit at most one task at
+ * a time to the leased executor (the drain task of their command queue), and submit the next task
+ * only after the previous one has completed. So every KryonExecutor gets its own serial virtual
+ * thread "strand", and its non-thread-safe state is never accessed concurrently. Since virtual
+ * threads are cheap to create and to park, this allows tens of thousands of concurrently active
+ * KryonExecutors without any of them waiting for a platform thread which is busy executing some
+ * other request.
+ *
+ * <p>Since all leases share the same underlying executor, leasing is a constant time operation
+ * irrespective of the number of active leases.
+ *
+ * <p>Virtual threads are available only from JDK 21. Since krystal is compiled with an older
+ * release, the executor is created reflectively. Instantiating this class on an older JDK throws
+ * {@link UnsupportedOperationException}. Use {@link #isSupported()} to check availability.
+ */
+public final class VirtualThreadExecutorPool extends MultiLeasePool<ExecutorService> {
+
+  public VirtualThreadExecutorPool() {
+    super(
+        VirtualThreadExecutorPool::newVirtualThreadPerTaskExecutor,
+        new PreferObjectReuse(Integer.MAX_VALUE, Optional.of(1)),
+        ExecutorService::shutdown);
+    if (!isSupported()) {
+      throw new UnsupportedOperationException(
+          "Virtual threads are not supported by this JVM (%s). JDK 21 or above is needed."
+              .formatted(Runtime.version()));
+    }
+  }
+
+  /** Returns true if the current JVM supports virtual threads. */
+  public static boolean isSupported() {
+    return Runtime.version().feature() >= 21;
+  }
+
+  /** Equivalent to {@code Executors.newVirtualThreadPerTaskExecutor()} on JDK 21+. */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      @Nullable Object executorService =
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      if (executorService instanceof ExecutorService virtualThreadExecutor) {
+        return virtualThreadExecutor;
+      }
+      throw new UnsupportedOperationException(
+          "Unexpected virtual thread executor: %s".formatted(executorService));
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException(e);
+    }
+  }
+}
@@ -3,7 +3,8 @@ package com.flipkart.krystal.krystex.commands;
 import com.flipkart.krystal.krystex.request.RequestId;
 import java.util.Set;
 
-public sealed interface BatchCommand extends KryonCommand permits ForwardBatch, CallbackBatch {
+public sealed interface BatchCommand extends KryonCommand
+    permits ForwardBatch, CallbackBatch, StreamedCallback {
 
   Set<RequestId> requestIds();
 
@@ -1,22 +1,41 @@
 package com.flipkart.krystal.krystex.commands;
 
+import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * @param responseListener if present, is notified of the response of every executable request as
+ *     soon as it is computed, before the response of the whole batch is complete. Used to stream
+ *     the responses of a dependency to its dependant (See {@link
+ *     com.flipkart.krystal.krystex.DependencyStreamPolicy}).
+ */
 public record ForwardBatch(
     KryonId kryonId,
     ImmutableSet<String> inputNames,
     ImmutableMap<RequestId, Facets> executableRequests,
     DependantChain dependantChain,
-    ImmutableMap<RequestId, String> skippedRequests)
+    ImmutableMap<RequestId, SkipReason> skippedRequests,
+    @Nullable ResponseListener responseListener)
     implements BatchCommand {
 
+  public ForwardBatch(
+      KryonId kryonId,
+      ImmutableSet<String> inputNames,
+      ImmutableMap<RequestId, Facets> executableRequests,
+      DependantChain dependantChain,
+      ImmutableMap<RequestId, SkipReason> skippedRequests) {
+    this(kryonId, inputNames, executableRequests, dependantChain, skippedRequests, null);
+  }
+
   @Override
   public Set<RequestId> requestIds() {
     return Sets.union(executableRequests().keySet(), skippedRequests().keySet());
@@ -25,4 +44,9 @@ public record ForwardBatch(
   public boolean shouldSkip() {
     return executableRequests.isEmpty();
   }
+
+  @FunctionalInterface
+  public interface ResponseListener {
+    void onResponse(RequestId requestId, Errable<Object> response);
+  }
 }
@@ -0,0 +1,38 @@
+package com.flipkart.krystal.krystex.commands;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+
+/**
+ * Delivers the responses of a streaming dependency (See {@link
+ * com.flipkart.krystal.krystex.DependencyStreamPolicy}) to the dependant kryon as they are
+ * computed.
+ *
+ * @param responsesByDepRequest the responses keyed by the ids of the dependency requests (not the
+ *     requests of the dependant kryon).
+ * @param complete true if the dependency has finished executing all its requests. No more commands
+ *     are sent for the dependency after this.
+ */
+public record StreamedCallback(
+    KryonId kryonId,
+    String dependencyName,
+    ImmutableMap<RequestId, Errable<Object>> responsesByDepRequest,
+    boolean complete,
+    DependantChain dependantChain)
+    implements BatchCommand {
+
+  @Override
+  public ImmutableSet<RequestId> requestIds() {
+    return responsesByDepRequest().keySet();
+  }
+
+  @Override
+  public Set<String> inputNames() {
+    return Set.of(dependencyName);
+  }
+}
@@ -2,22 +2,29 @@ package com.flipkart.krystal.krystex.kryon;
 
 import static com.flipkart.krystal.data.Errable.empty;
 import static com.flipkart.krystal.data.Errable.withError;
+import static com.flipkart.krystal.krystex.kryon.KryonMetric.BATCH_SIZE;
+import static com.flipkart.krystal.krystex.kryon.KryonMetric.IO_WAIT;
+import static com.flipkart.krystal.krystex.kryon.KryonMetric.OUTPUT_LOGIC;
+import static com.flipkart.krystal.krystex.kryon.KryonMetric.RESOLVER;
 import static com.flipkart.krystal.krystex.kryon.KryonUtils.enqueueOrExecuteCommand;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.skip;
 import static com.flipkart.krystal.utils.Futures.linkFutures;
 import static com.google.common.base.Functions.identity;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.failedFuture;
-import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toSet;
 
 import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.DependencyStreamPolicy;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinition;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
@@ -25,6 +32,9 @@ import com.flipkart.krystal.krystex.commands.BatchCommand;
 import com.flipkart.krystal.krystex.commands.CallbackBatch;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.ForwardBatch.ResponseListener;
+import com.flipkart.krystal.krystex.commands.StreamedCallback;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition.KryonDefinitionView;
 import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
@@ -32,21 +42,23 @@ import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.request.RequestId;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.resolution.MultiResolver;
 import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverCommand;
 import com.flipkart.krystal.krystex.resolution.ResolverCommand.SkipDependency;
-import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
-import com.flipkart.krystal.utils.SkippedExecutionException;
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
@@ -55,33 +67,72 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * A kryon which executes the commands for all the requests of a dependant chain in a single batch.
+ *
+ * <p>The state of this kryon for every dependant chain is stored in arrays indexed by the dense id
+ * of the dependant chain (See {@link DependantChainIds}). The availability of facets and the
+ * execution status of dependencies are tracked as bitsets as per {@link
+ * KryonDefinitionView#facetPositions()}.
+ */
 final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
 
-  private final Map<DependantChain, Set<String>> availableInputsByDepChain = new LinkedHashMap<>();
+  private final DependantChainIds dependantChainIds;
+  private final ImmutableList<String> dependencyNames;
+  private final ImmutableMap<String, Integer> facetPositions;
+  private final DependencyTriggerPlan triggerPlan;
 
-  private final Map<DependantChain, ForwardBatch> inputsValueCollector = new LinkedHashMap<>();
+  /** The bitset of the dependencies which are inputs to the output logic. */
+  private final BitSet outputLogicDependenciesMask = new BitSet();
 
-  private final Map<DependantChain, Map<String, CallbackBatch>> dependencyValuesCollector =
-      new LinkedHashMap<>();
+  /** The layout of the facets passed to the output logic. */
+  private final FacetLayout outputLogicLayout;
+
+  /**
+   * The slot of each dependency in {@link #outputLogicLayout}, indexed by the dependency index. -1
+   * if the dependency is not part of the layout.
+   */
+  private final int[] dependencyLayoutIndices;
+
+  /** Dependency name -> policy, for the dependencies whose responses are streamed to this kryon. */
+  private final ImmutableMap<String, DependencyStreamPolicy> streamingDependencies;
+
+  /*
+   * Per dependant chain state. Each of these is indexed by the id of the dependant chain
+   */
+
+  private @Nullable ForwardBatch[] forwardBatches;
+
+  /** Indexed by {@code dependantChainId * dependencyNames.size() + dependencyIndex} */
+  private @Nullable CallbackBatch[] callbackBatches;
+
+  /** Indexed like {@link #callbackBatches}. Present only for streaming dependencies. */
+  private @Nullable DependencyStream[] dependencyStreams;
 
   /** A unique Result future for every dependant chain. */
-  private final Map<DependantChain, CompletableFuture<BatchResponse>> resultsByDepChain =
-      new LinkedHashMap<>();
+  private @Nullable CompletableFuture<BatchResponse>[] results;
+
+  /** Bitsets of facets whose values are available. */
+  private BitSet[] availableFacets;
+
+  /** Bitsets of dependencies which have been triggered. */
+  private BitSet[] executedDependencies;
+
+  private boolean[] flushed;
+  private boolean[] outputLogicExecuted;
 
   /**
    * A unique {@link CompletableFuture} for every new set of Inputs. This acts as a cache so that
-   * the same computation is not repeated multiple times .
+   * the same computation is not repeated multiple times. See {@link
+   * KryonExecutorMetrics#getIoDedupHitCount()}.
    */
   private final Map<Facets, CompletableFuture<@Nullable Object>> resultsCache =
       new LinkedHashMap<>();
 
-  private final Map<DependantChain, Set<String>> executedDependencies = new LinkedHashMap<>();
-
-  private final Map<DependantChain, Set<RequestId>> requestsByDependantChain =
-      new LinkedHashMap<>();
+  /** Dependency name -> the reason for skipping the dependency when it resolves to no inputs. */
+  private final Map<String, SkipReason> emptyResolutionSkipReasons = new HashMap<>();
 
-  private final Set<DependantChain> flushedDependantChain = new LinkedHashSet<>();
-  private final Map<DependantChain, Boolean> outputLogicExecuted = new LinkedHashMap<>();
+  private final KryonExecutorMetrics metrics;
 
   BatchKryon(
       KryonDefinition kryonDefinition,
@@ -96,68 +147,119 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
         requestScopedDecoratorsSupplier,
         logicDecorationOrdering,
         requestIdGenerator);
+    KryonDefinitionView kryonDefinitionView = kryonDefinition.kryonDefinitionView();
+    this.dependantChainIds = kryonDefinitionView.dependantChainIds();
+    this.dependencyNames = kryonDefinitionView.dependencyNames();
+    this.facetPositions = kryonDefinitionView.facetPositions();
+    this.triggerPlan = kryonDefinitionView.triggerPlan();
+    this.metrics = kryonExecutor.getKryonMetrics();
+    OutputLogicDefinition<Object> outputLogicDefinition =
+        kryonDefinition.getOutputLogicDefinition();
+    for (String inputName : outputLogicDefinition.inputNames()) {
+      int dependencyIndex = dependencyNames.indexOf(inputName);
+      if (dependencyIndex >= 0) {
+        outputLogicDependenciesMask.set(dependencyIndex);
+      }
+    }
+    this.outputLogicLayout = outputLogicDefinition.facetLayout();
+    this.streamingDependencies = outputLogicDefinition.getStreamingDependencies();
+    this.dependencyLayoutIndices = new int[dependencyNames.size()];
+    for (int i = 0; i < dependencyNames.size(); i++) {
+      dependencyLayoutIndices[i] = outputLogicLayout.indexOf(dependencyNames.get(i));
+    }
+    int capacity = Math.max(1, dependantChainIds.size());
+    this.forwardBatches = new @Nullable ForwardBatch[capacity];
+    this.callbackBatches = new @Nullable CallbackBatch[capacity * dependencyNames.size()];
+    this.dependencyStreams = new @Nullable DependencyStream[capacity * dependencyNames.size()];
+    //noinspection unchecked
+    this.results = new @Nullable CompletableFuture[capacity];
+    this.availableFacets = newBitSets(new BitSet[0], capacity);
+    this.executedDependencies = newBitSets(new BitSet[0], capacity);
+    this.flushed = new boolean[capacity];
+    this.outputLogicExecuted = new boolean[capacity];
   }
 
   @Override
   public void executeCommand(Flush flushCommand) {
-    flushedDependantChain.add(flushCommand.dependantChain());
-    flushAllDependenciesIfNeeded(flushCommand.dependantChain());
-    flushDecoratorsIfNeeded(flushCommand.dependantChain());
+    DependantChain dependantChain = flushCommand.dependantChain();
+    int chainId = chainIdOf(dependantChain);
+    flushed[chainId] = true;
+    flushAllDependenciesIfNeeded(chainId, dependantChain);
+    flushDecoratorsIfNeeded(chainId, dependantChain);
   }
 
   @Override
   public CompletableFuture<BatchResponse> executeCommand(BatchCommand kryonCommand) {
     DependantChain dependantChain = kryonCommand.dependantChain();
-    final CompletableFuture<BatchResponse> resultForDepChain =
-        resultsByDepChain.computeIfAbsent(dependantChain, r -> new CompletableFuture<>());
+    int chainId = chainIdOf(dependantChain);
+    CompletableFuture<BatchResponse> resultForDepChain = results[chainId];
+    if (resultForDepChain == null) {
+      resultForDepChain = new CompletableFuture<>();
+      results[chainId] = resultForDepChain;
+    }
     try {
+      BitSet availableFacets = this.availableFacets[chainId];
+      BitSet previouslyAvailableFacets = (BitSet) availableFacets.clone();
       if (kryonCommand instanceof ForwardBatch forwardBatch) {
-        collectInputValues(forwardBatch);
+        collectInputValues(chainId, forwardBatch);
       } else if (kryonCommand instanceof CallbackBatch callbackBatch) {
-        collectDependencyValues(callbackBatch);
+        collectDependencyValues(chainId, callbackBatch);
+      } else if (kryonCommand instanceof StreamedCallback streamedCallback) {
+        if (!collectStreamedDependencyValues(chainId, streamedCallback)) {
+          // The dependant still needs to wait for more responses of the dependency
+          return resultForDepChain;
+        }
       }
+      BitSet newlyAvailableFacets = (BitSet) availableFacets.clone();
+      newlyAvailableFacets.andNot(previouslyAvailableFacets);
       triggerDependencies(
-          dependantChain, getTriggerableDependencies(dependantChain, kryonCommand.inputNames()));
+          chainId,
+          dependantChain,
+          triggerPlan.triggerableDependencies(
+              availableFacets, newlyAvailableFacets, executedDependencies[chainId]));
 
       Optional<CompletableFuture<BatchResponse>> outputLogicFuture =
-          executeOutputLogicIfPossible(dependantChain);
-      outputLogicFuture.ifPresent(f -> linkFutures(f, resultForDepChain));
+          executeOutputLogicIfPossible(chainId, dependantChain);
+      CompletableFuture<BatchResponse> finalResult = resultForDepChain;
+      outputLogicFuture.ifPresent(f -> linkFutures(f, finalResult));
     } catch (Throwable e) {
       resultForDepChain.completeExceptionally(e);
     }
     return resultForDepChain;
   }
 
-  private Map<String, Set<ResolverDefinition>> getTriggerableDependencies(
-      DependantChain dependantChain, Set<String> newInputNames) {
-    Set<String> availableInputs = availableInputsByDepChain.getOrDefault(dependantChain, Set.of());
-    Set<String> executedDeps = executedDependencies.getOrDefault(dependantChain, Set.of());
-
-    return Stream.concat(
-            Stream.concat(
-                    Stream.of(Optional.<String>empty()), newInputNames.stream().map(Optional::of))
-                .map(key -> resolverDefinitionsByInput.getOrDefault(key, ImmutableSet.of()))
-                .flatMap(Collection::stream)
-                .map(ResolverDefinition::dependencyName),
-            dependenciesWithNoResolvers.stream())
-        .distinct()
-        .filter(depName -> !executedDeps.contains(depName))
-        .filter(
-            depName ->
-                resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of()).stream()
-                    .map(ResolverDefinition::boundFrom)
-                    .flatMap(Collection::stream)
-                    .allMatch(availableInputs::contains))
-        .collect(
-            toMap(
-                identity(),
-                depName ->
-                    resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of())));
+  /**
+   * Returns the id of the dependant chain after making sure that the per-dependant chain state
+   * arrays can accommodate it.
+   */
+  private int chainIdOf(DependantChain dependantChain) {
+    int chainId = dependantChainIds.idOf(dependantChain);
+    int capacity = forwardBatches.length;
+    if (chainId >= capacity) {
+      int newCapacity = Math.max(chainId + 1, capacity * 2);
+      forwardBatches = Arrays.copyOf(forwardBatches, newCapacity);
+      callbackBatches = Arrays.copyOf(callbackBatches, newCapacity * dependencyNames.size());
+      dependencyStreams = Arrays.copyOf(dependencyStreams, newCapacity * dependencyNames.size());
+      results = Arrays.copyOf(results, newCapacity);
+      availableFacets = newBitSets(availableFacets, newCapacity);
+      executedDependencies = newBitSets(executedDependencies, newCapacity);
+      flushed = Arrays.copyOf(flushed, newCapacity);
+      outputLogicExecuted = Arrays.copyOf(outputLogicExecuted, newCapacity);
+    }
+    return chainId;
   }
 
+  /**
+   * Triggers the given dependencies.
+   *
+   * @param triggerableDependencies the bitset of the dependencies to trigger
+   */
   private void triggerDependencies(
-      DependantChain dependantChain, Map<String, Set<ResolverDefinition>> triggerableDependencies) {
-    ForwardBatch forwardBatch = getForwardCommand(dependantChain);
+      int chainId, DependantChain dependantChain, BitSet triggerableDependencies) {
+    ForwardBatch forwardBatch = getForwardCommand(chainId);
+    if (triggerableDependencies.isEmpty()) {
+      return;
+    }
 
     Optional<MultiResolverDefinition> multiResolverOpt =
         kryonDefinition
@@ -168,72 +270,82 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
                         .kryonDefinitionRegistry()
                         .logicDefinitionRegistry()
                         .getMultiResolver(kryonLogicId));
-    ImmutableMap<RequestId, String> skippedRequests = forwardBatch.skippedRequests();
+    ImmutableMap<RequestId, SkipReason> skippedRequests = forwardBatch.skippedRequests();
     ImmutableSet<RequestId> executableRequests = forwardBatch.executableRequests().keySet();
     Map<String, Map<Set<RequestId>, ResolverCommand>> commandsByDependency = new LinkedHashMap<>();
     if (!skippedRequests.isEmpty()) {
-      SkipDependency skip = skip(String.join(", ", skippedRequests.values()));
-      for (String depName : triggerableDependencies.keySet()) {
+      SkipDependency skip = skip(getSkipReason(forwardBatch));
+      for (int dep = triggerableDependencies.nextSetBit(0);
+          dep >= 0;
+          dep = triggerableDependencies.nextSetBit(dep + 1)) {
         commandsByDependency
-            .computeIfAbsent(depName, _k -> new LinkedHashMap<>())
+            .computeIfAbsent(dependencyNames.get(dep), _k -> new LinkedHashMap<>())
             .put(skippedRequests.keySet(), skip);
       }
     }
 
-    Set<String> dependenciesWithNoResolvers =
-        triggerableDependencies.entrySet().stream()
-            .filter(e -> e.getValue().isEmpty())
-            .map(Entry::getKey)
-            .collect(toSet());
-    for (RequestId requestId : executableRequests) {
-      dependenciesWithNoResolvers.forEach(
-          depName -> {
-            // For such dependencies, trigger them with empty inputs
-            commandsByDependency
-                .computeIfAbsent(depName, _k -> new LinkedHashMap<>())
-                .put(Set.of(requestId), multiExecuteWith(ImmutableList.of(Facets.empty())));
-          });
-      Facets facets =
-          getInputsFor(
-              dependantChain,
-              requestId,
-              triggerableDependencies.values().stream()
-                  .flatMap(Collection::stream)
-                  .map(ResolverDefinition::boundFrom)
-                  .flatMap(Collection::stream)
-                  .collect(toSet()));
-      multiResolverOpt
-          .map(LogicDefinition::logic)
-          .map(
-              logic -> {
-                return logic.resolve(
-                    triggerableDependencies.entrySet().stream()
-                        .filter(e -> !e.getValue().isEmpty())
-                        .map(e -> new DependencyResolutionRequest(e.getKey(), e.getValue()))
-                        .toList(),
-                    facets);
-              })
-          .orElse(ImmutableMap.of())
-          .forEach(
-              (depName, resolverCommand) -> {
-                commandsByDependency
-                    .computeIfAbsent(depName, _k -> new LinkedHashMap<>())
-                    .put(Set.of(requestId), resolverCommand);
-              });
+    BitSet dependenciesWithNoResolvers = triggerPlan.dependenciesWithNoResolvers();
+    dependenciesWithNoResolvers.and(triggerableDependencies);
+    BitSet dependenciesWithResolvers = (BitSet) triggerableDependencies.clone();
+    dependenciesWithResolvers.andNot(dependenciesWithNoResolvers);
+    BitSet resolverInputs = triggerPlan.resolverInputs(dependenciesWithResolvers);
+    ImmutableList.Builder<DependencyResolutionRequest> resolutionRequests =
+        ImmutableList.builderWithExpectedSize(dependenciesWithResolvers.cardinality());
+    for (int dep = dependenciesWithResolvers.nextSetBit(0);
+        dep >= 0;
+        dep = dependenciesWithResolvers.nextSetBit(dep + 1)) {
+      resolutionRequests.add(triggerPlan.resolutionRequest(dep));
+    }
+    @Nullable MultiResolver multiResolver =
+        dependenciesWithResolvers.isEmpty()
+            ? null
+            : multiResolverOpt.map(LogicDefinition::logic).orElse(null);
+    ImmutableList<DependencyResolutionRequest> resolutionRequestList = resolutionRequests.build();
+    ImmutableList<RequestId> requestIds = executableRequests.asList();
+    // Resolve the dependencies of all the requests in one call
+    ImmutableList<ImmutableMap<String, ResolverCommand>> resolverCommands;
+    if (multiResolver == null || requestIds.isEmpty()) {
+      resolverCommands = ImmutableList.of();
+    } else {
+      boolean sampled = metrics.shouldSample();
+      long start = sampled ? System.nanoTime() : 0;
+      resolverCommands =
+          multiResolver.resolveBatch(
+              resolutionRequestList, getInputColumnsFor(chainId, requestIds, resolverInputs));
+      if (sampled) {
+        metrics.record(kryonId, dependantChain, RESOLVER, System.nanoTime() - start);
+      }
+    }
+    for (int row = 0; row < requestIds.size(); row++) {
+      RequestId requestId = requestIds.get(row);
+      for (int dep = dependenciesWithNoResolvers.nextSetBit(0);
+          dep >= 0;
+          dep = dependenciesWithNoResolvers.nextSetBit(dep + 1)) {
+        // For such dependencies, trigger them with empty inputs
+        commandsByDependency
+            .computeIfAbsent(dependencyNames.get(dep), _k -> new LinkedHashMap<>())
+            .put(Set.of(requestId), multiExecuteWith(ImmutableList.of(Facets.empty())));
+      }
+      if (!resolverCommands.isEmpty()) {
+        resolverCommands
+            .get(row)
+            .forEach(
+                (depName, resolverCommand) -> {
+                  commandsByDependency
+                      .computeIfAbsent(depName, _k -> new LinkedHashMap<>())
+                      .put(Set.of(requestId), resolverCommand);
+                });
+      }
     }
     for (var entry : commandsByDependency.entrySet()) {
       String depName = entry.getKey();
       var resolverCommandsForDep = entry.getValue();
-      triggerDependency(
-          depName,
-          dependantChain,
-          resolverCommandsForDep,
-          triggerableDependencies.getOrDefault(depName, ImmutableSet.of()));
+      triggerDependency(depName, chainId, dependantChain, resolverCommandsForDep);
     }
   }
 
-  private ForwardBatch getForwardCommand(DependantChain dependantChain) {
-    ForwardBatch forwardBatch = inputsValueCollector.get(dependantChain);
+  private ForwardBatch getForwardCommand(int chainId) {
+    ForwardBatch forwardBatch = forwardBatches[chainId];
     if (forwardBatch == null) {
       throw new IllegalArgumentException("Missing Forward command. This should not be possible.");
     }
@@ -242,15 +354,15 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
 
   private void triggerDependency(
       String depName,
+      int chainId,
       DependantChain dependantChain,
-      Map<Set<RequestId>, ResolverCommand> resolverCommandsByReq,
-      Set<ResolverDefinition> resolverDefinitions) {
+      Map<Set<RequestId>, ResolverCommand> resolverCommandsByReq) {
     KryonId depKryonId = kryonDefinition.dependencyKryons().get(depName);
     if (depKryonId == null) {
       throw new AssertionError("This is a bug.");
     }
     Map<RequestId, Facets> inputsByDepReq = new LinkedHashMap<>();
-    Map<RequestId, String> skipReasonsByReq = new LinkedHashMap<>();
+    Map<RequestId, SkipReason> skipReasonsByReq = new LinkedHashMap<>();
     Map<RequestId, Set<RequestId>> depReqsByIncomingReq = new LinkedHashMap<>();
     for (var entry : resolverCommandsByReq.entrySet()) {
       Set<RequestId> incomingReqIds = entry.getKey();
@@ -264,7 +376,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
                 depReqsByIncomingReq
                     .computeIfAbsent(incomingReqId, _k -> new LinkedHashSet<>())
                     .add(depReqId));
-        skipReasonsByReq.put(depReqId, skipDependency.reason());
+        skipReasonsByReq.put(depReqId, skipDependency.skipReason());
       } else {
         int count = 0;
         for (RequestId incomingReqId : incomingReqIds) {
@@ -272,8 +384,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
             RequestId depReqId =
                 requestIdGenerator.newSubRequest(
                     incomingReqId, () -> "%s[skip]".formatted(depName));
-            skipReasonsByReq.put(
-                depReqId, "Resolvers for dependency %s resolved to empty list".formatted(depName));
+            skipReasonsByReq.put(depReqId, emptyResolutionSkipReason(depName));
           } else {
             for (Facets facets : resolverCommand.getInputs()) {
               int currentCount = count++;
@@ -289,35 +400,88 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
         }
       }
     }
-    executedDependencies.computeIfAbsent(dependantChain, _k -> new LinkedHashSet<>()).add(depName);
+    int dependencyIndex = dependencyIndex(depName);
+    executedDependencies[chainId].set(dependencyIndex);
+    @Nullable DependencyStreamPolicy streamPolicy = streamingDependencies.get(depName);
+    @Nullable ResponseListener responseListener = null;
+    if (streamPolicy != null) {
+      // The stream must be in place before the dependency is triggered since compute dependencies
+      // can respond synchronously
+      dependencyStreams[chainId * dependencyNames.size() + dependencyIndex] =
+          new DependencyStream(
+              streamPolicy,
+              resolverCommandsByReq.keySet().stream()
+                  .flatMap(Collection::stream)
+                  .collect(toCollection(LinkedHashSet::new)),
+              inputsByDepReq,
+              depReqsByIncomingReq);
+      responseListener =
+          (depReqId, response) ->
+              enqueueOrExecuteCommand(
+                  () ->
+                      new StreamedCallback(
+                          kryonId,
+                          depName,
+                          ImmutableMap.of(depReqId, response),
+                          false,
+                          dependantChain),
+                  depKryonId,
+                  kryonDefinition,
+                  kryonExecutor);
+    }
     CompletableFuture<BatchResponse> depResponse =
         kryonExecutor.executeCommand(
             new ForwardBatch(
                 depKryonId,
-                resolverDefinitions.stream()
-                    .map(ResolverDefinition::resolvedInputNames)
-                    .flatMap(Collection::stream)
-                    .collect(toImmutableSet()),
+                triggerPlan.resolvedInputNames(dependencyIndex),
                 ImmutableMap.copyOf(inputsByDepReq),
                 dependantChain.extend(kryonId, depName),
-                ImmutableMap.copyOf(skipReasonsByReq)));
+                ImmutableMap.copyOf(skipReasonsByReq),
+                responseListener));
 
     depResponse.whenComplete(
         (batchResponse, throwable) -> {
+          if (streamPolicy != null) {
+            ImmutableMap<RequestId, Errable<Object>> responses;
+            if (throwable != null) {
+              Errable<Object> error = withError(throwable);
+              responses =
+                  Stream.concat(
+                          inputsByDepReq.keySet().stream(), skipReasonsByReq.keySet().stream())
+                      .collect(toImmutableMap(identity(), _r -> error));
+            } else {
+              responses = batchResponse.responses();
+            }
+            enqueueOrExecuteCommand(
+                () -> new StreamedCallback(kryonId, depName, responses, true, dependantChain),
+                depKryonId,
+                kryonDefinition,
+                kryonExecutor);
+            return;
+          }
           Set<RequestId> requestIds =
               resolverCommandsByReq.keySet().stream().flatMap(Collection::stream).collect(toSet());
+          // The same error results are shared by all the requests
+          @Nullable Results<Object> errorResults =
+              throwable != null ? Results.single(Facets.empty(), withError(throwable)) : null;
           ImmutableMap<RequestId, Results<Object>> results =
               requestIds.stream()
                   .collect(
                       toImmutableMap(
                           identity(),
                           requestId -> {
-                            if (throwable != null) {
-                              return new Results<>(
-                                  ImmutableMap.of(Facets.empty(), withError(throwable)));
+                            if (errorResults != null) {
+                              return errorResults;
+                            }
+                            Set<RequestId> depReqIds =
+                                depReqsByIncomingReq.getOrDefault(requestId, Set.of());
+                            if (depReqIds.size() == 1) {
+                              // Dependencies which are not fan-outs need no stream
+                              RequestId depReqId = depReqIds.iterator().next();
+                              return Results.single(
+                                  inputsByDepReq.getOrDefault(depReqId, Facets.empty()),
+                                  batchResponse.responses().getOrDefault(depReqId, empty()));
                             } else {
-                              Set<RequestId> depReqIds =
-                                  depReqsByIncomingReq.getOrDefault(requestId, Set.of());
                               return new Results<>(
                                   depReqIds.stream()
                                       .collect(
@@ -338,29 +502,28 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
               kryonDefinition,
               kryonExecutor);
         });
-    flushDependencyIfNeeded(depName, dependantChain);
+    flushDependencyIfNeeded(depName, chainId, dependantChain);
   }
 
   private Optional<CompletableFuture<BatchResponse>> executeOutputLogicIfPossible(
-      DependantChain dependantChain) {
-    ForwardBatch forwardCommand = getForwardCommand(dependantChain);
-    // If all the inputs and dependency values are available, then prepare to run outputLogic
-    ImmutableSet<String> inputNames = kryonDefinition.getOutputLogicDefinition().inputNames();
-    if (availableInputsByDepChain
-        .getOrDefault(dependantChain, ImmutableSet.of())
-        .containsAll(inputNames)) { // All the inputs of the kryon logic have data present
+      int chainId, DependantChain dependantChain) {
+    // The presence of the forward command means that all the inputs are available (this is
+    // validated in collectInputValues). So if all the dependency values are also available, then
+    // prepare to run outputLogic
+    ForwardBatch forwardCommand = getForwardCommand(chainId);
+    if (containsAll(availableFacets[chainId], outputLogicDependenciesMask)) {
       if (forwardCommand.shouldSkip()) {
-        return Optional.of(
-            failedFuture(new SkippedExecutionException(getSkipMessage(forwardCommand))));
+        return Optional.of(failedFuture(getSkipReason(forwardCommand).asException()));
       }
       return Optional.of(
-          executeOutputLogic(forwardCommand.executableRequests().keySet(), dependantChain));
+          executeOutputLogic(
+              forwardCommand.executableRequests().keySet(), chainId, dependantChain));
     }
     return Optional.empty();
   }
 
   private CompletableFuture<BatchResponse> executeOutputLogic(
-      Set<RequestId> requestIds, DependantChain dependantChain) {
+      Set<RequestId> requestIds, int chainId, DependantChain dependantChain) {
 
     OutputLogicDefinition<Object> outputLogicDefinition =
         kryonDefinition.getOutputLogicDefinition();
@@ -368,15 +531,30 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     Map<RequestId, OutputLogicFacets> outputLogicInputs = new LinkedHashMap<>();
 
     for (RequestId requestId : requestIds) {
-      outputLogicInputs.put(requestId, getFacetsForOutputLogic(dependantChain, requestId));
+      outputLogicInputs.put(requestId, getFacetsForOutputLogic(chainId, requestId));
     }
     CompletableFuture<BatchResponse> resultForBatch = new CompletableFuture<>();
+    boolean sampled = metrics.shouldSample();
+    long start = sampled ? System.nanoTime() : 0;
     Map<RequestId, CompletableFuture<Errable<Object>>> results =
         executeDecoratedOutputLogic(outputLogicDefinition, outputLogicInputs, dependantChain);
+    if (sampled) {
+      metrics.record(kryonId, dependantChain, OUTPUT_LOGIC, System.nanoTime() - start);
+      metrics.record(kryonId, dependantChain, BATCH_SIZE, outputLogicInputs.size());
+    }
+    @Nullable ResponseListener responseListener = getForwardCommand(chainId).responseListener();
+    if (responseListener != null) {
+      // Stream the response of each request to the dependant without waiting for the whole batch
+      results.forEach(
+          (requestId, result) -> result.thenAccept(r -> responseListener.onResponse(requestId, r)));
+    }
 
     allOf(results.values().toArray(CompletableFuture[]::new))
         .whenComplete(
             (unused, throwable) -> {
+              if (sampled && outputLogicDefinition instanceof IOLogicDefinition<Object>) {
+                metrics.record(kryonId, dependantChain, IO_WAIT, System.nanoTime() - start);
+              }
               resultForBatch.complete(
                   new BatchResponse(
                       outputLogicInputs.keySet().stream()
@@ -388,8 +566,8 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
                                           .getOrDefault(requestId, new CompletableFuture<>())
                                           .getNow(empty())))));
             });
-    outputLogicExecuted.put(dependantChain, true);
-    flushDecoratorsIfNeeded(dependantChain);
+    outputLogicExecuted[chainId] = true;
+    flushDecoratorsIfNeeded(chainId, dependantChain);
     return resultForBatch;
   }
 
@@ -411,6 +589,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
           // calculated
           CompletableFuture<@Nullable Object> cachedResult =
               resultsCache.get(outputLogicFacets.providedFacets());
+          recordIoDedup(outputLogicDefinition, cachedResult != null);
           if (cachedResult == null) {
             try {
               cachedResult =
@@ -429,18 +608,28 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     return resultsByRequest;
   }
 
-  private void flushAllDependenciesIfNeeded(DependantChain dependantChain) {
-    kryonDefinition
-        .dependencyKryons()
-        .keySet()
-        .forEach(dependencyName -> flushDependencyIfNeeded(dependencyName, dependantChain));
+  private void recordIoDedup(OutputLogicDefinition<Object> outputLogicDefinition, boolean hit) {
+    if (outputLogicDefinition instanceof IOLogicDefinition<Object>) {
+      if (hit) {
+        metrics.ioDeduplicated();
+      } else {
+        metrics.ioCalled();
+      }
+    }
+  }
+
+  private void flushAllDependenciesIfNeeded(int chainId, DependantChain dependantChain) {
+    for (String dependencyName : dependencyNames) {
+      flushDependencyIfNeeded(dependencyName, chainId, dependantChain);
+    }
   }
 
-  private void flushDependencyIfNeeded(String dependencyName, DependantChain dependantChain) {
-    if (!flushedDependantChain.contains(dependantChain)) {
+  private void flushDependencyIfNeeded(
+      String dependencyName, int chainId, DependantChain dependantChain) {
+    if (!flushed[chainId]) {
       return;
     }
-    if (executedDependencies.getOrDefault(dependantChain, Set.of()).contains(dependencyName)) {
+    if (executedDependencies[chainId].get(dependencyIndex(dependencyName))) {
       kryonExecutor.executeCommand(
           new Flush(
               Optional.ofNullable(kryonDefinition.dependencyKryons().get(dependencyName))
@@ -454,12 +643,11 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     }
   }
 
-  private void flushDecoratorsIfNeeded(DependantChain dependantChain) {
-    if (!flushedDependantChain.contains(dependantChain)) {
+  private void flushDecoratorsIfNeeded(int chainId, DependantChain dependantChain) {
+    if (!flushed[chainId]) {
       return;
     }
-    if (outputLogicExecuted.getOrDefault(dependantChain, false)
-        || getForwardCommand(dependantChain).shouldSkip()) {
+    if (outputLogicExecuted[chainId] || getForwardCommand(chainId).shouldSkip()) {
       Iterable<OutputLogicDecorator> reverseSortedDecorators =
           getSortedDecorators(dependantChain)::descendingIterator;
       for (OutputLogicDecorator decorator : reverseSortedDecorators) {
@@ -468,65 +656,99 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     }
   }
 
-  private Facets getInputsFor(
-      DependantChain dependantChain, RequestId requestId, Set<String> boundFrom) {
-    Facets resolvableInputs =
-        Optional.ofNullable(inputsValueCollector.get(dependantChain))
-            .map(ForwardBatch::executableRequests)
-            .map(inputsByRequest -> inputsByRequest.get(requestId))
-            .orElse(Facets.empty());
-    Map<String, CallbackBatch> depValues =
-        dependencyValuesCollector.getOrDefault(dependantChain, Map.of());
-    Map<String, FacetValue<Object>> inputValues = new LinkedHashMap<>();
-    for (String boundFromInput : boundFrom) {
-      FacetValue<Object> voe = resolvableInputs.values().get(boundFromInput);
-      if (voe == null) {
-        CallbackBatch callbackBatch = depValues.get(boundFromInput);
-        if (callbackBatch != null) {
-          inputValues.put(
-              boundFromInput,
-              callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty()));
+  /**
+   * Returns the values of the given facets for the given requests as columns of the {@link
+   * DependencyTriggerPlan#facetLayout() facet layout} of this kryon. Facets other than the given
+   * ones have no values.
+   *
+   * @param facets the bitset of the facets as per {@link #facetPositions}
+   */
+  private FacetColumns getInputColumnsFor(
+      int chainId, ImmutableList<RequestId> requestIds, BitSet facets) {
+    ForwardBatch forwardBatch = getForwardCommand(chainId);
+    ImmutableMap<RequestId, Facets> inputsByRequest = forwardBatch.executableRequests();
+    FacetLayout layout = triggerPlan.facetLayout();
+    @Nullable FacetValue<Object>[][] columns = FacetColumns.newColumns(layout, requestIds.size());
+    for (int position = facets.nextSetBit(0);
+        position >= 0;
+        position = facets.nextSetBit(position + 1)) {
+      String facetName = triggerPlan.facetName(position);
+      @Nullable FacetValue<Object>[] column = columns[position];
+      CallbackBatch callbackBatch =
+          position >= dependencyNames.size() ? null : getCallbackBatch(chainId, position);
+      for (int row = 0; row < requestIds.size(); row++) {
+        RequestId requestId = requestIds.get(row);
+        Facets resolvableInputs = inputsByRequest.getOrDefault(requestId, Facets.empty());
+        FacetValue<Object> voe = resolvableInputs.values().get(facetName);
+        if (voe != null) {
+          column[row] = voe;
+        } else if (callbackBatch != null) {
+          column[row] = callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty());
         }
-      } else {
-        inputValues.put(boundFromInput, voe);
       }
     }
-    return new Facets(inputValues);
+    return new FacetColumns(layout, requestIds.size(), columns);
   }
 
-  private OutputLogicFacets getFacetsForOutputLogic(
-      DependantChain dependantChain, RequestId requestId) {
-    ForwardBatch forwardBatch = inputsValueCollector.get(dependantChain);
+  private OutputLogicFacets getFacetsForOutputLogic(int chainId, RequestId requestId) {
+    ForwardBatch forwardBatch = forwardBatches[chainId];
     if (forwardBatch == null) {
       throw new AssertionError("Could not find forwardBatch. This is a bug.");
     }
-    ImmutableMap<String, Results<Object>> depValues =
-        dependencyValuesCollector
-            .getOrDefault(dependantChain, ImmutableMap.of())
-            .entrySet()
-            .stream()
-            .collect(
-                toImmutableMap(
-                    Entry::getKey,
-                    e -> e.getValue().resultsByRequest().getOrDefault(requestId, Results.empty())));
     Facets inputValues = forwardBatch.executableRequests().getOrDefault(requestId, Facets.empty());
-    Facets allFacets = Facets.union(depValues, inputValues.values());
+    @Nullable FacetValue<Object> @Nullable [] slots = inputValues.toSlots(outputLogicLayout);
+    if (slots != null) {
+      // Place the dependency results directly into the slots of the output logic's layout so that
+      // the output logic can read facets by index, and no intermediate maps are created
+      for (int i = 0; i < dependencyNames.size(); i++) {
+        CallbackBatch callbackBatch = getCallbackBatch(chainId, i);
+        if (callbackBatch != null) {
+          int slot = dependencyLayoutIndices[i];
+          if (slot < 0) {
+            slots = null;
+            break;
+          }
+          slots[slot] = callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty());
+        }
+      }
+    }
+    if (slots != null) {
+      return new OutputLogicFacets(inputValues, new Facets(outputLogicLayout, slots));
+    }
+    ImmutableMap.Builder<String, Results<Object>> depValues =
+        ImmutableMap.builderWithExpectedSize(dependencyNames.size());
+    for (int i = 0; i < dependencyNames.size(); i++) {
+      CallbackBatch callbackBatch = getCallbackBatch(chainId, i);
+      if (callbackBatch != null) {
+        depValues.put(
+            dependencyNames.get(i),
+            callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty()));
+      }
+    }
+    Facets allFacets = Facets.union(depValues.build(), inputValues.values());
     return new OutputLogicFacets(inputValues, allFacets);
   }
 
-  private void collectInputValues(ForwardBatch forwardBatch) {
-    if (requestsByDependantChain.putIfAbsent(
-            forwardBatch.dependantChain(), forwardBatch.requestIds())
-        != null) {
-      throw new DuplicateRequestException(
-          "Duplicate batch request received for dependant chain %s"
-              .formatted(forwardBatch.dependantChain()));
+  private @Nullable CallbackBatch getCallbackBatch(int chainId, int dependencyIndex) {
+    return callbackBatches[chainId * dependencyNames.size() + dependencyIndex];
+  }
+
+  private int dependencyIndex(String dependencyName) {
+    Integer position = facetPositions.get(dependencyName);
+    if (position == null || position >= dependencyNames.size()) {
+      throw new AssertionError(
+          "Could not find dependency %s in kryon %s. This is a bug"
+              .formatted(dependencyName, kryonId));
     }
+    return position;
+  }
+
+  private void collectInputValues(int chainId, ForwardBatch forwardBatch) {
     ImmutableSet<String> inputNames = forwardBatch.inputNames();
-    if (inputsValueCollector.putIfAbsent(forwardBatch.dependantChain(), forwardBatch) != null) {
+    if (forwardBatches[chainId] != null) {
       throw new DuplicateRequestException(
-          "Duplicate data for inputs %s of kryon %s in dependant chain %s"
-              .formatted(inputNames, kryonId, forwardBatch.dependantChain()));
+          "Duplicate batch request received for dependant chain %s"
+              .formatted(forwardBatch.dependantChain()));
     }
     SetView<String> resolvableInputNames =
         Sets.difference(
@@ -536,27 +758,85 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
       throw new IllegalArgumentException(
           "Did not receive inputs " + Sets.difference(resolvableInputNames, inputNames));
     }
-    availableInputsByDepChain
-        .computeIfAbsent(forwardBatch.dependantChain(), _k -> new LinkedHashSet<>())
-        .addAll(inputNames);
+    forwardBatches[chainId] = forwardBatch;
+    BitSet available = availableFacets[chainId];
+    for (String inputName : inputNames) {
+      Integer position = facetPositions.get(inputName);
+      if (position != null) {
+        available.set(position);
+      }
+    }
+  }
+
+  private static SkipReason getSkipReason(ForwardBatch forwardBatch) {
+    return SkipReason.combine(forwardBatch.skippedRequests().values());
   }
 
-  private static String getSkipMessage(ForwardBatch forwardBatch) {
-    return String.join(", ", forwardBatch.skippedRequests().values());
+  private SkipReason emptyResolutionSkipReason(String depName) {
+    return emptyResolutionSkipReasons.computeIfAbsent(
+        depName,
+        _k ->
+            SkipReason.of("Resolvers for dependency %s resolved to empty list".formatted(depName)));
   }
 
-  private void collectDependencyValues(CallbackBatch callbackBatch) {
+  /**
+   * Records the responses of a streaming dependency and makes the results of the dependency
+   * available once its {@link DependencyStreamPolicy} is satisfied.
+   *
+   * @return true if the results of the dependency became available.
+   */
+  private boolean collectStreamedDependencyValues(
+      int chainId, StreamedCallback streamedCallback) {
+    String dependencyName = streamedCallback.dependencyName();
+    @Nullable DependencyStream dependencyStream =
+        dependencyStreams[chainId * dependencyNames.size() + dependencyIndex(dependencyName)];
+    if (dependencyStream == null) {
+      throw new AssertionError(
+          ("Received streamed responses for dependency %s of kryon %s which is not being streamed."
+                  + " This is a bug")
+              .formatted(dependencyName, kryonId));
+    }
+    @Nullable ImmutableMap<RequestId, Results<Object>> results =
+        dependencyStream.accept(
+            streamedCallback.responsesByDepRequest(), streamedCallback.complete());
+    if (results == null) {
+      return false;
+    }
+    collectDependencyValues(
+        chainId,
+        new CallbackBatch(kryonId, dependencyName, results, streamedCallback.dependantChain()));
+    return true;
+  }
+
+  private void collectDependencyValues(int chainId, CallbackBatch callbackBatch) {
     String dependencyName = callbackBatch.dependencyName();
-    availableInputsByDepChain
-        .computeIfAbsent(callbackBatch.dependantChain(), _k -> new LinkedHashSet<>())
-        .add(dependencyName);
-    if (dependencyValuesCollector
-            .computeIfAbsent(callbackBatch.dependantChain(), k -> new LinkedHashMap<>())
-            .putIfAbsent(dependencyName, callbackBatch)
-        != null) {
+    int dependencyIndex = dependencyIndex(dependencyName);
+    int callbackIndex = chainId * dependencyNames.size() + dependencyIndex;
+    if (callbackBatches[callbackIndex] != null) {
       throw new DuplicateRequestException(
           "Duplicate data for dependency %s of kryon %s in dependant chain %s"
               .formatted(dependencyName, kryonId, callbackBatch.dependantChain()));
     }
+    callbackBatches[callbackIndex] = callbackBatch;
+    availableFacets[chainId].set(dependencyIndex);
+  }
+
+  private static boolean containsAll(BitSet bitSet, BitSet subset) {
+    for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+      if (!bitSet.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns a copy of the given bitsets, followed by new empty bitsets up to the given size. */
+  private static BitSet[] newBitSets(BitSet[] bitSets, int size) {
+    BitSet[] newBitSets = new BitSet[size];
+    System.arraycopy(bitSets, 0, newBitSets, 0, bitSets.length);
+    for (int i = bitSets.length; i < size; i++) {
+      newBitSets[i] = new BitSet();
+    }
+    return newBitSets;
   }
 }
@@ -0,0 +1,159 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import com.flipkart.krystal.krystex.commands.CallbackBatch;
+import com.flipkart.krystal.krystex.commands.CallbackGranule;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.commands.StreamedCallback;
+
+/**
+ * Decides the order in which the commands waiting in the command queues of a {@link KryonExecutor}
+ * are executed. Commands are executed in the order of their priority, and commands with the same
+ * priority are executed in the order in which they were enqueued.
+ *
+ * <p>Implementations must assign the same priority to all the {@link CommandKind#FORWARD} commands
+ * of a kryon, since a kryon expects to receive a flush only after the requests which precede it.
+ */
+public interface CommandSchedulingPolicy {
+
+  /** The default number of commands a command queue executes before yielding its thread. */
+  int DEFAULT_MAX_COMMANDS_PER_DRAIN = SerialCommandQueue.MAX_DRAIN_BATCH_SIZE;
+
+  /** The number of distinct priorities returned by {@link #priority}. */
+  int priorityLevels();
+
+  /**
+   * Returns the priority of a command of the given kind addressed to the given kryon. Must be in
+   * the range [0, {@link #priorityLevels()}). Lower numbers have higher priority.
+   */
+  int priority(KryonDefinition kryonDefinition, CommandKind commandKind);
+
+  /**
+   * The priority of tasks which are not addressed to a kryon - like new executions submitted to the
+   * executor and the flushing of these executions. By default, these tasks have the lowest
+   * priority so that work which is already in flight is completed before new work is started.
+   */
+  default int executorTaskPriority() {
+    return priorityLevels() - 1;
+  }
+
+  /**
+   * The maximum number of commands a command queue executes before yielding its thread to other
+   * KryonExecutors (i.e. other requests) sharing the same thread. Lower values give fairer
+   * scheduling across requests at the cost of more task submissions to the executor service.
+   */
+  default int maxCommandsPerDrain() {
+    return DEFAULT_MAX_COMMANDS_PER_DRAIN;
+  }
+
+  /** All commands are executed in the order in which they were enqueued. */
+  static CommandSchedulingPolicy fifo() {
+    return fifo(DEFAULT_MAX_COMMANDS_PER_DRAIN);
+  }
+
+  static CommandSchedulingPolicy fifo(int maxCommandsPerDrain) {
+    return new Fifo(maxCommandsPerDrain);
+  }
+
+  /**
+   * Callbacks are executed before the commands which forward new work to kryons. Since callbacks
+   * deliver the results of dependencies, this unblocks the output logics of requests which are in
+   * flight before more fan-outs are started.
+   */
+  static CommandSchedulingPolicy callbacksFirst() {
+    return callbacksFirst(DEFAULT_MAX_COMMANDS_PER_DRAIN);
+  }
+
+  static CommandSchedulingPolicy callbacksFirst(int maxCommandsPerDrain) {
+    return new CallbacksFirst(maxCommandsPerDrain);
+  }
+
+  /**
+   * The commands of a kryon with a longer chain of dependencies below it (see {@link
+   * KryonDefinitionRegistry#height(KryonId)}) are executed before those of a kryon with a shorter
+   * chain, since the kryons with the longest dependency chains are the most likely to be on the
+   * critical path of the request.
+   *
+   * @param maxHeight kryons whose height is greater than this are treated as if their height is
+   *     {@code maxHeight}
+   */
+  static CommandSchedulingPolicy criticalPathFirst(int maxHeight) {
+    return criticalPathFirst(maxHeight, DEFAULT_MAX_COMMANDS_PER_DRAIN);
+  }
+
+  static CommandSchedulingPolicy criticalPathFirst(int maxHeight, int maxCommandsPerDrain) {
+    return new CriticalPathFirst(maxHeight, maxCommandsPerDrain);
+  }
+
+  enum CommandKind {
+    /**
+     * Commands which forward new work to a kryon - {@link
+     * com.flipkart.krystal.krystex.commands.ForwardBatch ForwardBatch}, {@link
+     * com.flipkart.krystal.krystex.commands.ForwardGranule ForwardGranule}, {@link
+     * com.flipkart.krystal.krystex.commands.SkipGranule SkipGranule} and {@link
+     * com.flipkart.krystal.krystex.commands.Flush Flush}.
+     */
+    FORWARD,
+    /** Commands which deliver the results of a dependency to its dependant. */
+    CALLBACK;
+
+    public static CommandKind of(KryonCommand kryonCommand) {
+      return kryonCommand instanceof CallbackBatch
+              || kryonCommand instanceof CallbackGranule
+              || kryonCommand instanceof StreamedCallback
+          ? CALLBACK
+          : FORWARD;
+    }
+  }
+
+  record Fifo(int maxCommandsPerDrain) implements CommandSchedulingPolicy {
+
+    @Override
+    public int priorityLevels() {
+      return 1;
+    }
+
+    @Override
+    public int priority(KryonDefinition kryonDefinition, CommandKind commandKind) {
+      return 0;
+    }
+  }
+
+  record CallbacksFirst(int maxCommandsPerDrain) implements CommandSchedulingPolicy {
+
+    @Override
+    public int priorityLevels() {
+      // Callbacks, forwards and executor tasks
+      return 3;
+    }
+
+    @Override
+    public int priority(KryonDefinition kryonDefinition, CommandKind commandKind) {
+      return switch (commandKind) {
+        case CALLBACK -> 0;
+        case FORWARD -> 1;
+      };
+    }
+  }
+
+  record CriticalPathFirst(int maxHeight, int maxCommandsPerDrain)
+      implements CommandSchedulingPolicy {
+
+    public CriticalPathFirst {
+      if (maxHeight < 0) {
+        throw new IllegalArgumentException("maxHeight cannot be negative");
+      }
+    }
+
+    @Override
+    public int priorityLevels() {
+      // One level per height, plus one for executor tasks
+      return maxHeight + 2;
+    }
+
+    @Override
+    public int priority(KryonDefinition kryonDefinition, CommandKind commandKind) {
+      int height = kryonDefinition.kryonDefinitionRegistry().height(kryonDefinition.kryonId());
+      return maxHeight - Math.min(height, maxHeight);
+    }
+  }
+}
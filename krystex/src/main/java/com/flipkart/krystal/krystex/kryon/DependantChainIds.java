@@ -0,0 +1,32 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns the {@link DependantChain}s with which a kryon is executed to dense int ids (0, 1, 2,
+ * ...). Ids are assigned the first time a dependant chain is seen and remain the same for the
+ * lifetime of the {@link KryonDefinition}, so every KryonExecutor executing the kryon sees the same
+ * ids. This allows per-dependant chain state to be stored in arrays indexed by these ids.
+ *
+ * <p>This class is thread safe.
+ */
+final class DependantChainIds {
+
+  private final Map<DependantChain, Integer> ids = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger();
+
+  int idOf(DependantChain dependantChain) {
+    Integer id = ids.get(dependantChain);
+    if (id == null) {
+      id = ids.computeIfAbsent(dependantChain, _d -> nextId.getAndIncrement());
+    }
+    return id;
+  }
+
+  /** Returns the number of ids assigned so far. */
+  int size() {
+    return nextId.get();
+  }
+}
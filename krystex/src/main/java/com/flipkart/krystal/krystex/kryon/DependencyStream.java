@@ -0,0 +1,122 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.flipkart.krystal.data.Errable.empty;
+import static java.util.Collections.unmodifiableMap;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.DependencyStreamPolicy;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The state of one triggering of a streaming dependency (See {@link DependencyStreamPolicy}) of a
+ * kryon in a dependant chain. Accumulates the responses of the dependency requests as they arrive
+ * and decides when the results of the dependency can be handed over to the dependant.
+ *
+ * <p>This class is not thread safe. It is accessed only from the command queue of the dependant.
+ */
+final class DependencyStream {
+
+  private final DependencyStreamPolicy policy;
+  private final Set<RequestId> incomingReqIds;
+  private final Map<RequestId, Facets> inputsByDepReq;
+  private final Map<RequestId, Set<RequestId>> depReqsByIncomingReq;
+
+  /** Executable dependency request id -> the dependant request which spawned it. */
+  private final Map<RequestId, RequestId> incomingReqByDepReq = new HashMap<>();
+
+  /** Dependant request id -> the responses of its dependency requests received so far. */
+  private final Map<RequestId, Map<Facets, Errable<Object>>> receivedResponses = new HashMap<>();
+
+  /** Dependant requests which are still waiting for more responses as per the policy. */
+  private final Set<RequestId> pendingIncomingReqs = new LinkedHashSet<>();
+
+  private boolean delivered;
+
+  DependencyStream(
+      DependencyStreamPolicy policy,
+      Set<RequestId> incomingReqIds,
+      Map<RequestId, Facets> inputsByDepReq,
+      Map<RequestId, Set<RequestId>> depReqsByIncomingReq) {
+    this.policy = policy;
+    this.incomingReqIds = incomingReqIds;
+    this.inputsByDepReq = inputsByDepReq;
+    this.depReqsByIncomingReq = depReqsByIncomingReq;
+    depReqsByIncomingReq.forEach(
+        (incomingReqId, depReqIds) -> {
+          for (RequestId depReqId : depReqIds) {
+            if (inputsByDepReq.containsKey(depReqId)) {
+              incomingReqByDepReq.put(depReqId, incomingReqId);
+              // Only requests with executable dependency requests can receive streamed responses
+              pendingIncomingReqs.add(incomingReqId);
+            }
+          }
+        });
+  }
+
+  /**
+   * Records the given responses of the dependency.
+   *
+   * @param complete true if the dependency has finished executing. In this case, {@code responses}
+   *     contains the responses of all the dependency requests.
+   * @return the results of the dependency per dependant request if the dependant need not wait for
+   *     any more responses, and the results have not been returned before. null otherwise.
+   */
+  @Nullable ImmutableMap<RequestId, Results<Object>> accept(
+      Map<RequestId, Errable<Object>> responses, boolean complete) {
+    if (delivered) {
+      return null;
+    }
+    responses.forEach(
+        (depReqId, response) -> {
+          RequestId incomingReqId = incomingReqByDepReq.get(depReqId);
+          if (incomingReqId == null || !pendingIncomingReqs.contains(incomingReqId)) {
+            return;
+          }
+          Map<Facets, Errable<Object>> received =
+              receivedResponses.computeIfAbsent(incomingReqId, _k -> new LinkedHashMap<>());
+          received.put(inputsByDepReq.getOrDefault(depReqId, Facets.empty()), response);
+          int pending =
+              depReqsByIncomingReq.getOrDefault(incomingReqId, Set.of()).size() - received.size();
+          if (policy.isComplete(unmodifiableMap(received), pending)) {
+            pendingIncomingReqs.remove(incomingReqId);
+          }
+        });
+    if (!complete && !pendingIncomingReqs.isEmpty()) {
+      return null;
+    }
+    delivered = true;
+    ImmutableMap.Builder<RequestId, Results<Object>> results =
+        ImmutableMap.builderWithExpectedSize(incomingReqIds.size());
+    for (RequestId incomingReqId : incomingReqIds) {
+      Map<Facets, Errable<Object>> received =
+          receivedResponses.getOrDefault(incomingReqId, Map.of());
+      boolean awaitingAll = pendingIncomingReqs.contains(incomingReqId);
+      Map<Facets, Errable<Object>> values = new LinkedHashMap<>();
+      for (RequestId depReqId : depReqsByIncomingReq.getOrDefault(incomingReqId, Set.of())) {
+        @Nullable Facets facets = inputsByDepReq.get(depReqId);
+        if (facets == null) {
+          // Skipped dependency request
+          values.put(Facets.empty(), responses.getOrDefault(depReqId, empty()));
+          continue;
+        }
+        @Nullable Errable<Object> response = received.get(facets);
+        if (response != null) {
+          values.put(facets, response);
+        } else if (awaitingAll) {
+          values.put(facets, responses.getOrDefault(depReqId, empty()));
+        }
+      }
+      results.put(incomingReqId, new Results<>(ImmutableMap.copyOf(values)));
+    }
+    return results.build();
+  }
+}
@@ -0,0 +1,189 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.flipkart.krystal.data.FacetLayout;
+import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Precomputed plan which determines which dependencies of a kryon can be triggered when some of
+ * its facets become available. Since the resolvers of a kryon are static, everything which can be
+ * computed without the runtime state of a dependant chain is computed once per {@link
+ * KryonDefinition} so that evaluating the plan on every command needs only bitwise operations.
+ *
+ * <p>Facets and dependencies are identified by their positions as per {@link
+ * KryonDefinition.KryonDefinitionView#facetPositions()}. Sets of facets and dependencies are
+ * represented as {@link BitSet}s of these positions, so a kryon can have any number of them.
+ */
+final class DependencyTriggerPlan {
+
+  /** Facet names indexed by their positions. */
+  private final ImmutableList<String> facetNames;
+
+  /** The layout whose slots are the positions of the facets. */
+  private final FacetLayout facetLayout;
+
+  /** Dependency index -> the bitset of the facets needed by the resolvers of the dependency. */
+  private final BitSet[] resolverInputsMasks;
+
+  /** Facet position -> the bitset of the dependencies whose resolvers need the facet. */
+  private final BitSet[] dependenciesByFacet;
+
+  /** The bitset of dependencies whose resolvers do not need any facets. */
+  private final BitSet dependenciesWithNoResolverInputs = new BitSet();
+
+  /** The bitset of dependencies which do not have any resolvers. */
+  private final BitSet dependenciesWithNoResolvers = new BitSet();
+
+  /** Dependency index -> resolvers of the dependency. */
+  private final ImmutableList<ImmutableSet<ResolverDefinition>> resolverDefinitions;
+
+  /** Dependency index -> names of the inputs of the dependency which are resolved. */
+  private final ImmutableList<ImmutableSet<String>> resolvedInputNames;
+
+  /** Dependency index -> the request to resolve the dependency with its resolvers. */
+  private final ImmutableList<DependencyResolutionRequest> resolutionRequests;
+
+  DependencyTriggerPlan(
+      ImmutableList<String> dependencyNames,
+      ImmutableMap<String, Integer> facetPositions,
+      ImmutableMap<String, ImmutableSet<ResolverDefinition>> resolverDefinitionsByDependencies) {
+    this.facetNames = facetPositions.keySet().asList();
+    this.facetLayout = FacetLayout.of(facetNames);
+    this.resolverInputsMasks = newBitSets(dependencyNames.size());
+    this.dependenciesByFacet = newBitSets(facetPositions.size());
+    for (int i = 0; i < dependencyNames.size(); i++) {
+      ImmutableSet<ResolverDefinition> depResolvers =
+          resolverDefinitionsByDependencies.getOrDefault(dependencyNames.get(i), ImmutableSet.of());
+      for (ResolverDefinition resolverDefinition : depResolvers) {
+        for (String boundFrom : resolverDefinition.boundFrom()) {
+          Integer position = facetPositions.get(boundFrom);
+          if (position != null) {
+            resolverInputsMasks[i].set(position);
+            dependenciesByFacet[position].set(i);
+          }
+        }
+      }
+      if (resolverInputsMasks[i].isEmpty()) {
+        dependenciesWithNoResolverInputs.set(i);
+      }
+      if (depResolvers.isEmpty()) {
+        dependenciesWithNoResolvers.set(i);
+      }
+    }
+    this.resolverDefinitions =
+        dependencyNames.stream()
+            .map(
+                depName ->
+                    resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of()))
+            .collect(toImmutableList());
+    this.resolvedInputNames =
+        resolverDefinitions.stream()
+            .map(
+                resolvers ->
+                    resolvers.stream()
+                        .map(ResolverDefinition::resolvedInputNames)
+                        .flatMap(Collection::stream)
+                        .collect(toImmutableSet()))
+            .collect(toImmutableList());
+    ImmutableList.Builder<DependencyResolutionRequest> resolutionRequests =
+        ImmutableList.builderWithExpectedSize(dependencyNames.size());
+    for (int i = 0; i < dependencyNames.size(); i++) {
+      resolutionRequests.add(
+          new DependencyResolutionRequest(dependencyNames.get(i), resolverDefinitions.get(i)));
+    }
+    this.resolutionRequests = resolutionRequests.build();
+  }
+
+  /**
+   * Returns the bitset of the dependencies which have not been executed yet, and all of whose
+   * resolvers' inputs are available.
+   *
+   * <p>Only dependencies which need at least one of the newly available facets (and dependencies
+   * which do not need any facets) are evaluated. Every other dependency is either not triggerable
+   * or must have been triggered when its inputs became available.
+   *
+   * @param availableFacets the bitset of all the facets which are available
+   * @param newlyAvailableFacets the bitset of the facets which became available since the last time
+   *     this method was called
+   * @param executedDependencies the bitset of the dependencies which have been executed
+   */
+  BitSet triggerableDependencies(
+      BitSet availableFacets, BitSet newlyAvailableFacets, BitSet executedDependencies) {
+    BitSet triggerable = (BitSet) dependenciesWithNoResolverInputs.clone();
+    for (int facet = newlyAvailableFacets.nextSetBit(0);
+        facet >= 0;
+        facet = newlyAvailableFacets.nextSetBit(facet + 1)) {
+      triggerable.or(dependenciesByFacet[facet]);
+    }
+    triggerable.andNot(executedDependencies);
+    for (int dependencyIndex = triggerable.nextSetBit(0);
+        dependencyIndex >= 0;
+        dependencyIndex = triggerable.nextSetBit(dependencyIndex + 1)) {
+      if (!containsAll(availableFacets, resolverInputsMasks[dependencyIndex])) {
+        triggerable.clear(dependencyIndex);
+      }
+    }
+    return triggerable;
+  }
+
+  /** Returns the bitset of the facets needed by the resolvers of all the given dependencies. */
+  BitSet resolverInputs(BitSet dependencies) {
+    BitSet resolverInputs = new BitSet();
+    for (int dependencyIndex = dependencies.nextSetBit(0);
+        dependencyIndex >= 0;
+        dependencyIndex = dependencies.nextSetBit(dependencyIndex + 1)) {
+      resolverInputs.or(resolverInputsMasks[dependencyIndex]);
+    }
+    return resolverInputs;
+  }
+
+  /** Returns a new bitset of the dependencies which do not have any resolvers. */
+  BitSet dependenciesWithNoResolvers() {
+    return (BitSet) dependenciesWithNoResolvers.clone();
+  }
+
+  String facetName(int position) {
+    return facetNames.get(position);
+  }
+
+  FacetLayout facetLayout() {
+    return facetLayout;
+  }
+
+  ImmutableSet<ResolverDefinition> resolverDefinitions(int dependencyIndex) {
+    return resolverDefinitions.get(dependencyIndex);
+  }
+
+  ImmutableSet<String> resolvedInputNames(int dependencyIndex) {
+    return resolvedInputNames.get(dependencyIndex);
+  }
+
+  DependencyResolutionRequest resolutionRequest(int dependencyIndex) {
+    return resolutionRequests.get(dependencyIndex);
+  }
+
+  private static boolean containsAll(BitSet bitSet, BitSet subset) {
+    for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+      if (!bitSet.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BitSet[] newBitSets(int size) {
+    BitSet[] bitSets = new BitSet[size];
+    for (int i = 0; i < size; i++) {
+      bitSets[i] = new BitSet();
+    }
+    return bitSets;
+  }
+}
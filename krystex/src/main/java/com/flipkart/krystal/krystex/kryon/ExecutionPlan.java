@@ -0,0 +1,162 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A frozen plan of all the kryons which are executed when a kryon is executed with a given set of
+ * disabled {@link DependantChain}s. The plan is computed once by walking the dependency graph of
+ * the kryon (See {@link KryonDefinitionRegistry#executionPlan(KryonId, ImmutableSet)}) and is
+ * reused by every {@link KryonExecutor} executing the kryon, so that executing a request does not
+ * need to walk the graph again.
+ *
+ * <p>This class is immutable and thread safe.
+ */
+public final class ExecutionPlan {
+
+  private final KryonId rootKryonId;
+  private final ImmutableSet<DependantChain> disabledDependantChains;
+
+  /**
+   * All the reachable (kryon, dependantChain) pairs in depth-first pre-order - i.e. every dependant
+   * is placed before its dependencies.
+   */
+  private final ImmutableList<PlanNode> nodes;
+
+  /** The distinct kryons of the plan in the order they first appear in {@link #nodes}. */
+  private final ImmutableList<KryonDefinition> kryonDefinitions;
+
+  private final ImmutableMap<KryonId, ImmutableSet<DependantChain>> dependantChainsPerKryon;
+
+  private ExecutionPlan(
+      KryonId rootKryonId,
+      ImmutableSet<DependantChain> disabledDependantChains,
+      ImmutableList<PlanNode> nodes) {
+    this.rootKryonId = rootKryonId;
+    this.disabledDependantChains = disabledDependantChains;
+    this.nodes = nodes;
+    Map<KryonId, KryonDefinition> kryonDefinitions = new LinkedHashMap<>();
+    Map<KryonId, Set<DependantChain>> dependantChainsPerKryon = new LinkedHashMap<>();
+    for (PlanNode node : nodes) {
+      KryonDefinition kryonDefinition = node.kryonDefinition();
+      kryonDefinitions.putIfAbsent(kryonDefinition.kryonId(), kryonDefinition);
+      dependantChainsPerKryon
+          .computeIfAbsent(kryonDefinition.kryonId(), _k -> new LinkedHashSet<>())
+          .add(node.dependantChain());
+    }
+    this.kryonDefinitions = ImmutableList.copyOf(kryonDefinitions.values());
+    this.dependantChainsPerKryon =
+        dependantChainsPerKryon.entrySet().stream()
+            .collect(toImmutableMap(Entry::getKey, e -> ImmutableSet.copyOf(e.getValue())));
+  }
+
+  /**
+   * Walks the dependency graph of the given kryon and computes its execution plan. Dependant chains
+   * which are disabled (and all the dependant chains which extend them) are not part of the plan.
+   *
+   * <p>The dependant chains of the plan are also interned in the {@link DependantChainIds} of their
+   * kryons so that kryons created for this plan can size their per-dependant chain state upfront.
+   */
+  static ExecutionPlan compile(
+      KryonId rootKryonId,
+      KryonDefinitionRegistry kryonDefinitionRegistry,
+      ImmutableSet<DependantChain> disabledDependantChains) {
+    List<PlanNode> nodes = new ArrayList<>();
+    addNodes(
+        rootKryonId,
+        kryonDefinitionRegistry.getDependantChainsStart(),
+        -1,
+        false,
+        kryonDefinitionRegistry,
+        disabledDependantChains,
+        nodes);
+    return new ExecutionPlan(rootKryonId, disabledDependantChains, ImmutableList.copyOf(nodes));
+  }
+
+  private static void addNodes(
+      KryonId kryonId,
+      DependantChain dependantChain,
+      int parent,
+      boolean inheritsPartition,
+      KryonDefinitionRegistry kryonDefinitionRegistry,
+      ImmutableSet<DependantChain> disabledDependantChains,
+      List<PlanNode> nodes) {
+    // If a dependantChain is disabled, don't include that kryon and its dependency kryons
+    if (disabledDependantChains.contains(dependantChain)) {
+      return;
+    }
+    KryonDefinition kryonDefinition = kryonDefinitionRegistry.get(kryonId);
+    kryonDefinition.kryonDefinitionView().dependantChainIds().idOf(dependantChain);
+    int index = nodes.size();
+    nodes.add(new PlanNode(kryonDefinition, dependantChain, parent, inheritsPartition));
+    ImmutableMap<String, KryonId> dependencyKryons = kryonDefinition.dependencyKryons();
+    for (Entry<String, KryonId> dependency : dependencyKryons.entrySet()) {
+      addNodes(
+          dependency.getValue(),
+          dependantChain.extend(kryonId, dependency.getKey()),
+          index,
+          dependencyKryons.size() == 1,
+          kryonDefinitionRegistry,
+          disabledDependantChains,
+          nodes);
+    }
+  }
+
+  public KryonId rootKryonId() {
+    return rootKryonId;
+  }
+
+  public ImmutableSet<DependantChain> disabledDependantChains() {
+    return disabledDependantChains;
+  }
+
+  /**
+   * Returns all the reachable (kryon, dependantChain) pairs in topological order - every dependant
+   * is placed before its dependencies.
+   */
+  public ImmutableList<PlanNode> nodes() {
+    return nodes;
+  }
+
+  /** Returns the distinct kryons of this plan in topological order. */
+  public ImmutableList<KryonDefinition> kryonDefinitions() {
+    return kryonDefinitions;
+  }
+
+  public ImmutableMap<KryonId, ImmutableSet<DependantChain>> dependantChainsPerKryon() {
+    return dependantChainsPerKryon;
+  }
+
+  @Override
+  public String toString() {
+    return "ExecutionPlan{root=%s, nodes=%s}".formatted(rootKryonId, nodes.size());
+  }
+
+  /**
+   * @param parent the index (in {@link #nodes()}) of the node of the dependant kryon. -1 for the
+   *     root of the plan.
+   * @param inheritsPartition true if the dependant kryon has only this dependency. Such a kryon is
+   *     executed in the same partition as its dependant so that chains of kryons do not incur the
+   *     cost of switching between partitions (See {@link KryonExecutorConfig#parallelism()}).
+   */
+  public record PlanNode(
+      KryonDefinition kryonDefinition,
+      DependantChain dependantChain,
+      int parent,
+      boolean inheritsPartition) {
+
+    public KryonId kryonId() {
+      return kryonDefinition.kryonId();
+    }
+  }
+}
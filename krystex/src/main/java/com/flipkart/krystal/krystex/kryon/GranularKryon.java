@@ -5,6 +5,7 @@ import static com.flipkart.krystal.krystex.kryon.KryonUtils.enqueueOrExecuteComm
 import static com.google.common.base.Functions.identity;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toMap;
@@ -14,6 +15,7 @@ import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.commands.CallbackGranule;
@@ -26,7 +28,7 @@ import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.request.RequestId;
-import com.flipkart.krystal.krystex.request.StringReqGenerator;
+import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
 import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverCommand;
@@ -37,10 +39,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -67,7 +71,8 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
 
   /**
    * A unique {@link CompletableFuture} for every new set of Inputs. This acts as a cache so that
-   * the same computation is not repeated multiple times .
+   * the same computation is not repeated multiple times. See {@link
+   * KryonExecutorMetrics#getIoDedupHitCount()}.
    */
   private final Map<Facets, CompletableFuture<@Nullable Object>> resultsCache =
       new LinkedHashMap<>();
@@ -89,17 +94,18 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
       KryonExecutor kryonExecutor,
       Function<LogicExecutionContext, ImmutableMap<String, OutputLogicDecorator>>
           requestScopedDecoratorsSupplier,
-      LogicDecorationOrdering logicDecorationOrdering) {
+      LogicDecorationOrdering logicDecorationOrdering,
+      RequestIdGenerator requestIdGenerator) {
     super(
         kryonDefinition,
         kryonExecutor,
         requestScopedDecoratorsSupplier,
         logicDecorationOrdering,
-        new StringReqGenerator());
+        requestIdGenerator);
   }
 
   private static SkippedExecutionException skipKryonException(SkipGranule skip) {
-    return new SkippedExecutionException(skip.skipDependencyCommand().reason());
+    return skip.skipDependencyCommand().skipReason().asException();
   }
 
   @Override
@@ -311,8 +317,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
         this.skipLogicRequested.getOrDefault(requestId, Optional.empty());
     Map<String, ResolverCommand> resolverCommands;
     if (skipRequested.isPresent()) {
-      SkipDependency skip =
-          ResolverCommand.skip(skipRequested.get().skipDependencyCommand().reason());
+      SkipDependency skip = skipRequested.get().skipDependencyCommand();
       resolverCommands =
           resolversByDependency.keySet().stream().collect(toMap(identity(), _k -> skip));
     } else {
@@ -366,8 +371,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
         Set<RequestId> requestIdSet =
             new HashSet<>(dependencyKryonExecutions.individualCallResponses().keySet());
         RequestId dependencyRequestId =
-            requestIdGenerator.newSubRequest(
-                requestId, () -> "%s[%s]".formatted(dependencyName, 0));
+            dependencyKryonExecutions.requestId(0, requestId, dependencyName, requestIdGenerator);
         /*Skipping Current resolver, as it's a skip, we don't need to iterate
          * over fanout requests as the input is empty*/
         requestIdSet.add(dependencyRequestId);
@@ -397,10 +401,8 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
       long executionsInProgress = dependencyKryonExecutions.executionCounter().longValue();
       Map<RequestId, Facets> oldInputs = new LinkedHashMap<>();
       for (int i = 0; i < executionsInProgress; i++) {
-        int iFinal = i;
         RequestId rid =
-            requestIdGenerator.newSubRequest(
-                requestId, () -> "%s[%s]".formatted(dependencyName, iFinal));
+            dependencyKryonExecutions.requestId(i, requestId, dependencyName, requestIdGenerator);
         oldInputs.put(
             rid,
             new Facets(
@@ -413,18 +415,16 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
       long batchSize = max(executionsInProgress, 1);
       long requestCounter = 0;
       for (int j = 0; j < inputList.size(); j++) {
-        int jFinal = j;
         Facets facets = inputList.get(j);
         for (int i = 0; i < batchSize; i++) {
-          int iFinal = i;
           RequestId dependencyRequestId =
-              requestIdGenerator.newSubRequest(
-                  requestId, () -> "%s[%s]".formatted(dependencyName, jFinal * batchSize + iFinal));
+              dependencyKryonExecutions.requestId(
+                  toIntExact(j * batchSize + i), requestId, dependencyName, requestIdGenerator);
           RequestId inProgressRequestId;
           if (executionsInProgress > 0) {
             inProgressRequestId =
-                requestIdGenerator.newSubRequest(
-                    requestId, () -> "%s[%s]".formatted(dependencyName, iFinal));
+                dependencyKryonExecutions.requestId(
+                    i, requestId, dependencyName, requestIdGenerator);
           } else {
             inProgressRequestId = dependencyRequestId;
           }
@@ -474,8 +474,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
                     () -> {
                       Results<Object> results;
                       if (throwable != null) {
-                        results =
-                            new Results<>(ImmutableMap.of(Facets.empty(), withError(throwable)));
+                        results = Results.single(Facets.empty(), withError(throwable));
                       } else {
                         results =
                             new Results<>(
@@ -596,7 +595,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
                                 return new CallbackGranule(
                                     this.kryonId,
                                     depName,
-                                    new Results<>(ImmutableMap.of(Facets.empty(), errable)),
+                                    Results.single(Facets.empty(), errable),
                                     requestId,
                                     getDepChainFor(requestId));
                               },
@@ -617,6 +616,13 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
     // calculated
     CompletableFuture<@Nullable Object> resultFuture =
         resultsCache.get(outputLogicFacets.providedFacets());
+    if (outputLogicDefinition instanceof IOLogicDefinition<Object>) {
+      if (resultFuture != null) {
+        kryonExecutor.getKryonMetrics().ioDeduplicated();
+      } else {
+        kryonExecutor.getKryonMetrics().ioCalled();
+      }
+    }
     if (resultFuture == null) {
       resultFuture =
           executeDecoratedOutputLogic(
@@ -679,14 +685,39 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
     }
   }
 
+  /**
+   * @param requestIds The request ids of the executions of the dependency, indexed by the position
+   *     of the execution. Request ids are created the first time they are needed and reused
+   *     thereafter, so that the same execution always has the same request id.
+   */
   private record DependencyKryonExecutions(
       LongAdder executionCounter,
       Set<ResolverDefinition> executedResolvers,
       Map<RequestId, Facets> individualCallInputs,
-      Map<RequestId, CompletableFuture<GranuleResponse>> individualCallResponses) {
+      Map<RequestId, CompletableFuture<GranuleResponse>> individualCallResponses,
+      List<RequestId> requestIds) {
 
     private DependencyKryonExecutions() {
-      this(new LongAdder(), new LinkedHashSet<>(), new LinkedHashMap<>(), new LinkedHashMap<>());
+      this(
+          new LongAdder(),
+          new LinkedHashSet<>(),
+          new LinkedHashMap<>(),
+          new LinkedHashMap<>(),
+          new ArrayList<>());
+    }
+
+    private RequestId requestId(
+        int index,
+        RequestId dependantRequestId,
+        String dependencyName,
+        RequestIdGenerator requestIdGenerator) {
+      while (requestIds.size() <= index) {
+        int position = requestIds.size();
+        requestIds.add(
+            requestIdGenerator.newSubRequest(
+                dependantRequestId, () -> "%s[%s]".formatted(dependencyName, position)));
+      }
+      return requestIds.get(index);
     }
   }
 }
@@ -51,9 +51,22 @@ public record KryonDefinition(
    * @param resolverDefinitionsByDependencies Maps each dependency with a set of resolverDefinitions
    *     which resolve inputs of that dependency
    * @param dependenciesWithNoResolvers Set of dependency names which have no resolvers.
+   * @param dependencyNames The dependencies of the kryon. The index of a dependency in this list is
+   *     also its position in {@code facetPositions}.
+   * @param facetPositions Maps each facet which is relevant for dependency resolution - all the
+   *     dependencies followed by all the inputs which resolvers are bound from - to a unique bit
+   *     position, starting from 0.
+   * @param triggerPlan Determines which dependencies can be triggered when some facets become
+   *     available.
+   * @param dependantChainIds The dense ids of the dependant chains with which the kryon is
+   *     executed.
    */
   record KryonDefinitionView(
       ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>> resolverDefinitionsByInput,
       ImmutableMap<String, ImmutableSet<ResolverDefinition>> resolverDefinitionsByDependencies,
-      ImmutableSet<String> dependenciesWithNoResolvers) {}
+      ImmutableSet<String> dependenciesWithNoResolvers,
+      ImmutableList<String> dependencyNames,
+      ImmutableMap<String, Integer> facetPositions,
+      DependencyTriggerPlan triggerPlan,
+      DependantChainIds dependantChainIds) {}
 }
@@ -2,19 +2,44 @@ package com.flipkart.krystal.krystex.kryon;
 
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class KryonDefinitionRegistry {
 
+  /**
+   * The maximum number of execution plans cached by a registry. Each distinct set of disabled
+   * dependant chains has its own plan, so the number of possible keys is not bounded by the number
+   * of kryons.
+   */
+  private static final int MAX_CACHED_EXECUTION_PLANS = 1000;
+
   private final LogicDefinitionRegistry logicDefinitionRegistry;
   private final Map<KryonId, KryonDefinition> kryonDefinitions = new LinkedHashMap<>();
   private final DependantChainStart dependantChainStart = new DependantChainStart();
 
+  /**
+   * Execution plans are computed lazily and shared by all the executors using this registry. They
+   * are discarded whenever a new kryon definition is added, since the new definition might be part
+   * of the graph of an existing plan.
+   */
+  private final ConcurrentMap<ExecutionPlanKey, ExecutionPlan> executionPlans =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_EXECUTION_PLANS)
+          .<ExecutionPlanKey, ExecutionPlan>build()
+          .asMap();
+
+  /** Computed lazily and discarded whenever a new kryon definition is added. */
+  private final Map<KryonId, Integer> heights = new ConcurrentHashMap<>();
+
   public KryonDefinitionRegistry(LogicDefinitionRegistry logicDefinitionRegistry) {
     this.logicDefinitionRegistry = logicDefinitionRegistry;
   }
@@ -58,10 +83,64 @@ public final class KryonDefinitionRegistry {
             Optional.ofNullable(mulitResolverId),
             this);
     kryonDefinitions.put(kryonDefinition.kryonId(), kryonDefinition);
+    executionPlans.clear();
+    heights.clear();
     return kryonDefinition;
   }
 
+  /**
+   * Returns the {@link ExecutionPlan} of the given kryon when executed with the given disabled
+   * dependant chains. The plan is computed the first time it is requested and cached until it is
+   * evicted or a new kryon definition is added.
+   */
+  public ExecutionPlan executionPlan(
+      KryonId kryonId, ImmutableSet<DependantChain> disabledDependantChains) {
+    ExecutionPlanKey key = new ExecutionPlanKey(kryonId, disabledDependantChains);
+    ExecutionPlan executionPlan = executionPlans.get(key);
+    if (executionPlan == null) {
+      executionPlan =
+          executionPlans.computeIfAbsent(
+              key, _k -> ExecutionPlan.compile(kryonId, this, disabledDependantChains));
+    }
+    return executionPlan;
+  }
+
+  /**
+   * Returns the number of kryons in the longest chain of dependencies below the given kryon. A
+   * kryon with no dependencies has height 0.
+   */
+  public int height(KryonId kryonId) {
+    Integer height = heights.get(kryonId);
+    if (height == null) {
+      Map<KryonId, Integer> computed = new LinkedHashMap<>();
+      height = computeHeight(kryonId, computed);
+      heights.putAll(computed);
+    }
+    return height;
+  }
+
+  private int computeHeight(KryonId kryonId, Map<KryonId, Integer> computed) {
+    Integer height = heights.get(kryonId);
+    if (height == null) {
+      height = computed.get(kryonId);
+    }
+    if (height != null) {
+      return height;
+    }
+    // Guards against cycles in malformed graphs
+    computed.put(kryonId, 0);
+    int maxDepHeight = -1;
+    for (KryonId depKryonId : get(kryonId).dependencyKryons().values()) {
+      maxDepHeight = Math.max(maxDepHeight, computeHeight(depKryonId, computed));
+    }
+    computed.put(kryonId, maxDepHeight + 1);
+    return maxDepHeight + 1;
+  }
+
   public DependantChain getDependantChainsStart() {
     return dependantChainStart;
   }
+
+  private record ExecutionPlanKey(
+      KryonId kryonId, ImmutableSet<DependantChain> disabledDependantChains) {}
 }
@@ -1,8 +1,10 @@
 package com.flipkart.krystal.krystex.kryon;
 
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.BREADTH;
+import static com.flipkart.krystal.krystex.kryon.KryonMetric.QUEUE_WAIT;
 import static com.flipkart.krystal.utils.Futures.linkFutures;
 import static com.flipkart.krystal.utils.Futures.propagateCancellation;
+import static com.flipkart.krystal.utils.Futures.propagateCompletion;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -10,7 +12,6 @@ import static com.google.common.collect.Sets.union;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.failedFuture;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 
@@ -22,26 +23,35 @@ import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
 import com.flipkart.krystal.krystex.commands.ForwardGranule;
 import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.CommandSchedulingPolicy.CommandKind;
+import com.flipkart.krystal.krystex.kryon.ExecutionPlan.PlanNode;
 import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.DecoratorContext;
-import com.flipkart.krystal.krystex.request.IntReqGenerator;
+import com.flipkart.krystal.krystex.logicdecorators.memoization.ResultMemoizer;
+import com.flipkart.krystal.krystex.request.AtomicLongReqGenerator;
+import com.flipkart.krystal.krystex.request.DebugReqGenerator;
+import com.flipkart.krystal.krystex.request.LongReqGenerator;
 import com.flipkart.krystal.krystex.request.RequestId;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
-import com.flipkart.krystal.krystex.request.StringReqGenerator;
 import com.flipkart.krystal.utils.MultiLeasePool;
 import com.flipkart.krystal.utils.MultiLeasePool.Lease;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
@@ -67,6 +77,17 @@ public final class KryonExecutor implements KrystalExecutor {
   private final KryonDefinitionRegistry kryonDefinitionRegistry;
   private final KryonExecutorConfig executorConfig;
   private final Lease<? extends ExecutorService> commandQueueLease;
+  private final SerialCommandQueue commandQueue;
+
+  /**
+   * The command queues of the partitions of this executor. Empty if {@link
+   * KryonExecutorConfig#parallelism()} is 1, in which case the commands of all kryons are executed
+   * in {@link #commandQueue}.
+   */
+  private final ImmutableList<SerialCommandQueue> partitionQueues;
+
+  private final Map<KryonId, Integer> kryonPartitions = new ConcurrentHashMap<>();
+  private int nextPartition;
   private final String instanceId;
 
   /**
@@ -89,12 +110,28 @@ public final class KryonExecutor implements KrystalExecutor {
 
   private final KryonRegistry<?> kryonRegistry = new KryonRegistry<>();
   private final KryonExecutorMetrics kryonMetrics;
+  private final CommandSchedulingPolicy schedulingPolicy;
   private volatile boolean closed;
   private final Map<RequestId, KryonExecution> allExecutions = new LinkedHashMap<>();
   private final Set<RequestId> unFlushedExecutions = new LinkedHashSet<>();
+
+  /**
+   * The execution ids of all executions. Tracked only in debug mode to report duplicate execution
+   * ids.
+   */
+  private final Set<String> debugExecutionIds = new LinkedHashSet<>();
   private final Map<KryonId, Set<DependantChain>> dependantChainsPerKryon = new LinkedHashMap<>();
+
+  /**
+   * The execution plans whose kryons have already been created by this executor. Accessed only in
+   * the main command queue.
+   */
+  private final Set<ExecutionPlan> appliedExecutionPlans =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
   private final RequestIdGenerator preferredReqGenerator;
-  private final Set<DependantChain> depChainsDisabledInAllExecutions = new LinkedHashSet<>();
+  private volatile ImmutableSet<DependantChain> depChainsDisabledInAllExecutions =
+      ImmutableSet.of();
 
   public KryonExecutor(
       KryonDefinitionRegistry kryonDefinitionRegistry,
@@ -104,16 +141,39 @@ public final class KryonExecutor implements KrystalExecutor {
     this.kryonDefinitionRegistry = kryonDefinitionRegistry;
     this.executorConfig = executorConfig;
     this.commandQueueLease = commandQueuePool.lease();
+    this.schedulingPolicy = executorConfig.commandSchedulingPolicy();
+    this.commandQueue = newCommandQueue(commandQueueLease.get(), schedulingPolicy);
+    ImmutableList.Builder<SerialCommandQueue> partitionQueues = ImmutableList.builder();
+    if (executorConfig.parallelism() > 1) {
+      for (int i = 0; i < executorConfig.parallelism(); i++) {
+        partitionQueues.add(newCommandQueue(commandQueueLease.get(), schedulingPolicy));
+      }
+    }
+    this.partitionQueues = partitionQueues.build();
     this.instanceId = instanceId;
     this.requestScopedLogicDecoratorConfigs =
         ImmutableMap.copyOf(executorConfig.requestScopedLogicDecoratorConfigs());
-    this.kryonMetrics = new KryonExecutorMetrics();
-    this.preferredReqGenerator =
-        executorConfig.debug() ? new StringReqGenerator() : new IntReqGenerator();
+    this.kryonMetrics = new KryonExecutorMetrics(executorConfig.metricsConfig());
+    if (executorConfig.debug()) {
+      this.preferredReqGenerator = new DebugReqGenerator();
+    } else if (executorConfig.parallelism() > 1) {
+      // Request ids are generated by kryons in different partitions in parallel
+      this.preferredReqGenerator = new AtomicLongReqGenerator();
+    } else {
+      this.preferredReqGenerator = new LongReqGenerator();
+    }
   }
 
   private ImmutableMap<String, OutputLogicDecorator> getRequestScopedDecorators(
       LogicExecutionContext logicExecutionContext) {
+    // Synchronized since this can be called by kryons in different partitions in parallel
+    synchronized (requestScopedMainDecorators) {
+      return _getRequestScopedDecorators(logicExecutionContext);
+    }
+  }
+
+  private ImmutableMap<String, OutputLogicDecorator> _getRequestScopedDecorators(
+      LogicExecutionContext logicExecutionContext) {
     KryonId kryonId = logicExecutionContext.kryonId();
     KryonDefinition kryonDefinition = kryonDefinitionRegistry.get(kryonId);
     OutputLogicDefinition<?> outputLogicDefinition = kryonDefinition.getOutputLogicDefinition();
@@ -141,13 +201,11 @@ public final class KryonExecutor implements KrystalExecutor {
                                           .factory()
                                           .apply(
                                               new DecoratorContext(
-                                                  instanceId, logicExecutionContext)));
+                                                  instanceId,
+                                                  logicExecutionContext,
+                                                  commandQueueExecutor(kryonId))));
                       outputLogicDecorator.executeCommand(
-                          new InitiateActiveDepChains(
-                              kryonId,
-                              ImmutableSet.copyOf(
-                                  dependantChainsPerKryon.getOrDefault(
-                                      kryonId, ImmutableSet.of()))));
+                          new InitiateActiveDepChains(kryonId, getDependantChains(kryonId)));
                       decorators.putIfAbsent(decoratorType, outputLogicDecorator);
                     }
                   });
@@ -155,6 +213,12 @@ public final class KryonExecutor implements KrystalExecutor {
     return ImmutableMap.copyOf(decorators);
   }
 
+  private ImmutableSet<DependantChain> getDependantChains(KryonId kryonId) {
+    synchronized (dependantChainsPerKryon) {
+      return ImmutableSet.copyOf(dependantChainsPerKryon.getOrDefault(kryonId, ImmutableSet.of()));
+    }
+  }
+
   @Override
   public <T> CompletableFuture<@Nullable T> executeKryon(
       KryonId kryonId, Facets facets, KryonExecutionConfig executionConfig) {
@@ -167,50 +231,114 @@ public final class KryonExecutor implements KrystalExecutor {
     String executionId = executionConfig.executionId();
     checkArgument(executionId != null, "executionConfig.executionId can not be null");
     RequestId requestId =
-        preferredReqGenerator.newRequest("%s:%s".formatted(instanceId, executionId));
+        preferredReqGenerator.newRequest(() -> "%s:%s".formatted(instanceId, executionId));
 
     //noinspection RedundantCast: This is to avoid nullChecker failing compilation.
     return enqueueCommand(
-            // Perform all datastructure manipulations in the command queue to avoid multi-thread
-            // access
-            (Supplier<CompletableFuture<@Nullable T>>)
-                (() -> {
-                  createDependencyKryons(
-                      kryonId, kryonDefinitionRegistry.getDependantChainsStart(), executionConfig);
-                  CompletableFuture<@Nullable Object> future = new CompletableFuture<>();
-                  if (allExecutions.containsKey(requestId)) {
-                    future.completeExceptionally(
-                        new IllegalArgumentException(
-                            "Received duplicate requests for same instanceId '%s' and execution Id '%s'"
-                                .formatted(instanceId, executionId)));
-                  } else {
-                    allExecutions.put(
-                        requestId,
-                        new KryonExecution(kryonId, requestId, facets, executionConfig, future));
-                    unFlushedExecutions.add(requestId);
-                  }
-                  //noinspection unchecked
-                  return (CompletableFuture<@Nullable T>) future;
-                }))
-        .thenCompose(identity());
+        commandQueue,
+        schedulingPolicy.executorTaskPriority(),
+        // Perform all datastructure manipulations in the command queue to avoid multi-thread
+        // access
+        (Supplier<CompletableFuture<@Nullable T>>)
+            (() -> {
+              ExecutionPlan executionPlan =
+                  kryonDefinitionRegistry.executionPlan(
+                      kryonId, disabledDependantChains(executionConfig));
+              if (appliedExecutionPlans.add(executionPlan)) {
+                createKryons(executionPlan);
+              }
+              CompletableFuture<@Nullable Object> future = new CompletableFuture<>();
+              if (executorConfig.debug() && !debugExecutionIds.add(executionId)) {
+                future.completeExceptionally(
+                    new IllegalArgumentException(
+                        "Received duplicate requests for same instanceId '%s' and execution Id '%s'"
+                            .formatted(instanceId, executionId)));
+              } else {
+                allExecutions.put(
+                    requestId,
+                    new KryonExecution(kryonId, requestId, facets, executionConfig, future));
+                unFlushedExecutions.add(requestId);
+              }
+              //noinspection unchecked
+              return (CompletableFuture<@Nullable T>) future;
+            }));
   }
 
-  private void createDependencyKryons(
-      KryonId kryonId, DependantChain dependantChain, KryonExecutionConfig executionConfig) {
-    KryonDefinition kryonDefinition = kryonDefinitionRegistry.get(kryonId);
-    // If a dependantChain is disabled, don't create that kryon and its dependency kryons
-    if (!union(executorConfig.disabledDependantChains(), executionConfig.disabledDependantChains())
-        .contains(dependantChain)) {
-      createKryonIfAbsent(kryonId, kryonDefinition);
-      ImmutableMap<String, KryonId> dependencyKryons = kryonDefinition.dependencyKryons();
-      dependencyKryons.forEach(
-          (dependencyName, depKryonId) ->
-              createDependencyKryons(
-                  depKryonId, dependantChain.extend(kryonId, dependencyName), executionConfig));
-      dependantChainsPerKryon
-          .computeIfAbsent(kryonId, _n -> new LinkedHashSet<>())
-          .add(dependantChain);
+  private ImmutableSet<DependantChain> disabledDependantChains(
+      KryonExecutionConfig executionConfig) {
+    ImmutableSet<DependantChain> disabledInExecution = executionConfig.disabledDependantChains();
+    ImmutableSet<DependantChain> disabledInExecutor = executorConfig.disabledDependantChains();
+    if (disabledInExecution.isEmpty()) {
+      return disabledInExecutor;
+    } else if (disabledInExecutor.isEmpty()) {
+      return disabledInExecution;
+    }
+    return union(disabledInExecutor, disabledInExecution).immutableCopy();
+  }
+
+  /**
+   * Creates the kryons of the given execution plan which have not been created yet.
+   *
+   * <p>Each kryon is assigned a partition if it has not already been assigned one. If a kryon has
+   * only one dependency, the dependency is assigned the same partition as the kryon so that chains
+   * of kryons do not incur the cost of switching between partitions. Else, each dependency is
+   * assigned the next partition in round-robin order, so that independent dependency branches are
+   * executed in parallel.
+   */
+  private void createKryons(ExecutionPlan executionPlan) {
+    ImmutableList<PlanNode> nodes = executionPlan.nodes();
+    int[] partitions = new int[nodes.size()];
+    for (int i = 0; i < nodes.size(); i++) {
+      PlanNode node = nodes.get(i);
+      createKryonIfAbsent(node.kryonId(), node.kryonDefinition());
+      partitions[i] =
+          assignPartition(
+              node.kryonId(),
+              node.inheritsPartition() ? partitions[node.parent()] : nextPartition());
+    }
+    synchronized (dependantChainsPerKryon) {
+      executionPlan
+          .dependantChainsPerKryon()
+          .forEach(
+              (kryonId, dependantChains) ->
+                  dependantChainsPerKryon
+                      .computeIfAbsent(kryonId, _n -> new LinkedHashSet<>())
+                      .addAll(dependantChains));
+    }
+  }
+
+  private int nextPartition() {
+    if (partitionQueues.isEmpty()) {
+      return 0;
+    }
+    int partition = nextPartition;
+    nextPartition = (partition + 1) % partitionQueues.size();
+    return partition;
+  }
+
+  private static SerialCommandQueue newCommandQueue(
+      ExecutorService executorService, CommandSchedulingPolicy schedulingPolicy) {
+    return new SerialCommandQueue(
+        executorService,
+        schedulingPolicy.priorityLevels(),
+        schedulingPolicy.maxCommandsPerDrain());
+  }
+
+  private int assignPartition(KryonId kryonId, int partition) {
+    if (partitionQueues.isEmpty()) {
+      return 0;
+    }
+    Integer existingPartition = kryonPartitions.putIfAbsent(kryonId, partition);
+    return existingPartition != null ? existingPartition : partition;
+  }
+
+  /** Returns the command queue in which the commands of the given kryon are to be executed. */
+  private SerialCommandQueue commandQueueOf(KryonId kryonId) {
+    if (partitionQueues.isEmpty()) {
+      return commandQueue;
     }
+    Integer partition = kryonPartitions.get(kryonId);
+    return partition != null ? partitionQueues.get(partition) : commandQueue;
   }
 
   @SuppressWarnings("unchecked")
@@ -224,7 +352,8 @@ public final class KryonExecutor implements KrystalExecutor {
                       kryonDefinition,
                       this,
                       this::getRequestScopedDecorators,
-                      executorConfig.logicDecorationOrdering()));
+                      executorConfig.logicDecorationOrdering(),
+                      preferredReqGenerator));
     } else {
       KryonRegistry<BatchKryon> batchKryonRegistry = (KryonRegistry<BatchKryon>) kryonRegistry;
       batchKryonRegistry.createIfAbsent(
@@ -244,40 +373,117 @@ public final class KryonExecutor implements KrystalExecutor {
   }
 
   /**
-   * Enqueues the provided KryonCommand supplier into the command queue. This method is intended to
-   * be called in threads other than the main thread of this KryonExecutor.(for example IO reactor
-   * threads). When a non-blocking IO call is made by a kryon, a callback is added to the resulting
-   * CompletableFuture which generates an ExecuteWithDependency command for its dependents. That is
-   * when this method is used - ensuring that all further processing of the kryonCammand happens in
-   * the main thread.
+   * Enqueues the provided KryonCommand supplier into the command queue of the given kryon. This
+   * method is intended to be called in threads other than the main thread of this
+   * KryonExecutor.(for example IO reactor threads). When a non-blocking IO call is made by a kryon,
+   * a callback is added to the resulting CompletableFuture which generates an ExecuteWithDependency
+   * command for its dependents. That is when this method is used - ensuring that all further
+   * processing of the kryonCammand happens in the main thread.
+   *
+   * <p>The command generated by the supplier is scheduled as a {@link CommandKind#CALLBACK}.
+   *
+   * @param kryonId the kryon to which the command generated by the supplier is addressed.
    */
   <R extends KryonResponse> CompletableFuture<R> enqueueKryonCommand(
-      Supplier<? extends KryonCommand> kryonCommand) {
+      KryonId kryonId, Supplier<? extends KryonCommand> kryonCommand) {
+    return enqueueKryonCommand(kryonId, CommandKind.CALLBACK, kryonCommand);
+  }
+
+  private <R extends KryonResponse> CompletableFuture<R> enqueueKryonCommand(
+      KryonId kryonId, CommandKind commandKind, Supplier<? extends KryonCommand> kryonCommand) {
+    SerialCommandQueue commandQueue = commandQueueOf(kryonId);
+    int priority;
+    try {
+      priority = priorityOf(kryonId, commandKind);
+    } catch (Throwable e) {
+      return failedFuture(e);
+    }
+    if (!kryonMetrics.shouldSample()) {
+      return enqueueCommand(commandQueue, priority, () -> _executeCommand(kryonCommand.get()));
+    }
+    long enqueuedAt = System.nanoTime();
     return enqueueCommand(
-            (Supplier<CompletableFuture<R>>) () -> _executeCommand(kryonCommand.get()))
-        .thenCompose(identity());
+        commandQueue,
+        priority,
+        () -> {
+          KryonCommand command = kryonCommand.get();
+          kryonMetrics.record(
+              kryonId, command.dependantChain(), QUEUE_WAIT, System.nanoTime() - enqueuedAt);
+          return _executeCommand(command);
+        });
   }
 
   /**
-   * When using {@link GraphTraversalStrategy#DEPTH}, this method can be called only from the main
-   * thread of this KryonExecutor. Calling this method from any other thread (for example: IO
-   * reactor threads) will cause race conditions, multithreaded access of non-thread-safe data
-   * structures, and resulting unspecified behaviour.
-   *
-   * <p>When using {@link GraphTraversalStrategy#DEPTH}, this is a more optimal version of {@link
-   * #enqueueKryonCommand(Supplier)} as it bypasses the command queue for the special case that the
-   * command is originating from the same main thread inside the command queue,thus avoiding the
-   * pontentially unnecessary contention in the thread-safe structures inside the command queue.
+   * Returns an executor which executes tasks in the command queue of the given kryon as {@link
+   * CommandKind#CALLBACK}s. Tasks submitted from the thread which is currently draining that
+   * command queue are executed inline.
+   */
+  private Executor commandQueueExecutor(KryonId kryonId) {
+    return task -> {
+      SerialCommandQueue commandQueue = commandQueueOf(kryonId);
+      if (commandQueue.isDrainingInCurrentThread()) {
+        task.run();
+        return;
+      }
+      commandQueue.enqueue(
+          () -> {
+            kryonMetrics.commandQueued();
+            task.run();
+          },
+          priorityOf(kryonId, CommandKind.CALLBACK));
+    };
+  }
+
+  private int priorityOf(KryonId kryonId, CommandKind commandKind) {
+    if (schedulingPolicy.priorityLevels() == 1) {
+      return 0;
+    }
+    return schedulingPolicy.priority(kryonDefinitionRegistry.get(kryonId), commandKind);
+  }
+
+  /**
+   * When using {@link GraphTraversalStrategy#DEPTH}, this is a more optimal version of {@link
+   * #enqueueKryonCommand(KryonId, Supplier)} as it bypasses the command queue for the special case
+   * that the command is originating from the thread which is draining the command queue of the
+   * kryon, thus avoiding the pontentially unnecessary contention in the thread-safe structures
+   * inside the command queue. In all other cases - the command is addressed to a kryon in a
+   * different partition, or the caller is a thread outside this KryonExecutor (for example: the
+   * thread of another KryonExecutor which completed a result shared via a session scoped {@link
+   * ResultMemoizer}) - the command is enqueued into the command queue of the kryon.
    */
   <T extends KryonResponse> CompletableFuture<T> executeCommand(KryonCommand kryonCommand) {
-    if (BREADTH.equals(executorConfig.graphTraversalStrategy())) {
-      return enqueueKryonCommand(() -> kryonCommand);
+    KryonId kryonId = kryonCommand.kryonId();
+    if (shouldEnqueue(kryonId)) {
+      return enqueueKryonCommand(kryonId, CommandKind.of(kryonCommand), () -> kryonCommand);
     } else {
       kryonMetrics.commandQueueBypassed();
       return _executeCommand(kryonCommand);
     }
   }
 
+  /**
+   * Same as {@link #executeCommand(KryonCommand)}, except that if the command needs to be enqueued,
+   * the command is generated in the thread which executes the command. This is to be used when
+   * generating the command needs access to the state of the kryon and the caller might be running
+   * in a different partition than that of the kryon.
+   *
+   * @param kryonId the kryon to which the command generated by the supplier is addressed.
+   */
+  <T extends KryonResponse> CompletableFuture<T> executeCommand(
+      KryonId kryonId, Supplier<? extends KryonCommand> kryonCommand) {
+    if (shouldEnqueue(kryonId)) {
+      return enqueueKryonCommand(kryonId, kryonCommand);
+    } else {
+      kryonMetrics.commandQueueBypassed();
+      return _executeCommand(kryonCommand.get());
+    }
+  }
+
+  private boolean shouldEnqueue(KryonId kryonId) {
+    return BREADTH.equals(executorConfig.graphTraversalStrategy())
+        || !commandQueueOf(kryonId).isDrainingInCurrentThread();
+  }
+
   private <R extends KryonResponse> CompletableFuture<R> _executeCommand(
       KryonCommand kryonCommand) {
     try {
@@ -339,7 +545,9 @@ public final class KryonExecutor implements KrystalExecutor {
   }
 
   private void computeDisabledDependantChains() {
-    depChainsDisabledInAllExecutions.clear();
+    // Computed in a new set and then published since kryon commands being executed in other
+    // partitions might be reading the current set.
+    Set<DependantChain> disabledInAllExecutions = new LinkedHashSet<>();
     List<ImmutableSet<DependantChain>> disabledDependantChainsPerExecution =
         unFlushedExecutions.stream()
             .map(this::getKryonExecution)
@@ -349,14 +557,15 @@ public final class KryonExecutor implements KrystalExecutor {
     disabledDependantChainsPerExecution.stream()
         .filter(x -> !x.isEmpty())
         .findAny()
-        .ifPresent(depChainsDisabledInAllExecutions::addAll);
+        .ifPresent(disabledInAllExecutions::addAll);
     for (Set<DependantChain> disabledDepChains : disabledDependantChainsPerExecution) {
-      if (depChainsDisabledInAllExecutions.isEmpty()) {
+      if (disabledInAllExecutions.isEmpty()) {
         break;
       }
-      depChainsDisabledInAllExecutions.retainAll(disabledDepChains);
+      disabledInAllExecutions.retainAll(disabledDepChains);
     }
-    depChainsDisabledInAllExecutions.addAll(executorConfig.disabledDependantChains());
+    disabledInAllExecutions.addAll(executorConfig.disabledDependantChains());
+    this.depChainsDisabledInAllExecutions = ImmutableSet.copyOf(disabledInAllExecutions);
   }
 
   private KryonExecution getKryonExecution(RequestId requestId) {
@@ -445,7 +654,7 @@ public final class KryonExecutor implements KrystalExecutor {
     }
     this.closed = true;
     flush();
-    enqueueCommand(
+    enqueueRunnable(
         () ->
             allOf(
                     allExecutions.values().stream()
@@ -459,20 +668,32 @@ public final class KryonExecutor implements KrystalExecutor {
   }
 
   private void enqueueRunnable(Runnable command) {
-    enqueueCommand(
+    commandQueue.enqueue(
         () -> {
+          kryonMetrics.commandQueued();
           command.run();
-          return new Object();
-        });
+        },
+        schedulingPolicy.executorTaskPriority());
   }
 
-  private <T> CompletableFuture<T> enqueueCommand(Supplier<T> command) {
-    return supplyAsync(
+  /**
+   * Enqueues the command into the command queue and returns a future which completes when the
+   * future returned by the command completes.
+   */
+  private <T> CompletableFuture<T> enqueueCommand(
+      SerialCommandQueue commandQueue, int priority, Supplier<CompletableFuture<T>> command) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    commandQueue.enqueue(
         () -> {
           kryonMetrics.commandQueued();
-          return command.get();
+          try {
+            propagateCompletion(command.get(), result);
+          } catch (Throwable e) {
+            result.completeExceptionally(e);
+          }
         },
-        commandQueueLease.get());
+        priority);
+    return result;
   }
 
   private record KryonExecution(
@@ -14,6 +14,21 @@ import java.util.Map;
 import java.util.function.Function;
 import lombok.Builder;
 
+/**
+ * @param parallelism The number of partitions into which the kryons of a KryonExecutor are
+ *     divided. Each partition processes the commands of its kryons serially on its own command
+ *     queue, and different partitions can process commands in parallel if the executor service
+ *     leased by the KryonExecutor has more than one thread. Independent dependencies of a kryon
+ *     are placed in different partitions, while a kryon with a single dependency shares its
+ *     partition with the dependency. Defaults to 1, meaning all kryons are processed serially by
+ *     the same command queue. When greater than 1, logic decorators and kryon decorators which are
+ *     shared by more than one kryon must be thread safe.
+ * @param metricsConfig Configures the recording of per-kryon latency histograms. Disabled by
+ *     default.
+ * @param commandSchedulingPolicy Decides the order in which enqueued commands are executed.
+ *     Defaults to {@link CommandSchedulingPolicy#fifo()}. Enable {@code metricsConfig} to observe
+ *     the time commands spend in the queue ({@link KryonMetric#QUEUE_WAIT}).
+ */
 public record KryonExecutorConfig(
     LogicDecorationOrdering logicDecorationOrdering,
     Map<String, List<OutputLogicDecoratorConfig>> requestScopedLogicDecoratorConfigs,
@@ -21,7 +36,10 @@ public record KryonExecutorConfig(
     KryonExecStrategy kryonExecStrategy,
     GraphTraversalStrategy graphTraversalStrategy,
     Function<KryonId, List<KryonDecorator>> kryonDecoratorsProvider,
-    boolean debug) {
+    boolean debug,
+    int parallelism,
+    KryonMetricsConfig metricsConfig,
+    CommandSchedulingPolicy commandSchedulingPolicy) {
 
   @Builder(toBuilder = true)
   public KryonExecutorConfig {
@@ -34,6 +52,15 @@ public record KryonExecutorConfig(
     if (kryonDecoratorsProvider == null) {
       kryonDecoratorsProvider = kryonId -> List.of();
     }
+    if (parallelism < 1) {
+      parallelism = 1;
+    }
+    if (metricsConfig == null) {
+      metricsConfig = KryonMetricsConfig.disabled();
+    }
+    if (commandSchedulingPolicy == null) {
+      commandSchedulingPolicy = CommandSchedulingPolicy.fifo();
+    }
   }
 
   @Override
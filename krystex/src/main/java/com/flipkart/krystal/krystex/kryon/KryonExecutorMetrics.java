@@ -1,17 +1,100 @@
 package com.flipkart.krystal.krystex.kryon;
 
-import lombok.Getter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@Getter
 public final class KryonExecutorMetrics {
-  private int commandQueuedCount;
-  private int commandQueueBypassedCount;
+  // Atomic since commands can be executed by multiple partitions of the KryonExecutor in parallel
+  private final AtomicInteger commandQueuedCount = new AtomicInteger();
+  private final AtomicInteger commandQueueBypassedCount = new AtomicInteger();
+  private final AtomicInteger ioCallCount = new AtomicInteger();
+  private final AtomicInteger ioDedupHitCount = new AtomicInteger();
+
+  private final double samplingRate;
+  private final boolean perDependantChain;
+  private final KryonHistograms histograms;
+
+  KryonExecutorMetrics(KryonMetricsConfig metricsConfig) {
+    this.samplingRate = metricsConfig.samplingRate();
+    this.perDependantChain = metricsConfig.perDependantChain();
+    KryonHistograms histograms = metricsConfig.histograms();
+    this.histograms = histograms != null ? histograms : new KryonHistograms();
+  }
+
+  public int getCommandQueuedCount() {
+    return commandQueuedCount.get();
+  }
+
+  public int getCommandQueueBypassedCount() {
+    return commandQueueBypassedCount.get();
+  }
+
+  /**
+   * The number of unique facets with which the output logics of IO kryons were invoked (i.e. passed
+   * on to the decorators of the logic, like input batchers).
+   */
+  public int getIoCallCount() {
+    return ioCallCount.get();
+  }
+
+  /**
+   * The number of times an IO kryon was requested with facets identical to an earlier request in
+   * this executor - from the same or a different dependant chain - and was served by the
+   * in-flight (or completed) future of the earlier request instead of invoking the output logic
+   * again.
+   *
+   * <p>Since a kryon serves all the dependant chains of an executor, identical IO calls from
+   * different dependant chains are collapsed into a single future by the kryon itself - before they
+   * reach per-dependant-chain decorators like input batchers.
+   */
+  public int getIoDedupHitCount() {
+    return ioDedupHitCount.get();
+  }
+
+  /**
+   * The fraction of the requests to IO kryons which were deduplicated. 0 if no IO kryon has been
+   * requested.
+   */
+  public double ioDedupHitRate() {
+    int hits = ioDedupHitCount.get();
+    int total = hits + ioCallCount.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Returns the histograms into which this executor records {@link KryonMetric}s. Empty unless
+   * metrics are enabled via {@link KryonExecutorConfig#metricsConfig()}.
+   */
+  public KryonHistograms histograms() {
+    return histograms;
+  }
 
   void commandQueueBypassed() {
-    this.commandQueueBypassedCount++;
+    commandQueueBypassedCount.incrementAndGet();
   }
 
   void commandQueued() {
-    this.commandQueuedCount++;
+    commandQueuedCount.incrementAndGet();
+  }
+
+  void ioCalled() {
+    ioCallCount.incrementAndGet();
+  }
+
+  void ioDeduplicated() {
+    ioDedupHitCount.incrementAndGet();
+  }
+
+  /**
+   * Decides whether the metrics of the current command or batch are to be recorded as per the
+   * sampling rate. Callers must read the clock only if this returns true.
+   */
+  boolean shouldSample() {
+    return samplingRate >= 1
+        || (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+  }
+
+  void record(KryonId kryonId, DependantChain dependantChain, KryonMetric metric, long value) {
+    histograms.record(kryonId, perDependantChain ? dependantChain : null, metric, value);
   }
 }
@@ -0,0 +1,64 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The {@link LatencyHistogram}s of {@link KryonMetric}s of every kryon, and optionally of every
+ * dependant chain of every kryon. This class is thread safe and can be shared across {@link
+ * KryonExecutor}s. See {@link KryonMetricsConfig#histograms()}.
+ */
+public final class KryonHistograms {
+
+  private final Map<HistogramKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+  /** Returns the histogram of the given metric aggregated across all dependant chains. */
+  public Optional<LatencyHistogram> histogram(KryonId kryonId, KryonMetric metric) {
+    return Optional.ofNullable(histograms.get(new HistogramKey(kryonId, null, metric)));
+  }
+
+  /**
+   * Returns the histogram of the given metric for the given dependant chain. Present only if
+   * metrics are recorded per dependant chain (See {@link KryonMetricsConfig#perDependantChain()})
+   */
+  public Optional<LatencyHistogram> histogram(
+      KryonId kryonId, DependantChain dependantChain, KryonMetric metric) {
+    return Optional.ofNullable(histograms.get(new HistogramKey(kryonId, dependantChain, metric)));
+  }
+
+  /**
+   * Returns the histograms of the given metric of all the kryons (aggregated across dependant
+   * chains). Useful to find the kryons responsible for a latency regression by comparing their
+   * percentiles.
+   */
+  public ImmutableMap<KryonId, LatencyHistogram> histograms(KryonMetric metric) {
+    return histograms.entrySet().stream()
+        .filter(e -> e.getKey().metric() == metric && e.getKey().dependantChain() == null)
+        .collect(toImmutableMap(e -> e.getKey().kryonId(), Entry::getValue));
+  }
+
+  void record(
+      KryonId kryonId,
+      @Nullable DependantChain dependantChain,
+      KryonMetric metric,
+      long value) {
+    histograms
+        .computeIfAbsent(new HistogramKey(kryonId, null, metric), _k -> new LatencyHistogram())
+        .record(value);
+    if (dependantChain != null) {
+      histograms
+          .computeIfAbsent(
+              new HistogramKey(kryonId, dependantChain, metric), _k -> new LatencyHistogram())
+          .record(value);
+    }
+  }
+
+  private record HistogramKey(
+      KryonId kryonId, @Nullable DependantChain dependantChain, KryonMetric metric) {}
+}
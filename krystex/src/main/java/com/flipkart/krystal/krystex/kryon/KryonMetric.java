@@ -0,0 +1,18 @@
+package com.flipkart.krystal.krystex.kryon;
+
+/** The per-kryon metrics recorded by a {@link KryonExecutor}. See {@link KryonMetricsConfig} */
+public enum KryonMetric {
+  /** Nanos for which a command addressed to the kryon waited in the command queue. */
+  QUEUE_WAIT,
+  /** Nanos spent resolving the inputs of the dependencies of a batch of requests. */
+  RESOLVER,
+  /**
+   * Nanos spent invoking the (decorated) output logic for a batch of requests. For IO logic, this
+   * does not include the time spent waiting for the IO to complete (See {@link #IO_WAIT}).
+   */
+  OUTPUT_LOGIC,
+  /** Nanos from the invocation of an IO output logic till the responses of the batch complete. */
+  IO_WAIT,
+  /** The number of requests in every batch passed to the output logic. This is not a latency. */
+  BATCH_SIZE
+}
@@ -0,0 +1,38 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import lombok.Builder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Configures the recording of {@link KryonMetric}s by a {@link KryonExecutor}.
+ *
+ * @param samplingRate The fraction (between 0 and 1) of commands and batches for which metrics are
+ *     recorded. 0 (the default) disables the recording of metrics, and 1 records all of them.
+ *     Lower rates reduce the overhead of reading the clock and updating the histograms.
+ * @param perDependantChain If true, metrics are additionally recorded per dependant chain of every
+ *     kryon. This needs more memory, and is meant to be used when a kryon's metrics need to be
+ *     attributed to one of its dependants.
+ * @param histograms The histograms into which the metrics are recorded. Since a KryonExecutor
+ *     usually executes a single request, the same instance should be passed to all the executors
+ *     so that percentiles are computed across requests. If null, every KryonExecutor records into
+ *     its own histograms (See {@link KryonExecutorMetrics#histograms()}).
+ */
+public record KryonMetricsConfig(
+    double samplingRate, boolean perDependantChain, @Nullable KryonHistograms histograms) {
+
+  @Builder(toBuilder = true)
+  public KryonMetricsConfig {
+    if (samplingRate < 0 || samplingRate > 1) {
+      throw new IllegalArgumentException(
+          "samplingRate must be between 0 and 1. Found " + samplingRate);
+    }
+  }
+
+  public static KryonMetricsConfig disabled() {
+    return new KryonMetricsConfig(0, false, null);
+  }
+
+  public boolean isEnabled() {
+    return samplingRate > 0;
+  }
+}
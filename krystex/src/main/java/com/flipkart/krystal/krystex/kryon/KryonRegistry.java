@@ -1,14 +1,16 @@
 package com.flipkart.krystal.krystex.kryon;
 
 import com.flipkart.krystal.krystex.commands.KryonCommand;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 final class KryonRegistry<T extends Kryon<? extends KryonCommand, ? extends KryonResponse>> {
 
-  private final Map<KryonId, T> kryons = new LinkedHashMap<>();
+  // Concurrent since kryons can be looked up by partitions of a KryonExecutor while new kryons are
+  // being created (See KryonExecutorConfig#parallelism)
+  private final Map<KryonId, T> kryons = new ConcurrentHashMap<>();
 
   public T get(KryonId kryonId) {
     return tryGet(kryonId)
@@ -29,9 +29,9 @@ public final class KryonUtils {
     OutputLogicDefinition<Object> depOutputLogic =
         kryonDefinition.kryonDefinitionRegistry().get(depKryonId).getOutputLogicDefinition();
     if (depOutputLogic instanceof IOLogicDefinition<Object>) {
-      kryonExecutor.enqueueKryonCommand(commandGenerator);
+      kryonExecutor.enqueueKryonCommand(kryonDefinition.kryonId(), commandGenerator);
     } else if (depOutputLogic instanceof ComputeLogicDefinition<Object>) {
-      kryonExecutor.executeCommand(commandGenerator.get());
+      kryonExecutor.executeCommand(kryonDefinition.kryonId(), commandGenerator);
     } else {
       throw new UnsupportedOperationException(
           "Unknown logicDefinition type %s".formatted(depOutputLogic.getClass()));
@@ -53,10 +53,37 @@ public final class KryonUtils {
                         .getOrDefault(depName, ImmutableSet.of())
                         .isEmpty())
             .collect(toImmutableSet());
+    ImmutableList<String> dependencyNames = dependencyKryons.keySet().asList();
+    ImmutableMap<String, Integer> facetPositions =
+        createFacetPositions(dependencyNames, resolverDefinitions);
     return new KryonDefinitionView(
         createResolverDefinitionsByInputs(resolverDefinitions),
         resolverDefinitionsByDependencies,
-        dependenciesWithNoResolvers);
+        dependenciesWithNoResolvers,
+        dependencyNames,
+        facetPositions,
+        new DependencyTriggerPlan(
+            dependencyNames, facetPositions, resolverDefinitionsByDependencies),
+        new DependantChainIds());
+  }
+
+  /**
+   * Assigns bit positions to the dependencies (in the order of {@code dependencyNames}) followed by
+   * the inputs which resolvers are bound from.
+   */
+  private static ImmutableMap<String, Integer> createFacetPositions(
+      ImmutableList<String> dependencyNames,
+      ImmutableList<ResolverDefinition> resolverDefinitions) {
+    Map<String, Integer> facetPositions = new LinkedHashMap<>();
+    for (String dependencyName : dependencyNames) {
+      facetPositions.put(dependencyName, facetPositions.size());
+    }
+    for (ResolverDefinition resolverDefinition : resolverDefinitions) {
+      for (String boundFrom : resolverDefinition.boundFrom()) {
+        facetPositions.putIfAbsent(boundFrom, facetPositions.size());
+      }
+    }
+    return ImmutableMap.copyOf(facetPositions);
   }
 
   private static ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>>
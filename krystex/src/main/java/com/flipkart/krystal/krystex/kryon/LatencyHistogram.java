@@ -0,0 +1,111 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of non-negative {@code long} values in the style of
+ * HdrHistogram. Every power of two range is split into {@value #SUB_BUCKET_COUNT} linear buckets,
+ * so recorded values are tracked with a relative precision of about 6%, in constant memory and with
+ * constant time recording. Values greater than 2^40 (about 18 minutes in nanos) are recorded as
+ * 2^40.
+ *
+ * <p>This class is thread safe. Recording a value is lock free.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_TRACKABLE_VALUE = 1L << 40;
+
+  private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_TRACKABLE_VALUE) + 1);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    } else if (value > MAX_TRACKABLE_VALUE) {
+      value = MAX_TRACKABLE_VALUE;
+    }
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    sum.addAndGet(value);
+    max.accumulateAndGet(value, Math::max);
+  }
+
+  public long count() {
+    return totalCount.get();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  public double mean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) sum.get() / count;
+  }
+
+  /**
+   * Returns the value below which the given percentage of recorded values fall, rounded up to the
+   * highest value equivalent to it as per the precision of this histogram. Returns 0 if no values
+   * have been recorded.
+   *
+   * @param percentile a value between 0 and 100
+   */
+  public long valueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException(
+          "Percentile must be between 0 and 100. Found " + percentile);
+    }
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= countAtPercentile) {
+        return Math.min(highestEquivalentValue(i), max());
+      }
+    }
+    return max();
+  }
+
+  /** Clears all the recorded values. Values recorded concurrently with a reset may be lost. */
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram{count=%s, p50=%s, p99=%s, max=%s}"
+        .formatted(count(), valueAtPercentile(50), valueAtPercentile(99), max());
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift); // Between SUB_BUCKET_COUNT and 2 * SUB_BUCKET_COUNT
+    return (shift + 1) * SUB_BUCKET_COUNT + (subBucket - SUB_BUCKET_COUNT);
+  }
+
+  private static long highestEquivalentValue(int bucketIndex) {
+    if (bucketIndex < 2 * SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+    int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+    long subBucket = SUB_BUCKET_COUNT + bucketIndex % SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
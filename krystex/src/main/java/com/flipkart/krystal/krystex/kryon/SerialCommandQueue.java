@@ -0,0 +1,137 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A multi-producer single-consumer queue of commands which are executed serially on the given
+ * {@link Executor}. Any number of threads can enqueue commands concurrently without locking. The
+ * commands are then executed in batches by a single drain task which is submitted to the executor
+ * only when the queue transitions from idle to non-idle. This means that at most one command of
+ * this queue is executing at any point in time, and there is at most one pending task in the
+ * executor per queue irrespective of the number of enqueued commands.
+ *
+ * <p>Commands are enqueued with a priority in the range [0, priorityLevels). The drain task always
+ * executes the oldest command of the highest priority (lowest number) which is available. Commands
+ * with the same priority are executed in the order in which they were enqueued.
+ *
+ * <p>The drain task executes at most {@code maxDrainBatchSize} (by default {@link
+ * #MAX_DRAIN_BATCH_SIZE}) commands before yielding the executor thread so that other queues sharing
+ * the same thread get a fair chance to make progress.
+ */
+@Slf4j
+final class SerialCommandQueue {
+
+  static final int MAX_DRAIN_BATCH_SIZE = 256;
+
+  /** One queue per priority. Index 0 has the highest priority. */
+  private final Queue<Runnable>[] commands;
+
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final Executor executor;
+  private final int maxDrainBatchSize;
+  private final Runnable drainTask = this::drain;
+  private volatile @Nullable Thread drainingThread;
+
+  SerialCommandQueue(Executor executor) {
+    this(executor, 1, MAX_DRAIN_BATCH_SIZE);
+  }
+
+  @SuppressWarnings("unchecked")
+  SerialCommandQueue(Executor executor, int priorityLevels, int maxDrainBatchSize) {
+    if (priorityLevels < 1 || maxDrainBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "priorityLevels and maxDrainBatchSize must be positive. Found %s and %s"
+              .formatted(priorityLevels, maxDrainBatchSize));
+    }
+    this.executor = executor;
+    this.maxDrainBatchSize = maxDrainBatchSize;
+    this.commands = new Queue[priorityLevels];
+    for (int i = 0; i < priorityLevels; i++) {
+      commands[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  /**
+   * Adds the command to the end of this queue with the highest priority. This method can be called
+   * from any thread. The command is executed after all previously enqueued commands have been
+   * executed.
+   */
+  void enqueue(Runnable command) {
+    enqueue(command, 0);
+  }
+
+  /**
+   * Adds the command to the end of this queue with the given priority. This method can be called
+   * from any thread. The command is executed after all previously enqueued commands of the same or
+   * higher priority have been executed.
+   *
+   * @param priority a number in the range [0, priorityLevels). Lower numbers have higher priority.
+   */
+  void enqueue(Runnable command, int priority) {
+    commands[priority].add(command);
+    scheduleDrainIfNeeded();
+  }
+
+  /** Returns true if the current thread is executing a command of this queue. */
+  boolean isDrainingInCurrentThread() {
+    return drainingThread == Thread.currentThread();
+  }
+
+  private void scheduleDrainIfNeeded() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(drainTask);
+      } catch (Throwable e) {
+        drainScheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+    drainingThread = Thread.currentThread();
+    try {
+      Runnable command;
+      int drained = 0;
+      while (drained++ < maxDrainBatchSize && (command = poll()) != null) {
+        try {
+          command.run();
+        } catch (Throwable e) {
+          log.error("Command in the command queue threw an exception", e);
+        }
+      }
+    } finally {
+      drainingThread = null;
+      drainScheduled.set(false);
+    }
+    // A producer might have enqueued a command after the last poll but before the flag was reset.
+    // In that case the producer would not have scheduled a drain, so we need to do it here.
+    if (!isEmpty()) {
+      scheduleDrainIfNeeded();
+    }
+  }
+
+  private @Nullable Runnable poll() {
+    for (Queue<Runnable> queue : commands) {
+      Runnable command = queue.poll();
+      if (command != null) {
+        return command;
+      }
+    }
+    return null;
+  }
+
+  private boolean isEmpty() {
+    for (Queue<Runnable> queue : commands) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -1,6 +1,5 @@
 package com.flipkart.krystal.krystex.logicdecoration;
 
-import static java.util.Comparator.comparingInt;
 import static java.util.Optional.ofNullable;
 import static lombok.EqualsAndHashCode.CacheStrategy.LAZY;
 
@@ -29,9 +28,17 @@ public class LogicDecorationOrdering {
     this.decoratorTypeIndices = ImmutableMap.copyOf(indices);
   }
 
+  /**
+   * Orders decorators as per the configured ordering. Decorators which are not part of the ordering
+   * are placed before the others. Decorators are finally ordered by their type so that the order is
+   * total and no two different decorator types are considered equal.
+   */
   public Comparator<LogicDecorator<?, ?>> decorationOrder() {
-    return comparingInt(
-        key -> ofNullable(decoratorTypeIndices.get(key.decoratorType())).orElse(Integer.MIN_VALUE));
+    return Comparator.<LogicDecorator<?, ?>>comparingInt(
+            key ->
+                ofNullable(decoratorTypeIndices.get(key.decoratorType()))
+                    .orElse(Integer.MIN_VALUE))
+        .thenComparing(LogicDecorator::decoratorType);
   }
 
   public static LogicDecorationOrdering none() {
@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex.logicdecoration;
 
 import com.flipkart.krystal.config.ConfigProvider;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -21,5 +22,17 @@ public record OutputLogicDecoratorConfig(
     Predicate<LogicExecutionContext> shouldDecorate,
     Function<LogicExecutionContext, String> instanceIdGenerator,
     Function<DecoratorContext, OutputLogicDecorator> factory) {
-  public record DecoratorContext(String instanceId, LogicExecutionContext logicExecutionContext) {}
+
+  /**
+   * @param instanceId The instance id of the logic decorator being created.
+   * @param logicExecutionContext The context of the logic being decorated.
+   * @param commandExecutor Executes tasks in the thread-confined context of the executor which owns
+   *     the decorator. Decorators which react to events from other threads (for example timers or
+   *     IO callbacks) must use this executor to touch any executor-scoped state or to execute the
+   *     decorated logic. Tasks submitted from within the owning context are executed inline.
+   *     Session scoped decorators are shared by all executors and hence have no owning executor -
+   *     for them, tasks are executed inline in the submitting thread.
+   */
+  public record DecoratorContext(
+      String instanceId, LogicExecutionContext logicExecutionContext, Executor commandExecutor) {}
 }
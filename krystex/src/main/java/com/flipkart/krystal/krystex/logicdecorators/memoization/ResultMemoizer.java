@@ -0,0 +1,197 @@
+package com.flipkart.krystal.krystex.logicdecorators.memoization;
+
+import static com.flipkart.krystal.utils.Futures.propagateCompletion;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Memoizes the results of output logics keyed by the kryon and the facets with which the output
+ * logic is executed.
+ *
+ * <p>Unlike the results cache of a kryon, which lives only as long as the KryonExecutor, the cache
+ * of this decorator is shared by all the KryonExecutors which use the same instance of this
+ * decorator (for example when this decorator is registered as a session scoped decorator). This
+ * means that identical calls across requests are computed only once as long as the result has not
+ * been evicted. Concurrent identical calls share the same in-flight computation. Failed
+ * computations are not memoized.
+ *
+ * <p>A shared in-flight computation is completed in the thread of the KryonExecutor which started
+ * it. KryonExecutors never process the completion of such a result in that foreign thread - the
+ * resulting kryon commands are enqueued into the command queue of the waiting executor.
+ *
+ * <p>Memoization changes the semantics of a logic if the logic is not idempotent, or depends on
+ * anything other than its facets. So this decorator must be applied only to such logics which are
+ * explicitly marked as safe to memoize (for example, via a tag in {@link
+ * OutputLogicDefinition#logicTags()}).
+ *
+ * <p>The cache is bounded in size (least recently used entries are evicted first) and entries
+ * expire after a configurable duration after they are written. These can be configured via the
+ * {@link ConfigProvider} with the following keys:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.memoization.enabled} (Boolean) - default: true
+ *   <li>{@code <instanceId>.memoization.max_size} (Number) - default: {@link #DEFAULT_MAX_SIZE}
+ *   <li>{@code <instanceId>.memoization.ttl_millis} (Number) - default: {@link #DEFAULT_TTL}
+ * </ul>
+ */
+public final class ResultMemoizer implements OutputLogicDecorator {
+
+  public static final String DECORATOR_TYPE = ResultMemoizer.class.getName();
+
+  public static final long DEFAULT_MAX_SIZE = 10_000;
+  public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+  private final String instanceId;
+  private final MemoizationConfig defaultConfig;
+
+  private volatile MemoizationConfig config;
+  private volatile @Nullable Cache<MemoKey, CompletableFuture<@Nullable Object>> cache;
+
+  public ResultMemoizer(String instanceId) {
+    this(instanceId, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+  }
+
+  /**
+   * @param instanceId The id of this decorator which is used to configure it.
+   * @param maxSize The maximum number of results to memoize unless configured otherwise.
+   * @param ttl The duration for which results are memoized unless configured otherwise.
+   */
+  public ResultMemoizer(String instanceId, long maxSize, Duration ttl) {
+    this.instanceId = instanceId;
+    this.defaultConfig = new MemoizationConfig(maxSize, ttl);
+    this.config = defaultConfig;
+    this.cache = newCache(defaultConfig);
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    KryonId kryonId = originalLogicDefinition.kryonLogicId().kryonId();
+    return inputsList -> {
+      Cache<MemoKey, CompletableFuture<@Nullable Object>> cache = this.cache;
+      if (cache == null) {
+        return logicToDecorate.execute(inputsList);
+      }
+      return executeMemoized(kryonId, logicToDecorate, inputsList, cache);
+    };
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    boolean enabled =
+        configProvider.<Boolean>getConfig(instanceId + ".memoization.enabled").orElse(true);
+    if (!enabled) {
+      this.cache = null;
+      return;
+    }
+    MemoizationConfig newConfig =
+        new MemoizationConfig(
+            configProvider
+                .<Number>getConfig(instanceId + ".memoization.max_size")
+                .map(Number::longValue)
+                .orElse(defaultConfig.maxSize()),
+            configProvider
+                .<Number>getConfig(instanceId + ".memoization.ttl_millis")
+                .map(ttlMillis -> Duration.ofMillis(ttlMillis.longValue()))
+                .orElse(defaultConfig.ttl()));
+    if (this.cache == null || !newConfig.equals(this.config)) {
+      this.config = newConfig;
+      this.cache = newCache(newConfig);
+    }
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  /** Returns the statistics of the cache, or {@link CacheStats} with all zeros if disabled. */
+  public CacheStats stats() {
+    Cache<MemoKey, CompletableFuture<@Nullable Object>> cache = this.cache;
+    return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+  }
+
+  private static ImmutableMap<Facets, CompletableFuture<@Nullable Object>> executeMemoized(
+      KryonId kryonId,
+      OutputLogic<Object> logicToDecorate,
+      ImmutableList<Facets> inputsList,
+      Cache<MemoKey, CompletableFuture<@Nullable Object>> cache) {
+    ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+        ImmutableMap.builderWithExpectedSize(inputsList.size());
+    Map<Facets, CompletableFuture<@Nullable Object>> toCompute = new LinkedHashMap<>();
+    for (Facets facets : inputsList) {
+      MemoKey memoKey = new MemoKey(kryonId, facets);
+      CompletableFuture<@Nullable Object> newResult = new CompletableFuture<>();
+      CompletableFuture<@Nullable Object> result;
+      try {
+        // Unlike the operations of the asMap() view, Cache#get records hits and misses in stats()
+        result = cache.get(memoKey, () -> newResult);
+      } catch (ExecutionException e) {
+        throw new AssertionError("The loader does not throw. This should not be possible", e);
+      }
+      if (result != newResult) {
+        results.put(facets, result);
+      } else {
+        toCompute.put(facets, newResult);
+        results.put(facets, newResult);
+        // Do not memoize failures so that they are retried by subsequent calls
+        newResult.whenComplete(
+            (result, throwable) -> {
+              if (throwable != null) {
+                cache.asMap().remove(memoKey, newResult);
+              }
+            });
+      }
+    }
+    if (!toCompute.isEmpty()) {
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> computed;
+      try {
+        computed = logicToDecorate.execute(ImmutableList.copyOf(toCompute.keySet()));
+      } catch (Throwable e) {
+        toCompute.values().forEach(future -> future.completeExceptionally(e));
+        throw e;
+      }
+      toCompute.forEach(
+          (facets, future) -> {
+            CompletableFuture<@Nullable Object> result = computed.get(facets);
+            if (result == null) {
+              future.completeExceptionally(
+                  new IllegalStateException("No result found for facets " + facets));
+            } else {
+              // Cancellation is not propagated since the result can be shared by other callers
+              propagateCompletion(result, future);
+            }
+          });
+    }
+    return results.buildKeepingLast();
+  }
+
+  private static Cache<MemoKey, CompletableFuture<@Nullable Object>> newCache(
+      MemoizationConfig config) {
+    return CacheBuilder.newBuilder()
+        .maximumSize(config.maxSize())
+        .expireAfterWrite(config.ttl())
+        .recordStats()
+        .build();
+  }
+
+  private record MemoKey(KryonId kryonId, Facets facets) {}
+
+  private record MemoizationConfig(long maxSize, Duration ttl) {}
+}
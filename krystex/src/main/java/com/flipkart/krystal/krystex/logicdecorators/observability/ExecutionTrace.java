@@ -0,0 +1,134 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static java.util.Comparator.comparingLong;
+
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The timings of the main logic executions of the kryons of one or more requests, as recorded by
+ * {@link TracingKryonExecutionReport}. This class is immutable.
+ */
+public final class ExecutionTrace {
+
+  /** Spans sorted by their start time. */
+  private final ImmutableList<TraceSpan> spans;
+
+  ExecutionTrace(Collection<TraceSpan> spans) {
+    this.spans = ImmutableList.sortedCopyOf(comparingLong(TraceSpan::startNanos), spans);
+  }
+
+  public ImmutableList<TraceSpan> spans() {
+    return spans;
+  }
+
+  /**
+   * Computes the critical path of the execution of the given kryon - the chain of kryon executions
+   * which determined the end time of the kryon's execution. Starting from the last execution of the
+   * given kryon, the path is extended by the execution of a dependency (as per the dependency
+   * graph in the registry) which ended last before the dependant's execution started, i.e. the
+   * dependency the dependant was waiting for.
+   *
+   * @return the spans of the critical path starting with the deepest dependency and ending with the
+   *     given kryon. Empty if the given kryon has no recorded executions.
+   */
+  public ImmutableList<TraceSpan> criticalPath(
+      KryonId kryonId, KryonDefinitionRegistry kryonDefinitionRegistry) {
+    Optional<TraceSpan> current =
+        spans.stream()
+            .filter(span -> span.kryonId().equals(kryonId))
+            .max(comparingLong(TraceSpan::endNanos));
+    List<TraceSpan> path = new ArrayList<>();
+    while (current.isPresent()) {
+      TraceSpan dependant = current.get();
+      path.add(dependant);
+      ImmutableSet<KryonId> dependencies =
+          ImmutableSet.copyOf(
+              kryonDefinitionRegistry.get(dependant.kryonId()).dependencyKryons().values());
+      current =
+          spans.stream()
+              .filter(span -> dependencies.contains(span.kryonId()))
+              .filter(span -> span.endNanos() <= dependant.startNanos())
+              .max(comparingLong(TraceSpan::endNanos));
+    }
+    return ImmutableList.copyOf(path).reverse();
+  }
+
+  /**
+   * Returns this trace in the Chrome trace event format which can be loaded in Perfetto
+   * (ui.perfetto.dev) or chrome://tracing. Every kryon is shown as a separate track.
+   */
+  public String toChromeTraceJson() {
+    Map<KryonId, Integer> tracks = new LinkedHashMap<>();
+    for (TraceSpan span : spans) {
+      tracks.putIfAbsent(span.kryonId(), tracks.size() + 1);
+    }
+    StringBuilder json = new StringBuilder("{\"traceEvents\":[");
+    String separator = "";
+    for (Map.Entry<KryonId, Integer> track : tracks.entrySet()) {
+      json.append(separator)
+          .append("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":")
+          .append(track.getValue())
+          .append(",\"args\":{\"name\":");
+      appendJsonString(json, track.getKey().value());
+      json.append("}}");
+      separator = ",";
+    }
+    for (TraceSpan span : spans) {
+      json.append(separator).append("{\"ph\":\"X\",\"cat\":\"kryon\",\"name\":");
+      appendJsonString(json, span.kryonId().value());
+      json.append(",\"pid\":1,\"tid\":")
+          .append(tracks.get(span.kryonId()))
+          .append(",\"ts\":")
+          .append(span.startNanos() / 1000.0)
+          .append(",\"dur\":")
+          .append(span.durationNanos() / 1000.0)
+          .append(",\"args\":{\"batchSize\":")
+          .append(span.batchSize())
+          .append("}}");
+      separator = ",";
+    }
+    return json.append("],\"displayTimeUnit\":\"ns\"}").toString();
+  }
+
+  private static void appendJsonString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        default -> {
+          if (c < 0x20) {
+            json.append("\\u%04x".formatted((int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+
+  /**
+   * One execution of the main logic of a kryon.
+   *
+   * @param startNanos nanos elapsed since the creation of the report when the execution started.
+   * @param endNanos nanos elapsed since the creation of the report when the execution completed.
+   * @param batchSize the number of facets with which the logic was executed.
+   */
+  public record TraceSpan(KryonId kryonId, long startNanos, long endNanos, int batchSize) {
+
+    public long durationNanos() {
+      return endNanos - startNanos;
+    }
+  }
+}
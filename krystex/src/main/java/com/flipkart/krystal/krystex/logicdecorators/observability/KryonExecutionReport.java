@@ -6,7 +6,8 @@ import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.google.common.collect.ImmutableList;
 
-public sealed interface KryonExecutionReport permits DefaultKryonExecutionReport {
+public sealed interface KryonExecutionReport
+    permits DefaultKryonExecutionReport, TracingKryonExecutionReport {
 
   void reportMainLogicStart(
       KryonId kryonId, KryonLogicId kryonLogicId, ImmutableList<Facets> inputs);
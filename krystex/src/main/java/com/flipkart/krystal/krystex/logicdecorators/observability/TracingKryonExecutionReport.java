@@ -0,0 +1,143 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.logicdecorators.observability.ExecutionTrace.TraceSpan;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A low overhead {@link KryonExecutionReport} which records only the timing of every execution of
+ * the main logic of every kryon, and not the inputs and results. Events are appended to a compact
+ * {@code long[]} buffer of nanosecond timestamps, interned kryon ids and batch sizes, so recording
+ * an event does not allocate (except when the buffer grows). This makes it cheap enough to be
+ * enabled for a sampled fraction of production traffic - for example by registering a {@link
+ * MainLogicExecReporter} backed by this report as a request scoped decorator only for the sampled
+ * requests.
+ *
+ * <p>The recorded events can be converted into an {@link ExecutionTrace} which can be exported in
+ * the Chrome trace event format (viewable in Perfetto and chrome://tracing) and be analysed for the
+ * critical path of the execution.
+ *
+ * <p>This class is thread safe.
+ */
+public final class TracingKryonExecutionReport implements KryonExecutionReport {
+
+  /*
+   * Every event occupies two consecutive longs in the buffer:
+   * 1. nanos elapsed since the creation of this report
+   * 2. [1 bit: is end event][31 bits: span id][16 bits: kryon index][16 bits: batch size]
+   */
+  private static final int LONGS_PER_EVENT = 2;
+  private static final long END_EVENT_FLAG = 1L << 63;
+  private static final int MAX_BATCH_SIZE = 0xFFFF;
+  private static final int MAX_KRYONS = 0xFFFF;
+
+  private final LongSupplier nanoClock;
+  private final long startNanos;
+
+  private long[] events = new long[64 * LONGS_PER_EVENT];
+  private int eventCount;
+  private int nextSpanId;
+
+  private final List<KryonId> kryonIds = new ArrayList<>();
+  private final Map<KryonId, Integer> kryonIndices = new HashMap<>();
+
+  /**
+   * Spans which have started but not ended, keyed by the first input facets of the span (by
+   * identity) since output logics return results keyed by the same facets instances which were
+   * passed to them.
+   */
+  private final Map<Facets, Integer> openSpans = new IdentityHashMap<>();
+
+  public TracingKryonExecutionReport() {
+    this(System::nanoTime);
+  }
+
+  public TracingKryonExecutionReport(LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
+    this.startNanos = nanoClock.getAsLong();
+  }
+
+  @Override
+  public synchronized void reportMainLogicStart(
+      KryonId kryonId, KryonLogicId kryonLogicId, ImmutableList<Facets> inputs) {
+    int spanId = nextSpanId++;
+    if (!inputs.isEmpty()) {
+      openSpans.put(inputs.get(0), spanId);
+    }
+    appendEvent(0, spanId, kryonId, inputs.size());
+  }
+
+  @Override
+  public synchronized void reportMainLogicEnd(
+      KryonId kryonId, KryonLogicId kryonLogicId, Results<Object> results) {
+    if (results.values().isEmpty()) {
+      return;
+    }
+    Integer spanId = openSpans.remove(results.values().keySet().iterator().next());
+    if (spanId == null) {
+      // Either the start was not reported or the logic re-keyed its results. Nothing to pair with
+      return;
+    }
+    appendEvent(END_EVENT_FLAG, spanId, kryonId, results.values().size());
+  }
+
+  /** Returns the spans of all the main logic executions which have ended so far. */
+  public synchronized ExecutionTrace toTrace() {
+    long[] startEvents = new long[nextSpanId];
+    Arrays.fill(startEvents, -1);
+    List<TraceSpan> spans = new ArrayList<>();
+    for (int i = 0; i < eventCount; i++) {
+      long timestamp = events[i * LONGS_PER_EVENT];
+      long header = events[i * LONGS_PER_EVENT + 1];
+      int spanId = (int) ((header >>> 32) & 0x7FFF_FFFF);
+      if ((header & END_EVENT_FLAG) == 0) {
+        startEvents[spanId] = timestamp;
+      } else if (startEvents[spanId] >= 0) {
+        spans.add(
+            new TraceSpan(
+                kryonIds.get((int) ((header >>> 16) & MAX_KRYONS)),
+                startEvents[spanId],
+                timestamp,
+                (int) (header & MAX_BATCH_SIZE)));
+      }
+    }
+    return new ExecutionTrace(spans);
+  }
+
+  private void appendEvent(long flags, int spanId, KryonId kryonId, int batchSize) {
+    long timestamp = nanoClock.getAsLong() - startNanos;
+    if ((eventCount + 1) * LONGS_PER_EVENT > events.length) {
+      events = Arrays.copyOf(events, events.length * 2);
+    }
+    events[eventCount * LONGS_PER_EVENT] = timestamp;
+    events[eventCount * LONGS_PER_EVENT + 1] =
+        flags
+            | ((long) (spanId & 0x7FFF_FFFF) << 32)
+            | ((long) kryonIndex(kryonId) << 16)
+            | Math.min(batchSize, MAX_BATCH_SIZE);
+    eventCount++;
+  }
+
+  private int kryonIndex(KryonId kryonId) {
+    Integer index = kryonIndices.get(kryonId);
+    if (index == null) {
+      if (kryonIds.size() > MAX_KRYONS) {
+        throw new IllegalStateException("Cannot trace more than %s kryons".formatted(MAX_KRYONS));
+      }
+      index = kryonIds.size();
+      kryonIds.add(kryonId);
+      kryonIndices.put(kryonId, index);
+    }
+    return index;
+  }
+}
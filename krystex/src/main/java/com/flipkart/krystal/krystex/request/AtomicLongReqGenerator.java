@@ -0,0 +1,19 @@
+package com.flipkart.krystal.krystex.request;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/** Thread-safe version of {@link LongReqGenerator} */
+public class AtomicLongReqGenerator implements RequestIdGenerator {
+  private final AtomicLong nextCounter = new AtomicLong();
+
+  @Override
+  public RequestId newSubRequest(RequestId parent, Supplier<String> suffix) {
+    return new RequestId(nextCounter.getAndIncrement());
+  }
+
+  @Override
+  public RequestId newRequest(Supplier<String> label) {
+    return new RequestId(nextCounter.getAndIncrement());
+  }
+}
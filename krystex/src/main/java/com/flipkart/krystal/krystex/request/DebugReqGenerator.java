@@ -0,0 +1,25 @@
+package com.flipkart.krystal.krystex.request;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Generates request ids which remember their lineage (the parent request and the label of each
+ * request) so that the {@link RequestId#toString()} of a request is of the form {@code
+ * <root label>:<suffix>:<suffix>...}. The lineage is rendered only when the request id is printed.
+ *
+ * <p>This class is thread safe.
+ */
+public class DebugReqGenerator implements RequestIdGenerator {
+  private final AtomicLong nextCounter = new AtomicLong();
+
+  @Override
+  public RequestId newSubRequest(RequestId parent, Supplier<String> suffix) {
+    return new RequestId(nextCounter.getAndIncrement(), parent, suffix);
+  }
+
+  @Override
+  public RequestId newRequest(Supplier<String> label) {
+    return new RequestId(nextCounter.getAndIncrement(), null, label);
+  }
+}
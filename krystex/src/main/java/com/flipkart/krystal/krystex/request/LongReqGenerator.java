@@ -2,8 +2,8 @@ package com.flipkart.krystal.krystex.request;
 
 import java.util.function.Supplier;
 
-public class IntReqGenerator implements RequestIdGenerator {
-  private int nextCounter = 0;
+public class LongReqGenerator implements RequestIdGenerator {
+  private long nextCounter = 0;
 
   @Override
   public RequestId newSubRequest(RequestId parent, Supplier<String> suffix) {
@@ -11,7 +11,7 @@ public class IntReqGenerator implements RequestIdGenerator {
   }
 
   @Override
-  public RequestId newRequest(Object seed) {
+  public RequestId newRequest(Supplier<String> label) {
     return new RequestId(nextCounter++);
   }
 }
@@ -1,26 +1,69 @@
 package com.flipkart.krystal.krystex.request;
 
-import java.util.Objects;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record RequestId(Object id) {
+/**
+ * Identifies a request to a kryon. Request ids are identified by a primitive {@code long} which is
+ * unique within the {@link RequestIdGenerator} which generated it.
+ *
+ * <p>Request ids generated in debug mode (See {@link DebugReqGenerator}) additionally hold their
+ * parent request id and a label, so that the lineage of a request can be reconstructed for logs.
+ * The lineage is rendered lazily and does not affect equality.
+ */
+public final class RequestId {
+
+  private final long id;
+  private final @Nullable RequestId parent;
+  private final @Nullable Supplier<String> label;
+  private volatile @MonotonicNonNull String lineage;
+
+  public RequestId(long id) {
+    this(id, null, null);
+  }
+
+  RequestId(long id, @Nullable RequestId parent, @Nullable Supplier<String> label) {
+    this.id = id;
+    this.parent = parent;
+    this.label = label;
+  }
+
+  public long id() {
+    return id;
+  }
+
+  /**
+   * Returns the request which spawned this request, if this request id was created in debug mode.
+   */
+  public @Nullable RequestId parent() {
+    return parent;
+  }
 
   @Override
   public String toString() {
-    return String.valueOf(id);
+    Supplier<String> label = this.label;
+    if (label == null) {
+      return Long.toString(id);
+    }
+    String lineage = this.lineage;
+    if (lineage == null) {
+      lineage = parent == null ? label.get() : parent + ":" + label.get();
+      this.lineage = lineage;
+    }
+    return lineage;
   }
 
   @Override
   public boolean equals(@Nullable Object o) {
-    if (this == o) return true;
-    if (!(o instanceof RequestId requestId)) {
-      return false;
+    if (this == o) {
+      return true;
     }
-    return Objects.equals(id, requestId.id);
+    return o instanceof RequestId requestId && id == requestId.id;
   }
 
   @Override
   public int hashCode() {
-    return id.hashCode();
+    return Long.hashCode(id);
   }
 }
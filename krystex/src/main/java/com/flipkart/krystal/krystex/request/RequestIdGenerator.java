@@ -3,7 +3,16 @@ package com.flipkart.krystal.krystex.request;
 import java.util.function.Supplier;
 
 public interface RequestIdGenerator {
+
+  /**
+   * @param suffix the label of the new request relative to its parent. Used only for debugging, so
+   *     implementations are expected to call this lazily (if at all).
+   */
   RequestId newSubRequest(RequestId parent, Supplier<String> suffix);
 
-  RequestId newRequest(Object seed);
+  /**
+   * @param label the label of the new request. Used only for debugging, so implementations are
+   *     expected to call this lazily (if at all).
+   */
+  RequestId newRequest(Supplier<String> label);
 }
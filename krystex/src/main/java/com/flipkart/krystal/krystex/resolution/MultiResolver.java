@@ -1,7 +1,9 @@
 package com.flipkart.krystal.krystex.resolution;
 
+import com.flipkart.krystal.data.FacetColumns;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.Logic;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.List;
 
@@ -9,4 +11,23 @@ import java.util.List;
 public non-sealed interface MultiResolver extends Logic {
   ImmutableMap<String, ResolverCommand> resolve(
       List<DependencyResolutionRequest> resolverRequests, Facets facets);
+
+  /**
+   * Resolves the given dependencies for all the requests of a batch in one call.
+   *
+   * @param facetsBatch the facets of all the requests of the batch, one row per request.
+   * @return the resolver commands of each request, in the same order as the rows of {@code
+   *     facetsBatch}.
+   * @implNote By default, this method calls {@link #resolve(List, Facets)} once per request.
+   *     Implementations should override this to amortize the cost of resolution across requests.
+   */
+  default ImmutableList<ImmutableMap<String, ResolverCommand>> resolveBatch(
+      List<DependencyResolutionRequest> resolverRequests, FacetColumns facetsBatch) {
+    ImmutableList.Builder<ImmutableMap<String, ResolverCommand>> results =
+        ImmutableList.builderWithExpectedSize(facetsBatch.size());
+    for (int row = 0; row < facetsBatch.size(); row++) {
+      results.add(resolve(resolverRequests, facetsBatch.row(row)));
+    }
+    return results.build();
+  }
 }
@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex.resolution;
 
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableList;
 
 @SuppressWarnings("ClassReferencesSubclass")
@@ -10,17 +11,26 @@ public interface ResolverCommand {
   ImmutableList<Facets> getInputs();
 
   static SkipDependency skip(String reason) {
-    return new SkipDependency(reason);
+    return new SkipDependency(SkipReason.of(reason));
+  }
+
+  static SkipDependency skip(SkipReason skipReason) {
+    return new SkipDependency(skipReason);
   }
 
   static ExecuteDependency multiExecuteWith(ImmutableList<Facets> inputs) {
     return new ExecuteDependency(inputs);
   }
 
-  record SkipDependency(String reason) implements ResolverCommand {
+  record SkipDependency(SkipReason skipReason) implements ResolverCommand {
     public ImmutableList<Facets> getInputs() {
       return ImmutableList.of();
     }
+
+    /** Renders the message of the skip reason. */
+    public String reason() {
+      return skipReason.message();
+    }
   }
 
   record ExecuteDependency(ImmutableList<Facets> inputs) implements ResolverCommand {
@@ -9,6 +9,8 @@ module flipkart.krystal.krystex {
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.logicdecorators.observability to
       flipkart.krystal.vajramexecutor.krystex;
+  exports com.flipkart.krystal.krystex.logicdecorators.memoization to
+      flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.request to
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.resolution to
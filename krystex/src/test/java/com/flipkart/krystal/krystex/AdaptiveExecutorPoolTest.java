@@ -0,0 +1,101 @@
+package com.flipkart.krystal.krystex;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.utils.MultiLeasePool.Lease;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveExecutorPoolTest {
+
+  private AdaptiveExecutorPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new AdaptiveExecutorPool(1, 4, Duration.ofMillis(50));
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  void lease_multipleLeases_shareOneExecutor() {
+    try (Lease<ExecutorService> first = pool.lease();
+        Lease<ExecutorService> second = pool.lease()) {
+      assertThat(first.get()).isSameAs(second.get());
+      assertThat(pool.maxPoolSize()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void execute_allThreadsBusy_growsUpToMaxThenQueues() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(4);
+    CountDownLatch completed = new CountDownLatch(5);
+    try (Lease<ExecutorService> lease = pool.lease()) {
+      for (int i = 0; i < 5; i++) {
+        lease
+            .get()
+            .execute(
+                () -> {
+                  started.countDown();
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  completed.countDown();
+                });
+      }
+      assertThat(started.await(5, SECONDS)).isTrue();
+      assertThat(pool.poolSize()).isEqualTo(4);
+      assertThat(pool.queuedTasks()).isEqualTo(1);
+
+      release.countDown();
+      assertThat(completed.await(5, SECONDS)).isTrue();
+    }
+  }
+
+  @Test
+  void execute_afterLoadSubsides_shrinksToMinThreads() throws Exception {
+    CountDownLatch completed = new CountDownLatch(4);
+    CountDownLatch release = new CountDownLatch(1);
+    try (Lease<ExecutorService> lease = pool.lease()) {
+      for (int i = 0; i < 4; i++) {
+        lease
+            .get()
+            .execute(
+                () -> {
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  completed.countDown();
+                });
+      }
+      release.countDown();
+      assertThat(completed.await(5, SECONDS)).isTrue();
+
+      long deadline = System.nanoTime() + SECONDS.toNanos(5);
+      while (pool.poolSize() > 1 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(pool.poolSize()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void constructor_noMinThreads_throws() {
+    assertThatThrownBy(() -> new AdaptiveExecutorPool(0, 4, Duration.ofMillis(50)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,97 @@
+package com.flipkart.krystal.krystex;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.utils.MultiLeasePool.Lease;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadExecutorPoolTest {
+
+  private static final Duration TIMEOUT = ofSeconds(1);
+
+  @Test
+  void kryonExecutor_virtualThreadPool_executesKryons() {
+    assumeTrue(VirtualThreadExecutorPool.isSupported());
+    LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
+    KryonDefinitionRegistry kryonDefinitionRegistry =
+        new KryonDefinitionRegistry(logicDefinitionRegistry);
+    IOLogicDefinition<String> outputLogic =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId("kryon"), "kryon:asyncLogic"),
+            Set.of("input"),
+            inputsList ->
+                inputsList.stream()
+                    .collect(
+                        ImmutableMap.toImmutableMap(
+                            Function.identity(),
+                            facets ->
+                                completedFuture(
+                                    "computed_value_" + facets.getInputValueOrThrow("input")))),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(outputLogic);
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition("kryon", outputLogic.kryonLogicId());
+
+    try (VirtualThreadExecutorPool pool = new VirtualThreadExecutorPool()) {
+      List<CompletableFuture<Object>> results = new ArrayList<>();
+      List<KryonExecutor> kryonExecutors = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        KryonExecutor kryonExecutor =
+            new KryonExecutor(
+                kryonDefinitionRegistry, pool, KryonExecutorConfig.builder().build(), "req_" + i);
+        kryonExecutors.add(kryonExecutor);
+        results.add(
+            kryonExecutor.executeKryon(
+                kryonDefinition.kryonId(),
+                new Facets(ImmutableMap.of("input", withValue(i))),
+                KryonExecutionConfig.builder().executionId("req_" + i).build()));
+        kryonExecutor.flush();
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i)).succeedsWithin(TIMEOUT).isEqualTo("computed_value_" + i);
+      }
+      kryonExecutors.forEach(KryonExecutor::close);
+    }
+  }
+
+  @Test
+  void lease_multipleLeases_shareOneExecutor() {
+    assumeTrue(VirtualThreadExecutorPool.isSupported());
+    try (VirtualThreadExecutorPool pool = new VirtualThreadExecutorPool();
+        Lease<ExecutorService> first = pool.lease();
+        Lease<ExecutorService> second = pool.lease()) {
+      assertThat(first.get()).isSameAs(second.get());
+    }
+  }
+
+  @Test
+  void constructor_jdkOlderThan21_throws() {
+    assumeFalse(VirtualThreadExecutorPool.isSupported());
+    assertThatThrownBy(VirtualThreadExecutorPool::new)
+        .isInstanceOf(UnsupportedOperationException.class)
+        .hasMessageContaining("JDK 21");
+  }
+}
@@ -0,0 +1,117 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.flipkart.krystal.data.Errable.withError;
+import static com.flipkart.krystal.data.Errable.withValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.DependencyStreamPolicy;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DependencyStreamTest {
+
+  /* One incoming request fanning out to three dependency requests */
+  private static final RequestId INCOMING = new RequestId(1);
+  private static final RequestId DEP_0 = new RequestId(10);
+  private static final RequestId DEP_1 = new RequestId(11);
+  private static final RequestId DEP_2 = new RequestId(12);
+
+  @Test
+  void accept_awaitAll_deliversOnlyAfterAllResponses() {
+    DependencyStream stream = newStream(DependencyStreamPolicy.awaitAll());
+
+    assertThat(stream.accept(Map.of(DEP_0, withValue("r0")), false)).isNull();
+    assertThat(stream.accept(Map.of(DEP_2, withValue("r2")), false)).isNull();
+    ImmutableMap<RequestId, Results<Object>> results =
+        stream.accept(Map.of(DEP_1, withValue("r1")), false);
+
+    assertThat(results).containsOnlyKeys(INCOMING);
+    assertThat(results.get(INCOMING).values())
+        .containsOnly(
+            Map.entry(facets(0), withValue("r0")),
+            Map.entry(facets(1), withValue("r1")),
+            Map.entry(facets(2), withValue("r2")));
+  }
+
+  @Test
+  void accept_firstSuccess_deliversWithoutWaitingForPendingResponses() {
+    DependencyStream stream = newStream(DependencyStreamPolicy.firstSuccesses(1));
+
+    assertThat(stream.accept(Map.of(DEP_0, withError(new RuntimeException())), false)).isNull();
+    ImmutableMap<RequestId, Results<Object>> results =
+        stream.accept(Map.of(DEP_1, withValue("r1")), false);
+
+    assertThat(results.get(INCOMING).values()).hasSize(2).containsKey(facets(0));
+    assertThat(results.get(INCOMING).values()).containsEntry(facets(1), withValue("r1"));
+  }
+
+  @Test
+  void accept_afterDelivery_ignoresLateResponses() {
+    DependencyStream stream = newStream(DependencyStreamPolicy.firstSuccesses(1));
+    assertThat(stream.accept(Map.of(DEP_0, withValue("r0")), false)).isNotNull();
+
+    assertThat(stream.accept(Map.of(DEP_1, withValue("r1")), false)).isNull();
+    assertThat(
+            stream.accept(
+                Map.of(DEP_0, withValue("r0"), DEP_1, withValue("r1"), DEP_2, withValue("r2")),
+                true))
+        .isNull();
+  }
+
+  @Test
+  void accept_complete_deliversAllResponsesEvenIfPolicyIsNotSatisfied() {
+    DependencyStream stream = newStream((received, pending) -> false);
+
+    assertThat(stream.accept(Map.of(DEP_0, withValue("r0")), false)).isNull();
+    ImmutableMap<RequestId, Results<Object>> results =
+        stream.accept(
+            Map.of(DEP_0, withValue("r0"), DEP_1, withValue("r1"), DEP_2, withValue("r2")), true);
+
+    assertThat(results.get(INCOMING).values()).hasSize(3);
+  }
+
+  @Test
+  void accept_incomingRequestWithNoDependencyRequests_deliveredWithEmptyResults() {
+    RequestId noDeps = new RequestId(2);
+    DependencyStream stream =
+        new DependencyStream(
+            DependencyStreamPolicy.awaitAll(),
+            new LinkedHashSet<>(List.of(INCOMING, noDeps)),
+            inputsByDepReq(),
+            Map.of(INCOMING, new LinkedHashSet<>(List.of(DEP_0, DEP_1, DEP_2))));
+
+    ImmutableMap<RequestId, Results<Object>> results =
+        stream.accept(
+            Map.of(DEP_0, withValue("r0"), DEP_1, withValue("r1"), DEP_2, withValue("r2")), false);
+
+    assertThat(results.get(noDeps).values()).isEmpty();
+    assertThat(results.get(INCOMING).values()).hasSize(3);
+  }
+
+  private static DependencyStream newStream(DependencyStreamPolicy policy) {
+    Map<RequestId, Set<RequestId>> depReqsByIncomingReq = new LinkedHashMap<>();
+    depReqsByIncomingReq.put(INCOMING, new LinkedHashSet<>(List.of(DEP_0, DEP_1, DEP_2)));
+    return new DependencyStream(policy, Set.of(INCOMING), inputsByDepReq(), depReqsByIncomingReq);
+  }
+
+  private static Map<RequestId, Facets> inputsByDepReq() {
+    Map<RequestId, Facets> inputsByDepReq = new LinkedHashMap<>();
+    inputsByDepReq.put(DEP_0, facets(0));
+    inputsByDepReq.put(DEP_1, facets(1));
+    inputsByDepReq.put(DEP_2, facets(2));
+    return inputsByDepReq;
+  }
+
+  private static Facets facets(int index) {
+    return new Facets(ImmutableMap.of("index", Errable.<Object>withValue(index)));
+  }
+}
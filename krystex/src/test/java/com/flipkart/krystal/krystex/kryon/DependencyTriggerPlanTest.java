@@ -0,0 +1,123 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.BitSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DependencyTriggerPlanTest {
+
+  private static final KryonId KRYON_ID = new KryonId("kryon");
+
+  /*
+   * dep1 is resolved from input1
+   * dep2 is resolved from input1 and dep1
+   * dep3 has a resolver which needs no inputs
+   * dep4 has no resolvers
+   */
+  private static final String DEP_1 = "dep1";
+  private static final String DEP_2 = "dep2";
+  private static final String DEP_3 = "dep3";
+  private static final String DEP_4 = "dep4";
+  private static final String INPUT_1 = "input1";
+
+  private DependencyTriggerPlan triggerPlan;
+  private ImmutableMap<String, Integer> facetPositions;
+
+  @BeforeEach
+  void setUp() {
+    ImmutableList<ResolverDefinition> resolverDefinitions =
+        ImmutableList.of(
+            resolver(DEP_1, ImmutableSet.of(INPUT_1)),
+            resolver(DEP_2, ImmutableSet.of(INPUT_1, DEP_1)),
+            resolver(DEP_3, ImmutableSet.of()));
+    KryonDefinition.KryonDefinitionView view =
+        KryonUtils.toView(
+            resolverDefinitions,
+            ImmutableMap.of(
+                DEP_1, new KryonId(DEP_1),
+                DEP_2, new KryonId(DEP_2),
+                DEP_3, new KryonId(DEP_3),
+                DEP_4, new KryonId(DEP_4)));
+    triggerPlan = view.triggerPlan();
+    facetPositions = view.facetPositions();
+  }
+
+  @Test
+  void triggerableDependencies_inputsAvailable_dependenciesNeedingOnlyInputsAreTriggerable() {
+    BitSet available = bits(INPUT_1);
+
+    BitSet triggerable = triggerPlan.triggerableDependencies(available, available, new BitSet());
+
+    assertThat(triggerable).isEqualTo(bits(DEP_1, DEP_3, DEP_4));
+  }
+
+  @Test
+  void triggerableDependencies_dependencyValueAvailable_dependentDependencyIsTriggerable() {
+    BitSet executed = bits(DEP_1, DEP_3, DEP_4);
+
+    BitSet triggerable =
+        triggerPlan.triggerableDependencies(bits(INPUT_1, DEP_1), bits(DEP_1), executed);
+
+    assertThat(triggerable).isEqualTo(bits(DEP_2));
+  }
+
+  @Test
+  void triggerableDependencies_unrelatedFacetAvailable_noDependencyIsTriggerable() {
+    BitSet executed = bits(DEP_1, DEP_3, DEP_4);
+
+    BitSet triggerable =
+        triggerPlan.triggerableDependencies(bits(INPUT_1, DEP_3), bits(DEP_3), executed);
+
+    assertThat(triggerable.isEmpty()).isTrue();
+  }
+
+  @Test
+  void resolverInputs_returnsUnionOfBoundFromFacets() {
+    assertThat(triggerPlan.resolverInputs(bits(DEP_2, DEP_3))).isEqualTo(bits(INPUT_1, DEP_1));
+    assertThat(triggerPlan.dependenciesWithNoResolvers()).isEqualTo(bits(DEP_4));
+  }
+
+  @Test
+  void triggerableDependencies_moreThan64Facets_triggersDependenciesBeyond64() {
+    // 100 dependencies, each resolved from its own input - 200 facet positions in total
+    ImmutableList.Builder<ResolverDefinition> resolverDefinitions = ImmutableList.builder();
+    ImmutableMap.Builder<String, KryonId> dependencyKryons = ImmutableMap.builder();
+    for (int i = 0; i < 100; i++) {
+      resolverDefinitions.add(resolver("dep_" + i, ImmutableSet.of("input_" + i)));
+      dependencyKryons.put("dep_" + i, new KryonId("dep_" + i));
+    }
+    KryonDefinition.KryonDefinitionView view =
+        KryonUtils.toView(resolverDefinitions.build(), dependencyKryons.build());
+    triggerPlan = view.triggerPlan();
+    facetPositions = view.facetPositions();
+    BitSet available = bits("input_5", "input_70", "input_99");
+
+    BitSet triggerable = triggerPlan.triggerableDependencies(available, available, new BitSet());
+
+    assertThat(facetPositions).hasSize(200);
+    assertThat(triggerable).isEqualTo(bits("dep_5", "dep_70", "dep_99"));
+    assertThat(triggerPlan.resolverInputs(triggerable)).isEqualTo(available);
+  }
+
+  private BitSet bits(String... facets) {
+    BitSet bits = new BitSet();
+    for (String facet : facets) {
+      bits.set(facetPositions.get(facet));
+    }
+    return bits;
+  }
+
+  private static ResolverDefinition resolver(String depName, ImmutableSet<String> boundFrom) {
+    return new ResolverDefinition(
+        new KryonLogicId(KRYON_ID, depName + "_resolver"),
+        boundFrom,
+        depName,
+        ImmutableSet.of("input"));
+  }
+}
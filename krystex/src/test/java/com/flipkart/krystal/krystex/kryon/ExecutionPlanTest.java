@@ -0,0 +1,102 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.ExecutionPlan.PlanNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExecutionPlanTest {
+
+  /*
+   * root depends on left (via dep "l") and right (via dep "r")
+   * left depends on leaf (via dep "leaf")
+   * right depends on leaf (via dep "leaf")
+   */
+  private static final String ROOT = "root";
+  private static final String LEFT = "left";
+  private static final String RIGHT = "right";
+  private static final String LEAF = "leaf";
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private DependantChain start;
+
+  @BeforeEach
+  void setUp() {
+    kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+    newKryon(LEAF, ImmutableMap.of());
+    newKryon(LEFT, ImmutableMap.of("leaf", new KryonId(LEAF)));
+    newKryon(RIGHT, ImmutableMap.of("leaf", new KryonId(LEAF)));
+    newKryon(ROOT, ImmutableMap.of("l", new KryonId(LEFT), "r", new KryonId(RIGHT)));
+    start = kryonDefinitionRegistry.getDependantChainsStart();
+  }
+
+  @Test
+  void executionPlan_noDisabledChains_containsAllChainsInTopologicalOrder() {
+    ExecutionPlan plan = kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of());
+
+    assertThat(plan.nodes().stream().map(PlanNode::kryonId))
+        .containsExactly(
+            kryonId(ROOT), kryonId(LEFT), kryonId(LEAF), kryonId(RIGHT), kryonId(LEAF));
+    assertThat(plan.kryonDefinitions().stream().map(KryonDefinition::kryonId))
+        .containsExactly(kryonId(ROOT), kryonId(LEFT), kryonId(LEAF), kryonId(RIGHT));
+    assertThat(plan.dependantChainsPerKryon().get(kryonId(LEAF)))
+        .containsExactly(
+            start.extend(kryonId(ROOT), "l").extend(kryonId(LEFT), "leaf"),
+            start.extend(kryonId(ROOT), "r").extend(kryonId(RIGHT), "leaf"));
+  }
+
+  @Test
+  void executionPlan_singleDependency_dependencyInheritsPartition() {
+    ExecutionPlan plan = kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of());
+
+    PlanNode leftNode = plan.nodes().get(1);
+    PlanNode leafNode = plan.nodes().get(2);
+    assertThat(leftNode.parent()).isEqualTo(0);
+    assertThat(leftNode.inheritsPartition()).isFalse();
+    assertThat(leafNode.parent()).isEqualTo(1);
+    assertThat(leafNode.inheritsPartition()).isTrue();
+  }
+
+  @Test
+  void executionPlan_disabledChain_excludesChainAndItsDependencies() {
+    DependantChain rightChain = start.extend(kryonId(ROOT), "r");
+
+    ExecutionPlan plan =
+        kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of(rightChain));
+
+    assertThat(plan.dependantChainsPerKryon()).doesNotContainKey(kryonId(RIGHT));
+    assertThat(plan.dependantChainsPerKryon().get(kryonId(LEAF)))
+        .containsExactly(start.extend(kryonId(ROOT), "l").extend(kryonId(LEFT), "leaf"));
+  }
+
+  @Test
+  void executionPlan_calledTwice_returnsSamePlan() {
+    ExecutionPlan plan = kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of());
+
+    assertThat(kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of()))
+        .isSameAs(plan);
+  }
+
+  @Test
+  void executionPlan_newKryonDefinitionAdded_planIsRecomputed() {
+    ExecutionPlan plan = kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of());
+
+    newKryon("unrelated", ImmutableMap.of());
+
+    assertThat(kryonDefinitionRegistry.executionPlan(kryonId(ROOT), ImmutableSet.of()))
+        .isNotSameAs(plan);
+  }
+
+  private void newKryon(String kryonId, ImmutableMap<String, KryonId> dependencyKryons) {
+    kryonDefinitionRegistry.newKryonDefinition(
+        kryonId, new KryonLogicId(new KryonId(kryonId), kryonId + ":logic"), dependencyKryons);
+  }
+
+  private static KryonId kryonId(String id) {
+    return new KryonId(id);
+  }
+}
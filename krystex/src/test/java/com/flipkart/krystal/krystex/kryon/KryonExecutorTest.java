@@ -5,9 +5,14 @@ import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStr
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.DEPTH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.GRANULAR;
+import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,22 +21,35 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
+import com.flipkart.krystal.krystex.DependencyStreamPolicy;
 import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.PreferObjectReuse;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -307,6 +325,71 @@ class KryonExecutorTest {
     assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("l1:l2:l3:l4:final");
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_parallelism_independentDependenciesExecutedInParallel(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    MultiLeasePool<ExecutorService> executorPool =
+        new MultiLeasePool<>(
+            () -> Executors.newFixedThreadPool(4),
+            new PreferObjectReuse(Integer.MAX_VALUE, Optional.empty()),
+            ExecutorService::shutdown);
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            executorPool,
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .parallelism(4)
+                .build(),
+            "test");
+    // Both dependencies wait for each other. So they can complete only if they execute in parallel
+    CountDownLatch bothDependenciesStarted = new CountDownLatch(2);
+    String left = "requestExecution_parallelism_left";
+    kryonDefinitionRegistry.newKryonDefinition(
+        left,
+        newComputeLogic(
+                left,
+                Collections.emptySet(),
+                dependencyValues -> awaitOthers(bothDependenciesStarted, "left"))
+            .kryonLogicId());
+    String right = "requestExecution_parallelism_right";
+    kryonDefinitionRegistry.newKryonDefinition(
+        right,
+        newComputeLogic(
+                right,
+                Collections.emptySet(),
+                dependencyValues -> awaitOthers(bothDependenciesStarted, "right"))
+            .kryonLogicId());
+    String root = "requestExecution_parallelism_root";
+    KryonDefinition rootKryon =
+        kryonDefinitionRegistry.newKryonDefinition(
+            root,
+            newComputeLogic(
+                    root,
+                    ImmutableSet.of("left", "right"),
+                    dependencyValues ->
+                        depValue(dependencyValues, "left")
+                            + ":"
+                            + depValue(dependencyValues, "right"))
+                .kryonLogicId(),
+            ImmutableMap.of("left", new KryonId(left), "right", new KryonId(right)));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            rootKryon.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("r").build());
+    kryonExecutor.flush();
+    try {
+      assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("left:right");
+    } finally {
+      kryonExecutor.close();
+      executorPool.close();
+    }
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void close_preventsNewExecutionRequests(
@@ -330,6 +413,245 @@ class KryonExecutorTest {
                 KryonExecutionConfig.builder().executionId("req_1").build()));
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_metricsEnabled_recordsPerKryonHistograms(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    KryonHistograms histograms = new KryonHistograms();
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .metricsConfig(
+                    KryonMetricsConfig.builder().samplingRate(1).histograms(histograms).build())
+                .build(),
+            "test");
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "metrics",
+            newComputeLogic("metrics_logic", ImmutableSet.of(), dependencyValues -> "done")
+                .kryonLogicId());
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            kryonDefinition.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("req_1").build());
+    kryonExecutor.flush();
+
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("done");
+    assertThat(kryonExecutor.getKryonMetrics().histograms()).isSameAs(histograms);
+    if (kryonExecStrategy == BATCH) {
+      assertThat(histograms.histogram(kryonDefinition.kryonId(), KryonMetric.OUTPUT_LOGIC))
+          .hasValueSatisfying(histogram -> assertThat(histogram.count()).isEqualTo(1));
+      assertThat(histograms.histogram(kryonDefinition.kryonId(), KryonMetric.BATCH_SIZE))
+          .hasValueSatisfying(histogram -> assertThat(histogram.max()).isEqualTo(1));
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_prioritizedSchedulingPolicies_success(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    KryonDefinition leaf =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "leaf",
+            newComputeLogic("leaf_logic", ImmutableSet.of(), dependencyValues -> "leaf")
+                .kryonLogicId());
+    KryonDefinition middle =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "middle",
+            newComputeLogic(
+                    "middle_logic",
+                    ImmutableSet.of("dep"),
+                    dependencyValues -> depValue(dependencyValues, "dep") + ":middle")
+                .kryonLogicId(),
+            ImmutableMap.of("dep", leaf.kryonId()));
+    KryonDefinition root =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "root",
+            newComputeLogic(
+                    "root_logic",
+                    ImmutableSet.of("dep1", "dep2"),
+                    dependencyValues ->
+                        depValue(dependencyValues, "dep1")
+                            + "|"
+                            + depValue(dependencyValues, "dep2"))
+                .kryonLogicId(),
+            ImmutableMap.of("dep1", middle.kryonId(), "dep2", leaf.kryonId()));
+    assertThat(kryonDefinitionRegistry.height(root.kryonId())).isEqualTo(2);
+
+    for (CommandSchedulingPolicy schedulingPolicy :
+        List.of(
+            CommandSchedulingPolicy.callbacksFirst(1),
+            CommandSchedulingPolicy.criticalPathFirst(1, 1))) {
+      try (KryonExecutor executor =
+          new KryonExecutor(
+              kryonDefinitionRegistry,
+              new ForkJoinExecutorPool(1),
+              KryonExecutorConfig.builder()
+                  .kryonExecStrategy(kryonExecStrategy)
+                  .graphTraversalStrategy(graphTraversalStrategy)
+                  .commandSchedulingPolicy(schedulingPolicy)
+                  .build(),
+              "test")) {
+        CompletableFuture<Object> future =
+            executor.executeKryon(
+                root.kryonId(),
+                Facets.empty(),
+                KryonExecutionConfig.builder().executionId("r").build());
+        executor.flush();
+        assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("leaf:middle|leaf");
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_sameIoFacetsFromMultipleDependantChains_ioCalledOnce(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    AtomicInteger ioCalls = new AtomicInteger();
+    KryonDefinition io =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "io",
+            newIOLogic(
+                    "io_logic",
+                    ImmutableSet.of(),
+                    facets -> completedFuture("io_" + ioCalls.incrementAndGet()))
+                .kryonLogicId());
+    KryonDefinition middle =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "io_middle",
+            newComputeLogic(
+                    "io_middle_logic",
+                    ImmutableSet.of("dep"),
+                    dependencyValues -> depValue(dependencyValues, "dep") + ":middle")
+                .kryonLogicId(),
+            ImmutableMap.of("dep", io.kryonId()));
+    KryonDefinition root =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "io_root",
+            newComputeLogic(
+                    "io_root_logic",
+                    ImmutableSet.of("dep1", "dep2"),
+                    dependencyValues ->
+                        depValue(dependencyValues, "dep1")
+                            + "|"
+                            + depValue(dependencyValues, "dep2"))
+                .kryonLogicId(),
+            ImmutableMap.of("dep1", middle.kryonId(), "dep2", io.kryonId()));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            root.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("r").build());
+    kryonExecutor.flush();
+
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("io_1:middle|io_1");
+    assertThat(ioCalls.get()).isEqualTo(1);
+    KryonExecutorMetrics metrics = kryonExecutor.getKryonMetrics();
+    assertThat(metrics.getIoCallCount()).isEqualTo(1);
+    assertThat(metrics.getIoDedupHitCount()).isEqualTo(1);
+    assertThat(metrics.ioDedupHitRate()).isEqualTo(0.5);
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_streamingFanoutDependency_outputLogicDoesNotWaitForSlowestResponse(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    CompletableFuture<String> slowResponse = new CompletableFuture<>();
+    Function<Facets, CompletableFuture<String>> ioLogic =
+        facets -> {
+          int index = facets.<Integer>getInputValueOrThrow("index");
+          return index == 2 ? slowResponse : completedFuture("fast_" + index);
+        };
+    KryonDefinition io =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "stream_io",
+            newIOLogic("stream_io_logic", ImmutableSet.of("index"), ioLogic).kryonLogicId());
+    OutputLogicDefinition<Object> rootLogic =
+        newComputeLogic(
+            "stream_root_logic",
+            ImmutableSet.of("count", "dep"),
+            facets ->
+                facets.getDepValue("dep").values().values().stream()
+                    .map(errable -> String.valueOf(errable.valueOrNull()))
+                    .sorted()
+                    .collect(joining(",")));
+    // Stop waiting for the dependency once two of its responses are successful
+    rootLogic.registerStreamingDependency("dep", DependencyStreamPolicy.firstSuccesses(2));
+    KryonLogicId multiResolverId =
+        new KryonLogicId(new KryonId("stream_root"), "stream_root:multiResolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            ImmutableSet.of("count"),
+            (resolutionRequests, facets) ->
+                ImmutableMap.of(
+                    "dep",
+                    multiExecuteWith(
+                        IntStream.range(0, facets.<Integer>getInputValueOrThrow("count"))
+                            .mapToObj(
+                                index -> new Facets(ImmutableMap.of("index", withValue(index))))
+                            .collect(toImmutableList()))),
+            ImmutableMap.of()));
+    KryonDefinition root =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "stream_root",
+            rootLogic.kryonLogicId(),
+            ImmutableMap.of("dep", io.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    new KryonLogicId(new KryonId("stream_root"), "stream_root:resolver"),
+                    ImmutableSet.of("count"),
+                    "dep",
+                    ImmutableSet.of("index"))),
+            multiResolverId);
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            root.kryonId(),
+            new Facets(ImmutableMap.of("count", withValue(3))),
+            KryonExecutionConfig.builder().executionId("r").build());
+    kryonExecutor.flush();
+
+    if (kryonExecStrategy == BATCH) {
+      // The output logic is executed with the responses streamed so far
+      assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("fast_0,fast_1");
+      slowResponse.complete("slow_2");
+    } else {
+      // Streaming is not supported by GRANULAR kryons, so they wait for all the responses
+      assertThat(future)
+          .failsWithin(Duration.ofMillis(100))
+          .withThrowableOfType(TimeoutException.class);
+      slowResponse.complete("slow_2");
+      assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("fast_0,fast_1,slow_2");
+    }
+  }
+
+  private static Object depValue(Facets facets, String depName) {
+    return facets.getDepValue(depName).values().values().iterator().next().value().orElseThrow();
+  }
+
+  private static String awaitOthers(CountDownLatch latch, String value) {
+    latch.countDown();
+    try {
+      if (!latch.await(TIMEOUT.toMillis(), MILLISECONDS)) {
+        throw new IllegalStateException("Timed out waiting for parallel execution");
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+    return value;
+  }
+
   /* So that bad testcases do not hang indefinitely.*/
   private static <T> T timedGet(CompletableFuture<T> future)
       throws InterruptedException, ExecutionException, TimeoutException {
@@ -354,6 +676,18 @@ class KryonExecutorTest {
     return def;
   }
 
+  private <T> OutputLogicDefinition<T> newIOLogic(
+      String kryonId, Set<String> inputs, Function<Facets, CompletableFuture<T>> logic) {
+    IOLogicDefinition<T> def =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId(kryonId), kryonId),
+            inputs,
+            inputsList -> inputsList.stream().collect(toImmutableMap(identity(), logic)),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(def);
+    return def;
+  }
+
   private KryonExecutor getKryonExecutor(
       KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
     return new KryonExecutor(
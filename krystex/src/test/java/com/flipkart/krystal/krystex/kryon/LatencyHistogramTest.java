@@ -0,0 +1,62 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void valueAtPercentile_noValues_returnsZero() {
+    assertThat(new LatencyHistogram().valueAtPercentile(99)).isZero();
+  }
+
+  @Test
+  void valueAtPercentile_smallValues_areExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 10; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.count()).isEqualTo(10);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(5);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(10);
+    assertThat(histogram.mean()).isEqualTo(5.5);
+  }
+
+  @Test
+  void valueAtPercentile_largeValues_withinRelativePrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1_000_000L);
+    }
+
+    assertThat(histogram.valueAtPercentile(99)).isCloseTo(990_000_000L, within(62_000_000L));
+    assertThat(histogram.valueAtPercentile(50)).isCloseTo(500_000_000L, within(32_000_000L));
+    assertThat(histogram.max()).isEqualTo(1_000_000_000L);
+  }
+
+  @Test
+  void record_valueBeyondRange_isClamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(Long.MAX_VALUE);
+    histogram.record(-1);
+
+    assertThat(histogram.count()).isEqualTo(2);
+    assertThat(histogram.valueAtPercentile(50)).isZero();
+    assertThat(histogram.max()).isEqualTo(1L << 40);
+  }
+
+  @Test
+  void reset_clearsAllValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100);
+
+    histogram.reset();
+
+    assertThat(histogram.count()).isZero();
+    assertThat(histogram.max()).isZero();
+  }
+}
@@ -0,0 +1,158 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SerialCommandQueueTest {
+
+  private static final int PRODUCERS = 8;
+  private static final int COMMANDS_PER_PRODUCER = 10_000;
+
+  private ExecutorService consumerExecutor;
+  private ExecutorService producerExecutor;
+
+  @BeforeEach
+  void setUp() {
+    consumerExecutor = Executors.newFixedThreadPool(4);
+    producerExecutor = Executors.newFixedThreadPool(PRODUCERS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    consumerExecutor.shutdownNow();
+    producerExecutor.shutdownNow();
+  }
+
+  @Test
+  void enqueue_fromMultipleProducers_executesAllCommandsSeriallyInProducerOrder()
+      throws Exception {
+    SerialCommandQueue commandQueue = new SerialCommandQueue(consumerExecutor);
+    AtomicInteger concurrentCommands = new AtomicInteger();
+    AtomicInteger maxConcurrentCommands = new AtomicInteger();
+    // Only accessed from within commands, which are guaranteed to never execute concurrently
+    Map<Integer, List<Integer>> executedCommands = new LinkedHashMap<>();
+    CountDownLatch allExecuted = new CountDownLatch(PRODUCERS * COMMANDS_PER_PRODUCER);
+
+    for (int p = 0; p < PRODUCERS; p++) {
+      int producer = p;
+      producerExecutor.execute(
+          () -> {
+            for (int i = 0; i < COMMANDS_PER_PRODUCER; i++) {
+              int command = i;
+              commandQueue.enqueue(
+                  () -> {
+                    maxConcurrentCommands.accumulateAndGet(
+                        concurrentCommands.incrementAndGet(), Math::max);
+                    executedCommands
+                        .computeIfAbsent(producer, _p -> new ArrayList<>())
+                        .add(command);
+                    concurrentCommands.decrementAndGet();
+                    allExecuted.countDown();
+                  });
+            }
+          });
+    }
+
+    assertThat(allExecuted.await(10, SECONDS)).isTrue();
+    assertThat(maxConcurrentCommands.get()).isEqualTo(1);
+    assertThat(executedCommands).hasSize(PRODUCERS);
+    executedCommands
+        .values()
+        .forEach(
+            commands -> {
+              assertThat(commands).hasSize(COMMANDS_PER_PRODUCER);
+              assertThat(commands).isSorted();
+            });
+  }
+
+  @Test
+  void enqueue_commandThrows_subsequentCommandsAreExecuted() throws Exception {
+    SerialCommandQueue commandQueue = new SerialCommandQueue(consumerExecutor);
+    CountDownLatch executed = new CountDownLatch(1);
+
+    commandQueue.enqueue(
+        () -> {
+          throw new IllegalStateException();
+        });
+    commandQueue.enqueue(executed::countDown);
+
+    assertThat(executed.await(1, SECONDS)).isTrue();
+  }
+
+  @Test
+  void enqueue_moreCommandsThanDrainBatchSize_drainsInMultipleTasks() throws Exception {
+    AtomicInteger drainTasks = new AtomicInteger();
+    SerialCommandQueue commandQueue =
+        new SerialCommandQueue(
+            command -> {
+              drainTasks.incrementAndGet();
+              consumerExecutor.execute(command);
+            });
+    int commandCount = SerialCommandQueue.MAX_DRAIN_BATCH_SIZE * 3;
+    CountDownLatch blockDrain = new CountDownLatch(1);
+    CountDownLatch allExecuted = new CountDownLatch(commandCount + 1);
+
+    // Block the first drain so that all the following commands are queued up behind it
+    commandQueue.enqueue(
+        () -> {
+          try {
+            blockDrain.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          allExecuted.countDown();
+        });
+    for (int i = 0; i < commandCount; i++) {
+      commandQueue.enqueue(allExecuted::countDown);
+    }
+    blockDrain.countDown();
+
+    assertThat(allExecuted.await(1, SECONDS)).isTrue();
+    assertThat(drainTasks.get()).isGreaterThan(3);
+  }
+
+  @Test
+  void enqueue_withPriorities_executesHigherPriorityCommandsFirst() throws Exception {
+    SerialCommandQueue commandQueue = new SerialCommandQueue(consumerExecutor, 2, 1);
+    CountDownLatch blockDrain = new CountDownLatch(1);
+    CountDownLatch allExecuted = new CountDownLatch(5);
+    List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+
+    // Block the first drain so that all the following commands are queued up behind it
+    commandQueue.enqueue(
+        () -> {
+          try {
+            blockDrain.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          allExecuted.countDown();
+        },
+        1);
+    for (String command : List.of("low_1", "high_1", "low_2", "high_2")) {
+      commandQueue.enqueue(
+          () -> {
+            executionOrder.add(command);
+            allExecuted.countDown();
+          },
+          command.startsWith("high") ? 0 : 1);
+    }
+    blockDrain.countDown();
+
+    assertThat(allExecuted.await(1, SECONDS)).isTrue();
+    assertThat(executionOrder).containsExactly("high_1", "high_2", "low_1", "low_2");
+  }
+}
@@ -0,0 +1,194 @@
+package com.flipkart.krystal.krystex.logicdecorators.memoization;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.GRANULAR;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResultMemoizerTest {
+
+  private static final Duration TIMEOUT = ofSeconds(1);
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private LogicDefinitionRegistry logicDefinitionRegistry;
+
+  @BeforeEach
+  void setUp() {
+    this.logicDefinitionRegistry = new LogicDefinitionRegistry();
+    this.kryonDefinitionRegistry = new KryonDefinitionRegistry(logicDefinitionRegistry);
+  }
+
+  @Test
+  void memoizer_identicalFacetsAcrossExecutors_logicExecutedOnce() {
+    AtomicInteger executionCount = new AtomicInteger();
+    OutputLogicDefinition<String> outputLogic =
+        newAsyncLogic(
+            "memoizer_identicalFacetsAcrossExecutors_logicExecutedOnce",
+            Set.of("input"),
+            facets -> {
+              executionCount.incrementAndGet();
+              return completedFuture("computed_value_" + facets.getInputValueOrThrow("input"));
+            });
+    registerMemoizer(outputLogic, new ResultMemoizer("memoizer"));
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition("kryon", outputLogic.kryonLogicId());
+
+    CompletableFuture<Object> request1 = execute(kryonDefinition, 1, "req_1");
+    CompletableFuture<Object> request2 = execute(kryonDefinition, 1, "req_2");
+    CompletableFuture<Object> request3 = execute(kryonDefinition, 2, "req_3");
+
+    assertThat(request1).succeedsWithin(TIMEOUT).isEqualTo("computed_value_1");
+    assertThat(request2).succeedsWithin(TIMEOUT).isEqualTo("computed_value_1");
+    assertThat(request3).succeedsWithin(TIMEOUT).isEqualTo("computed_value_2");
+    assertThat(executionCount).hasValue(2);
+  }
+
+  @Test
+  void stats_memoizedSecondCall_countsHit() {
+    OutputLogicDefinition<String> outputLogic =
+        newAsyncLogic(
+            "stats_memoizedSecondCall_countsHit",
+            Set.of("input"),
+            facets -> completedFuture("computed_value"));
+    ResultMemoizer resultMemoizer = new ResultMemoizer("memoizer");
+    registerMemoizer(outputLogic, resultMemoizer);
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition("kryon", outputLogic.kryonLogicId());
+
+    assertThat(execute(kryonDefinition, 1, "req_1")).succeedsWithin(TIMEOUT);
+    assertThat(execute(kryonDefinition, 1, "req_2")).succeedsWithin(TIMEOUT);
+
+    CacheStats stats = resultMemoizer.stats();
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void memoizer_logicFails_failureNotMemoized() {
+    AtomicInteger executionCount = new AtomicInteger();
+    OutputLogicDefinition<String> outputLogic =
+        newAsyncLogic(
+            "memoizer_logicFails_failureNotMemoized",
+            Set.of("input"),
+            facets ->
+                executionCount.incrementAndGet() == 1
+                    ? failedFuture(new IllegalStateException("first call fails"))
+                    : completedFuture("computed_value"));
+    registerMemoizer(outputLogic, new ResultMemoizer("memoizer"));
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition("kryon", outputLogic.kryonLogicId());
+
+    CompletableFuture<Object> request1 = execute(kryonDefinition, 1, "req_1");
+    assertThat(request1)
+        .failsWithin(TIMEOUT)
+        .withThrowableOfType(Exception.class)
+        .withRootCauseInstanceOf(IllegalStateException.class);
+    CompletableFuture<Object> request2 = execute(kryonDefinition, 1, "req_2");
+
+    assertThat(request2).succeedsWithin(TIMEOUT).isEqualTo("computed_value");
+    assertThat(executionCount).hasValue(2);
+  }
+
+  @Test
+  void memoizer_disabledViaConfig_logicExecutedEveryTime() {
+    AtomicInteger executionCount = new AtomicInteger();
+    OutputLogicDefinition<String> outputLogic =
+        newAsyncLogic(
+            "memoizer_disabledViaConfig_logicExecutedEveryTime",
+            Set.of("input"),
+            facets -> {
+              executionCount.incrementAndGet();
+              return completedFuture("computed_value");
+            });
+    ResultMemoizer resultMemoizer = new ResultMemoizer("memoizer");
+    resultMemoizer.onConfigUpdate(
+        new ConfigProvider() {
+          @SuppressWarnings("unchecked")
+          @Override
+          public <T> Optional<T> getConfig(String key) {
+            return switch (key) {
+              case "memoizer.memoization.enabled" -> (Optional<T>) Optional.of(false);
+              default -> Optional.empty();
+            };
+          }
+        });
+    registerMemoizer(outputLogic, resultMemoizer);
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition("kryon", outputLogic.kryonLogicId());
+
+    CompletableFuture<Object> request1 = execute(kryonDefinition, 1, "req_1");
+    CompletableFuture<Object> request2 = execute(kryonDefinition, 1, "req_2");
+
+    assertThat(request1).succeedsWithin(TIMEOUT).isEqualTo("computed_value");
+    assertThat(request2).succeedsWithin(TIMEOUT).isEqualTo("computed_value");
+    assertThat(executionCount).hasValue(2);
+  }
+
+  /** Executes the kryon in a new KryonExecutor so that results are not shared via the executor. */
+  private CompletableFuture<Object> execute(
+      KryonDefinition kryonDefinition, int input, String requestId) {
+    KryonExecutor kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder().kryonExecStrategy(GRANULAR).build(),
+            requestId);
+    CompletableFuture<Object> result =
+        kryonExecutor.executeKryon(
+            kryonDefinition.kryonId(),
+            new Facets(ImmutableMap.of("input", withValue(input))),
+            KryonExecutionConfig.builder().executionId(requestId).build());
+    kryonExecutor.flush();
+    return result;
+  }
+
+  private static void registerMemoizer(
+      OutputLogicDefinition<?> outputLogic, ResultMemoizer resultMemoizer) {
+    outputLogic.registerSessionScopedLogicDecorator(
+        new OutputLogicDecoratorConfig(
+            ResultMemoizer.DECORATOR_TYPE,
+            logicExecutionContext -> true,
+            logicExecutionContext -> resultMemoizer.getId(),
+            decoratorContext -> resultMemoizer));
+  }
+
+  private <T> OutputLogicDefinition<T> newAsyncLogic(
+      String kryonId, Set<String> inputs, Function<Facets, CompletableFuture<T>> logic) {
+    IOLogicDefinition<T> def =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId(kryonId), kryonId + ":asyncLogic"),
+            inputs,
+            inputsList ->
+                inputsList.stream()
+                    .collect(ImmutableMap.toImmutableMap(Function.identity(), logic)),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(def);
+    return def;
+  }
+}
@@ -0,0 +1,96 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.logicdecorators.observability.ExecutionTrace.TraceSpan;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TracingKryonExecutionReportTest {
+
+  private static final KryonId ROOT = new KryonId("root");
+  private static final KryonId FAST = new KryonId("fast");
+  private static final KryonId SLOW = new KryonId("slow");
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private TracingKryonExecutionReport report;
+
+  @BeforeEach
+  void setUp() {
+    nanoTime.set(1_000);
+    report = new TracingKryonExecutionReport(nanoTime::get);
+  }
+
+  @Test
+  void toTrace_startAndEndReported_recordsSpan() {
+    Facets facets = facets("v1");
+
+    nanoTime.set(1_100);
+    report.reportMainLogicStart(ROOT, logicId(ROOT), ImmutableList.of(facets));
+    nanoTime.set(1_600);
+    report.reportMainLogicEnd(ROOT, logicId(ROOT), results(facets));
+
+    assertThat(report.toTrace().spans()).containsExactly(new TraceSpan(ROOT, 100, 600, 1));
+  }
+
+  @Test
+  void toTrace_endNotReported_spanIsOmitted() {
+    report.reportMainLogicStart(ROOT, logicId(ROOT), ImmutableList.of(facets("v1")));
+
+    assertThat(report.toTrace().spans()).isEmpty();
+  }
+
+  @Test
+  void criticalPath_returnsSlowestDependencyChain() {
+    KryonDefinitionRegistry registry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+    registry.newKryonDefinition(FAST.value(), logicId(FAST));
+    registry.newKryonDefinition(SLOW.value(), logicId(SLOW));
+    registry.newKryonDefinition(
+        ROOT.value(), logicId(ROOT), ImmutableMap.of("fast", FAST, "slow", SLOW));
+
+    Facets fastInputs = facets("fast");
+    Facets slowInputs = facets("slow");
+    Facets rootInputs = facets("root");
+    nanoTime.set(1_000);
+    report.reportMainLogicStart(FAST, logicId(FAST), ImmutableList.of(fastInputs));
+    report.reportMainLogicStart(SLOW, logicId(SLOW), ImmutableList.of(slowInputs));
+    nanoTime.set(1_010);
+    report.reportMainLogicEnd(FAST, logicId(FAST), results(fastInputs));
+    nanoTime.set(1_500);
+    report.reportMainLogicEnd(SLOW, logicId(SLOW), results(slowInputs));
+    report.reportMainLogicStart(ROOT, logicId(ROOT), ImmutableList.of(rootInputs));
+    nanoTime.set(1_520);
+    report.reportMainLogicEnd(ROOT, logicId(ROOT), results(rootInputs));
+
+    ExecutionTrace trace = report.toTrace();
+
+    assertThat(trace.criticalPath(ROOT, registry).stream().map(TraceSpan::kryonId))
+        .containsExactly(SLOW, ROOT);
+    assertThat(trace.toChromeTraceJson())
+        .contains("\"name\":\"slow\"")
+        .contains("\"ph\":\"X\"")
+        .contains("\"dur\":0.5");
+  }
+
+  private static Facets facets(String value) {
+    return new Facets(ImmutableMap.of("input", withValue(value)));
+  }
+
+  private static Results<Object> results(Facets facets) {
+    return new Results<>(ImmutableMap.of(facets, withValue("result")));
+  }
+
+  private static KryonLogicId logicId(KryonId kryonId) {
+    return new KryonLogicId(kryonId, kryonId.value() + ":logic");
+  }
+}
@@ -0,0 +1,59 @@
+package com.flipkart.krystal.krystex.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RequestIdTest {
+
+  @Test
+  void newSubRequest_longReqGenerator_doesNotRenderSuffix() {
+    AtomicInteger suffixRenders = new AtomicInteger();
+    LongReqGenerator generator = new LongReqGenerator();
+    RequestId root = generator.newRequest(() -> "root");
+
+    RequestId child =
+        generator.newSubRequest(
+            root,
+            () -> {
+              suffixRenders.incrementAndGet();
+              return "child";
+            });
+
+    assertThat(child.toString()).isEqualTo(Long.toString(child.id()));
+    assertThat(child.parent()).isNull();
+    assertThat(suffixRenders).hasValue(0);
+  }
+
+  @Test
+  void toString_debugReqGenerator_rendersLineageLazilyOnce() {
+    AtomicInteger suffixRenders = new AtomicInteger();
+    DebugReqGenerator generator = new DebugReqGenerator();
+    RequestId root = generator.newRequest(() -> "executor:execution");
+    RequestId child = generator.newSubRequest(root, () -> "dep[0]");
+
+    RequestId grandChild =
+        generator.newSubRequest(
+            child,
+            () -> {
+              suffixRenders.incrementAndGet();
+              return "dep2[3]";
+            });
+
+    assertThat(suffixRenders).hasValue(0);
+    assertThat(grandChild.toString()).isEqualTo("executor:execution:dep[0]:dep2[3]");
+    assertThat(grandChild.toString()).isEqualTo("executor:execution:dep[0]:dep2[3]");
+    assertThat(suffixRenders).hasValue(1);
+    assertThat(grandChild.parent()).isEqualTo(child);
+  }
+
+  @Test
+  void equals_sameIdDifferentLineage_equal() {
+    RequestId plain = new RequestId(7);
+    RequestId withLineage = new RequestId(7, new RequestId(1), () -> "label");
+
+    assertThat(withLineage).isEqualTo(plain).hasSameHashCodeAs(plain);
+    assertThat(new RequestId(8)).isNotEqualTo(plain);
+  }
+}
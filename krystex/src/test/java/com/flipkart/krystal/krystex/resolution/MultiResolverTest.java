@@ -0,0 +1,56 @@
+package com.flipkart.krystal.krystex.resolution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.FacetLayout;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.resolution.ResolverCommand.SkipDependency;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class MultiResolverTest {
+
+  @Test
+  void resolveBatch_default_resolvesEachRowInOrder() {
+    List<DependencyResolutionRequest> resolutionRequests =
+        List.of(new DependencyResolutionRequest("dep", Set.of()));
+    List<Facets> resolvedFacets = new ArrayList<>();
+    MultiResolver multiResolver =
+        (resolverRequests, facets) -> {
+          assertThat(resolverRequests).isSameAs(resolutionRequests);
+          resolvedFacets.add(facets);
+          @Nullable Object input = facets.getInputValue("input").valueOrNull();
+          return input == null
+              ? ImmutableMap.of("dep", ResolverCommand.skip("no input"))
+              : ImmutableMap.of(
+                  "dep",
+                  ResolverCommand.multiExecuteWith(
+                      ImmutableList.of(new Facets(Map.of("depInput", Errable.withValue(input))))));
+        };
+    FacetLayout layout = FacetLayout.of("input");
+    List<Facets> rows =
+        List.of(
+            new Facets(Map.of("input", Errable.withValue(1))),
+            Facets.empty(),
+            new Facets(Map.of("input", Errable.withValue(3))));
+
+    ImmutableList<ImmutableMap<String, ResolverCommand>> resolverCommands =
+        multiResolver.resolveBatch(resolutionRequests, FacetColumns.ofRows(layout, rows));
+
+    assertThat(resolvedFacets).isEqualTo(rows);
+    assertThat(resolverCommands).hasSize(3);
+    assertThat(resolverCommands.get(0).get("dep").getInputs())
+        .containsExactly(new Facets(Map.of("depInput", Errable.withValue(1))));
+    assertThat(resolverCommands.get(1).get("dep")).isInstanceOf(SkipDependency.class);
+    assertThat(resolverCommands.get(2).get("dep").getInputs())
+        .containsExactly(new Facets(Map.of("depInput", Errable.withValue(3))));
+  }
+}
@@ -6,12 +6,16 @@ import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.vajram.batching.FacetsConverter;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
 import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.flipkart.krystal.vajram.facets.QualifiedInputs;
 import com.flipkart.krystal.vajram.facets.VajramFacetDefinition;
 import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverDefinition;
+import com.flipkart.krystal.vajram.facets.resolution.sdk.Resolve;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -61,6 +65,18 @@ public sealed interface Vajram<T> permits AbstractVajram {
     return ImmutableList.of();
   }
 
+  /**
+   * Returns the definitions of the resolvers declared via {@link Resolve} methods of this vajram,
+   * precomputed at build time by the vajram annotation processor. The {@link
+   * QualifiedInputs#spec()} of the returned definitions is not populated.
+   *
+   * @return {@link Optional#empty()} if the resolver definitions were not precomputed, in which
+   *     case they are computed by inspecting the {@link Resolve} methods via reflection.
+   */
+  default Optional<ImmutableList<InputResolverDefinition>> getResolveMethodDefinitions() {
+    return Optional.empty();
+  }
+
   default DependencyCommand<Facets> resolveInputOfDependency(
       String dependency, ImmutableSet<String> resolvableInputs, Facets facets) {
     return executeFanoutWith(ImmutableList.of());
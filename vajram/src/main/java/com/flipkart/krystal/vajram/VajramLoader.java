@@ -1,26 +1,152 @@
 package com.flipkart.krystal.vajram;
 
 import static java.lang.reflect.Modifier.isFinal;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toSet;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
 public final class VajramLoader {
 
+  /**
+   * The classpath resource in which the vajram annotation processor lists the fully qualified
+   * names of all the vajram impl classes generated in a compilation unit, one per line. Every jar
+   * containing vajrams has its own copy of this resource.
+   */
+  public static final String VAJRAM_INDEX_RESOURCE = "META-INF/krystal/vajrams.index";
+
+  /**
+   * Loads the vajrams in the given package (and its sub-packages) using the vajram index generated
+   * at build time (See {@link #VAJRAM_INDEX_RESOURCE}). Classpath roots (directories or jars)
+   * containing the package but no vajram index (for example, if their vajrams were compiled without
+   * the vajram annotation processor) are scanned for vajrams like in {@link
+   * #loadVajramsFromClassPath(String)}, so that the loaded vajrams are the same as those found by
+   * scanning the whole classpath.
+   */
+  public static List<? extends Vajram> loadVajrams(String packagePrefix) {
+    ClassLoader classLoader = classLoader();
+    Map<String, Class<? extends Vajram>> vajramClasses = new LinkedHashMap<>();
+    for (String className : indexedVajramClassNames(packagePrefix, classLoader)) {
+      vajramClasses.put(className, loadClass(className, classLoader));
+    }
+    List<URL> unindexedRoots = unindexedRoots(packagePrefix, classLoader);
+    if (!unindexedRoots.isEmpty()) {
+      ConfigurationBuilder configuration =
+          new ConfigurationBuilder().setUrls(unindexedRoots).addClassLoaders(classLoader);
+      scanVajramClasses(packagePrefix, configuration)
+          .forEach(vajramClass -> vajramClasses.putIfAbsent(vajramClass.getName(), vajramClass));
+    }
+    return vajramClasses.values().stream().map(VajramLoader::instantiate).toList();
+  }
+
+  /**
+   * Loads the vajrams in the given package (and its sub-packages) by scanning the classpath. Prefer
+   * {@link #loadVajrams(String)} which avoids the cost of classpath scanning.
+   */
   public static List<? extends Vajram> loadVajramsFromClassPath(String packagePrefix) {
-    return new Reflections(packagePrefix)
+    return scanVajramClasses(
+            packagePrefix, new ConfigurationBuilder().forPackage(packagePrefix, classLoader()))
+        .stream()
+        .map(VajramLoader::instantiate)
+        .toList();
+  }
+
+  private static List<Class<? extends Vajram>> scanVajramClasses(
+      String packagePrefix, ConfigurationBuilder configuration) {
+    return new Reflections(
+            configuration.filterInputsBy(new FilterBuilder().includePackage(packagePrefix)))
         .getSubTypesOf(Vajram.class).stream()
             .filter(aClass -> isFinal(aClass.getModifiers()))
-            .map(
-                aClass -> {
-                  try {
-                    return aClass.getConstructor().newInstance();
-                  } catch (Throwable e) {
-                    throw new RuntimeException(e);
-                  }
-                })
             .toList();
   }
 
+  /**
+   * Returns the classpath roots which contain the given package, but do not contain a vajram index.
+   */
+  private static List<URL> unindexedRoots(String packagePrefix, ClassLoader classLoader) {
+    Set<String> indexedRoots =
+        ClasspathHelper.forResource(VAJRAM_INDEX_RESOURCE, classLoader).stream()
+            .map(URL::toExternalForm)
+            .collect(toSet());
+    return ClasspathHelper.forPackage(packagePrefix, classLoader).stream()
+        .filter(root -> !indexedRoots.contains(root.toExternalForm()))
+        .toList();
+  }
+
+  private static Set<String> indexedVajramClassNames(
+      String packagePrefix, ClassLoader classLoader) {
+    Set<String> vajramClassNames = new LinkedHashSet<>();
+    try {
+      Enumeration<URL> indexes = classLoader.getResources(VAJRAM_INDEX_RESOURCE);
+      while (indexes.hasMoreElements()) {
+        URL index = indexes.nextElement();
+        try (BufferedReader reader =
+            new BufferedReader(new InputStreamReader(index.openStream(), UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            String className = line.strip();
+            if (!className.isEmpty() && isInPackage(className, packagePrefix)) {
+              vajramClassNames.add(className);
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read vajram index", e);
+    }
+    return vajramClassNames;
+  }
+
+  private static boolean isInPackage(String className, String packagePrefix) {
+    return packagePrefix.isEmpty()
+        || className.startsWith(packagePrefix.endsWith(".") ? packagePrefix : packagePrefix + '.');
+  }
+
+  private static Class<? extends Vajram> loadClass(String className, ClassLoader classLoader) {
+    Class<?> aClass;
+    try {
+      aClass = Class.forName(className, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(
+          "Vajram %s is present in the vajram index but not in the classpath"
+              .formatted(className),
+          e);
+    }
+    if (!Vajram.class.isAssignableFrom(aClass)) {
+      throw new IllegalStateException(
+          "Class %s present in the vajram index is not a vajram".formatted(className));
+    }
+    //noinspection unchecked
+    return (Class<? extends Vajram>) aClass;
+  }
+
+  private static Vajram instantiate(Class<? extends Vajram> aClass) {
+    try {
+      return aClass.getConstructor().newInstance();
+    } catch (Throwable e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static ClassLoader classLoader() {
+    @Nullable ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    return contextClassLoader != null ? contextClassLoader : VajramLoader.class.getClassLoader();
+  }
+
   private VajramLoader() {}
 }
@@ -1,6 +1,22 @@
 package com.flipkart.krystal.vajram.batching;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
 
+/**
+ * @param batchedInputs The inputs which are to be executed in a single batch.
+ * @param commonFacets The common facets with which the batch is to be executed.
+ * @param originalCommonFacets When the batch has been created by a {@link Modulator} which merged
+ *     requests with different common facets, this maps each of the batched inputs to the common
+ *     facets with which it was originally requested (if different from {@code commonFacets}).
+ *     Empty for batches which were not modulated.
+ */
 public record BatchedFacets<BatchableInputs, CommonFacets>(
-    ImmutableList<BatchableInputs> batchedInputs, CommonFacets commonFacets) {}
+    ImmutableList<BatchableInputs> batchedInputs,
+    CommonFacets commonFacets,
+    ImmutableSetMultimap<BatchableInputs, CommonFacets> originalCommonFacets) {
+
+  public BatchedFacets(ImmutableList<BatchableInputs> batchedInputs, CommonFacets commonFacets) {
+    this(batchedInputs, commonFacets, ImmutableSetMultimap.of());
+  }
+}
@@ -2,6 +2,7 @@ package com.flipkart.krystal.vajram.batching;
 
 import com.flipkart.krystal.config.ConfigListener;
 import com.google.common.collect.ImmutableList;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
@@ -12,7 +13,10 @@ import java.util.function.Consumer;
  *
  * <p>Input batcher work by collecting multiple sets of inputs into a collection and "modulate" them
  * by squashing/merging these when some condition is met. For example, {@link InputBatcherImpl}
- * keeps collecting inputs until a minimum batch size is reached.
+ * keeps collecting inputs until a minimum batch size is reached, and {@link TimedInputBatcher}
+ * additionally emits inputs which have waited for longer than a configured deadline. {@link
+ * ModulatingInputBatcher} additionally merges requests whose common facets differ, but which can be
+ * served by a single request (See {@link Modulator}).
  *
  * @param <BatchableInputs> Those inputs which can to be batched into a single request.
  * @param <CommonFacets> Those inputs which need do not vary within a single request. Meaning, two
@@ -31,4 +35,13 @@ public interface InputBatcher<BatchableInputs, CommonFacets> extends ConfigListe
    * the {@link #batch()} method is called, execute the given callback.
    */
   void onBatching(Consumer<ImmutableList<BatchedFacets<BatchableInputs, CommonFacets>>> callback);
+
+  /**
+   * Returns the modulator which this batcher uses to merge requests with different common facets.
+   * The runtime uses it to project the responses of the merged requests back to the original
+   * requests (See {@link BatchedFacets#originalCommonFacets()}).
+   */
+  default Optional<Modulator<CommonFacets>> modulator() {
+    return Optional.empty();
+  }
 }
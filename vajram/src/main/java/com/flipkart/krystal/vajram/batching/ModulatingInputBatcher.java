@@ -0,0 +1,158 @@
+package com.flipkart.krystal.vajram.batching;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An input batcher which, in addition to batching inputs with equal common facets, merges inputs
+ * whose common facets are different but can be merged by a {@link Modulator}. For example, if
+ * requests for the info levels LOW and MEDIUM of an entity can both be served by a single request
+ * for the info level MEDIUM, the inputs of both the requests are emitted in a single batch with the
+ * common facets of the merged request. This reduces the number of IO calls when the same data is
+ * requested at different granularities by different parts of the graph.
+ *
+ * <p>Emitted batches carry the original common facets of the merged inputs in {@link
+ * BatchedFacets#originalCommonFacets()}. The runtime completes the original requests with the
+ * responses of the merged request, after projecting them via {@link Modulator#project}.
+ *
+ * <p>A batch is emitted when the number of distinct inputs collected for some merged common facets
+ * reaches {@code minBatchSize}, or when {@link #batch()} is called. This batcher is thread-safe.
+ *
+ * <p>Configs (relative to the config provider given to {@link #onConfigUpdate(ConfigProvider)}):
+ *
+ * <ul>
+ *   <li>{@code min_batch_size} (Integer) - default: the minBatchSize passed to the constructor
+ * </ul>
+ */
+public final class ModulatingInputBatcher<I, C> implements InputBatcher<I, C> {
+
+  private final Modulator<C> modulator;
+  private final int defaultMinBatchSize;
+
+  private volatile @Nullable Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener;
+
+  // All the fields below are guarded by "this"
+  private final List<PendingGroup<I, C>> pendingGroups = new ArrayList<>();
+  private int minBatchSize;
+
+  public ModulatingInputBatcher(Modulator<C> modulator, int minBatchSize) {
+    if (minBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "Batch size must be positive. Found: %s".formatted(minBatchSize));
+    }
+    this.modulator = modulator;
+    this.defaultMinBatchSize = minBatchSize;
+    this.minBatchSize = minBatchSize;
+  }
+
+  @Override
+  public ImmutableList<BatchedFacets<I, C>> add(I batchableInputs, C commonFacets) {
+    synchronized (this) {
+      PendingGroup<I, C> group = findGroup(commonFacets);
+      group.add(batchableInputs, commonFacets);
+      if (group.inputs.size() >= minBatchSize) {
+        pendingGroups.remove(group);
+        return ImmutableList.of(group.toBatchedFacets());
+      }
+      return ImmutableList.of();
+    }
+  }
+
+  @Override
+  public void batch() {
+    ImmutableList<BatchedFacets<I, C>> batchedFacets;
+    synchronized (this) {
+      ImmutableList.Builder<BatchedFacets<I, C>> batches = ImmutableList.builder();
+      for (PendingGroup<I, C> group : pendingGroups) {
+        batches.add(group.toBatchedFacets());
+      }
+      pendingGroups.clear();
+      batchedFacets = batches.build();
+    }
+    Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener = this.batchingListener;
+    if (batchingListener != null && !batchedFacets.isEmpty()) {
+      batchingListener.accept(batchedFacets);
+    }
+  }
+
+  @Override
+  public void onBatching(Consumer<ImmutableList<BatchedFacets<I, C>>> listener) {
+    this.batchingListener = listener;
+  }
+
+  @Override
+  public Optional<Modulator<C>> modulator() {
+    return Optional.of(modulator);
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    synchronized (this) {
+      this.minBatchSize =
+          configProvider.<Integer>getConfig("min_batch_size").orElse(defaultMinBatchSize);
+    }
+  }
+
+  /**
+   * Returns the pending group whose merged common facets are equal to the given common facets. If
+   * there is no such group, merges the given common facets into the first group which the
+   * modulator can merge them with. If there is no such group either, starts a new group. Must be
+   * called while holding the lock on "this".
+   */
+  private PendingGroup<I, C> findGroup(C commonFacets) {
+    for (PendingGroup<I, C> group : pendingGroups) {
+      if (group.mergedCommonFacets.equals(commonFacets)) {
+        return group;
+      }
+    }
+    for (PendingGroup<I, C> group : pendingGroups) {
+      Optional<C> merged = modulator.merge(group.mergedCommonFacets, commonFacets);
+      if (merged.isPresent()) {
+        group.mergedCommonFacets = merged.get();
+        return group;
+      }
+    }
+    PendingGroup<I, C> group = new PendingGroup<>(commonFacets);
+    pendingGroups.add(group);
+    return group;
+  }
+
+  private static final class PendingGroup<I, C> {
+
+    private C mergedCommonFacets;
+
+    /** The common facets with which each of the inputs was added to this group. */
+    private final Map<I, Set<C>> inputs = new LinkedHashMap<>();
+
+    private PendingGroup(C mergedCommonFacets) {
+      this.mergedCommonFacets = mergedCommonFacets;
+    }
+
+    private void add(I batchableInputs, C commonFacets) {
+      inputs.computeIfAbsent(batchableInputs, i -> new LinkedHashSet<>()).add(commonFacets);
+    }
+
+    private BatchedFacets<I, C> toBatchedFacets() {
+      ImmutableSetMultimap.Builder<I, C> originalCommonFacets = ImmutableSetMultimap.builder();
+      for (Map.Entry<I, Set<C>> entry : inputs.entrySet()) {
+        for (C original : entry.getValue()) {
+          if (!original.equals(mergedCommonFacets)) {
+            originalCommonFacets.put(entry.getKey(), original);
+          }
+        }
+      }
+      return new BatchedFacets<>(
+          ImmutableList.copyOf(inputs.keySet()), mergedCommonFacets, originalCommonFacets.build());
+    }
+  }
+}
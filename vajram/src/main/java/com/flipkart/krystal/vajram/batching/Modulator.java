@@ -0,0 +1,40 @@
+package com.flipkart.krystal.vajram.batching;
+
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Merges requests of a vajram whose common facets differ, but which can be served by a single
+ * request - for example, requests for an entity with info levels LOW and MEDIUM can both be served
+ * by a single request with info level MEDIUM, if LOW is a subset of MEDIUM. The common facets of
+ * the vajram form a lattice over which {@link #merge} computes the least upper bound, and the
+ * response of the merged request is projected back to each of the original requests via {@link
+ * #project}.
+ *
+ * <p>Used by {@link ModulatingInputBatcher}. Implementations must be thread-safe.
+ *
+ * @param <CommonFacets> The common facets of the vajram.
+ */
+public interface Modulator<CommonFacets> {
+
+  /**
+   * Returns common facets with which a single request serves the requests with both the given
+   * common facets, or empty if the two cannot be merged. Must return {@code a} if {@code a} and
+   * {@code b} are equal.
+   */
+  Optional<CommonFacets> merge(CommonFacets a, CommonFacets b);
+
+  /**
+   * Converts the response of a merged request into the response which the original request would
+   * have received. Defaults to the response of the merged request itself, which is appropriate
+   * when the merged response is a superset which clients can consume as is.
+   *
+   * @param original The common facets of the original request
+   * @param merged The common facets of the merged request which was executed
+   * @param response The response of the merged request
+   */
+  default @Nullable Object project(
+      CommonFacets original, CommonFacets merged, @Nullable Object response) {
+    return response;
+  }
+}
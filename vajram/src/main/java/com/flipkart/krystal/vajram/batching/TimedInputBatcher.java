@@ -0,0 +1,216 @@
+package com.flipkart.krystal.vajram.batching;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.flipkart.krystal.utils.HashedWheelTimer.Timeout;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An input batcher which emits a batch when any one of the following happens:
+ *
+ * <ul>
+ *   <li>The number of inputs collected for some common facets reaches {@code minBatchSize}
+ *   <li>The oldest input collected for some common facets has waited for {@code maxWait}
+ *   <li>{@link #batch()} is called
+ * </ul>
+ *
+ * Emitted batches never contain more than {@code maxBatchSize} inputs - larger batches are split
+ * into multiple batches.
+ *
+ * <p>Unlike {@link InputBatcherImpl}, which emits pending inputs only when {@link #batch()} is
+ * called (i.e. when all the dependant chains of the vajram have been flushed), the max-wait
+ * deadline bounds the time an input waits for the batch to fill up. This way, a slow branch of the
+ * graph which delays its flush does not delay the IO calls of other branches indefinitely.
+ *
+ * <p>Deadlines are tracked by a {@link HashedWheelTimer} (by default {@link
+ * HashedWheelTimer#shared()}). When a deadline expires, the batching callback is invoked in the
+ * worker thread of the timer, which is shared by all the batchers using the timer. So the callback
+ * must not execute the batch itself, but must hand it off to the executor which owns the batched
+ * requests. This batcher is thread-safe.
+ *
+ * <p>Configs (relative to the config provider given to {@link #onConfigUpdate(ConfigProvider)}):
+ *
+ * <ul>
+ *   <li>{@code min_batch_size} (Integer) - default: 1
+ *   <li>{@code max_batch_size} (Integer) - default: unbounded
+ *   <li>{@code max_wait_millis} (Number) - default: no deadline
+ * </ul>
+ */
+public final class TimedInputBatcher<I, C> implements InputBatcher<I, C> {
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = Integer.MAX_VALUE;
+
+  private final HashedWheelTimer timer;
+  private final int defaultMinBatchSize;
+  private final int defaultMaxBatchSize;
+  private final @Nullable Duration defaultMaxWait;
+
+  private volatile @Nullable Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener;
+
+  // All the fields below are guarded by "this"
+  private final Map<C, List<I>> unBatchedRequests = new HashMap<>();
+  private final Map<C, Deadline> deadlines = new HashMap<>();
+  private int minBatchSize;
+  private int maxBatchSize;
+  private @Nullable Duration maxWait;
+
+  public TimedInputBatcher(int minBatchSize, int maxBatchSize, @Nullable Duration maxWait) {
+    this(minBatchSize, maxBatchSize, maxWait, HashedWheelTimer.shared());
+  }
+
+  /**
+   * @param minBatchSize A batch is emitted as soon as these many inputs are collected.
+   * @param maxBatchSize Emitted batches never have more inputs than this. Must not be less than
+   *     {@code minBatchSize}.
+   * @param maxWait The maximum time for which an input waits before being emitted in a batch. If
+   *     null, inputs wait until {@code minBatchSize} is reached or {@link #batch()} is called.
+   * @param timer The timer used to track the max-wait deadlines.
+   */
+  public TimedInputBatcher(
+      int minBatchSize, int maxBatchSize, @Nullable Duration maxWait, HashedWheelTimer timer) {
+    validateBatchSizes(minBatchSize, maxBatchSize);
+    this.timer = timer;
+    this.defaultMinBatchSize = minBatchSize;
+    this.defaultMaxBatchSize = maxBatchSize;
+    this.defaultMaxWait = maxWait;
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWait = maxWait;
+  }
+
+  public TimedInputBatcher(int minBatchSize, Duration maxWait) {
+    this(minBatchSize, DEFAULT_MAX_BATCH_SIZE, maxWait);
+  }
+
+  @Override
+  public ImmutableList<BatchedFacets<I, C>> add(I batchableInputs, C commonFacets) {
+    synchronized (this) {
+      List<I> pending = unBatchedRequests.computeIfAbsent(commonFacets, k -> new ArrayList<>());
+      pending.add(batchableInputs);
+      if (pending.size() >= minBatchSize) {
+        return drain(commonFacets, pending);
+      }
+      Duration maxWait = this.maxWait;
+      if (maxWait != null && !deadlines.containsKey(commonFacets)) {
+        deadlines.put(commonFacets, scheduleDeadline(commonFacets, maxWait));
+      }
+      return ImmutableList.of();
+    }
+  }
+
+  @Override
+  public void batch() {
+    ImmutableList<BatchedFacets<I, C>> batchedFacets;
+    synchronized (this) {
+      ImmutableList.Builder<BatchedFacets<I, C>> batches = ImmutableList.builder();
+      for (Map.Entry<C, List<I>> entry : unBatchedRequests.entrySet()) {
+        batches.addAll(drain(entry.getKey(), entry.getValue()));
+      }
+      unBatchedRequests.clear();
+      batchedFacets = batches.build();
+    }
+    emit(batchedFacets);
+  }
+
+  @Override
+  public void onBatching(Consumer<ImmutableList<BatchedFacets<I, C>>> listener) {
+    this.batchingListener = listener;
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    int minBatchSize =
+        configProvider.<Integer>getConfig("min_batch_size").orElse(defaultMinBatchSize);
+    int maxBatchSize =
+        configProvider.<Integer>getConfig("max_batch_size").orElse(defaultMaxBatchSize);
+    validateBatchSizes(minBatchSize, maxBatchSize);
+    synchronized (this) {
+      this.minBatchSize = minBatchSize;
+      this.maxBatchSize = maxBatchSize;
+      this.maxWait =
+          configProvider
+              .<Number>getConfig("max_wait_millis")
+              .map(millis -> Duration.ofMillis(millis.longValue()))
+              .orElse(defaultMaxWait);
+    }
+  }
+
+  private static void validateBatchSizes(int minBatchSize, int maxBatchSize) {
+    if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+      throw new IllegalArgumentException(
+          "Batch sizes must satisfy 1 <= min <= max. Found min: %s, max: %s"
+              .formatted(minBatchSize, maxBatchSize));
+    }
+  }
+
+  private Deadline scheduleDeadline(C commonFacets, Duration maxWait) {
+    Deadline deadline = new Deadline();
+    deadline.timeout = timer.schedule(() -> onDeadline(commonFacets, deadline), maxWait);
+    return deadline;
+  }
+
+  private void onDeadline(C commonFacets, Deadline deadline) {
+    ImmutableList<BatchedFacets<I, C>> batchedFacets;
+    synchronized (this) {
+      // The deadline might have been replaced by a newer one if the inputs were emitted and new
+      // inputs were added concurrently with the expiry of this deadline
+      if (deadlines.get(commonFacets) != deadline) {
+        return;
+      }
+      List<I> pending = unBatchedRequests.remove(commonFacets);
+      if (pending == null) {
+        deadlines.remove(commonFacets);
+        return;
+      }
+      batchedFacets = drain(commonFacets, pending);
+    }
+    emit(batchedFacets);
+  }
+
+  /**
+   * Splits all the pending inputs of the given common facets into batches and cancels their
+   * deadline. Must be called while holding the lock on "this".
+   */
+  private ImmutableList<BatchedFacets<I, C>> drain(C commonFacets, List<I> pending) {
+    Deadline deadline = deadlines.remove(commonFacets);
+    if (deadline != null) {
+      deadline.cancel();
+    }
+    if (pending.isEmpty()) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<BatchedFacets<I, C>> batches = ImmutableList.builder();
+    for (int from = 0; from < pending.size(); from += maxBatchSize) {
+      int to = (int) Math.min((long) from + maxBatchSize, pending.size());
+      batches.add(
+          new BatchedFacets<>(ImmutableList.copyOf(pending.subList(from, to)), commonFacets));
+    }
+    pending.clear();
+    return batches.build();
+  }
+
+  private void emit(ImmutableList<BatchedFacets<I, C>> batchedFacets) {
+    Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener = this.batchingListener;
+    if (batchingListener != null && !batchedFacets.isEmpty()) {
+      batchingListener.accept(batchedFacets);
+    }
+  }
+
+  private static final class Deadline {
+    private @Nullable Timeout timeout;
+
+    private void cancel() {
+      Timeout timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+  }
+}
@@ -1,21 +1,22 @@
 package com.flipkart.krystal.vajram.batching;
 
-import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 public record UnBatchedFacets<
         BatchedInputs extends FacetValuesAdaptor, CommonFacets extends FacetValuesAdaptor>(
     BatchedInputs batchedInputs, CommonFacets commonFacets) implements FacetValuesAdaptor {
 
+  /**
+   * Returns the facets of both the batched inputs and the common facets. The returned facets carry
+   * this object as their typed representation, so converting them back to {@link UnBatchedFacets}
+   * via {@link Facets#toTyped} does not create new objects.
+   */
   @Override
   public Facets toFacetValues() {
-    Map<String, FacetValue<Object>> imValues = batchedInputs.toFacetValues().values();
-    Map<String, FacetValue<Object>> ciValues = commonFacets.toFacetValues().values();
-    LinkedHashMap<String, FacetValue<Object>> merged = new LinkedHashMap<>(imValues);
-    merged.putAll(ciValues);
-    return new Facets(merged);
+    return batchedInputs
+        .toFacetValues()
+        .withValues(commonFacets.toFacetValues())
+        .withTyped(this);
   }
 }
@@ -90,29 +90,47 @@ public final class VajramDefinition {
   private static Collection<InputResolverDefinition> parseInputResolvers(Vajram<?> vajram) {
     List<InputResolverDefinition> inputResolvers =
         new ArrayList<>(vajram.getSimpleInputResolvers());
-    ImmutableSet<Method> resolverMethods =
-        Arrays.stream(getVajramSourceClass(vajram.getClass()).getDeclaredMethods())
-            .filter(method -> method.isAnnotationPresent(Resolve.class))
-            .collect(toImmutableSet());
-
     ImmutableMap<String, DependencyDef<?>> dependencyDefinitions =
         vajram.getFacetDefinitions().stream()
             .filter(vi -> vi instanceof DependencyDef)
             .map(vi -> (DependencyDef<?>) vi)
             .collect(toImmutableMap(VajramFacetDefinition::name, Function.identity()));
 
+    ImmutableList<InputResolverDefinition> resolveMethodDefinitions =
+        vajram
+            .getResolveMethodDefinitions()
+            .orElseGet(() -> parseResolveMethodDefinitions(vajram.getClass()));
+    for (InputResolverDefinition resolverDefinition : resolveMethodDefinitions) {
+      QualifiedInputs target = resolverDefinition.resolutionTarget();
+      inputResolvers.add(
+          newResolverDefinition(
+              resolverDefinition.sources(),
+              target.dependencyName(),
+              target.inputNames(),
+              dependencyDefinitions));
+    }
+    return inputResolvers;
+  }
+
+  /**
+   * Computes the definitions of the resolvers declared via {@link Resolve} methods of the given
+   * vajram class by inspecting them via reflection. This is the fallback used when {@link
+   * Vajram#getResolveMethodDefinitions()} is not precomputed, and returns the same definitions as
+   * the precomputed ones - the {@link QualifiedInputs#spec()} of the returned definitions is not
+   * populated.
+   */
+  public static ImmutableList<InputResolverDefinition> parseResolveMethodDefinitions(
+      Class<?> vajramClass) {
+    ImmutableSet<Method> resolverMethods =
+        Arrays.stream(getVajramSourceClass(vajramClass).getDeclaredMethods())
+            .filter(method -> method.isAnnotationPresent(Resolve.class))
+            .collect(toImmutableSet());
+    List<InputResolverDefinition> resolveMethodDefinitions = new ArrayList<>();
     for (Method resolverMethod : resolverMethods) {
       Resolve resolver = resolverMethod.getAnnotation(Resolve.class);
       if (resolver == null) {
         throw new AssertionError();
       }
-      String targetDependency = resolver.depName();
-      DependencyDef<?> dependencyDef = dependencyDefinitions.get(targetDependency);
-      if (dependencyDef == null) {
-        throw new IllegalStateException(
-            "Could not find dependency with name %s".formatted(targetDependency));
-      }
-      String[] targetInputs = resolver.depInputs();
       ImmutableSet<String> sources =
           Arrays.stream(resolverMethod.getParameters())
               .map(
@@ -124,15 +142,27 @@ public final class VajramDefinition {
                           .map(Using::value)
                           .orElseGet(parameter::getName))
               .collect(toImmutableSet());
-      inputResolvers.add(
+      resolveMethodDefinitions.add(
           new DefaultInputResolverDefinition(
               sources,
-              new QualifiedInputs(
-                  targetDependency,
-                  dependencyDef.dataAccessSpec(),
-                  ImmutableSet.copyOf(targetInputs))));
+              new QualifiedInputs(resolver.depName(), ImmutableSet.copyOf(resolver.depInputs()))));
     }
-    return inputResolvers;
+    return ImmutableList.copyOf(resolveMethodDefinitions);
+  }
+
+  private static InputResolverDefinition newResolverDefinition(
+      ImmutableSet<String> sources,
+      String targetDependency,
+      ImmutableSet<String> targetInputs,
+      ImmutableMap<String, DependencyDef<?>> dependencyDefinitions) {
+    DependencyDef<?> dependencyDef = dependencyDefinitions.get(targetDependency);
+    if (dependencyDef == null) {
+      throw new IllegalStateException(
+          "Could not find dependency with name %s".formatted(targetDependency));
+    }
+    return new DefaultInputResolverDefinition(
+        sources,
+        new QualifiedInputs(targetDependency, dependencyDef.dataAccessSpec(), targetInputs));
   }
 
   private static ImmutableMap<AnnotationTagKey, Tag> parseOutputLogicTags(Vajram<?> vajram) {
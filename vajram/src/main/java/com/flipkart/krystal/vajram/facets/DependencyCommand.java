@@ -1,5 +1,6 @@
 package com.flipkart.krystal.vajram.facets;
 
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableCollection;
 import java.util.Optional;
 
@@ -7,9 +8,17 @@ public sealed interface DependencyCommand<T> permits SingleExecute, MultiExecute
 
   String EMPTY_STRING = "";
 
+  /** The skip reason of commands which do not skip the dependency. */
+  SkipReason NOT_SKIPPED = SkipReason.of(EMPTY_STRING);
+
   ImmutableCollection<Optional<T>> inputs();
 
   boolean shouldSkip();
 
-  String doc();
+  SkipReason skipReason();
+
+  /** Renders the message of the {@link #skipReason()}. */
+  default String doc() {
+    return skipReason().message();
+  }
 }
@@ -2,13 +2,15 @@ package com.flipkart.krystal.vajram.facets;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 
-public record MultiExecute<T>(Collection<T> multiInputs, boolean shouldSkip, String doc)
+public record MultiExecute<T>(
+    Collection<T> multiInputs, boolean shouldSkip, SkipReason skipReason)
     implements DependencyCommand<T> {
 
   @Override
@@ -17,10 +19,14 @@ public record MultiExecute<T>(Collection<T> multiInputs, boolean shouldSkip, Str
   }
 
   public static <T> MultiExecute<T> executeFanoutWith(Collection<T> inputs) {
-    return new MultiExecute<>(ImmutableList.copyOf(inputs), false, EMPTY_STRING);
+    return new MultiExecute<>(ImmutableList.copyOf(inputs), false, NOT_SKIPPED);
   }
 
   public static <T> MultiExecute<T> skipFanout(String reason) {
-    return new MultiExecute<>(Collections.emptyList(), true, reason);
+    return skipFanout(SkipReason.of(reason));
+  }
+
+  public static <T> MultiExecute<T> skipFanout(SkipReason skipReason) {
+    return new MultiExecute<>(Collections.emptyList(), true, skipReason);
   }
 }
@@ -1,11 +1,12 @@
 package com.flipkart.krystal.vajram.facets;
 
+import com.flipkart.krystal.utils.SkipReason;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record SingleExecute<T>(@Nullable T input, boolean shouldSkip, String doc)
+public record SingleExecute<T>(@Nullable T input, boolean shouldSkip, SkipReason skipReason)
     implements DependencyCommand<T> {
 
   @Override
@@ -14,10 +15,14 @@ public record SingleExecute<T>(@Nullable T input, boolean shouldSkip, String doc
   }
 
   public static <T> SingleExecute<T> executeWith(@Nullable T value) {
-    return new SingleExecute<>(value, false, EMPTY_STRING);
+    return new SingleExecute<>(value, false, NOT_SKIPPED);
   }
 
   public static <T> SingleExecute<T> skipExecution(String reason) {
-    return new SingleExecute<>(null, true, reason);
+    return skipExecution(SkipReason.of(reason));
+  }
+
+  public static <T> SingleExecute<T> skipExecution(SkipReason skipReason) {
+    return new SingleExecute<>(null, true, skipReason);
   }
 }
@@ -5,8 +5,11 @@ import static java.util.Optional.ofNullable;
 import static java.util.function.Function.identity;
 
 import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
 import com.flipkart.krystal.vajram.facets.MultiExecute;
@@ -64,6 +67,103 @@ public final class InputResolverUtil {
     return new ResolutionResult(results, skippedDependencies);
   }
 
+  /**
+   * Resolves the given dependencies for every request (row) of the given batch. The result of each
+   * row is the same as that of {@link #multiResolve(List, Map, Facets)} for the facets of the row,
+   * but the source values are read directly from the columns of the batch, and resolvers which have
+   * a {@link SimpleInputResolverSpec#batchTransformer() batch transformer} are invoked once for all
+   * the rows for which the dependency is not skipped.
+   *
+   * @return The resolution result of each row, in the order of the rows.
+   */
+  public static List<ResolutionResult> multiResolve(
+      List<ResolutionRequest> resolutionRequests,
+      Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers,
+      FacetColumns facetsBatch) {
+    int size = facetsBatch.size();
+    List<ResolutionResult> resolutionResults = new ArrayList<>(size);
+    for (int row = 0; row < size; row++) {
+      resolutionResults.add(new ResolutionResult(new LinkedHashMap<>(), new LinkedHashMap<>()));
+    }
+    for (ResolutionRequest resolutionRequest : resolutionRequests) {
+      String dependencyName = resolutionRequest.dependencyName();
+      List<List<Map<String, @Nullable Object>>> depInputs = new ArrayList<>(size);
+      for (int row = 0; row < size; row++) {
+        depInputs.add(new ArrayList<>());
+      }
+      Collection<? extends SimpleInputResolver<?, ?, ?, ?>> depResolvers =
+          resolvers.getOrDefault(dependencyName, List.of());
+      for (SimpleInputResolver<?, ?, ?, ?> simpleResolver : depResolvers) {
+        SimpleInputResolverSpec<?, ?, ?> resolverSpec = simpleResolver.getResolverSpec();
+        String resolvable = resolverSpec.targetInput().name();
+        //noinspection unchecked,rawtypes
+        List<VajramFacetSpec> sourceInputs = (List) resolverSpec.sourceInputs();
+        int[] sourceIndices = sourceIndices(sourceInputs, facetsBatch.layout());
+        @SuppressWarnings("unchecked")
+        Function<List<List<Errable<?>>>, List<@Nullable Object>> batchTransformer =
+            (Function<List<List<Errable<?>>>, List<@Nullable Object>>)
+                (Function<?, ?>) resolverSpec.batchTransformer();
+        List<Integer> rowsToTransform = new ArrayList<>(size);
+        List<List<Errable<?>>> sourceValuesToTransform = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+          Map<String, DependencyCommand<Facets>> skippedDependencies =
+              resolutionResults.get(row).skippedDependencies();
+          if (skippedDependencies.containsKey(dependencyName)) {
+            continue;
+          }
+          List<Errable<?>> sourceValues =
+              sourceValues(sourceInputs, sourceIndices, facetsBatch, row);
+          DependencyCommand<?> command;
+          if (batchTransformer != null) {
+            Optional<SkipPredicate<Object>> skipPredicate =
+                skipPredicate(resolverSpec.skipConditions(), sourceValues);
+            if (skipPredicate.isEmpty()) {
+              rowsToTransform.add(row);
+              sourceValuesToTransform.add(sourceValues);
+              continue;
+            }
+            command = SingleExecute.skipExecution(skipPredicate.get().reason());
+          } else {
+            command =
+                resolve(
+                    resolverSpec.transformer(),
+                    resolverSpec.fanoutTransformer(),
+                    resolverSpec.skipConditions(),
+                    sourceValues);
+          }
+          if (command.shouldSkip()) {
+            //noinspection unchecked
+            skippedDependencies.put(dependencyName, (DependencyCommand<Facets>) command);
+          } else {
+            collectDepInputs(depInputs.get(row), resolvable, command);
+          }
+        }
+        if (batchTransformer != null && !rowsToTransform.isEmpty()) {
+          List<@Nullable Object> transformed = batchTransformer.apply(sourceValuesToTransform);
+          if (transformed.size() != rowsToTransform.size()) {
+            throw new IllegalStateException(
+                "Batch resolver of %s:%s returned %s values for %s requests"
+                    .formatted(
+                        dependencyName, resolvable, transformed.size(), rowsToTransform.size()));
+          }
+          for (int i = 0; i < rowsToTransform.size(); i++) {
+            collectDepInputs(
+                depInputs.get(rowsToTransform.get(i)),
+                resolvable,
+                SingleExecute.executeWith(transformed.get(i)));
+          }
+        }
+      }
+      for (int row = 0; row < size; row++) {
+        ResolutionResult resolutionResult = resolutionResults.get(row);
+        if (!resolutionResult.skippedDependencies().containsKey(dependencyName)) {
+          resolutionResult.results().putIfAbsent(dependencyName, depInputs.get(row));
+        }
+      }
+    }
+    return resolutionResults;
+  }
+
   public static void collectDepInputs(
       List<Map<String, @Nullable Object>> depInputs,
       @Nullable String resolvable,
@@ -131,34 +231,17 @@ public final class InputResolverUtil {
       @Nullable Function<List<Errable<?>>, ? extends Collection<?>> fanoutTransformer,
       List<? extends SkipPredicate<?>> skipPredicates,
       Facets facets) {
-    boolean fanout = fanoutTransformer != null;
-    List<Errable<?>> inputValues = new ArrayList<>();
-    for (VajramFacetSpec sourceInput : sourceInputs) {
-      final Errable<Object> inputValue;
-      if (sourceInput instanceof VajramDepSingleTypeSpec<?, ?, ?>) {
-        inputValue = facets.getDepValue(sourceInput.name()).values().values().iterator().next();
-      } else if (sourceInput instanceof VajramDepFanoutTypeSpec<?, ?, ?>) {
-        inputValue =
-            Errable.withValue(
-                facets.getDepValue(sourceInput.name()).values().values().stream()
-                    .map(Errable::value)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .toList());
-      } else if (sourceInput != null) {
-        inputValue = facets.getInputValue(sourceInput.name());
-      } else {
-        inputValue = Errable.empty();
-      }
-      inputValues.add(inputValue);
-    }
+    return resolve(
+        oneToOneTransformer, fanoutTransformer, skipPredicates, sourceValues(sourceInputs, facets));
+  }
 
-    //noinspection unchecked
-    Optional<SkipPredicate<Object>> skipPredicate =
-        skipPredicates.stream()
-            .map(p -> (SkipPredicate<Object>) p)
-            .filter(sSkipPredicate -> sSkipPredicate.condition().test(inputValues))
-            .findFirst();
+  private static <T> DependencyCommand<T> resolve(
+      @Nullable Function<List<Errable<?>>, ?> oneToOneTransformer,
+      @Nullable Function<List<Errable<?>>, ? extends Collection<?>> fanoutTransformer,
+      List<? extends SkipPredicate<?>> skipPredicates,
+      List<Errable<?>> inputValues) {
+    boolean fanout = fanoutTransformer != null;
+    Optional<SkipPredicate<Object>> skipPredicate = skipPredicate(skipPredicates, inputValues);
     if (skipPredicate.isPresent()) {
       if (fanout) {
         return MultiExecute.skipFanout(skipPredicate.get().reason());
@@ -194,6 +277,90 @@ public final class InputResolverUtil {
     }
   }
 
+  @SuppressWarnings("rawtypes")
+  private static List<Errable<?>> sourceValues(List<VajramFacetSpec> sourceInputs, Facets facets) {
+    List<Errable<?>> inputValues = new ArrayList<>(sourceInputs.size());
+    for (VajramFacetSpec sourceInput : sourceInputs) {
+      final Errable<?> inputValue;
+      if (isDependency(sourceInput)) {
+        inputValue = depSourceValue(sourceInput, facets.getDepValue(sourceInput.name()));
+      } else if (sourceInput != null) {
+        inputValue = facets.getInputValue(sourceInput.name());
+      } else {
+        inputValue = Errable.empty();
+      }
+      inputValues.add(inputValue);
+    }
+    return inputValues;
+  }
+
+  /**
+   * Same as {@link #sourceValues(List, Facets)} for the facets of the given row of the batch.
+   *
+   * @param sourceIndices The indices of the source inputs in the layout of the batch, as returned
+   *     by {@link #sourceIndices(List, FacetLayout)}
+   */
+  @SuppressWarnings("rawtypes")
+  private static List<Errable<?>> sourceValues(
+      List<VajramFacetSpec> sourceInputs, int[] sourceIndices, FacetColumns facetsBatch, int row) {
+    List<Errable<?>> inputValues = new ArrayList<>(sourceInputs.size());
+    for (int i = 0; i < sourceIndices.length; i++) {
+      VajramFacetSpec sourceInput = sourceInputs.get(i);
+      int index = sourceIndices[i];
+      final Errable<?> inputValue;
+      if (isDependency(sourceInput)) {
+        inputValue =
+            depSourceValue(
+                sourceInput, index < 0 ? Results.empty() : facetsBatch.getDepValue(index, row));
+      } else if (index >= 0) {
+        inputValue = facetsBatch.getInputValue(index, row);
+      } else {
+        inputValue = Errable.empty();
+      }
+      inputValues.add(inputValue);
+    }
+    return inputValues;
+  }
+
+  /** Returns the index of each source input in the given layout, -1 if it is not in the layout. */
+  @SuppressWarnings("rawtypes")
+  private static int[] sourceIndices(List<VajramFacetSpec> sourceInputs, FacetLayout layout) {
+    int[] sourceIndices = new int[sourceInputs.size()];
+    for (int i = 0; i < sourceIndices.length; i++) {
+      VajramFacetSpec sourceInput = sourceInputs.get(i);
+      sourceIndices[i] = sourceInput == null ? -1 : layout.indexOf(sourceInput.name());
+    }
+    return sourceIndices;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static boolean isDependency(@Nullable VajramFacetSpec sourceInput) {
+    return sourceInput instanceof VajramDepSingleTypeSpec<?, ?, ?>
+        || sourceInput instanceof VajramDepFanoutTypeSpec<?, ?, ?>;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static Errable<?> depSourceValue(VajramFacetSpec sourceInput, Results<Object> depValue) {
+    if (sourceInput instanceof VajramDepSingleTypeSpec<?, ?, ?>) {
+      return depValue.values().values().iterator().next();
+    }
+    return Errable.withValue(
+        depValue.values().values().stream()
+            .map(Errable::value)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .toList());
+  }
+
+  private static Optional<SkipPredicate<Object>> skipPredicate(
+      List<? extends SkipPredicate<?>> skipPredicates, List<Errable<?>> inputValues) {
+    //noinspection unchecked
+    return skipPredicates.stream()
+        .map(p -> (SkipPredicate<Object>) p)
+        .filter(sSkipPredicate -> sSkipPredicate.condition().test(inputValues))
+        .findFirst();
+  }
+
   public static <T, CV extends VajramRequest<?>, DV extends VajramRequest<?>>
       InputResolver toResolver(
           VajramDependencySpec<?, ?, CV, DV> dependency, SimpleInputResolverSpec<T, CV, DV> spec) {
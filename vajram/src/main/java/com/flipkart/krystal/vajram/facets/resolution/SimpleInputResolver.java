@@ -10,6 +10,7 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.utils.SkipReason;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
 import com.flipkart.krystal.vajram.facets.QualifiedInputs;
@@ -20,7 +21,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.atomic.LongAdder;
 
 /** A resolver which resolves exactly one input of a dependency. */
@@ -69,7 +69,7 @@ public final class SimpleInputResolver<
       boolean shouldSkip = depCommand.shouldSkip();
       if (depCommand instanceof SingleExecute<Object> singleExecute) {
         if (shouldSkip) {
-          return skipExecution(singleExecute.doc());
+          return skipExecution(singleExecute.skipReason());
         } else {
           return executeWith(
               new Facets(
@@ -78,7 +78,7 @@ public final class SimpleInputResolver<
         }
       } else {
         if (shouldSkip) {
-          return skipFanout(depCommand.doc());
+          return skipFanout(depCommand.skipReason());
         } else
           return executeFanoutWith(
               depCommand.inputs().stream()
@@ -87,14 +87,15 @@ public final class SimpleInputResolver<
                           new Facets(
                               ImmutableMap.of(
                                   resolverSpec.targetInput().name(),
-                                  new Errable<>(o, Optional.empty()))))
+                                  Errable.withValue(o))))
                   .toList());
       }
     } catch (Exception e) {
       return skipExecution(
-          String.format(
-              "Got exception %s while executing the resolver of the dependency %s",
-              e, dependency.name()));
+          SkipReason.lazy(
+              () ->
+                  "Got exception %s while executing the resolver of the dependency %s"
+                      .formatted(e, dependency.name())));
     } finally {
       TIME.add(System.nanoTime() - start);
     }
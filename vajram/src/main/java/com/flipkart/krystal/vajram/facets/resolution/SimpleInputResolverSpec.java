@@ -14,10 +14,25 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * @param <T> The type of the dependency's input which is being resolved.
  * @param <CV> The type of the vajram doing the resolution.
  * @param <DV> The type of the vajram whose input is being resolved.
+ * @param batchTransformer If present, used instead of {@code transformer} when resolving a batch of
+ *     requests: receives the source values of every request of the batch (one list of source values
+ *     per request) and returns the resolved values in the same order. Requests for which the
+ *     dependency is skipped are not passed to this function.
  */
 public record SimpleInputResolverSpec<T, CV extends VajramRequest<?>, DV extends VajramRequest<?>>(
     VajramFacetSpec<T, DV> targetInput,
     List<VajramFacetSpec<?, CV>> sourceInputs,
     List<SkipPredicate<?>> skipConditions,
     @Nullable Function<List<Errable<?>>, @Nullable T> transformer,
-    @Nullable Function<List<Errable<?>>, ? extends Collection<? extends T>> fanoutTransformer) {}
+    @Nullable Function<List<Errable<?>>, ? extends Collection<? extends T>> fanoutTransformer,
+    @Nullable Function<List<List<Errable<?>>>, List<@Nullable T>> batchTransformer) {
+
+  public SimpleInputResolverSpec(
+      VajramFacetSpec<T, DV> targetInput,
+      List<VajramFacetSpec<?, CV>> sourceInputs,
+      List<SkipPredicate<?>> skipConditions,
+      @Nullable Function<List<Errable<?>>, @Nullable T> transformer,
+      @Nullable Function<List<Errable<?>>, ? extends Collection<? extends T>> fanoutTransformer) {
+    this(targetInput, sourceInputs, skipConditions, transformer, fanoutTransformer, null);
+  }
+}
@@ -57,4 +57,32 @@ public final class Transform1ResolverStage<
         },
         null);
   }
+
+  /**
+   * Same as {@link #asResolver(Function)}, but the transformer is invoked once for a whole batch of
+   * requests instead of once per request. Use this when transforming many values together is
+   * cheaper than transforming them one by one.
+   *
+   * @param batchTransformer The logic to transform the source values of all the requests of a batch
+   *     to the target values of the corresponding requests. The returned list must have the same
+   *     size and order as the given list.
+   * @return The resultant {@link SimpleInputResolverSpec}
+   */
+  public SimpleInputResolverSpec<T, CV, DV> asBatchResolver(
+      Function<List<Errable<S>>, List<@Nullable T>> batchTransformer) {
+    return new SimpleInputResolverSpec<>(
+        targetInput,
+        List.of(sourceInput),
+        skipConditions,
+        list -> {
+          //noinspection unchecked
+          return batchTransformer.apply(List.of((Errable<S>) list.get(0))).get(0);
+        },
+        null,
+        batch -> {
+          //noinspection unchecked
+          return batchTransformer.apply(
+              batch.stream().map(list -> (Errable<S>) list.get(0)).toList());
+        });
+  }
 }
@@ -0,0 +1,26 @@
+package com.flipkart.krystal.vajram.tags;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the output logic of a vajram as safe to memoize across requests. The results of the output
+ * logic are cached by the facets with which it is executed, and identical calls in any request are
+ * served from the cache until the result expires or is evicted.
+ *
+ * <p>This must be placed only on output logics which are idempotent and whose result depends only
+ * on the facets of the vajram.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(METHOD)
+public @interface MemoizeResults {
+
+  /** The maximum number of results of this vajram to memoize. */
+  long maxSize() default 10_000;
+
+  /** The duration (in milliseconds) for which a result is memoized after it is computed. */
+  long ttlMillis() default 60_000;
+}
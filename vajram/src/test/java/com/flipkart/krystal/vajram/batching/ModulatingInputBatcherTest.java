@@ -0,0 +1,124 @@
+package com.flipkart.krystal.vajram.batching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ModulatingInputBatcherTest {
+
+  /** LOW and MEDIUM are served by higher levels. SECRET cannot be merged with anything else. */
+  private enum InfoLevel {
+    LOW,
+    MEDIUM,
+    HIGH,
+    SECRET
+  }
+
+  private static final Modulator<InfoLevel> MODULATOR =
+      (a, b) -> {
+        if (a == b) {
+          return Optional.of(a);
+        }
+        if (a == InfoLevel.SECRET || b == InfoLevel.SECRET) {
+          return Optional.empty();
+        }
+        return Optional.of(a.compareTo(b) >= 0 ? a : b);
+      };
+
+  @Test
+  void add_sameCommonFacets_batchedWithoutOriginals() {
+    ModulatingInputBatcher<String, InfoLevel> batcher = new ModulatingInputBatcher<>(MODULATOR, 2);
+
+    assertThat(batcher.add("user_1", InfoLevel.LOW)).isEmpty();
+    ImmutableList<BatchedFacets<String, InfoLevel>> batches = batcher.add("user_2", InfoLevel.LOW);
+
+    assertThat(batches)
+        .containsExactly(new BatchedFacets<>(ImmutableList.of("user_1", "user_2"), InfoLevel.LOW));
+    assertThat(batches.get(0).originalCommonFacets()).isEmpty();
+  }
+
+  @Test
+  void add_mergeableCommonFacets_batchedWithMergedFacetsAndOriginals() {
+    ModulatingInputBatcher<String, InfoLevel> batcher = new ModulatingInputBatcher<>(MODULATOR, 3);
+
+    batcher.add("user_1", InfoLevel.LOW);
+    batcher.add("user_2", InfoLevel.MEDIUM);
+    ImmutableList<BatchedFacets<String, InfoLevel>> batches = batcher.add("user_3", InfoLevel.LOW);
+
+    assertThat(batches).hasSize(1);
+    BatchedFacets<String, InfoLevel> batch = batches.get(0);
+    assertThat(batch.batchedInputs()).containsExactly("user_1", "user_2", "user_3");
+    assertThat(batch.commonFacets()).isEqualTo(InfoLevel.MEDIUM);
+    // Only the inputs which were requested with common facets other than the merged ones
+    assertThat(batch.originalCommonFacets())
+        .isEqualTo(ImmutableSetMultimap.of("user_1", InfoLevel.LOW, "user_3", InfoLevel.LOW));
+  }
+
+  @Test
+  void add_sameInputsWithMergeableCommonFacets_batchedOnceWithAllOriginals() {
+    ModulatingInputBatcher<String, InfoLevel> batcher = new ModulatingInputBatcher<>(MODULATOR, 2);
+
+    batcher.add("user_1", InfoLevel.LOW);
+    batcher.add("user_1", InfoLevel.MEDIUM);
+    batcher.add("user_1", InfoLevel.HIGH);
+    assertThat(batcher.add("user_1", InfoLevel.LOW)).isEmpty();
+    ImmutableList<BatchedFacets<String, InfoLevel>> batches = batcher.add("user_2", InfoLevel.LOW);
+
+    assertThat(batches).hasSize(1);
+    BatchedFacets<String, InfoLevel> batch = batches.get(0);
+    assertThat(batch.batchedInputs()).containsExactly("user_1", "user_2");
+    assertThat(batch.commonFacets()).isEqualTo(InfoLevel.HIGH);
+    assertThat(batch.originalCommonFacets())
+        .isEqualTo(
+            ImmutableSetMultimap.of(
+                "user_1", InfoLevel.LOW, "user_1", InfoLevel.MEDIUM, "user_2", InfoLevel.LOW));
+  }
+
+  @Test
+  void batch_unmergeableCommonFacets_separateBatchesToListener() {
+    ModulatingInputBatcher<String, InfoLevel> batcher =
+        new ModulatingInputBatcher<>(MODULATOR, 100);
+    List<BatchedFacets<String, InfoLevel>> emitted = new ArrayList<>();
+    batcher.onBatching(emitted::addAll);
+
+    batcher.add("user_1", InfoLevel.LOW);
+    batcher.add("user_2", InfoLevel.SECRET);
+    batcher.add("user_3", InfoLevel.HIGH);
+    batcher.batch();
+
+    assertThat(emitted)
+        .containsExactly(
+            new BatchedFacets<>(
+                ImmutableList.of("user_1", "user_3"),
+                InfoLevel.HIGH,
+                ImmutableSetMultimap.of("user_1", InfoLevel.LOW)),
+            new BatchedFacets<>(ImmutableList.of("user_2"), InfoLevel.SECRET));
+    // Nothing is pending after a batch
+    emitted.clear();
+    batcher.batch();
+    assertThat(emitted).isEmpty();
+  }
+
+  @Test
+  void modulator_returnsTheModulator() {
+    assertThat(new ModulatingInputBatcher<>(MODULATOR, 1).modulator()).containsSame(MODULATOR);
+    assertThat(new InputBatcherImpl<String, InfoLevel>(1).modulator()).isEmpty();
+  }
+
+  @Test
+  void constructor_nonPositiveBatchSize_throws() {
+    assertThatThrownBy(() -> new ModulatingInputBatcher<>(MODULATOR, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void project_default_returnsMergedResponse() {
+    assertThat(MODULATOR.project(InfoLevel.LOW, InfoLevel.HIGH, "response")).isEqualTo("response");
+  }
+}
@@ -0,0 +1,132 @@
+package com.flipkart.krystal.vajram.facets.resolution;
+
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.dep;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.depInput;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.FacetLayout;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.facets.VajramDepSingleTypeSpec;
+import com.flipkart.krystal.vajram.facets.VajramFacetSpec;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.ResolutionResult;
+import com.flipkart.krystal.vajram.facets.resolution.sdk.Transform1ResolverStage;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class InputResolverUtilTest {
+
+  private interface Greeter extends VajramRequest<String> {}
+
+  private interface Greet extends VajramRequest<String> {}
+
+  private static final VajramFacetSpec<String, Greeter> NAME =
+      new VajramFacetSpec<>("name", Greeter.class);
+  private static final VajramDepSingleTypeSpec<String, Greeter, Greet> GREETING =
+      new VajramDepSingleTypeSpec<>("greeting", Greeter.class, Greet.class);
+  private static final VajramFacetSpec<String, Greet> GREET_NAME =
+      new VajramFacetSpec<>("name", Greet.class);
+
+  private static final List<ResolutionRequest> RESOLUTION_REQUESTS =
+      List.of(new ResolutionRequest("greeting", ImmutableSet.of("name")));
+
+  /** The layout has a facet which is not a source, so that source indices differ from 0. */
+  private static final FacetLayout LAYOUT = FacetLayout.of("unused", "name");
+
+  private static final List<Facets> ROWS =
+      List.of(
+          new Facets(Map.of("name", Errable.withValue("a"))),
+          new Facets(Map.of("unused", Errable.withValue(1))),
+          new Facets(Map.of("name", Errable.withValue("c"))));
+
+  @Test
+  void multiResolveBatch_batchResolver_invokedOnceForUnskippedRequests() {
+    List<List<Errable<String>>> calls = new ArrayList<>();
+    Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers =
+        resolvers(
+            nameResolver()
+                .asBatchResolver(
+                    batch -> {
+                      calls.add(batch);
+                      return batch.stream().map(name -> upperCase(name.valueOrNull())).toList();
+                    }));
+
+    List<ResolutionResult> batchResult =
+        InputResolverUtil.multiResolve(
+            RESOLUTION_REQUESTS, resolvers, FacetColumns.ofRows(LAYOUT, ROWS));
+
+    assertThat(calls).containsExactly(List.of(Errable.withValue("a"), Errable.withValue("c")));
+    assertSameAsResolvingEachRow(batchResult, resolvers);
+    assertThat(batchResult.get(0).results())
+        .isEqualTo(Map.of("greeting", List.of(Map.of("name", "A"))));
+    assertThat(batchResult.get(1).skippedDependencies()).containsOnlyKeys("greeting");
+  }
+
+  @Test
+  void multiResolveBatch_oneToOneResolver_sameAsResolvingEachRow() {
+    List<Errable<String>> calls = new ArrayList<>();
+    Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers =
+        resolvers(
+            nameResolver()
+                .asResolver(
+                    name -> {
+                      calls.add(name);
+                      return upperCase(name.valueOrNull());
+                    }));
+
+    List<ResolutionResult> batchResult =
+        InputResolverUtil.multiResolve(
+            RESOLUTION_REQUESTS, resolvers, FacetColumns.ofRows(LAYOUT, ROWS));
+
+    assertThat(calls).containsExactly(Errable.withValue("a"), Errable.withValue("c"));
+    assertSameAsResolvingEachRow(batchResult, resolvers);
+  }
+
+  @Test
+  void multiResolveBatch_batchResolverReturnsWrongSize_throws() {
+    Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers =
+        resolvers(nameResolver().asBatchResolver(batch -> List.of("A")));
+
+    assertThatThrownBy(
+            () ->
+                InputResolverUtil.multiResolve(
+                    RESOLUTION_REQUESTS, resolvers, FacetColumns.ofRows(LAYOUT, ROWS)))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static void assertSameAsResolvingEachRow(
+      List<ResolutionResult> batchResult,
+      Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers) {
+    assertThat(batchResult).hasSameSizeAs(ROWS);
+    for (int row = 0; row < ROWS.size(); row++) {
+      ResolutionResult rowResult =
+          InputResolverUtil.multiResolve(RESOLUTION_REQUESTS, resolvers, ROWS.get(row));
+      assertThat(batchResult.get(row).results()).isEqualTo(rowResult.results());
+      // Skip commands do not implement equals
+      assertThat(batchResult.get(row).skippedDependencies().keySet())
+          .isEqualTo(rowResult.skippedDependencies().keySet());
+    }
+  }
+
+  private static Transform1ResolverStage<String, String, Greeter, Greet> nameResolver() {
+    return depInput(GREET_NAME).using(NAME).skipIf(name -> name.value().isEmpty(), "no name");
+  }
+
+  private static Map<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> resolvers(
+      SimpleInputResolverSpec<String, Greeter, Greet> resolverSpec) {
+    return Map.of(
+        "greeting", List.of((SimpleInputResolver<?, ?, ?, ?>) dep(GREETING, resolverSpec).get(0)));
+  }
+
+  private static @Nullable String upperCase(@Nullable String name) {
+    return name == null ? null : name.toUpperCase();
+  }
+}
@@ -19,6 +19,7 @@ public final class Constants {
   public static final String MAP = "map";
   public static final String LIST = "list";
   public static final String FACET_DEFINITIONS_VAR = "facetDefinitions";
+  public static final String FACET_LAYOUT_VAR = "FACET_LAYOUT";
   public static final String FACET_NAME_SUFFIX = "_n";
   public static final String FACET_SPEC_SUFFIX = "_s";
 
@@ -26,6 +27,8 @@ public final class Constants {
 
   public static final String RESPONSE = "response";
   public static final String VARIABLE = "variable";
+  public static final String FACET_LAYOUT = "facetLayout";
+  public static final String FACET_INDEX = "facetIndex";
   public static final String DEP_RESPONSE = "depResponse";
   public static final String SKIPPED_EXCEPTION = "skippedException";
   public static final String ILLEGAL_ARGUMENT = "illegalArgument";
@@ -35,6 +38,7 @@ public final class Constants {
   public static final String METHOD_EXECUTE = "execute";
   public static final String METHOD_RESOLVE_INPUT_OF_DEPENDENCY = "resolveInputOfDependency";
   public static final String METHOD_EXECUTE_COMPUTE = "executeCompute";
+  public static final String METHOD_GET_RESOLVE_METHOD_DEFINITIONS = "getResolveMethodDefinitions";
   public static final String GET_FACET_DEFINITIONS = "getFacetDefinitions";
   public static final String FACETS_CLASS_SUFFIX = "Facets";
   public static final String INPUTS_LIST = "facetsList";
@@ -53,7 +57,7 @@ public final class Constants {
                 $commonInput:T commonFacets = null;
                 for ($facets:T facets : facetsList) {
                   $unmodInput:T<$inputBatching:T, $commonInput:T> allInputs =
-                      getInputsConvertor().apply(facets);
+                      facets.toTyped($unmodInput:T.class, getInputsConvertor());
                   commonFacets = allInputs.commonFacets();
                   $inputBatching:T im = allInputs.batchedInputs();
                   mapping.put(im, facets);
@@ -75,7 +79,7 @@ public final class Constants {
                 $commonInput:T commonFacets = null;
                 for ($facets:T facets : facetsList) {
                   $unmodInput:T<$inputBatching:T, $commonInput:T> allInputs =
-                      getInputsConvertor().apply(facets);
+                      facets.toTyped($unmodInput:T.class, getInputsConvertor());
                   commonFacets = allInputs.commonFacets();
                   $inputBatching:T im = allInputs.batchedInputs();
                   mapping.put(im, facets);
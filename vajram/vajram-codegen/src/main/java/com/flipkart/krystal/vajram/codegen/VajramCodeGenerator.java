@@ -6,6 +6,9 @@ import static com.flipkart.krystal.vajram.codegen.Constants.COM_FUTURE;
 import static com.flipkart.krystal.vajram.codegen.Constants.DEP_RESP;
 import static com.flipkart.krystal.vajram.codegen.Constants.DEP_RESPONSE;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_DEFINITIONS_VAR;
+import static com.flipkart.krystal.vajram.codegen.Constants.FACET_INDEX;
+import static com.flipkart.krystal.vajram.codegen.Constants.FACET_LAYOUT;
+import static com.flipkart.krystal.vajram.codegen.Constants.FACET_LAYOUT_VAR;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_NAME_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_SPEC_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.Constants.FUNCTION;
@@ -26,6 +29,7 @@ import static com.flipkart.krystal.vajram.codegen.Constants.MAP;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_EXECUTE;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_EXECUTE_COMPUTE;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_GET_INPUTS_CONVERTOR;
+import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_GET_RESOLVE_METHOD_DEFINITIONS;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_RESOLVE_INPUT_OF_DEPENDENCY;
 import static com.flipkart.krystal.vajram.codegen.Constants.MOD_INPUT;
 import static com.flipkart.krystal.vajram.codegen.Constants.OPTIONAL;
@@ -63,7 +67,7 @@ import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
 import com.flipkart.krystal.data.Errable;
-import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.datatypes.DataType;
 import com.flipkart.krystal.datatypes.JavaType;
@@ -82,22 +86,24 @@ import com.flipkart.krystal.vajram.codegen.models.ParsedVajramData;
 import com.flipkart.krystal.vajram.codegen.models.VajramInfo;
 import com.flipkart.krystal.vajram.codegen.models.VajramInfoLite;
 import com.flipkart.krystal.vajram.exception.VajramValidationException;
+import com.flipkart.krystal.vajram.facets.DefaultInputResolverDefinition;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
 import com.flipkart.krystal.vajram.facets.DependencyDef;
 import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
 import com.flipkart.krystal.vajram.facets.InputDef;
 import com.flipkart.krystal.vajram.facets.InputSource;
 import com.flipkart.krystal.vajram.facets.MultiExecute;
+import com.flipkart.krystal.vajram.facets.QualifiedInputs;
 import com.flipkart.krystal.vajram.facets.SingleExecute;
 import com.flipkart.krystal.vajram.facets.VajramDepFanoutTypeSpec;
 import com.flipkart.krystal.vajram.facets.VajramDepSingleTypeSpec;
 import com.flipkart.krystal.vajram.facets.VajramFacetDefinition;
 import com.flipkart.krystal.vajram.facets.VajramFacetSpec;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverDefinition;
 import com.flipkart.krystal.vajram.facets.resolution.sdk.Resolve;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.reflect.TypeToken;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
@@ -149,6 +155,7 @@ public class VajramCodeGenerator {
   private final String vajramName;
   private final Map<VajramID, VajramInfoLite> vajramDefs;
   private final Map<String, FacetGenModel> facetModels;
+  private final List<String> facetNames;
   private final boolean needsBatching;
   private @MonotonicNonNull ParsedVajramData parsedVajramData;
   private final Utils util;
@@ -176,6 +183,7 @@ public class VajramCodeGenerator {
                     Function.identity(),
                     (o1, o2) -> o1,
                     LinkedHashMap::new)); // need ordered map for dependencies
+    this.facetNames = vajramInfo.facetStream().map(FacetGenModel::name).toList();
     this.needsBatching = vajramInfo.inputs().stream().anyMatch(InputModel::isBatched);
   }
 
@@ -199,7 +207,8 @@ public class VajramCodeGenerator {
                             .annotated(AnnotationSpec.builder(Nullable.class).build()),
                         FACET_DEFINITIONS_VAR)
                     .addModifiers(PRIVATE)
-                    .build());
+                    .build())
+            .addField(createFacetLayout());
     List<MethodSpec> methodSpecs = new ArrayList<>();
     // Add superclass
     vajramImplClass
@@ -238,6 +247,7 @@ public class VajramCodeGenerator {
     methodSpecs.add(facetDefinitionsMethod);
     Optional<MethodSpec> inputResolverMethod = createResolvers(resolverMap, depFanoutMap);
     inputResolverMethod.ifPresent(methodSpecs::add);
+    methodSpecs.add(createResolveMethodDefinitions());
 
     if (util.isRawAssignable(getParsedVajramData().vajramClass().asType(), IOVajram.class)) {
       methodSpecs.add(
@@ -390,7 +400,7 @@ public class VajramCodeGenerator {
                       """
                             $depResp:T<$request:T, $response:T> $depResponse:L =
                                  new $depResp:T<>(
-                                     element.<$response:T>getDepValue($variable:S).values().entrySet().stream()
+                                     element.<$response:T>getDepValue($facetLayout:L, $facetIndex:L).values().entrySet().stream()
                                          .filter(
                                              e ->
                                                  e.getValue()
@@ -408,8 +418,10 @@ public class VajramCodeGenerator {
                           toClassName(depRequestClass),
                           RESPONSE,
                           boxedResponseType,
-                          VARIABLE,
-                          inputDef.name(),
+                          FACET_LAYOUT,
+                          FACET_LAYOUT_VAR,
+                          FACET_INDEX,
+                          facetIndex(inputDef.name()),
                           DEP_RESPONSE,
                           depVariableName,
                           IM_MAP,
@@ -424,7 +436,7 @@ public class VajramCodeGenerator {
                         CodeBlock.builder()
                             .addNamed(
                                 """
-                                    element.<$response:T>getDepValue($variable:S)
+                                    element.<$response:T>getDepValue($facetLayout:L, $facetIndex:L)
                                         .values()
                                         .entrySet()
                                         .iterator()
@@ -440,14 +452,18 @@ public class VajramCodeGenerator {
                                     ILLEGAL_ARGUMENT,
                                     IllegalArgumentException.class,
                                     "vajram",
-                                    vajramName))
+                                    vajramName,
+                                    FACET_LAYOUT,
+                                    FACET_LAYOUT_VAR,
+                                    FACET_INDEX,
+                                    facetIndex(inputDef.name())))
                             .build());
                   } else {
                     inputCodeBlocks.add(
                         CodeBlock.builder()
                             .addNamed(
                                 """
-                                  element.<$response:T>getDepValue($variable:S)
+                                  element.<$response:T>getDepValue($facetLayout:L, $facetIndex:L)
                                       .values()
                                       .entrySet()
                                       .iterator()
@@ -456,7 +472,12 @@ public class VajramCodeGenerator {
                                       .value()
                                       .orElse(null)""",
                                 ImmutableMap.of(
-                                    RESPONSE, boxedResponseType, VARIABLE, inputDef.name()))
+                                    RESPONSE,
+                                    boxedResponseType,
+                                    FACET_LAYOUT,
+                                    FACET_LAYOUT_VAR,
+                                    FACET_INDEX,
+                                    facetIndex(inputDef.name())))
                             .build());
                   }
                 }
@@ -465,12 +486,18 @@ public class VajramCodeGenerator {
                 if (inputDef.isMandatory()) {
                   inputCodeBlocks.add(
                       CodeBlock.builder()
-                          .add("element.getInputValueOrThrow($S)", inputDef.name())
+                          .add(
+                              "element.getInputValueOrThrow($L, $L)",
+                              FACET_LAYOUT_VAR,
+                              facetIndex(inputDef.name()))
                           .build());
                 } else {
                   inputCodeBlocks.add(
                       CodeBlock.builder()
-                          .add("element.getInputValueOrDefault($S, null)", inputDef.name())
+                          .add(
+                              "element.getInputValueOrDefault($L, $L, null)",
+                              FACET_LAYOUT_VAR,
+                              facetIndex(inputDef.name()))
                           .build());
                 }
               }
@@ -932,7 +959,7 @@ public class VajramCodeGenerator {
     if (util.isRawAssignable(method.getReturnType(), DependencyCommand.class)) {
       ifBlockBuilder.beginControlFlow("if($L.shouldSkip())", variableName);
       ifBlockBuilder.addStatement(
-          "\t return $T.skipExecution($L.doc())", SingleExecute.class, variableName);
+          "\t return $T.skipExecution($L.skipReason())", SingleExecute.class, variableName);
       ifBlockBuilder.add("} else {\n\t");
       controlFLowStarted = true;
     }
@@ -1029,6 +1056,29 @@ public class VajramCodeGenerator {
     }
   }
 
+  /**
+   * Creates a constant holding the {@link FacetLayout} of this vajram. Facets are laid out in the
+   * same order as {@link #createFacetDefinitions()} so that the runtime creates the same layout
+   * from the facet definitions. The generated output logic reads facets by their index in this
+   * layout.
+   */
+  private FieldSpec createFacetLayout() {
+    return FieldSpec.builder(FacetLayout.class, FACET_LAYOUT_VAR)
+        .addModifiers(PRIVATE, STATIC, FINAL)
+        .initializer(
+            "$T.of($L)",
+            FacetLayout.class,
+            CodeBlock.join(
+                facetNames.stream().map(name -> CodeBlock.of("$S", name)).toList(), ", "))
+        .build();
+  }
+
+  private int facetIndex(String facetName) {
+    int index = facetNames.indexOf(facetName);
+    checkState(index >= 0, "Could not find facet %s in vajram %s", facetName, vajramName);
+    return index;
+  }
+
   /**
    * Method to generate code for "getFacetDefinitions" function
    *
@@ -1067,6 +1117,48 @@ public class VajramCodeGenerator {
     return facetDefinitionsBuilder.build();
   }
 
+  /**
+   * Method to generate "getResolveMethodDefinitions" which returns the definitions of the resolvers
+   * declared via {@link Resolve} methods, so that they need not be computed via reflection at
+   * runtime.
+   *
+   * @return generated code for "getResolveMethodDefinitions" {@link MethodSpec}
+   */
+  private MethodSpec createResolveMethodDefinitions() {
+    List<CodeBlock> resolverDefinitions = new ArrayList<>();
+    for (ExecutableElement resolver : getParsedVajramData().resolvers()) {
+      Resolve resolve = checkNotNull(resolver.getAnnotation(Resolve.class));
+      resolverDefinitions.add(
+          CodeBlock.of(
+              "new $T($L, new $T($S, $L))",
+              DefaultInputResolverDefinition.class,
+              stringSetLiteral(getResolverSources(resolver)),
+              QualifiedInputs.class,
+              resolve.depName(),
+              stringSetLiteral(ImmutableSet.copyOf(resolve.depInputs()))));
+    }
+    return methodBuilder(METHOD_GET_RESOLVE_METHOD_DEFINITIONS)
+        .addModifiers(PUBLIC)
+        .returns(
+            ParameterizedTypeName.get(
+                ClassName.get(Optional.class),
+                ParameterizedTypeName.get(ImmutableList.class, InputResolverDefinition.class)))
+        .addAnnotation(Override.class)
+        .addStatement(
+            "return $T.of($T.of($L))",
+            Optional.class,
+            ImmutableList.class,
+            CodeBlock.join(resolverDefinitions, ",\n"))
+        .build();
+  }
+
+  private static CodeBlock stringSetLiteral(Collection<String> strings) {
+    return CodeBlock.of(
+        "$T.of($L)",
+        ImmutableSet.class,
+        strings.stream().map(s -> CodeBlock.of("$S", s)).collect(CodeBlock.joining(", ")));
+  }
+
   /**
    * Method to generate VajramDependency code blocks
    *
@@ -1312,6 +1404,7 @@ public class VajramCodeGenerator {
       JavaFile.builder(
               packageName,
               requestClass
+                  .addField(createFacetLayout())
                   .addMethod(requestConstructor.build())
                   .addMethod(fromAndTo.from())
                   .addMethod(fromAndTo.to())
@@ -1363,39 +1456,51 @@ public class VajramCodeGenerator {
     return javaType;
   }
 
+  /**
+   * Generates the methods which convert the given facets of the enclosing class to and from {@link
+   * Facets}. The generated {@code toFacetValues} creates array backed facets in the layout of this
+   * vajram (which must be available as the {@link Constants#FACET_LAYOUT_VAR} constant in the
+   * enclosing class) and attaches the object as the typed representation of the facets. So the
+   * generated {@code from} method returns the original object without any conversion when it is
+   * called with these facets.
+   */
   private FromAndTo fromAndToMethods(
       List<? extends FacetGenModel> inputDefs, ClassName enclosingClass) {
-    //noinspection rawtypes
     Builder toInputValues =
         methodBuilder("toFacetValues")
             .returns(Facets.class)
             .addModifiers(PUBLIC)
             .addAnnotation(Override.class)
-            .addStatement(
-                "$T builder = new $T<>($L)",
-                new TypeToken<Map<String, FacetValue<Object>>>() {}.getType(),
-                new TypeToken<HashMap>() {}.getType(),
-                inputDefs.size());
+            .addStatement("var slots = $T.newSlots($L)", Facets.class, FACET_LAYOUT_VAR);
     Builder fromInputValues =
         methodBuilder("from")
             .returns(enclosingClass)
             .addModifiers(PUBLIC, STATIC)
             .addParameter(Facets.class, "values");
     for (FacetGenModel inputDef : inputDefs) {
-      String inputJavaName = toJavaName(inputDef.name());
       toInputValues.addStatement(
-          "builder.put($S, $T.withValue(this.$L))", inputDef.name(), Errable.class, inputJavaName);
+          "slots[$L] = $T.withValue(this.$L)",
+          facetIndex(inputDef.name()),
+          Errable.class,
+          toJavaName(inputDef.name()));
     }
-    toInputValues.addStatement("return new $T(builder)", Facets.class);
+    toInputValues.addStatement(
+        "return new $T($L, slots).withTyped(this)", Facets.class, FACET_LAYOUT_VAR);
 
-    List<String> inputNames = inputDefs.stream().map(FacetGenModel::name).toList();
     fromInputValues.addStatement(
-        "return new $T(%s)"
-            .formatted(
-                inputNames.stream()
-                    .map(s -> "values.getInputValueOrDefault($S, null)")
-                    .collect(Collectors.joining(", "))),
-        Stream.concat(Stream.of(enclosingClass), inputNames.stream()).toArray());
+        "return values.toTyped($T.class, v -> new $T($L))",
+        enclosingClass,
+        enclosingClass,
+        CodeBlock.join(
+            inputDefs.stream()
+                .map(
+                    inputDef ->
+                        CodeBlock.of(
+                            "v.getInputValueOrDefault($L, $L, null)",
+                            FACET_LAYOUT_VAR,
+                            facetIndex(inputDef.name())))
+                .toList(),
+            ", "));
     return new FromAndTo(fromInputValues.build(), toInputValues.build());
   }
 
@@ -1660,6 +1765,7 @@ public class VajramCodeGenerator {
       JavaFile.builder(
               packageName,
               inputUtilClass
+                  .addField(createFacetLayout())
                   .addType(inputsNeedingBatching.build())
                   .addType(commonInputs.build())
                   .addField(converter.build())
@@ -1,17 +1,22 @@
 package com.flipkart.krystal.vajram.codegen;
 
+import static com.flipkart.krystal.vajram.VajramLoader.VAJRAM_INDEX_RESOURCE;
 import static com.flipkart.krystal.vajram.codegen.Constants.COGENGEN_PHASE_KEY;
 import static com.flipkart.krystal.vajram.codegen.Utils.getVajramImplClassName;
 import static com.flipkart.krystal.vajram.codegen.models.CodegenPhase.IMPLS;
 import static java.lang.System.lineSeparator;
 import static java.util.stream.Collectors.joining;
 
+import com.flipkart.krystal.vajram.VajramLoader;
 import com.flipkart.krystal.vajram.codegen.models.CodegenPhase;
 import com.flipkart.krystal.vajram.codegen.models.VajramInfo;
 import com.google.auto.service.AutoService;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -23,6 +28,8 @@ import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 
 @SupportedAnnotationTypes("com.flipkart.krystal.vajram.VajramDef")
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
@@ -30,6 +37,9 @@ import javax.lang.model.element.TypeElement;
 @SupportedOptions(COGENGEN_PHASE_KEY)
 public class VajramImplGenProcessor extends AbstractProcessor {
 
+  /** The vajram impl classes generated in all the rounds of this compilation. */
+  private final Set<String> generatedVajramImpls = new LinkedHashSet<>();
+
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
     Utils util = new Utils(processingEnv, this.getClass());
@@ -52,6 +62,10 @@ public class VajramImplGenProcessor extends AbstractProcessor {
                   COGENGEN_PHASE_KEY),
           null);
     }
+    if (roundEnv.processingOver()) {
+      writeVajramIndex(util);
+      return false;
+    }
     List<TypeElement> vajramDefinitions = util.getVajramClasses(roundEnv);
     util.note(
         "Vajram Defs received by VajramImplGenProcessor: %s"
@@ -70,6 +84,7 @@ public class VajramImplGenProcessor extends AbstractProcessor {
               + getVajramImplClassName(vajramInfo.vajramId().vajramId());
       try {
         util.generateSourceFile(className, vajramCodeGenerator.codeGenVajramImpl(), vajramClass);
+        generatedVajramImpls.add(className);
       } catch (Exception e) {
         StringWriter exception = new StringWriter();
         e.printStackTrace(new PrintWriter(exception));
@@ -81,4 +96,32 @@ public class VajramImplGenProcessor extends AbstractProcessor {
     }
     return true;
   }
+
+  /**
+   * Writes the names of all the generated vajram impl classes to {@link
+   * VajramLoader#VAJRAM_INDEX_RESOURCE} so that the vajrams can be loaded at runtime without
+   * scanning the classpath.
+   */
+  private void writeVajramIndex(Utils util) {
+    if (generatedVajramImpls.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject index =
+          processingEnv
+              .getFiler()
+              .createResource(StandardLocation.CLASS_OUTPUT, "", VAJRAM_INDEX_RESOURCE);
+      try (Writer writer = index.openWriter()) {
+        for (String vajramImpl : generatedVajramImpls) {
+          writer.write(vajramImpl);
+          writer.write(lineSeparator());
+        }
+      }
+    } catch (IOException e) {
+      util.error(
+          "Error while writing vajram index %s. Exception: %s"
+              .formatted(VAJRAM_INDEX_RESOURCE, e),
+          null);
+    }
+  }
 }
@@ -59,7 +59,8 @@ public record InputBatcherConfig(
                       .decoratorContext()
                       .logicExecutionContext()
                       .dependants()
-                      .equals(dependantChain));
+                      .equals(dependantChain),
+              batcherContext.decoratorContext().commandExecutor());
         });
   }
 
@@ -83,7 +84,33 @@ public record InputBatcherConfig(
               (FacetsConverter<FacetValuesAdaptor, FacetValuesAdaptor>)
                   batcherContext.vajram().getInputsConvertor();
           return new InputBatchingDecorator<>(
-              instanceId, inputBatcherSupplier.get(), inputsConvertor, dependantChains::contains);
+              instanceId,
+              inputBatcherSupplier.get(),
+              inputsConvertor,
+              dependantChains::contains,
+              batcherContext.decoratorContext().commandExecutor());
+        });
+  }
+
+  /**
+   * Creates an InputBatcherConfig which batches the inputs of the vajram from all dependant chains
+   * of all the executors using the given {@link SharedInputBatchingService}. Every executor gets
+   * its own {@link SharedInputBatchingDecorator}, all of which delegate to the same service.
+   */
+  public static InputBatcherConfig sharedService(
+      SharedInputBatchingService<FacetValuesAdaptor, FacetValuesAdaptor> batchingService) {
+    return new InputBatcherConfig(
+        logicExecutionContext -> batchingService.instanceId(),
+        logicExecutionContext -> true,
+        batcherContext -> {
+          @SuppressWarnings("unchecked")
+          var inputsConvertor =
+              (FacetsConverter<FacetValuesAdaptor, FacetValuesAdaptor>)
+                  batcherContext.vajram().getInputsConvertor();
+          return new SharedInputBatchingDecorator<>(
+              batchingService,
+              inputsConvertor,
+              batcherContext.decoratorContext().commandExecutor());
         });
   }
 
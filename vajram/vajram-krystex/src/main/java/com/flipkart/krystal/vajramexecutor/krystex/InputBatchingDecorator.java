@@ -13,15 +13,18 @@ import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecoratorCommand;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.DecoratorContext;
 import com.flipkart.krystal.vajram.batching.BatchedFacets;
 import com.flipkart.krystal.vajram.batching.FacetsConverter;
 import com.flipkart.krystal.vajram.batching.InputBatcher;
+import com.flipkart.krystal.vajram.batching.Modulator;
+import com.flipkart.krystal.vajram.batching.TimedInputBatcher;
 import com.flipkart.krystal.vajram.batching.UnBatchedFacets;
 import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -29,7 +32,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -43,54 +46,57 @@ public final class InputBatchingDecorator<
   private final InputBatcher<I, C> inputBatcher;
   private final FacetsConverter<I, C> facetsConverter;
   private final Predicate<DependantChain> isApplicableToDependantChain;
+  private final Executor commandExecutor;
   private final Map<Facets, CompletableFuture<@Nullable Object>> futureCache = new HashMap<>();
   private ImmutableSet<DependantChain> activeDependantChains = ImmutableSet.of();
   private final Set<DependantChain> flushedDependantChains = new LinkedHashSet<>();
 
+  /**
+   * @param commandExecutor The executor in which batches emitted by the input batcher on its own
+   *     (for example, when the max-wait deadline of a {@link TimedInputBatcher} expires in a timer
+   *     thread) are executed. This must be the {@link DecoratorContext#commandExecutor()} of the
+   *     kryon executor owning this decorator so that the decorated logic, and all the decorators
+   *     it wraps, are always executed in that executor's thread.
+   */
   public InputBatchingDecorator(
       String instanceId,
       InputBatcher<I, C> inputBatcher,
       FacetsConverter<I, C> facetsConverter,
-      Predicate<DependantChain> isApplicableToDependantChain) {
+      Predicate<DependantChain> isApplicableToDependantChain,
+      Executor commandExecutor) {
     this.instanceId = instanceId;
     this.inputBatcher = inputBatcher;
     this.facetsConverter = facetsConverter;
     this.isApplicableToDependantChain = isApplicableToDependantChain;
+    this.commandExecutor = commandExecutor;
   }
 
   @Override
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
     inputBatcher.onBatching(
-        requests -> requests.forEach(request -> batchFacetsList(logicToDecorate, request)));
+        requests ->
+            commandExecutor.execute(
+                () -> requests.forEach(request -> batchFacetsList(logicToDecorate, request))));
     return facetsList -> {
-      List<UnBatchedFacets<I, C>> requests = facetsList.stream().map(facetsConverter).toList();
-      List<BatchedFacets<I, C>> batchedFacetsList =
-          requests.stream()
-              .map(
-                  unbatchedInput ->
-                      inputBatcher.add(
-                          unbatchedInput.batchedInputs(), unbatchedInput.commonFacets()))
-              .flatMap(Collection::stream)
-              .toList();
-      requests.forEach(
-          request ->
-              futureCache.computeIfAbsent(
-                  request.toFacetValues(), e -> new CompletableFuture<@Nullable Object>()));
+      List<BatchedFacets<I, C>> batchedFacetsList = new ArrayList<>();
+      ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+          ImmutableMap.builderWithExpectedSize(facetsList.size());
+      for (Facets facets : facetsList) {
+        UnBatchedFacets<I, C> request = facets.toTyped(UnBatchedFacets.class, facetsConverter);
+        // Results are keyed by the facets which were passed to this logic, while the futures are
+        // cached by the facets which the batched logic is going to be executed with.
+        results.put(
+            facets,
+            futureCache.computeIfAbsent(
+                request.toFacetValues(), e -> new CompletableFuture<@Nullable Object>()));
+        batchedFacetsList.addAll(
+            inputBatcher.add(request.batchedInputs(), request.commonFacets()));
+      }
       for (BatchedFacets<I, C> batchedFacets : batchedFacetsList) {
         batchFacetsList(logicToDecorate, batchedFacets);
       }
-      return requests.stream()
-          .map(UnBatchedFacets::toFacetValues)
-          .collect(
-              ImmutableMap.<Facets, Facets, CompletableFuture<@Nullable Object>>toImmutableMap(
-                  Function.identity(),
-                  key ->
-                      Optional.ofNullable(futureCache.get(key))
-                          .orElseThrow(
-                              () ->
-                                  new AssertionError(
-                                      "Future cache has been primed with values. This should never happen"))));
+      return results.buildKeepingLast();
     };
   }
 
@@ -127,6 +133,52 @@ public final class InputBatchingDecorator<
                   futureCache.<CompletableFuture<@Nullable Object>>computeIfAbsent(
                       inputs, request -> new CompletableFuture<@Nullable Object>()));
             });
+    Optional<Modulator<C>> modulator = inputBatcher.modulator();
+    if (modulator.isPresent()) {
+      completeOriginalRequests(batchedFacets, modulator.get());
+    }
+  }
+
+  /**
+   * Completes the futures of the requests which were merged into the given batch by the modulator
+   * of the input batcher, with the projections of the responses of the merged requests.
+   */
+  private void completeOriginalRequests(BatchedFacets<I, C> batchedFacets, Modulator<C> modulator) {
+    C merged = batchedFacets.commonFacets();
+    batchedFacets
+        .originalCommonFacets()
+        .forEach(
+            (batchedInputs, original) -> {
+              CompletableFuture<@Nullable Object> mergedResult =
+                  futureCache.computeIfAbsent(
+                      new UnBatchedFacets<>(batchedInputs, merged).toFacetValues(),
+                      request -> new CompletableFuture<@Nullable Object>());
+              CompletableFuture<@Nullable Object> originalResult =
+                  futureCache.computeIfAbsent(
+                      new UnBatchedFacets<>(batchedInputs, original).toFacetValues(),
+                      request -> new CompletableFuture<@Nullable Object>());
+              propagateProjection(mergedResult, originalResult, modulator, original, merged);
+            });
+  }
+
+  static <C> void propagateProjection(
+      CompletableFuture<@Nullable Object> mergedResult,
+      CompletableFuture<@Nullable Object> originalResult,
+      Modulator<C> modulator,
+      C original,
+      C merged) {
+    mergedResult.whenComplete(
+        (result, error) -> {
+          if (error != null) {
+            originalResult.completeExceptionally(error);
+            return;
+          }
+          try {
+            originalResult.complete(modulator.project(original, merged, result));
+          } catch (Throwable e) {
+            originalResult.completeExceptionally(e);
+          }
+        });
   }
 
   @Override
@@ -1,6 +1,7 @@
 package com.flipkart.krystal.vajramexecutor.krystex;
 
 import com.flipkart.krystal.config.Tag;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
@@ -39,12 +40,14 @@ public record LogicDefRegistryDecorator(LogicDefinitionRegistry delegate) {
       boolean isIOLogic,
       KryonLogicId kryonLogicId,
       Set<String> inputs,
+      FacetLayout facetLayout,
       OutputLogic<T> kryonLogic,
       ImmutableMap<Object, Tag> logicTags) {
     OutputLogicDefinition<T> def =
         isIOLogic
-            ? new IOLogicDefinition<>(kryonLogicId, inputs, kryonLogic, logicTags)
-            : new ComputeLogicDefinition<>(kryonLogicId, inputs, kryonLogic, logicTags);
+            ? new IOLogicDefinition<>(kryonLogicId, inputs, facetLayout, kryonLogic, logicTags)
+            : new ComputeLogicDefinition<>(
+                kryonLogicId, inputs, facetLayout, kryonLogic, logicTags);
     delegate.addOutputLogic(def);
     return def;
   }
@@ -0,0 +1,72 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.DecoratorContext;
+import com.flipkart.krystal.vajram.batching.FacetsConverter;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import java.util.concurrent.Executor;
+
+/**
+ * Decorates the output logic of an IO vajram in one executor so that its inputs are batched by a
+ * {@link SharedInputBatchingService} along with the inputs from all other executors which use the
+ * same service.
+ *
+ * <p>Flush commands are ignored since the shared service emits batches on size or deadline.
+ */
+public final class SharedInputBatchingDecorator<
+        I /*BatchableInputs*/ extends FacetValuesAdaptor,
+        C /*CommonFacets*/ extends FacetValuesAdaptor>
+    implements OutputLogicDecorator {
+
+  private final SharedInputBatchingService<I, C> batchingService;
+  private final FacetsConverter<I, C> facetsConverter;
+  private final Executor commandExecutor;
+
+  /**
+   * @param commandExecutor The {@link DecoratorContext#commandExecutor()} of the kryon executor
+   *     owning this decorator.
+   */
+  public SharedInputBatchingDecorator(
+      SharedInputBatchingService<I, C> batchingService,
+      FacetsConverter<I, C> facetsConverter,
+      Executor commandExecutor) {
+    this.batchingService = batchingService;
+    this.facetsConverter = facetsConverter;
+    this.commandExecutor = commandExecutor;
+  }
+
+  /**
+   * The shared IO calls are made with the undecorated logic of the vajram since they serve the
+   * inputs of several executors. So {@code logicToDecorate} - the logic decorated with the
+   * decorators of this executor which are ordered inside this decorator - is not used.
+   */
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    return facetsList ->
+        batchingService.submit(
+            facetsList, facetsConverter, originalLogicDefinition::execute, commandExecutor);
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    batchingService.onConfigUpdate(configProvider);
+  }
+
+  /**
+   * Shares the decorator type of {@link InputBatchingDecorator} so that a vajram is never batched
+   * by both, and so that both are placed at the same position in the decoration ordering.
+   */
+  @Override
+  public String decoratorType() {
+    return InputBatchingDecorator.DECORATOR_TYPE;
+  }
+
+  @Override
+  public String getId() {
+    return batchingService.instanceId();
+  }
+}
@@ -0,0 +1,243 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.utils.Futures.propagateCompletion;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.NestedConfig;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.batching.FacetsConverter;
+import com.flipkart.krystal.vajram.batching.InputBatcher;
+import com.flipkart.krystal.vajram.batching.Modulator;
+import com.flipkart.krystal.vajram.batching.TimedInputBatcher;
+import com.flipkart.krystal.vajram.batching.UnBatchedFacets;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A process-wide input batching service which merges the inputs of an IO vajram across all the
+ * {@link KrystexVajramExecutor}s which use it. This allows, for example, thousands of concurrent
+ * requests each asking for a handful of user ids to be served by a few batched IO calls.
+ *
+ * <p>Unlike {@link InputBatchingDecorator}, which batches the inputs of a single executor and
+ * emits a batch when all the dependant chains of that executor have been flushed, this service does
+ * not react to the flushes of individual executors (one executor completing its graph says nothing
+ * about the other executors). So the {@link InputBatcher} given to this service must be thread-safe
+ * and must emit batches on its own - on reaching a batch size or on the expiry of a deadline - like
+ * {@link TimedInputBatcher} with a non-null max-wait.
+ *
+ * <p>Concurrent requests for identical facets (across executors) share a single in-flight IO call.
+ * Once the call completes, subsequent requests trigger new calls - this service does not cache
+ * results.
+ *
+ * <p>If the input batcher has a {@link Modulator}, requests which it merges into a single request
+ * also share the in-flight IO call of the merged request, and are completed with the projections of
+ * its response.
+ *
+ * <p>The IO call of a batch serves several executors, so it is made using the undecorated output
+ * logic of the vajram - the logic decorators of any one executor never see the inputs of other
+ * executors. Decorators which are ordered inside {@link SharedInputBatchingDecorator} are hence not
+ * applied to shared calls, while decorators ordered outside it see only the inputs of their own
+ * executor. A batch emitted on reaching its size is executed in the thread of the executor whose
+ * input completed the batch. A batch emitted on the expiry of its deadline (in the thread of the
+ * timer) is handed off to the command queue of the executor which contributed its first input.
+ * Responses are delivered by completing the futures returned to each executor. Since the dependants
+ * of IO vajrams process responses by enqueuing commands into the command queue of their own
+ * executor, responses are always processed in the thread of the executor which requested them,
+ * irrespective of the thread in which the batch is executed.
+ *
+ * <p>This service is plugged into the vajram graph of each executor via {@link
+ * InputBatcherConfig#sharedService(SharedInputBatchingService)}.
+ */
+public final class SharedInputBatchingService<
+    I /*BatchableInputs*/ extends FacetValuesAdaptor,
+    C /*CommonFacets*/ extends FacetValuesAdaptor> {
+
+  private final String instanceId;
+  private final InputBatcher<I, C> inputBatcher;
+  private final Map<Facets, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+
+  /**
+   * @param instanceId The id used to configure the input batcher of this service.
+   * @param inputBatcher A thread-safe input batcher which emits batches without needing {@link
+   *     InputBatcher#batch()} to be called.
+   */
+  public SharedInputBatchingService(String instanceId, InputBatcher<I, C> inputBatcher) {
+    this.instanceId = instanceId;
+    this.inputBatcher = inputBatcher;
+    inputBatcher.onBatching(batches -> batches.forEach(this::dispatchBatch));
+  }
+
+  /**
+   * Creates a service which emits a batch when {@code maxBatchSize} inputs are collected or when
+   * the oldest collected input has waited for {@code maxWait}, whichever happens first.
+   */
+  public static <I extends FacetValuesAdaptor, C extends FacetValuesAdaptor>
+      SharedInputBatchingService<I, C> withDeadline(
+          String instanceId, int maxBatchSize, Duration maxWait) {
+    return new SharedInputBatchingService<>(
+        instanceId, new TimedInputBatcher<>(maxBatchSize, maxBatchSize, maxWait));
+  }
+
+  public String instanceId() {
+    return instanceId;
+  }
+
+  /** Returns the number of unique facets for which IO calls are pending or in progress. */
+  public int inFlightCount() {
+    return inFlightCalls.size();
+  }
+
+  /**
+   * Adds the given facets to the shared batches.
+   *
+   * @param facetsList The facets to be batched
+   * @param facetsConverter Converts the facets into batchable inputs and common facets.
+   * @param logic The undecorated output logic of the vajram with which the IO calls are made.
+   * @param commandExecutor The executor of the submitting kryon executor's command queue. Batches
+   *     whose first input is one of the given facets are executed in this executor if they are
+   *     emitted on the expiry of their deadline.
+   * @return The futures which are completed when the batches containing the given facets are
+   *     executed.
+   */
+  ImmutableMap<Facets, CompletableFuture<@Nullable Object>> submit(
+      ImmutableList<Facets> facetsList,
+      FacetsConverter<I, C> facetsConverter,
+      OutputLogic<Object> logic,
+      Executor commandExecutor) {
+    ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+        ImmutableMap.builderWithExpectedSize(facetsList.size());
+    for (Facets facets : facetsList) {
+      UnBatchedFacets<I, C> unBatchedFacets =
+          facets.toTyped(UnBatchedFacets.class, facetsConverter);
+      Facets key = unBatchedFacets.toFacetValues();
+      InFlightCall newCall = new InFlightCall(logic, commandExecutor);
+      InFlightCall existingCall = inFlightCalls.putIfAbsent(key, newCall);
+      if (existingCall != null) {
+        results.put(facets, existingCall.result());
+        continue;
+      }
+      newCall.result().whenComplete((result, throwable) -> inFlightCalls.remove(key, newCall));
+      results.put(facets, newCall.result());
+      ImmutableList<BatchedFacets<I, C>> batches =
+          inputBatcher.add(unBatchedFacets.batchedInputs(), unBatchedFacets.commonFacets());
+      // Emitted on reaching the batch size, so we are already in the thread of an executor
+      batches.forEach(batch -> prepareBatch(batch).ifPresent(PreparedBatch::execute));
+    }
+    return results.buildKeepingLast();
+  }
+
+  void onConfigUpdate(ConfigProvider configProvider) {
+    inputBatcher.onConfigUpdate(
+        new NestedConfig(String.format("input_batching.%s.", instanceId), configProvider));
+  }
+
+  /**
+   * Hands off the execution of a batch which the input batcher emitted on its own (for example, in
+   * the thread of a timer) to the command queue of the executor which contributed the first input.
+   */
+  private void dispatchBatch(BatchedFacets<I, C> batchedFacets) {
+    prepareBatch(batchedFacets)
+        .ifPresent(batch -> batch.firstCall().commandExecutor().execute(batch::execute));
+  }
+
+  /**
+   * Collects the in-flight calls served by the given batch and links the calls of the requests
+   * which were merged into the batch by the modulator of the input batcher.
+   */
+  private Optional<PreparedBatch> prepareBatch(BatchedFacets<I, C> batchedFacets) {
+    C merged = batchedFacets.commonFacets();
+    Map<Facets, InFlightCall> calls = new LinkedHashMap<>();
+    // In-flight calls of requests which a modulator merged into this batch, keyed by the facets of
+    // the merged requests which serve them
+    ListMultimap<Facets, Map.Entry<C, InFlightCall>> originalCalls = ArrayListMultimap.create();
+    for (I batchedInputs : batchedFacets.batchedInputs()) {
+      Facets facets = new UnBatchedFacets<>(batchedInputs, merged).toFacetValues();
+      for (C original : batchedFacets.originalCommonFacets().get(batchedInputs)) {
+        InFlightCall originalCall =
+            inFlightCalls.get(new UnBatchedFacets<>(batchedInputs, original).toFacetValues());
+        if (originalCall != null) {
+          originalCalls.put(facets, Map.entry(original, originalCall));
+        }
+      }
+      InFlightCall call = inFlightCalls.get(facets);
+      if (call != null) {
+        calls.put(facets, call);
+      } else if (originalCalls.containsKey(facets)) {
+        // The merged request was not requested as is. Make the call on behalf of the originals.
+        InFlightCall originalCall = originalCalls.get(facets).get(0).getValue();
+        calls.put(facets, new InFlightCall(originalCall.logic(), originalCall.commandExecutor()));
+      }
+    }
+    if (calls.isEmpty()) {
+      return Optional.empty();
+    }
+    Optional<Modulator<C>> modulator = inputBatcher.modulator();
+    if (modulator.isPresent()) {
+      calls.forEach(
+          (facets, call) -> {
+            for (Map.Entry<C, InFlightCall> originalCall : originalCalls.get(facets)) {
+              InputBatchingDecorator.propagateProjection(
+                  call.result(),
+                  originalCall.getValue().result(),
+                  modulator.get(),
+                  originalCall.getKey(),
+                  merged);
+            }
+          });
+    }
+    return Optional.of(new PreparedBatch(calls));
+  }
+
+  private record PreparedBatch(Map<Facets, InFlightCall> calls) {
+
+    private InFlightCall firstCall() {
+      return calls.values().iterator().next();
+    }
+
+    /** Makes the IO call of this batch and completes the in-flight calls with its results. */
+    private void execute() {
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+      try {
+        results = firstCall().logic().execute(ImmutableList.copyOf(calls.keySet()));
+      } catch (Throwable e) {
+        calls.values().forEach(call -> call.result().completeExceptionally(e));
+        return;
+      }
+      calls.forEach(
+          (facets, call) -> {
+            CompletableFuture<@Nullable Object> result = results.get(facets);
+            if (result == null) {
+              call.result()
+                  .completeExceptionally(
+                      new IllegalStateException("No result found for facets " + facets));
+            } else {
+              // Cancellation is not propagated since the call can be shared by other executors
+              propagateCompletion(result, call.result());
+            }
+          });
+    }
+  }
+
+  private record InFlightCall(
+      OutputLogic<Object> logic,
+      Executor commandExecutor,
+      CompletableFuture<@Nullable Object> result) {
+
+    private InFlightCall(OutputLogic<Object> logic, Executor commandExecutor) {
+      this(logic, commandExecutor, new CompletableFuture<>());
+    }
+  }
+}
@@ -3,14 +3,12 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 import static com.flipkart.krystal.data.Errable.withValue;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
 import static com.flipkart.krystal.vajram.VajramID.vajramID;
-import static com.flipkart.krystal.vajram.VajramLoader.loadVajramsFromClassPath;
+import static com.flipkart.krystal.vajram.VajramLoader.loadVajrams;
 import static com.flipkart.krystal.vajram.facets.InputSource.CLIENT;
 import static com.flipkart.krystal.vajram.facets.MultiExecute.executeFanoutWith;
 import static com.flipkart.krystal.vajram.facets.SingleExecute.executeWith;
 import static com.flipkart.krystal.vajram.facets.SingleExecute.skipExecution;
-import static com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.collectDepInputs;
 import static com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.multiResolve;
-import static com.google.common.base.Throwables.getStackTraceAsString;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -19,12 +17,17 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
 import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetLayout;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.DependencyStreamPolicy;
+import com.flipkart.krystal.krystex.AdaptiveExecutorPool;
 import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.VirtualThreadExecutorPool;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.ExecutionPlan;
 import com.flipkart.krystal.krystex.kryon.KryonDefinition;
 import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
@@ -33,12 +36,13 @@ import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
-import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.logicdecorators.memoization.ResultMemoizer;
 import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverCommand;
 import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverLogicDefinition;
 import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.utils.SkipReason;
 import com.flipkart.krystal.vajram.ApplicationRequestContext;
 import com.flipkart.krystal.vajram.IOVajram;
 import com.flipkart.krystal.vajram.MandatoryFacetsMissingException;
@@ -60,6 +64,8 @@ import com.flipkart.krystal.vajram.facets.resolution.InputResolverDefinition;
 import com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.ResolutionResult;
 import com.flipkart.krystal.vajram.facets.resolution.ResolutionRequest;
 import com.flipkart.krystal.vajram.facets.resolution.SimpleInputResolver;
+import com.flipkart.krystal.vajram.tags.AnnotationTag;
+import com.flipkart.krystal.vajram.tags.MemoizeResults;
 import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig.BatcherContext;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.InputInjectionProvider;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.InputInjector;
@@ -67,10 +73,9 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -90,6 +95,31 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 /** The execution graph encompassing all registered vajrams. */
 public final class VajramKryonGraph implements VajramExecutableGraph {
 
+  /** The kind of threads on which the KryonExecutors created by this graph execute. */
+  public enum ExecutorPoolType {
+    /**
+     * KryonExecutors are distributed across {@code availableProcessors * maxParallelismPerCore}
+     * single-threaded ForkJoinPools.
+     *
+     * @see ForkJoinExecutorPool
+     */
+    FORK_JOIN,
+    /**
+     * Every KryonExecutor executes on a serial virtual thread strand of its own. Needs JDK 21+.
+     *
+     * @see VirtualThreadExecutorPool
+     */
+    VIRTUAL_THREADS,
+    /**
+     * All KryonExecutors share one executor which grows up to {@code availableProcessors *
+     * maxParallelismPerCore} threads when all its threads are busy, and shrinks when threads are
+     * idle.
+     *
+     * @see AdaptiveExecutorPool
+     */
+    ADAPTIVE
+  }
+
   @Getter private final KryonDefinitionRegistry kryonDefinitionRegistry;
 
   private final LogicDefRegistryDecorator logicRegistryDecorator;
@@ -114,15 +144,21 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
       ImmutableMap<String, OutputLogicDecoratorConfig> sessionScopedDecorators,
       LogicDecorationOrdering logicDecorationOrdering,
       @Nullable InputInjectionProvider inputInjectionProvider,
+      ExecutorPoolType executorPoolType,
       double maxParallelismPerCore) {
     this.sessionScopedDecoratorConfigs = sessionScopedDecorators;
     this.logicDecorationOrdering = logicDecorationOrdering;
-    this.executorPool = new ForkJoinExecutorPool(maxParallelismPerCore);
+    this.executorPool =
+        switch (executorPoolType) {
+          case FORK_JOIN -> new ForkJoinExecutorPool(maxParallelismPerCore);
+          case VIRTUAL_THREADS -> new VirtualThreadExecutorPool();
+          case ADAPTIVE -> new AdaptiveExecutorPool(maxParallelismPerCore);
+        };
     LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
     this.kryonDefinitionRegistry = new KryonDefinitionRegistry(logicDefinitionRegistry);
     this.logicRegistryDecorator = new LogicDefRegistryDecorator(logicDefinitionRegistry);
     for (String packagePrefix : packagePrefixes) {
-      List<? extends Vajram> vajrams = loadVajramsFromClassPath(packagePrefix);
+      List<? extends Vajram> vajrams = loadVajrams(packagePrefix);
       vajrams.forEach(this::registerVajram);
     }
     this.inputInjector = new InputInjector(this, inputInjectionProvider);
@@ -181,6 +217,37 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
     outputLogicDefinition.registerRequestScopedDecorator(outputLogicDecoratorConfigList);
   }
 
+  /**
+   * Streams the responses of the given fanout dependency of the vajram to it as and when they are
+   * computed, so that the vajram's output logic can be executed as soon as the given policy is
+   * satisfied instead of waiting for the slowest dependency request.
+   *
+   * <p>Streaming is supported only with {@link
+   * com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy#BATCH}.
+   */
+  public void registerStreamingDependency(
+      VajramID vajramID, String dependencyName, DependencyStreamPolicy policy) {
+    VajramDefinition vajramDefinition = vajramDefinitions.get(vajramID);
+    if (vajramDefinition == null) {
+      throw new IllegalArgumentException("Unable to find vajram with id %s".formatted(vajramID));
+    }
+    boolean isFanoutDependency =
+        vajramDefinition.getVajram().getFacetDefinitions().stream()
+            .anyMatch(
+                facetDefinition ->
+                    facetDefinition instanceof DependencyDef<?> dependencyDef
+                        && dependencyDef.name().equals(dependencyName)
+                        && dependencyDef.canFanout());
+    if (!isFanoutDependency) {
+      throw new IllegalArgumentException(
+          "%s is not a fanout dependency of vajram %s".formatted(dependencyName, vajramID));
+    }
+    kryonDefinitionRegistry
+        .get(getKryonId(vajramID))
+        .getOutputLogicDefinition()
+        .registerStreamingDependency(dependencyName, policy);
+  }
+
   /**
    * Returns a new {@link DependantChain} representing the given strings which are passed in trigger
    * order (from [Start] to immediate dependant.)
@@ -245,6 +312,16 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
     return _getVajramExecutionGraph(vajramId);
   }
 
+  /**
+   * Returns the {@link ExecutionPlan} of the given vajram when executed with the given disabled
+   * dependant chains. The plan is computed once and shared by all the executors created by this
+   * graph. Calling this at startup avoids computing the plan while serving the first request.
+   */
+  public ExecutionPlan getExecutionPlan(
+      VajramID vajramId, ImmutableSet<DependantChain> disabledDependantChains) {
+    return kryonDefinitionRegistry.executionPlan(getKryonId(vajramId), disabledDependantChains);
+  }
+
   private KryonId _getVajramExecutionGraph(VajramID vajramId) {
     KryonId kryonId = vajramExecutables.get(vajramId);
     if (kryonId != null) {
@@ -356,10 +433,7 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
                                             dependencyName, resolvedInputNames, inputValues);
                                   }
                                 } catch (Throwable t) {
-                                  dependencyCommand =
-                                      skipExecution(
-                                          "Resolver threw exception: %s"
-                                              .formatted(getStackTraceAsString(t)));
+                                  dependencyCommand = skipExecution(SkipReason.resolverFailed(t));
                                 }
                                 return toResolverCommand(dependencyCommand);
                               });
@@ -375,110 +449,15 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
             vajramId.vajramId(),
             vajramId.vajramId() + ":multiResolver",
             facetDefinitions.stream().map(VajramFacetDefinition::name).collect(toImmutableSet()),
-            (resolutionRequests, inputs) -> {
-              Set<ResolverDefinition> allResolverDefs = new HashSet<>();
-              for (DependencyResolutionRequest resolutionRequest : resolutionRequests) {
-                Set<ResolverDefinition> resolverDefinitions =
-                    resolutionRequest.resolverDefinitions();
-                allResolverDefs.addAll(resolverDefinitions);
-              }
-              Map<String, List<ResolverDefinition>> simpleResolverDefsByDep = new HashMap<>();
-              List<ResolverDefinition> complexResolverDefs = new ArrayList<>();
-              for (ResolverDefinition resolverDefinition : allResolverDefs) {
-                if (resolversByResolverDefs.get(resolverDefinition)
-                    instanceof SimpleInputResolver) {
-                  simpleResolverDefsByDep
-                      .computeIfAbsent(resolverDefinition.dependencyName(), k -> new ArrayList<>())
-                      .add(resolverDefinition);
-                } else {
-                  complexResolverDefs.add(resolverDefinition);
-                }
-              }
-              ResolutionResult simpleResolutions =
-                  multiResolve(
-                      simpleResolverDefsByDep.entrySet().stream()
-                          .map(
-                              entry ->
-                                  new ResolutionRequest(
-                                      entry.getKey(),
-                                      entry.getValue().stream()
-                                          .map(ResolverDefinition::resolvedInputNames)
-                                          .flatMap(Collection::stream)
-                                          .collect(toImmutableSet())))
-                          .toList(),
-                      simpleResolverDefsByDep.entrySet().stream()
-                          .collect(
-                              toMap(
-                                  Entry::getKey,
-                                  e ->
-                                      e.getValue().stream()
-                                          .map(
-                                              def ->
-                                                  Optional.ofNullable(
-                                                          resolversByResolverDefs.get(def))
-                                                      .orElseThrow(
-                                                          () ->
-                                                              new AssertionError(
-                                                                  "Could not find resolver for resolver definition. This should not happen")))
-                                          .map(ird -> (SimpleInputResolver<?, ?, ?, ?>) ird)
-                                          .toList())),
-                      inputs);
-              Map<String, List<Map<String, @Nullable Object>>> results =
-                  simpleResolutions.results();
-              Map<String, DependencyCommand<Facets>> skippedDependencies =
-                  simpleResolutions.skippedDependencies();
-
-              Map<String, ResolverCommand> resolverCommands = new LinkedHashMap<>();
-              for (ResolverDefinition resolverDef : complexResolverDefs) {
-                String dependencyName = resolverDef.dependencyName();
-                if (skippedDependencies.containsKey(dependencyName)) {
-                  continue;
-                }
-                ImmutableSet<String> resolvables = resolverDef.resolvedInputNames();
-                DependencyCommand<Facets> command;
-                try {
-                  if (resolversByResolverDefs.get(resolverDef)
-                      instanceof InputResolver inputResolver) {
-                    command = inputResolver.resolve(dependencyName, resolvables, inputs);
-                  } else {
-                    command = vajram.resolveInputOfDependency(dependencyName, resolvables, inputs);
-                  }
-                } catch (Throwable e) {
-                  command =
-                      skipExecution(
-                          String.format(
-                              "Got exception %s while executing the resolver of the dependency %s",
-                              e, dependencyName));
-                }
-                if (command.shouldSkip()) {
-                  skippedDependencies.put(dependencyName, command);
-                  results.remove(dependencyName);
-                } else {
-                  //noinspection Convert2Diamond : To handle NullChecker errors.
-                  collectDepInputs(
-                      results.computeIfAbsent(
-                          dependencyName, _k -> new ArrayList<Map<String, @Nullable Object>>()),
-                      null,
-                      command);
-                }
-              }
-              results.forEach(
-                  (key, value) ->
-                      resolverCommands.put(key, toResolverCommand(toDependencyCommand(value))));
-              skippedDependencies.forEach(
-                  (depName, command) -> {
-                    resolverCommands.put(depName, ResolverCommand.skip(command.doc()));
-                  });
-              return ImmutableMap.copyOf(resolverCommands);
-            });
+            new VajramMultiResolver(vajram, resolversByResolverDefs));
     return new InputResolverCreationResult(
         ImmutableList.copyOf(resolversByResolverDefs.keySet()),
         multiResolverDefinition.kryonLogicId());
   }
 
-  private static ResolverCommand toResolverCommand(DependencyCommand<Facets> dependencyCommand) {
+  static ResolverCommand toResolverCommand(DependencyCommand<Facets> dependencyCommand) {
     if (dependencyCommand.shouldSkip()) {
-      return ResolverCommand.skip(dependencyCommand.doc());
+      return ResolverCommand.skip(dependencyCommand.skipReason());
     }
     return multiExecuteWith(
         dependencyCommand.inputs().stream()
@@ -523,6 +502,10 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
             .filter(this::isVisibleToKrystex)
             .map(VajramFacetDefinition::name)
             .collect(toImmutableSet());
+    // Same as the layout generated for the vajram at compile time, so that the vajram's output
+    // logic can read facets by index
+    FacetLayout facetLayout =
+        FacetLayout.of(facetDefinitions.stream().map(VajramFacetDefinition::name).toList());
     KryonLogicId outputLogicName = new KryonLogicId(kryonId, "%s:outputLogic".formatted(vajramId));
     // Step 4: Create and register Kryon for the output logic
 
@@ -531,6 +514,7 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
             vajramDefinition.getVajram() instanceof IOVajram<?>,
             outputLogicName,
             inputNames,
+            facetLayout,
             inputsList -> {
               List<Facets> validInputs = new ArrayList<>();
               Map<Facets, CompletableFuture<@Nullable Object>> failedValidations =
@@ -556,6 +540,7 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
             },
             ImmutableMap.copyOf(vajramDefinition.getOutputLogicTags()));
     registerInputInjector(outputLogic, vajramDefinition.getVajram());
+    registerResultMemoizer(outputLogic, vajramDefinition);
     sessionScopedDecoratorConfigs
         .values()
         .forEach(outputLogic::registerSessionScopedLogicDecorator);
@@ -583,7 +568,30 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
             decoratorContext -> inputInjector));
   }
 
-  private static DependencyCommand<Facets> toDependencyCommand(
+  private static <T> void registerResultMemoizer(
+      OutputLogicDefinition<T> logicDefinition, VajramDefinition vajramDefinition) {
+    Optional<MemoizeResults> memoizeResults =
+        vajramDefinition.getOutputLogicTags().values().stream()
+            .filter(tag -> tag instanceof AnnotationTag<?>)
+            .map(tag -> ((AnnotationTag<?>) tag).tagValue())
+            .filter(annotation -> annotation instanceof MemoizeResults)
+            .map(annotation -> (MemoizeResults) annotation)
+            .findAny();
+    if (memoizeResults.isEmpty()) {
+      return;
+    }
+    long maxSize = memoizeResults.get().maxSize();
+    Duration ttl = Duration.ofMillis(memoizeResults.get().ttlMillis());
+    logicDefinition.registerSessionScopedLogicDecorator(
+        new OutputLogicDecoratorConfig(
+            ResultMemoizer.DECORATOR_TYPE,
+            logicExecutionContext -> true,
+            logicExecutionContext -> logicExecutionContext.kryonId().value(),
+            decoratorContext ->
+                new ResultMemoizer(decoratorContext.instanceId(), maxSize, ttl)));
+  }
+
+  static DependencyCommand<Facets> toDependencyCommand(
       List<Map<String, @Nullable Object>> depInputs) {
     DependencyCommand<Facets> dependencyCommand;
     if (depInputs.isEmpty()) {
@@ -671,8 +679,15 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
     private LogicDecorationOrdering logicDecorationOrdering =
         new LogicDecorationOrdering(ImmutableSet.of());
     private @Nullable InputInjectionProvider inputInjectionProvider;
+    private ExecutorPoolType executorPoolType = ExecutorPoolType.FORK_JOIN;
     private double maxParallelismPerCore = 1;
 
+    /**
+     * Loads the vajrams in the given package using the vajram index generated by the vajram
+     * annotation processor.
+     *
+     * @see com.flipkart.krystal.vajram.VajramLoader#loadVajrams(String)
+     */
     public Builder loadFromPackage(String packagePrefix) {
       packagePrefixes.add(packagePrefix);
       return this;
@@ -689,6 +704,15 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
       return this;
     }
 
+    public Builder executorPoolType(ExecutorPoolType executorPoolType) {
+      this.executorPoolType = executorPoolType;
+      return this;
+    }
+
+    /**
+     * Applicable only when the executorPoolType is {@link ExecutorPoolType#FORK_JOIN} or {@link
+     * ExecutorPoolType#ADAPTIVE}
+     */
     public Builder maxParallelismPerCore(double maxParallelismPerCore) {
       this.maxParallelismPerCore = maxParallelismPerCore;
       return this;
@@ -710,6 +734,7 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
           ImmutableMap.copyOf(sessionScopedDecoratorConfigs),
           logicDecorationOrdering,
           inputInjectionProvider,
+          executorPoolType,
           maxParallelismPerCore);
     }
   }
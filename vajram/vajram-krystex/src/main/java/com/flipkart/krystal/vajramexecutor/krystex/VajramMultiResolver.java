@@ -0,0 +1,205 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.vajram.facets.SingleExecute.skipExecution;
+import static com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.collectDepInputs;
+import static com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.multiResolve;
+import static com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph.toDependencyCommand;
+import static com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph.toResolverCommand;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.resolution.MultiResolver;
+import com.flipkart.krystal.krystex.resolution.ResolverCommand;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.flipkart.krystal.utils.SkipReason;
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.facets.DependencyCommand;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverDefinition;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.ResolutionResult;
+import com.flipkart.krystal.vajram.facets.resolution.ResolutionRequest;
+import com.flipkart.krystal.vajram.facets.resolution.SimpleInputResolver;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Resolves the inputs of the dependencies of a vajram using all the resolvers of the vajram.
+ *
+ * <p>The split of the resolvers of the requested dependencies into simple resolvers (which are
+ * resolved via {@link com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil}) and other
+ * resolvers depends only on the requested dependencies, and is computed once per unique list of
+ * requested dependencies. {@link #resolveBatch} resolves all the requests of a batch with a single
+ * invocation of the simple resolvers.
+ */
+final class VajramMultiResolver implements MultiResolver {
+
+  private final Vajram<?> vajram;
+  private final ImmutableMap<ResolverDefinition, InputResolverDefinition> resolversByResolverDefs;
+  private final Map<List<DependencyResolutionRequest>, ResolutionPlan> resolutionPlans =
+      new ConcurrentHashMap<>();
+
+  VajramMultiResolver(
+      Vajram<?> vajram,
+      ImmutableMap<ResolverDefinition, InputResolverDefinition> resolversByResolverDefs) {
+    this.vajram = vajram;
+    this.resolversByResolverDefs = resolversByResolverDefs;
+  }
+
+  @Override
+  public ImmutableMap<String, ResolverCommand> resolve(
+      List<DependencyResolutionRequest> resolverRequests, Facets facets) {
+    ResolutionPlan plan = resolutionPlan(resolverRequests);
+    ResolutionResult simpleResolutions =
+        multiResolve(plan.simpleResolutionRequests(), plan.simpleResolvers(), facets);
+    return toResolverCommands(plan, simpleResolutions, facets);
+  }
+
+  @Override
+  public ImmutableList<ImmutableMap<String, ResolverCommand>> resolveBatch(
+      List<DependencyResolutionRequest> resolverRequests, FacetColumns facetsBatch) {
+    ResolutionPlan plan = resolutionPlan(resolverRequests);
+    List<ResolutionResult> simpleResolutions =
+        multiResolve(plan.simpleResolutionRequests(), plan.simpleResolvers(), facetsBatch);
+    ImmutableList.Builder<ImmutableMap<String, ResolverCommand>> results =
+        ImmutableList.builderWithExpectedSize(facetsBatch.size());
+    for (int row = 0; row < facetsBatch.size(); row++) {
+      // Only complex resolvers need the facets of each request
+      Facets facets =
+          plan.complexResolverDefs().isEmpty() ? Facets.empty() : facetsBatch.row(row);
+      results.add(toResolverCommands(plan, simpleResolutions.get(row), facets));
+    }
+    return results.build();
+  }
+
+  private ImmutableMap<String, ResolverCommand> toResolverCommands(
+      ResolutionPlan plan, ResolutionResult simpleResolutions, Facets inputs) {
+    Map<String, List<Map<String, @Nullable Object>>> results =
+        new LinkedHashMap<>(simpleResolutions.results());
+    Map<String, DependencyCommand<Facets>> skippedDependencies =
+        new LinkedHashMap<>(simpleResolutions.skippedDependencies());
+
+    Map<String, ResolverCommand> resolverCommands = new LinkedHashMap<>();
+    for (ResolverDefinition resolverDef : plan.complexResolverDefs()) {
+      String dependencyName = resolverDef.dependencyName();
+      if (skippedDependencies.containsKey(dependencyName)) {
+        continue;
+      }
+      ImmutableSet<String> resolvables = resolverDef.resolvedInputNames();
+      DependencyCommand<Facets> command;
+      try {
+        if (resolversByResolverDefs.get(resolverDef) instanceof InputResolver inputResolver) {
+          command = inputResolver.resolve(dependencyName, resolvables, inputs);
+        } else {
+          command = vajram.resolveInputOfDependency(dependencyName, resolvables, inputs);
+        }
+      } catch (Throwable e) {
+        command =
+            skipExecution(
+                SkipReason.lazy(
+                    () ->
+                        "Got exception %s while executing the resolver of the dependency %s"
+                            .formatted(e, dependencyName)));
+      }
+      if (command.shouldSkip()) {
+        skippedDependencies.put(dependencyName, command);
+        results.remove(dependencyName);
+      } else {
+        //noinspection Convert2Diamond : To handle NullChecker errors.
+        collectDepInputs(
+            results.computeIfAbsent(
+                dependencyName, _k -> new ArrayList<Map<String, @Nullable Object>>()),
+            null,
+            command);
+      }
+    }
+    results.forEach(
+        (key, value) -> resolverCommands.put(key, toResolverCommand(toDependencyCommand(value))));
+    skippedDependencies.forEach(
+        (depName, command) -> {
+          resolverCommands.put(depName, ResolverCommand.skip(command.skipReason()));
+        });
+    return ImmutableMap.copyOf(resolverCommands);
+  }
+
+  private ResolutionPlan resolutionPlan(List<DependencyResolutionRequest> resolutionRequests) {
+    ResolutionPlan plan = resolutionPlans.get(resolutionRequests);
+    if (plan == null) {
+      plan = createResolutionPlan(resolutionRequests);
+      resolutionPlans.putIfAbsent(ImmutableList.copyOf(resolutionRequests), plan);
+    }
+    return plan;
+  }
+
+  private ResolutionPlan createResolutionPlan(
+      List<DependencyResolutionRequest> resolutionRequests) {
+    Set<ResolverDefinition> allResolverDefs = new LinkedHashSet<>();
+    for (DependencyResolutionRequest resolutionRequest : resolutionRequests) {
+      allResolverDefs.addAll(resolutionRequest.resolverDefinitions());
+    }
+    Map<String, List<ResolverDefinition>> simpleResolverDefsByDep = new LinkedHashMap<>();
+    List<ResolverDefinition> complexResolverDefs = new ArrayList<>();
+    for (ResolverDefinition resolverDefinition : allResolverDefs) {
+      if (resolversByResolverDefs.get(resolverDefinition) instanceof SimpleInputResolver) {
+        simpleResolverDefsByDep
+            .computeIfAbsent(resolverDefinition.dependencyName(), k -> new ArrayList<>())
+            .add(resolverDefinition);
+      } else {
+        complexResolverDefs.add(resolverDefinition);
+      }
+    }
+    return new ResolutionPlan(
+        simpleResolverDefsByDep.entrySet().stream()
+            .map(
+                entry ->
+                    new ResolutionRequest(
+                        entry.getKey(),
+                        entry.getValue().stream()
+                            .map(ResolverDefinition::resolvedInputNames)
+                            .flatMap(Collection::stream)
+                            .collect(toImmutableSet())))
+            .collect(toImmutableList()),
+        simpleResolverDefsByDep.entrySet().stream()
+            .collect(
+                toImmutableMap(
+                    Map.Entry::getKey,
+                    e ->
+                        e.getValue().stream()
+                            .map(this::simpleResolverOf)
+                            .collect(toImmutableList()))),
+        ImmutableList.copyOf(complexResolverDefs));
+  }
+
+  private SimpleInputResolver<?, ?, ?, ?> simpleResolverOf(ResolverDefinition resolverDefinition) {
+    if (resolversByResolverDefs.get(resolverDefinition)
+        instanceof SimpleInputResolver<?, ?, ?, ?> simpleInputResolver) {
+      return simpleInputResolver;
+    }
+    throw new AssertionError(
+        "Could not find resolver for resolver definition. This should not happen");
+  }
+
+  /**
+   * @param simpleResolutionRequests the requests to resolve via {@link SimpleInputResolver}s
+   * @param simpleResolvers dependency name -> the {@link SimpleInputResolver}s of the dependency
+   * @param complexResolverDefs resolver definitions which are not backed by {@link
+   *     SimpleInputResolver}s
+   */
+  private record ResolutionPlan(
+      ImmutableList<ResolutionRequest> simpleResolutionRequests,
+      ImmutableMap<String, Collection<? extends SimpleInputResolver<?, ?, ?, ?>>> simpleResolvers,
+      ImmutableList<ResolverDefinition> complexResolverDefs) {}
+}
@@ -130,8 +130,7 @@ public final class InputInjector implements OutputLogicDecorator {
               }
             });
     if (!newValues.isEmpty()) {
-      facets.values().forEach(newValues::putIfAbsent);
-      return new Facets(newValues);
+      return facets.withValues(newValues);
     } else {
       return facets;
     }
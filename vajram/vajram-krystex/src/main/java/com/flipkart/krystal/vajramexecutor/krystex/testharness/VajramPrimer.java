@@ -118,7 +118,8 @@ public class VajramPrimer extends AbstractKryonDecorator {
                         forwardBatch.inputNames(),
                         ImmutableMap.copyOf(unmockedRequests),
                         forwardBatch.dependantChain(),
-                        forwardBatch.skippedRequests()));
+                        forwardBatch.skippedRequests(),
+                        forwardBatch.responseListener()));
             return forwardedRequestsResult.handle(
                 (kryonResponse, throwable) -> {
                   if (kryonResponse instanceof BatchResponse batchResponse) {
@@ -0,0 +1,97 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness.loadtest;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/** A distribution from which the latencies of synthetic IO calls are sampled. */
+public interface LatencyDistribution {
+
+  /** Returns a latency in nanos sampled from this distribution. Never negative. */
+  long sampleNanos(RandomGenerator random);
+
+  /** Every call takes the given latency. */
+  static LatencyDistribution fixed(Duration latency) {
+    return new Fixed(latency.toNanos());
+  }
+
+  /**
+   * Latencies follow a log-normal distribution - the typical shape of the latencies of remote
+   * calls, with a long tail.
+   *
+   * @param median The median latency
+   * @param sigma The standard deviation of the logarithm of the latency. Larger values give longer
+   *     tails - for example with sigma 0.5 the p99 latency is about 3.2 times the median, and with
+   *     sigma 1 it is about 10 times the median.
+   */
+  static LatencyDistribution logNormal(Duration median, double sigma) {
+    if (median.isNegative() || median.isZero() || sigma < 0) {
+      throw new IllegalArgumentException(
+          "Invalid log-normal distribution. median: %s, sigma: %s".formatted(median, sigma));
+    }
+    return new LogNormal(Math.log(median.toNanos()), sigma);
+  }
+
+  /**
+   * Every call takes a latency picked at random from the given samples - for example the latencies
+   * of a service as recorded in production.
+   */
+  static LatencyDistribution replay(List<Duration> samples) {
+    if (samples.isEmpty()) {
+      throw new IllegalArgumentException("At least one latency sample is needed");
+    }
+    return new Replay(samples.stream().map(Duration::toNanos).collect(toImmutableList()));
+  }
+
+  /**
+   * Reads latency samples from a file (See {@link #replay(List)}). The file must have one latency
+   * in milliseconds (decimals allowed) per line. Blank lines and lines starting with '#' are
+   * ignored.
+   */
+  static LatencyDistribution replay(Path samplesFile) throws IOException {
+    try (var lines = Files.lines(samplesFile, UTF_8)) {
+      return replay(
+          lines
+              .map(String::trim)
+              .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+              .map(millis -> Duration.ofNanos((long) (Double.parseDouble(millis) * 1_000_000)))
+              .toList());
+    }
+  }
+
+  record Fixed(long latencyNanos) implements LatencyDistribution {
+
+    @Override
+    public long sampleNanos(RandomGenerator random) {
+      return latencyNanos;
+    }
+  }
+
+  /**
+   * @param mu The mean of the logarithm of the latency in nanos
+   * @param sigma The standard deviation of the logarithm of the latency in nanos
+   */
+  record LogNormal(double mu, double sigma) implements LatencyDistribution {
+
+    @Override
+    public long sampleNanos(RandomGenerator random) {
+      //noinspection NumericCastThatLosesPrecision
+      return (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+  }
+
+  record Replay(ImmutableList<Long> samplesNanos) implements LatencyDistribution {
+
+    @Override
+    public long sampleNanos(RandomGenerator random) {
+      return samplesNanos.get(random.nextInt(samplesNanos.size()));
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness.loadtest;
+
+import com.flipkart.krystal.krystex.kryon.LatencyHistogram;
+import java.time.Duration;
+
+/**
+ * The outcome of a load test run by {@link LoadTestRunner}. Only the requests which were started
+ * after the warmup period are accounted for.
+ *
+ * @param completedRequests The number of requests which completed successfully.
+ * @param failedRequests The number of requests which completed with an error.
+ * @param elapsed The duration of the measured period of the load test - from the end of the warmup
+ *     to the completion of the last request.
+ * @param latencyNanos The end to end latencies of the requests (successful or failed) in nanos.
+ *     When the load test has a target request rate, latencies are measured from the time at which
+ *     the request was scheduled to start, so that delays in starting requests (because of the
+ *     concurrency limit, for example) are accounted for.
+ * @param gcCount The number of garbage collections during the measured period.
+ * @param gcTime The approximate accumulated time spent in garbage collections during the measured
+ *     period.
+ * @param allocatedBytes The approximate number of bytes allocated in the heap by all threads
+ *     during the measured period. -1 if the JVM does not support measuring allocations.
+ */
+public record LoadTestReport(
+    long completedRequests,
+    long failedRequests,
+    Duration elapsed,
+    LatencyHistogram latencyNanos,
+    long gcCount,
+    Duration gcTime,
+    long allocatedBytes) {
+
+  public long totalRequests() {
+    return completedRequests + failedRequests;
+  }
+
+  /** Requests (successful or failed) completed per second. */
+  public double throughputPerSecond() {
+    return perSecond(totalRequests());
+  }
+
+  public double errorRate() {
+    long total = totalRequests();
+    return total == 0 ? 0 : (double) failedRequests / total;
+  }
+
+  /**
+   * @param percentile a value between 0 and 100
+   */
+  public Duration latencyAtPercentile(double percentile) {
+    return Duration.ofNanos(latencyNanos.valueAtPercentile(percentile));
+  }
+
+  /** Bytes allocated per second, or -1 if the JVM does not support measuring allocations. */
+  public double allocationRateBytesPerSecond() {
+    return allocatedBytes < 0 ? -1 : perSecond(allocatedBytes);
+  }
+
+  /** Bytes allocated per request, or -1 if the JVM does not support measuring allocations. */
+  public double allocatedBytesPerRequest() {
+    long total = totalRequests();
+    return allocatedBytes < 0 || total == 0 ? -1 : (double) allocatedBytes / total;
+  }
+
+  private double perSecond(long count) {
+    long elapsedNanos = elapsed.toNanos();
+    return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return ("LoadTestReport{requests=%s, errors=%s, throughput=%.1f/s, p50=%s, p90=%s, p99=%s,"
+            + " p99.9=%s, max=%s, gcCount=%s, gcTime=%s, allocationRate=%.1f MB/s}")
+        .formatted(
+            totalRequests(),
+            failedRequests,
+            throughputPerSecond(),
+            latencyAtPercentile(50),
+            latencyAtPercentile(90),
+            latencyAtPercentile(99),
+            latencyAtPercentile(99.9),
+            Duration.ofNanos(latencyNanos.max()),
+            gcCount,
+            gcTime,
+            allocationRateBytesPerSecond() / (1024 * 1024));
+  }
+}
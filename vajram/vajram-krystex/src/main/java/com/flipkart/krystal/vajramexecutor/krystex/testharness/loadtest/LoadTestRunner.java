@@ -0,0 +1,292 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness.loadtest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig.KryonExecutorConfigBuilder;
+import com.flipkart.krystal.krystex.kryon.LatencyHistogram;
+import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.vajram.ApplicationRequestContext;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatchingDecorator;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.VajramTestHarness;
+import com.google.common.collect.ImmutableSet;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Drives a {@link VajramKryonGraph} with synthetic load to measure its throughput, latencies, GC
+ * activity and allocation rate - for example to capacity-plan a new graph before it receives
+ * production traffic.
+ *
+ * <p>Every request is executed in a new {@link KrystexVajramExecutor} (as in production) created
+ * with the executor config given to {@link #prepareForLoadTest}. The output logics of IO vajrams
+ * can be replaced by {@link SyntheticIOLogic}s via {@link #withSyntheticIO}, so that the load test
+ * does not need the services which the graph calls. Unlike {@link VajramTestHarness}, which stubs
+ * exact request/response pairs, synthetic IO responds to any request, and works with all the
+ * {@link com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy
+ * KryonExecStrategy}s.
+ *
+ * <p>Two load models are supported:
+ *
+ * <ul>
+ *   <li>Closed (default) - {@code concurrency} requests are in flight at all times. A new request
+ *       is started as soon as one completes. This measures the maximum throughput of the graph.
+ *   <li>Open ({@link #withRequestRate(double)}) - requests are started at a fixed rate irrespective
+ *       of how fast they complete, like production traffic. {@code concurrency} bounds the number
+ *       of requests in flight. Latencies are measured from the time a request was scheduled to
+ *       start, so that requests delayed by the concurrency bound are not under-reported.
+ * </ul>
+ *
+ * <p>Requests started during the warmup period are executed but not measured.
+ *
+ * <p>Synthetic IO logics must be the innermost output logic decorators, so that input batchers
+ * batch the synthetic IO calls like they batch real ones. Decorators which are not part of the
+ * {@link LogicDecorationOrdering} of an executor are placed inside the ones which are. So if the
+ * executor config does not have an ordering, this runner configures one containing the input
+ * batching decorators. Otherwise, the configured ordering must contain the input batching
+ * decorators and must not contain {@link SyntheticIOLogic#DECORATOR_TYPE}.
+ */
+public final class LoadTestRunner {
+
+  private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+  private final VajramKryonGraph graph;
+  private final KryonExecutorConfigBuilder kryonExecutorConfigBuilder;
+  private final Map<VajramID, SyntheticIOLogic> syntheticIOLogics = new LinkedHashMap<>();
+  private int concurrency = 1;
+  private double requestsPerSecond;
+  private Duration duration = Duration.ofSeconds(10);
+  private Duration warmup = Duration.ZERO;
+
+  private LoadTestRunner(
+      VajramKryonGraph graph, KryonExecutorConfigBuilder kryonExecutorConfigBuilder) {
+    this.graph = graph;
+    this.kryonExecutorConfigBuilder = kryonExecutorConfigBuilder;
+  }
+
+  public static LoadTestRunner prepareForLoadTest(
+      VajramKryonGraph graph, KryonExecutorConfigBuilder kryonExecutorConfigBuilder) {
+    return new LoadTestRunner(graph, kryonExecutorConfigBuilder);
+  }
+
+  /**
+   * Replaces the output logic of the given IO vajram with a {@link SyntheticIOLogic}.
+   *
+   * @param errorRate The fraction (between 0 and 1) of the IO calls which fail.
+   * @param responseGenerator Generates the response of a successful call for the given facets.
+   */
+  public LoadTestRunner withSyntheticIO(
+      VajramID vajramId,
+      LatencyDistribution latencyDistribution,
+      double errorRate,
+      Function<Facets, @Nullable Object> responseGenerator) {
+    return withSyntheticIO(
+        vajramId,
+        new SyntheticIOLogic(
+            vajramId.vajramId(), latencyDistribution, errorRate, responseGenerator));
+  }
+
+  public LoadTestRunner withSyntheticIO(VajramID vajramId, SyntheticIOLogic syntheticIOLogic) {
+    syntheticIOLogics.put(vajramId, syntheticIOLogic);
+    return this;
+  }
+
+  /** The maximum number of requests in flight. Default: 1 */
+  public LoadTestRunner withConcurrency(int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be positive. Found " + concurrency);
+    }
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /** Starts requests at the given rate instead of as fast as possible. */
+  public LoadTestRunner withRequestRate(double requestsPerSecond) {
+    if (requestsPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          "requestsPerSecond must be positive. Found " + requestsPerSecond);
+    }
+    this.requestsPerSecond = requestsPerSecond;
+    return this;
+  }
+
+  /** The duration for which requests are started after the warmup. Default: 10 seconds */
+  public LoadTestRunner withDuration(Duration duration) {
+    this.duration = duration;
+    return this;
+  }
+
+  /** The duration for which requests are started before the measurement begins. Default: 0 */
+  public LoadTestRunner withWarmup(Duration warmup) {
+    this.warmup = warmup;
+    return this;
+  }
+
+  public Optional<SyntheticIOLogic> getSyntheticIOLogic(VajramID vajramId) {
+    return Optional.ofNullable(syntheticIOLogics.get(vajramId));
+  }
+
+  /** Returns the executor config with which the requests of the load test are executed. */
+  public KryonExecutorConfig buildConfig() {
+    KryonExecutorConfig config = kryonExecutorConfigBuilder.build();
+    Map<String, List<OutputLogicDecoratorConfig>> decoratorConfigs =
+        new LinkedHashMap<>(config.requestScopedLogicDecoratorConfigs());
+    List<OutputLogicDecoratorConfig> syntheticIOConfigs =
+        new ArrayList<>(decoratorConfigs.getOrDefault(SyntheticIOLogic.DECORATOR_TYPE, List.of()));
+    syntheticIOLogics.forEach(
+        (vajramId, syntheticIOLogic) ->
+            syntheticIOConfigs.add(
+                new OutputLogicDecoratorConfig(
+                    SyntheticIOLogic.DECORATOR_TYPE,
+                    logicExecutionContext ->
+                        logicExecutionContext.kryonId().value().equals(vajramId.vajramId()),
+                    logicExecutionContext -> syntheticIOLogic.getId(),
+                    decoratorContext -> syntheticIOLogic)));
+    decoratorConfigs.put(SyntheticIOLogic.DECORATOR_TYPE, syntheticIOConfigs);
+    KryonExecutorConfigBuilder configBuilder =
+        config.toBuilder().requestScopedLogicDecoratorConfigs(decoratorConfigs);
+    if (LogicDecorationOrdering.none().equals(config.logicDecorationOrdering())) {
+      configBuilder.logicDecorationOrdering(
+          new LogicDecorationOrdering(ImmutableSet.of(InputBatchingDecorator.DECORATOR_TYPE)));
+    }
+    return configBuilder.build();
+  }
+
+  /**
+   * Runs the load test and blocks until all the started requests complete.
+   *
+   * @param vajramId The vajram to execute in every request
+   * @param requestContextSupplier Supplies the request context of every request
+   * @param vajramRequestBuilder Builds the vajram request of every request from its request context
+   * @throws TimeoutException if the requests in flight at the end of the load test do not complete
+   *     within a minute.
+   */
+  public <C extends ApplicationRequestContext> LoadTestReport run(
+      VajramID vajramId,
+      Supplier<C> requestContextSupplier,
+      Function<C, VajramRequest> vajramRequestBuilder)
+      throws InterruptedException, TimeoutException {
+    KryonExecutorConfig config = buildConfig();
+    Semaphore inFlight = new Semaphore(concurrency);
+    LatencyHistogram latencies = new LatencyHistogram();
+    AtomicLong completed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    AtomicLong lastCompletionNanos = new AtomicLong();
+    long intervalNanos = requestsPerSecond > 0 ? (long) (1e9 / requestsPerSecond) : 0;
+
+    long startNanos = System.nanoTime();
+    long measurementStartNanos = startNanos + warmup.toNanos();
+    long endNanos = measurementStartNanos + duration.toNanos();
+    @Nullable JvmSnapshot measurementStart = warmup.isZero() ? JvmSnapshot.take() : null;
+    long nextStartNanos = startNanos;
+    while (true) {
+      if (intervalNanos > 0) {
+        NANOSECONDS.sleep(nextStartNanos - System.nanoTime());
+      }
+      inFlight.acquire();
+      long now = System.nanoTime();
+      if (now >= endNanos) {
+        inFlight.release();
+        break;
+      }
+      // In the open model, latency is measured from the scheduled start time
+      long requestStartNanos = intervalNanos > 0 ? nextStartNanos : now;
+      nextStartNanos += intervalNanos;
+      boolean measured = requestStartNanos >= measurementStartNanos;
+      if (measured && measurementStart == null) {
+        measurementStart = JvmSnapshot.take();
+      }
+      CompletableFuture<@Nullable Object> result;
+      try (KrystexVajramExecutor<C> executor =
+          graph.createExecutor(requestContextSupplier.get(), config)) {
+        result = executor.execute(vajramId, vajramRequestBuilder);
+      } catch (Throwable e) {
+        result = CompletableFuture.failedFuture(e);
+      }
+      result.whenComplete(
+          (response, throwable) -> {
+            long completionNanos = System.nanoTime();
+            if (measured) {
+              latencies.record(completionNanos - requestStartNanos);
+              (throwable == null ? completed : failed).incrementAndGet();
+              lastCompletionNanos.accumulateAndGet(completionNanos, Math::max);
+            }
+            inFlight.release();
+          });
+    }
+    if (!inFlight.tryAcquire(concurrency, DRAIN_TIMEOUT.toNanos(), NANOSECONDS)) {
+      throw new TimeoutException(
+          "%s requests did not complete within %s"
+              .formatted(concurrency - inFlight.availablePermits(), DRAIN_TIMEOUT));
+    }
+    JvmSnapshot measurementEnd = JvmSnapshot.take();
+    if (measurementStart == null) {
+      // No request was started after the warmup
+      measurementStart = measurementEnd;
+    }
+    return new LoadTestReport(
+        completed.get(),
+        failed.get(),
+        Duration.ofNanos(
+            Math.max(0, lastCompletionNanos.get() - Math.max(measurementStartNanos, startNanos))),
+        latencies,
+        measurementEnd.gcCount() - measurementStart.gcCount(),
+        Duration.ofMillis(measurementEnd.gcTimeMillis() - measurementStart.gcTimeMillis()),
+        measurementEnd.allocatedBytes() < 0
+            ? -1
+            : measurementEnd.allocatedBytes() - measurementStart.allocatedBytes());
+  }
+
+  /**
+   * @param allocatedBytes The sum of the bytes allocated by the live threads. Threads which die
+   *     between two snapshots are not accounted for, so this is an approximation for the thread
+   *     pools of long-running load tests. -1 if not supported by the JVM.
+   */
+  private record JvmSnapshot(long gcCount, long gcTimeMillis, long allocatedBytes) {
+
+    private static JvmSnapshot take() {
+      long gcCount = 0;
+      long gcTimeMillis = 0;
+      for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        gcCount += Math.max(0, gcBean.getCollectionCount());
+        gcTimeMillis += Math.max(0, gcBean.getCollectionTime());
+      }
+      return new JvmSnapshot(gcCount, gcTimeMillis, totalAllocatedBytes());
+    }
+
+    private static long totalAllocatedBytes() {
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      if (!(threadBean instanceof com.sun.management.ThreadMXBean allocationBean)
+          || !allocationBean.isThreadAllocatedMemorySupported()
+          || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+        return -1;
+      }
+      long allocatedBytes = 0;
+      for (long bytes : allocationBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+        // -1 for threads which are no longer alive
+        allocatedBytes += Math.max(0, bytes);
+      }
+      return allocatedBytes;
+    }
+  }
+}
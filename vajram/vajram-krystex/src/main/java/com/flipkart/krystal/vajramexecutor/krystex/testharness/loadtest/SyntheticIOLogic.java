@@ -0,0 +1,129 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness.loadtest;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.utils.HashedWheelTimer;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Replaces the output logic of an IO vajram with a synthetic one which responds after a latency
+ * sampled from a {@link LatencyDistribution}, and fails a configurable fraction of the calls. The
+ * actual output logic is never invoked. This allows load testing a graph without the services
+ * which its IO vajrams call.
+ *
+ * <p>Every invocation of the logic is treated as a single IO call (for example, a batch emitted by
+ * an input batcher) - all the facets of an invocation share the same latency and the same outcome.
+ * So this decorator must be the innermost decorator of the logic, so that the input batching
+ * decorators wrap it (See {@link LoadTestRunner}). Latencies are simulated with a {@link
+ * HashedWheelTimer}, so their precision is the tick duration of the timer.
+ *
+ * <p>This class is thread-safe, and an instance can be shared by all the executors of a load test.
+ */
+public final class SyntheticIOLogic implements OutputLogicDecorator {
+
+  public static final String DECORATOR_TYPE = SyntheticIOLogic.class.getName();
+
+  private final String instanceId;
+  private final LatencyDistribution latencyDistribution;
+  private final double errorRate;
+  private final Function<Facets, @Nullable Object> responseGenerator;
+  private final HashedWheelTimer timer;
+  private final LongAdder ioCallCount = new LongAdder();
+  private final LongAdder ioCallFacetsCount = new LongAdder();
+
+  public SyntheticIOLogic(
+      String instanceId,
+      LatencyDistribution latencyDistribution,
+      double errorRate,
+      Function<Facets, @Nullable Object> responseGenerator) {
+    this(instanceId, latencyDistribution, errorRate, responseGenerator, HashedWheelTimer.shared());
+  }
+
+  /**
+   * @param instanceId The id of this decorator.
+   * @param latencyDistribution The distribution of the latencies of the IO calls.
+   * @param errorRate The fraction (between 0 and 1) of the IO calls which fail.
+   * @param responseGenerator Generates the response of a successful call for the given facets.
+   * @param timer The timer used to simulate the latencies.
+   */
+  public SyntheticIOLogic(
+      String instanceId,
+      LatencyDistribution latencyDistribution,
+      double errorRate,
+      Function<Facets, @Nullable Object> responseGenerator,
+      HashedWheelTimer timer) {
+    if (errorRate < 0 || errorRate > 1) {
+      throw new IllegalArgumentException("errorRate must be between 0 and 1. Found " + errorRate);
+    }
+    this.instanceId = instanceId;
+    this.latencyDistribution = latencyDistribution;
+    this.errorRate = errorRate;
+    this.responseGenerator = responseGenerator;
+    this.timer = timer;
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    KryonLogicId kryonLogicId = originalLogicDefinition.kryonLogicId();
+    return facetsList -> {
+      ioCallCount.increment();
+      ioCallFacetsCount.add(facetsList.size());
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long latencyNanos = Math.max(0, latencyDistribution.sampleNanos(random));
+      boolean fail = random.nextDouble() < errorRate;
+      ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+          ImmutableMap.builderWithExpectedSize(facetsList.size());
+      for (Facets facets : facetsList) {
+        results.put(facets, new CompletableFuture<@Nullable Object>());
+      }
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> resultsMap =
+          results.buildKeepingLast();
+      Runnable respond =
+          () ->
+              resultsMap.forEach(
+                  (facets, result) -> {
+                    if (fail) {
+                      result.completeExceptionally(
+                          new RuntimeException("Synthetic IO failure of " + kryonLogicId));
+                      return;
+                    }
+                    try {
+                      result.complete(responseGenerator.apply(facets));
+                    } catch (Throwable e) {
+                      result.completeExceptionally(e);
+                    }
+                  });
+      if (latencyNanos == 0) {
+        respond.run();
+      } else {
+        timer.schedule(respond, Duration.ofNanos(latencyNanos));
+      }
+      return resultsMap;
+    };
+  }
+
+  /** The number of IO calls made so far (i.e. the number of invocations of the logic). */
+  public long ioCallCount() {
+    return ioCallCount.sum();
+  }
+
+  /** The total number of facets across all the IO calls made so far. */
+  public long ioCallFacetsCount() {
+    return ioCallFacetsCount.sum();
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+}
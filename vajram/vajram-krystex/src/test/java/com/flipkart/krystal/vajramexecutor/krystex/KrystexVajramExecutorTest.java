@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flipkart.krystal.config.ConfigProvider;
 import com.flipkart.krystal.config.Tag;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
@@ -38,7 +39,11 @@ import com.flipkart.krystal.krystex.logicdecorators.observability.MainLogicExecR
 import com.flipkart.krystal.krystex.logicdecorators.resilience4j.Resilience4JBulkhead;
 import com.flipkart.krystal.krystex.logicdecorators.resilience4j.Resilience4JCircuitBreaker;
 import com.flipkart.krystal.vajram.MandatoryFacetsMissingException;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.batching.InputBatcher;
 import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.batching.TimedInputBatcher;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
 import com.flipkart.krystal.vajram.tags.NamedValueTag;
 import com.flipkart.krystal.vajram.tags.Service;
 import com.flipkart.krystal.vajram.tags.ServiceApi;
@@ -52,6 +57,9 @@ import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.Hel
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriendsRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriendsv2.HelloFriendsV2;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriendsv2.HelloFriendsV2Request;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.MemoizedHello;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.ShoutMemoizedHello;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.ShoutMemoizedHelloRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.multihello.MultiHelloFriends;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.multihello.MultiHelloFriendsRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.multihellov2.MultiHelloFriendsV2;
@@ -60,6 +68,7 @@ import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.mutualFriendsHel
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserInfo;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserService;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserServiceRequest;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.time.Clock;
@@ -71,8 +80,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -106,7 +117,9 @@ class KrystexVajramExecutorTest {
     TestUserService.CALL_COUNTER.reset();
     FriendsService.CALL_COUNTER.reset();
     TestUserService.REQUESTS.clear();
+    TestUserService.CALLING_THREADS.clear();
     Hello.CALL_COUNTER.reset();
+    MemoizedHello.CALL_COUNTER.reset();
     Optional.ofNullable(graph).ifPresent(VajramKryonGraph::close);
   }
 
@@ -218,6 +231,275 @@ class KrystexVajramExecutorTest {
     assertThat(TestUserService.CALL_COUNTER.sum()).isEqualTo(1);
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeIo_withTimedBatcherMaxBatchSize_batchesSplit(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class),
+        InputBatcherConfig.sharedBatcher(
+            () -> new TimedInputBatcher<>(2, 2, Duration.ofSeconds(10)),
+            getVajramIdString(TestUserService.class) + "Batcher",
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "userInfo"),
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "friendInfos")));
+
+    CompletableFuture<String> helloString;
+    requestContext.requestId("ioVajramWithTimedBatcher");
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(
+            requestContext,
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .build())) {
+      helloString =
+          krystexVajramExecutor.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+    }
+    assertThat(helloString)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_1)! "
+                + "Firstname Lastname (user_id_1:friend_1), "
+                + "Firstname Lastname (user_id_1:friend_2)");
+    // 3 user ids batched with max batch size 2
+    assertThat(TestUserService.CALL_COUNTER.sum()).isEqualTo(2);
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeIo_timedBatcherDeadlineExpires_batchExecutedInExecutorThread(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    // Flushes are ignored, so the batch can only be emitted by the expiry of the deadline
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class),
+        InputBatcherConfig.sharedBatcher(
+            () ->
+                new DeadlineOnlyInputBatcher(
+                    new TimedInputBatcher<>(100, 100, Duration.ofMillis(20))),
+            getVajramIdString(TestUserService.class) + "Batcher",
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "userInfo"),
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "friendInfos")));
+    Set<String> ioThreads = ConcurrentHashMap.newKeySet();
+    String threadRecorderType = "threadRecorder";
+    OutputLogicDecoratorConfig threadRecorder =
+        new OutputLogicDecoratorConfig(
+            threadRecorderType,
+            logicExecutionContext ->
+                getNamedValueTag(VajramTags.VAJRAM_ID, logicExecutionContext.logicTags())
+                    .map(tag -> tag.value().equals(getVajramIdString(TestUserService.class)))
+                    .orElse(false),
+            logicExecutionContext -> threadRecorderType,
+            decoratorContext ->
+                new OutputLogicDecorator() {
+                  @Override
+                  public OutputLogic<Object> decorateLogic(
+                      OutputLogic<Object> logicToDecorate,
+                      OutputLogicDefinition<Object> originalLogicDefinition) {
+                    return facetsList -> {
+                      ioThreads.add(Thread.currentThread().getName());
+                      return logicToDecorate.execute(facetsList);
+                    };
+                  }
+
+                  @Override
+                  public String getId() {
+                    return threadRecorderType;
+                  }
+                });
+
+    CompletableFuture<String> helloString;
+    requestContext.requestId("ioVajramWithTimedBatcherDeadline");
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor =
+        graph.createExecutor(
+            requestContext,
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .requestScopedLogicDecoratorConfigs(
+                    ImmutableMap.of(threadRecorderType, List.of(threadRecorder)))
+                .build())) {
+      helloString =
+          krystexVajramExecutor.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+    }
+    assertThat(helloString)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_1)! "
+                + "Firstname Lastname (user_id_1:friend_1), "
+                + "Firstname Lastname (user_id_1:friend_2)");
+    assertThat(TestUserService.CALL_COUNTER.sum()).isPositive();
+    // The expired deadline hands the batch back to the executor instead of executing it in the
+    // timer thread
+    assertThat(ioThreads).isNotEmpty().noneMatch(name -> name.startsWith("Krystal-WheelTimer"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeIo_sharedBatchingServiceAcrossExecutors_singleBatch(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    // 2 requests * (1 user + 2 friends) = 6 unique user ids
+    SharedInputBatchingService<FacetValuesAdaptor, FacetValuesAdaptor> batchingService =
+        SharedInputBatchingService.withDeadline(
+            getVajramIdString(TestUserService.class) + "SharedBatcher", 6, Duration.ofSeconds(10));
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class), InputBatcherConfig.sharedService(batchingService));
+
+    TestRequestContext requestContext1 = new TestRequestContext(Optional.of("user_id_1"), 2);
+    requestContext1.requestId("sharedBatchingService_1");
+    TestRequestContext requestContext2 = new TestRequestContext(Optional.of("user_id_2"), 2);
+    requestContext2.requestId("sharedBatchingService_2");
+    CompletableFuture<String> helloString1;
+    CompletableFuture<String> helloString2;
+    KryonExecutorConfig executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .build();
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor1 =
+            graph.createExecutor(requestContext1, executorConfig);
+        KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor2 =
+            graph.createExecutor(requestContext2, executorConfig)) {
+      helloString1 =
+          krystexVajramExecutor1.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+      helloString2 =
+          krystexVajramExecutor2.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+    }
+    assertThat(helloString1)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_1)! "
+                + "Firstname Lastname (user_id_1:friend_1), "
+                + "Firstname Lastname (user_id_1:friend_2)");
+    assertThat(helloString2)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_2)! "
+                + "Firstname Lastname (user_id_2:friend_1), "
+                + "Firstname Lastname (user_id_2:friend_2)");
+    assertThat(TestUserService.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeIo_sharedBatchingServiceDeadlineExpires_batchExecutedInExecutorThread(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    // 2 requests * (1 user + 2 friends) = 6 unique user ids, which never fill a batch of 100. So
+    // only the expiry of the deadline can emit the batch.
+    SharedInputBatchingService<FacetValuesAdaptor, FacetValuesAdaptor> batchingService =
+        SharedInputBatchingService.withDeadline(
+            getVajramIdString(TestUserService.class) + "SharedBatcher",
+            100,
+            Duration.ofMillis(20));
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class), InputBatcherConfig.sharedService(batchingService));
+
+    TestRequestContext requestContext1 = new TestRequestContext(Optional.of("user_id_1"), 2);
+    requestContext1.requestId("sharedBatchingServiceDeadline_1");
+    TestRequestContext requestContext2 = new TestRequestContext(Optional.of("user_id_2"), 2);
+    requestContext2.requestId("sharedBatchingServiceDeadline_2");
+    CompletableFuture<String> helloString1;
+    CompletableFuture<String> helloString2;
+    KryonExecutorConfig executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .build();
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor1 =
+            graph.createExecutor(requestContext1, executorConfig);
+        KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor2 =
+            graph.createExecutor(requestContext2, executorConfig)) {
+      helloString1 =
+          krystexVajramExecutor1.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+      helloString2 =
+          krystexVajramExecutor2.execute(ofVajram(HelloFriends.class), this::helloFriendsRequest);
+    }
+    assertThat(helloString1)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_1)! "
+                + "Firstname Lastname (user_id_1:friend_1), "
+                + "Firstname Lastname (user_id_1:friend_2)");
+    assertThat(helloString2)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(
+            "Hello Friends of Firstname Lastname (user_id_2)! "
+                + "Firstname Lastname (user_id_2:friend_1), "
+                + "Firstname Lastname (user_id_2:friend_2)");
+    assertThat(TestUserService.CALL_COUNTER.sum()).isPositive();
+    // The expired deadline hands the batch off to an executor instead of executing it in the timer
+    // thread
+    assertThat(TestUserService.CALLING_THREADS)
+        .isNotEmpty()
+        .noneMatch(name -> name.startsWith("Krystal-WheelTimer"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeCompute_memoizedDependencyAcrossExecutors_computedOnce(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello")
+            .build();
+    KryonExecutorConfig executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .build();
+    TestRequestContext requestContext1 = new TestRequestContext(Optional.of("user_id_1"), 2);
+    requestContext1.requestId("memoizedDependency_1");
+    TestRequestContext requestContext2 = new TestRequestContext(Optional.of("user_id_1"), 2);
+    requestContext2.requestId("memoizedDependency_2");
+    TestRequestContext requestContext3 = new TestRequestContext(Optional.of("user_id_2"), 2);
+    requestContext3.requestId("memoizedDependency_3");
+    CompletableFuture<String> result1;
+    CompletableFuture<String> result2;
+    CompletableFuture<String> result3;
+    // The executors run concurrently, so the second executor may wait on the in-flight computation
+    // of the first executor
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor1 =
+            graph.createExecutor(requestContext1, executorConfig);
+        KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor2 =
+            graph.createExecutor(requestContext2, executorConfig)) {
+      result1 =
+          krystexVajramExecutor1.execute(
+              ofVajram(ShoutMemoizedHello.class), this::shoutMemoizedHelloRequest);
+      result2 =
+          krystexVajramExecutor2.execute(
+              ofVajram(ShoutMemoizedHello.class), this::shoutMemoizedHelloRequest);
+    }
+    assertThat(result1).succeedsWithin(TIMEOUT).isEqualTo("HELLO! USER_ID_1");
+    assertThat(result2).succeedsWithin(TIMEOUT).isEqualTo("HELLO! USER_ID_1");
+    try (KrystexVajramExecutor<TestRequestContext> krystexVajramExecutor3 =
+        graph.createExecutor(requestContext3, executorConfig)) {
+      result3 =
+          krystexVajramExecutor3.execute(
+              ofVajram(ShoutMemoizedHello.class), this::shoutMemoizedHelloRequest);
+    }
+    assertThat(result3).succeedsWithin(TIMEOUT).isEqualTo("HELLO! USER_ID_2");
+    // One computation per distinct name, irrespective of the number of executors
+    assertThat(MemoizedHello.CALL_COUNTER.sum()).isEqualTo(2);
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void executeCompute_sequentialDependency_success(
@@ -822,6 +1104,38 @@ class KrystexVajramExecutorTest {
     assertThat(multiHellos).succeedsWithin(TIMEOUT).isEqualTo("");
   }
 
+  /** Delegates to the given batcher, but ignores {@link #batch()} calls triggered by flushes. */
+  private static final class DeadlineOnlyInputBatcher
+      implements InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor> {
+
+    private final InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor> delegate;
+
+    private DeadlineOnlyInputBatcher(
+        InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public ImmutableList<BatchedFacets<FacetValuesAdaptor, FacetValuesAdaptor>> add(
+        FacetValuesAdaptor batchableInputs, FacetValuesAdaptor commonFacets) {
+      return delegate.add(batchableInputs, commonFacets);
+    }
+
+    @Override
+    public void batch() {}
+
+    @Override
+    public void onBatching(
+        Consumer<ImmutableList<BatchedFacets<FacetValuesAdaptor, FacetValuesAdaptor>>> callback) {
+      delegate.onBatching(callback);
+    }
+
+    @Override
+    public void onConfigUpdate(ConfigProvider configProvider) {
+      delegate.onConfigUpdate(configProvider);
+    }
+  }
+
   private HelloRequest helloRequest(TestRequestContext applicationRequestContext) {
     return helloRequestBuilder(applicationRequestContext).build();
   }
@@ -847,6 +1161,13 @@ class KrystexVajramExecutorTest {
         .build();
   }
 
+  private ShoutMemoizedHelloRequest shoutMemoizedHelloRequest(
+      TestRequestContext testRequestContext) {
+    return ShoutMemoizedHelloRequest.builder()
+        .name(testRequestContext.loggedInUserId().orElseThrow())
+        .build();
+  }
+
   private HelloFriendsV2Request helloFriendsV2Request(TestRequestContext testRequestContext) {
     return HelloFriendsV2Request.builder()
         .userId(testRequestContext.loggedInUserId().orElse(null))
@@ -0,0 +1,225 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.vajram.batching.FacetsConverter;
+import com.flipkart.krystal.vajram.batching.ModulatingInputBatcher;
+import com.flipkart.krystal.vajram.batching.Modulator;
+import com.flipkart.krystal.vajram.batching.UnBatchedFacets;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that requests which a {@link Modulator} merges into a single request are completed with
+ * their own projections of the merged response.
+ */
+class ModulatedBatchingTest {
+
+  private static final Duration TIMEOUT = ofSeconds(1);
+
+  /** Info levels in increasing order. A higher level serves all the lower levels. */
+  private static final List<String> INFO_LEVELS = List.of("LOW", "MEDIUM", "HIGH");
+
+  private static final Modulator<InfoLevel> MODULATOR =
+      new Modulator<>() {
+        @Override
+        public Optional<InfoLevel> merge(InfoLevel a, InfoLevel b) {
+          return Optional.of(
+              INFO_LEVELS.indexOf(a.level()) >= INFO_LEVELS.indexOf(b.level()) ? a : b);
+        }
+
+        @Override
+        public @Nullable Object project(
+            InfoLevel original, InfoLevel merged, @Nullable Object response) {
+          return "%s as %s".formatted(response, original.level());
+        }
+      };
+
+  private static final FacetsConverter<UserId, InfoLevel> CONVERTER =
+      facets ->
+          new UnBatchedFacets<>(
+              new UserId(facets.getInputValueOrThrow("userId")),
+              new InfoLevel(facets.getInputValueOrThrow("infoLevel")));
+
+  private final List<ImmutableList<Facets>> calls = new CopyOnWriteArrayList<>();
+
+  @Test
+  void inputBatchingDecorator_mergedRequests_eachGetsItsOwnProjection() {
+    OutputLogic<Object> decoratedLogic = decorate(logic(ModulatedBatchingTest::userInfo));
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+        decoratedLogic.execute(
+            ImmutableList.of(
+                request("user_1", "LOW"), request("user_1", "HIGH"), request("user_2", "MEDIUM")));
+
+    assertThat(calls)
+        .containsExactly(ImmutableList.of(request("user_1", "HIGH"), request("user_2", "HIGH")));
+    assertThat(results.get(request("user_1", "LOW")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_1@HIGH as LOW");
+    assertThat(results.get(request("user_1", "HIGH")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_1@HIGH");
+    assertThat(results.get(request("user_2", "MEDIUM")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_2@HIGH as MEDIUM");
+  }
+
+  @Test
+  void inputBatchingDecorator_mergedRequestFails_failureReachesEverySubsumedRequest() {
+    RuntimeException failure = new RuntimeException("user service is down");
+    OutputLogic<Object> decoratedLogic = decorate(logic(facets -> failedFuture(failure)));
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+        decoratedLogic.execute(
+            ImmutableList.of(
+                request("user_1", "LOW"), request("user_1", "MEDIUM"), request("user_2", "HIGH")));
+
+    assertThat(calls)
+        .containsExactly(ImmutableList.of(request("user_1", "HIGH"), request("user_2", "HIGH")));
+    assertAllFailWith(results.values(), failure);
+  }
+
+  @Test
+  void sharedInputBatchingService_mergedRequestsAcrossSubmissions_eachGetsItsOwnProjection() {
+    SharedInputBatchingService<UserId, InfoLevel> service =
+        new SharedInputBatchingService<>("test", new ModulatingInputBatcher<>(MODULATOR, 2));
+    OutputLogic<Object> logic = logic(ModulatedBatchingTest::userInfo);
+
+    // Submissions from two executors, merged into a single request for user_1
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results1 =
+        service.submit(ImmutableList.of(request("user_1", "LOW")), CONVERTER, logic, Runnable::run);
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results2 =
+        service.submit(
+            ImmutableList.of(request("user_1", "MEDIUM"), request("user_2", "HIGH")),
+            CONVERTER,
+            logic,
+            Runnable::run);
+
+    assertThat(calls)
+        .containsExactly(ImmutableList.of(request("user_1", "HIGH"), request("user_2", "HIGH")));
+    assertThat(results1.get(request("user_1", "LOW")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_1@HIGH as LOW");
+    assertThat(results2.get(request("user_1", "MEDIUM")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_1@HIGH as MEDIUM");
+    assertThat(results2.get(request("user_2", "HIGH")))
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("user_2@HIGH");
+    assertThat(service.inFlightCount()).isZero();
+  }
+
+  @Test
+  void sharedInputBatchingService_mergedRequestFails_failureReachesEverySubsumedRequest() {
+    RuntimeException failure = new RuntimeException("user service is down");
+    SharedInputBatchingService<UserId, InfoLevel> service =
+        new SharedInputBatchingService<>("test", new ModulatingInputBatcher<>(MODULATOR, 2));
+    OutputLogic<Object> logic = logic(facets -> failedFuture(failure));
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results1 =
+        service.submit(
+            ImmutableList.of(request("user_1", "LOW"), request("user_1", "MEDIUM")),
+            CONVERTER,
+            logic,
+            Runnable::run);
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results2 =
+        service.submit(ImmutableList.of(request("user_2", "LOW")), CONVERTER, logic, Runnable::run);
+
+    assertThat(calls)
+        .containsExactly(
+            ImmutableList.of(request("user_1", "MEDIUM"), request("user_2", "MEDIUM")));
+    assertAllFailWith(results1.values(), failure);
+    assertAllFailWith(results2.values(), failure);
+    assertThat(service.inFlightCount()).isZero();
+  }
+
+  private OutputLogic<Object> decorate(OutputLogic<Object> logic) {
+    InputBatchingDecorator<UserId, InfoLevel> decorator =
+        new InputBatchingDecorator<>(
+            "test",
+            new ModulatingInputBatcher<>(MODULATOR, 2),
+            CONVERTER,
+            dependantChain -> true,
+            Runnable::run);
+    return decorator.decorateLogic(
+        logic,
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId("userInfo"), "userInfo:asyncLogic"),
+            Set.of("userId", "infoLevel"),
+            logic,
+            ImmutableMap.of()));
+  }
+
+  /**
+   * Returns an output logic which records the facets it is called with and responds with the
+   * response computed by the given function for each of them.
+   */
+  private OutputLogic<Object> logic(
+      Function<Facets, CompletableFuture<@Nullable Object>> response) {
+    return facetsList -> {
+      calls.add(facetsList);
+      return facetsList.stream()
+          .collect(ImmutableMap.toImmutableMap(Function.identity(), response));
+    };
+  }
+
+  private static void assertAllFailWith(
+      Collection<CompletableFuture<@Nullable Object>> results, Throwable failure) {
+    assertThat(results)
+        .isNotEmpty()
+        .allSatisfy(
+            result ->
+                assertThat(result)
+                    .failsWithin(TIMEOUT)
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCause(failure));
+  }
+
+  private static CompletableFuture<@Nullable Object> userInfo(Facets facets) {
+    return completedFuture(
+        "%s@%s"
+            .formatted(
+                facets.getInputValueOrThrow("userId"), facets.getInputValueOrThrow("infoLevel")));
+  }
+
+  private static Facets request(String userId, String infoLevel) {
+    return new UnBatchedFacets<>(new UserId(userId), new InfoLevel(infoLevel)).toFacetValues();
+  }
+
+  private record UserId(String userId) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.of("userId", Errable.withValue(userId)));
+    }
+  }
+
+  private record InfoLevel(String level) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.of("infoLevel", Errable.withValue(level)));
+    }
+  }
+}
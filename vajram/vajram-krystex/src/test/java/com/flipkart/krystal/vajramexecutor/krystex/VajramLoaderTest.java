@@ -0,0 +1,82 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.vajram.VajramLoader.VAJRAM_INDEX_RESOURCE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramLoader;
+import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class VajramLoaderTest {
+
+  private static final String TEST_VAJRAMS_PACKAGE =
+      "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams";
+
+  @Test
+  void loadVajrams_testVajrams_sameAsLoadingFromClassPath() {
+    Set<Class<?>> indexed = vajramClasses(VajramLoader.loadVajrams(TEST_VAJRAMS_PACKAGE));
+
+    assertThat(indexed)
+        .isNotEmpty()
+        .isEqualTo(vajramClasses(VajramLoader.loadVajramsFromClassPath(TEST_VAJRAMS_PACKAGE)));
+  }
+
+  @Test
+  void loadVajrams_testVajrams_listedInVajramIndex() throws IOException {
+    Set<String> indexedClassNames = new HashSet<>();
+    for (URL index : Collections.list(classLoader().getResources(VAJRAM_INDEX_RESOURCE))) {
+      try (InputStream inputStream = index.openStream()) {
+        new String(inputStream.readAllBytes(), UTF_8)
+            .lines()
+            .map(String::strip)
+            .forEach(indexedClassNames::add);
+      }
+    }
+
+    assertThat(indexedClassNames)
+        .containsAll(
+            vajramClasses(VajramLoader.loadVajramsFromClassPath(TEST_VAJRAMS_PACKAGE)).stream()
+                .map(Class::getName)
+                .toList());
+  }
+
+  @Test
+  void getResolveMethodDefinitions_testVajrams_sameAsReflectiveParse() {
+    List<? extends Vajram> vajrams = VajramLoader.loadVajrams(TEST_VAJRAMS_PACKAGE);
+    boolean resolveMethodFound = false;
+    for (Vajram<?> vajram : vajrams) {
+      Optional<ImmutableList<InputResolverDefinition>> generated =
+          vajram.getResolveMethodDefinitions();
+      ImmutableList<InputResolverDefinition> parsed =
+          VajramDefinition.parseResolveMethodDefinitions(vajram.getClass());
+
+      assertThat(generated).as(vajram.getId().vajramId()).isPresent();
+      assertThat(generated.orElseThrow())
+          .as(vajram.getId().vajramId())
+          .containsExactlyInAnyOrderElementsOf(parsed);
+      resolveMethodFound |= !parsed.isEmpty();
+    }
+    assertThat(resolveMethodFound).isTrue();
+  }
+
+  private static Set<Class<?>> vajramClasses(List<? extends Vajram> vajrams) {
+    return vajrams.stream().map(Object::getClass).collect(toSet());
+  }
+
+  private static ClassLoader classLoader() {
+    return VajramLoaderTest.class.getClassLoader();
+  }
+}
@@ -0,0 +1,183 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.vajram.VajramID.ofVajram;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetColumns;
+import com.flipkart.krystal.data.FacetLayout;
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.resolution.MultiResolver;
+import com.flipkart.krystal.krystex.resolution.ResolverCommand;
+import com.flipkart.krystal.krystex.resolution.ResolverCommand.SkipDependency;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriends;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.multihellov2.MultiHelloFriendsV2;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VajramMultiResolverTest {
+
+  private VajramKryonGraph graph;
+
+  @BeforeEach
+  void setUp() {
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.friendsservice")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriendsv2")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.multihellov2")
+            .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    graph.close();
+  }
+
+  @Test
+  void resolveBatch_fanouts_sameAsResolvingEachRequest() {
+    KryonDefinition kryonDefinition = kryonDefinitionOf(HelloFriends.class);
+    FacetLayout layout = FacetLayout.of("userId", "numberOfFriends");
+    List<Facets> rows =
+        List.of(
+            facets(layout, "user_1", 2),
+            facets(layout, "user_2", null),
+            facets(layout, " user_3 ", 3));
+
+    List<Map<String, Object>> batchResult = resolveBatch(kryonDefinition, layout, rows);
+
+    assertThat(batchResult).isEqualTo(resolveEach(kryonDefinition, rows));
+    assertThat(batchResult.get(0).get("friendInfos"))
+        .isEqualTo(
+            List.of(
+                facets(Map.of("userId", "user_1:friend_1")),
+                facets(Map.of("userId", "user_1:friend_2"))));
+    assertThat(batchResult.get(1).get("friendInfos")).isEqualTo(List.of());
+    assertThat(batchResult.get(2).get("userInfo"))
+        .isEqualTo(List.of(facets(Map.of("userId", "user_3"))));
+  }
+
+  @Test
+  void resolveBatch_someRequestsSkipped_sameAsResolvingEachRequest() {
+    KryonDefinition kryonDefinition = kryonDefinitionOf(MultiHelloFriendsV2.class);
+    FacetLayout layout = FacetLayout.of("userIds", "skip");
+    List<Facets> rows =
+        List.of(
+            facets(layout, Set.of("user_1", "user_2"), false),
+            facets(layout, Set.of("user_3"), true),
+            facets(layout, Set.of("user_4"), null));
+
+    List<Map<String, Object>> batchResult = resolveBatch(kryonDefinition, layout, rows);
+
+    assertThat(batchResult).isEqualTo(resolveEach(kryonDefinition, rows));
+    assertThat((List<?>) batchResult.get(0).get("hellos")).hasSize(2);
+    assertThat(batchResult.get(1).get("hellos")).isEqualTo("skip: skip requested");
+    assertThat(batchResult.get(2).get("hellos"))
+        .isEqualTo(List.of(facets(Map.of("userId", "user_4"))));
+  }
+
+  @Test
+  void resolveBatch_resolverThrowsForARequest_throwsLikeResolvingThatRequest() {
+    KryonDefinition kryonDefinition = kryonDefinitionOf(HelloFriends.class);
+    FacetLayout layout = FacetLayout.of("userId", "numberOfFriends");
+    // The fanout resolver of friendInfos needs the userId when numberOfFriends is present
+    Facets failingRow = facets(layout, null, 2);
+    List<Facets> rows = List.of(facets(layout, "user_1", 2), failingRow);
+
+    assertThatThrownBy(() -> resolveEach(kryonDefinition, List.of(failingRow)))
+        .isInstanceOf(NoSuchElementException.class);
+    assertThatThrownBy(() -> resolveBatch(kryonDefinition, layout, rows))
+        .isInstanceOf(NoSuchElementException.class);
+  }
+
+  private KryonDefinition kryonDefinitionOf(Class<? extends Vajram<?>> vajramClass) {
+    return graph.getKryonDefinitionRegistry().get(graph.getKryonId(ofVajram(vajramClass)));
+  }
+
+  private static MultiResolver multiResolverOf(KryonDefinition kryonDefinition) {
+    return kryonDefinition
+        .kryonDefinitionRegistry()
+        .logicDefinitionRegistry()
+        .getMultiResolver(kryonDefinition.multiResolverLogicId().orElseThrow())
+        .logic();
+  }
+
+  private static List<DependencyResolutionRequest> resolutionRequestsOf(
+      KryonDefinition kryonDefinition) {
+    return kryonDefinition.resolverDefinitions().stream()
+        .collect(groupingBy(ResolverDefinition::dependencyName, toSet()))
+        .entrySet()
+        .stream()
+        .map(e -> new DependencyResolutionRequest(e.getKey(), e.getValue()))
+        .toList();
+  }
+
+  private static List<Map<String, Object>> resolveBatch(
+      KryonDefinition kryonDefinition, FacetLayout layout, List<Facets> rows) {
+    return multiResolverOf(kryonDefinition)
+        .resolveBatch(resolutionRequestsOf(kryonDefinition), FacetColumns.ofRows(layout, rows))
+        .stream()
+        .map(VajramMultiResolverTest::comparable)
+        .toList();
+  }
+
+  private static List<Map<String, Object>> resolveEach(
+      KryonDefinition kryonDefinition, List<Facets> rows) {
+    MultiResolver multiResolver = multiResolverOf(kryonDefinition);
+    List<DependencyResolutionRequest> resolutionRequests = resolutionRequestsOf(kryonDefinition);
+    return rows.stream()
+        .map(row -> multiResolver.resolve(resolutionRequests, row))
+        .map(VajramMultiResolverTest::comparable)
+        .toList();
+  }
+
+  /** Skip reasons do not implement equals, so skips are compared by their messages. */
+  private static Map<String, Object> comparable(
+      ImmutableMap<String, ResolverCommand> resolverCommands) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    resolverCommands.forEach(
+        (depName, command) ->
+            result.put(
+                depName,
+                command instanceof SkipDependency skip
+                    ? "skip: " + skip.reason()
+                    : command.getInputs()));
+    return result;
+  }
+
+  private static Facets facets(
+      FacetLayout layout, @Nullable Object first, @Nullable Object second) {
+    @Nullable FacetValue<Object>[] slots = Facets.newSlots(layout);
+    slots[0] = Errable.withValue(first);
+    slots[1] = Errable.withValue(second);
+    return new Facets(layout, slots);
+  }
+
+  private static Facets facets(Map<String, Object> values) {
+    Map<String, FacetValue<Object>> facetValues = new LinkedHashMap<>();
+    values.forEach((name, value) -> facetValues.put(name, Errable.withValue(value)));
+    return new Facets(facetValues);
+  }
+}
@@ -0,0 +1,25 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello;
+
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.tags.MemoizeResults;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.MemoizedHelloFacetUtil.MemoizedHelloFacets;
+import java.util.concurrent.atomic.LongAdder;
+
+@VajramDef
+public abstract class MemoizedHello extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String name;
+  }
+
+  public static final LongAdder CALL_COUNTER = new LongAdder();
+
+  @MemoizeResults
+  @Output
+  static String greet(MemoizedHelloFacets facets) {
+    CALL_COUNTER.increment();
+    return "Hello! %s".formatted(facets.name());
+  }
+}
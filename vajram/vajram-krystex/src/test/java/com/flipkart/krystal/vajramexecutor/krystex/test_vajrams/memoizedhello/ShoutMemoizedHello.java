@@ -0,0 +1,41 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello;
+
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.dep;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.depInput;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.resolve;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.ShoutMemoizedHelloFacetUtil.hello_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.ShoutMemoizedHelloRequest.name_s;
+
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Dependency;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.memoizedhello.ShoutMemoizedHelloFacetUtil.ShoutMemoizedHelloFacets;
+import com.google.common.collect.ImmutableCollection;
+
+@VajramDef
+public abstract class ShoutMemoizedHello extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String name;
+
+    @Dependency(onVajram = MemoizedHello.class)
+    String hello;
+  }
+
+  @Override
+  public ImmutableCollection<InputResolver> getSimpleInputResolvers() {
+    return resolve(
+        dep(
+            hello_s,
+            depInput(MemoizedHelloRequest.name_s)
+                .using(name_s)
+                .asResolver(name -> name.value().orElse(null))));
+  }
+
+  @Output
+  static String shout(ShoutMemoizedHelloFacets facets) {
+    return facets.hello().toUpperCase();
+  }
+}
@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableMap;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -30,11 +31,13 @@ public abstract class TestUserService extends IOVajram<TestUserInfo> {
 
   public static final LongAdder CALL_COUNTER = new LongAdder();
   public static final Set<TestUserServiceRequest> REQUESTS = new LinkedHashSet<>();
+  public static final Set<String> CALLING_THREADS = ConcurrentHashMap.newKeySet();
 
   @Output
   static ImmutableMap<TestUserServiceInputBatch, CompletableFuture<TestUserInfo>> callUserService(
       BatchedFacets<TestUserServiceInputBatch, TestUserServiceCommonFacets> batchedRequest) {
     CALL_COUNTER.increment();
+    CALLING_THREADS.add(Thread.currentThread().getName());
     batchedRequest.batchedInputs().stream()
         .map(im -> TestUserServiceRequest.builder().userId(im.userId()).build())
         .forEach(REQUESTS::add);
@@ -0,0 +1,115 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness.loadtest;
+
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.GRANULAR;
+import static com.flipkart.krystal.vajram.VajramID.ofVajram;
+import static com.flipkart.krystal.vajram.Vajrams.getVajramIdString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.TestRequestContext;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriends;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriendsRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserInfo;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserService;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadTestRunnerTest {
+
+  private VajramKryonGraph graph;
+  private final AtomicInteger requestCounter = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class),
+        InputBatcherConfig.sharedBatcher(
+            () -> new InputBatcherImpl<>(100),
+            getVajramIdString(TestUserService.class) + "Batcher",
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "userInfo"),
+            graph.computeDependantChain(getVajramIdString(HelloFriends.class), "friendInfos")));
+  }
+
+  @AfterEach
+  void tearDown() {
+    TestUserService.CALL_COUNTER.reset();
+    graph.close();
+  }
+
+  @Test
+  void run_closedModelWithSyntheticIO_actualIOLogicNotCalled() throws Exception {
+    LoadTestRunner loadTestRunner =
+        LoadTestRunner.prepareForLoadTest(
+                graph, KryonExecutorConfig.builder().kryonExecStrategy(BATCH))
+            .withSyntheticIO(
+                ofVajram(TestUserService.class),
+                LatencyDistribution.fixed(Duration.ofMillis(2)),
+                0,
+                facets -> new TestUserInfo("synthetic"))
+            .withConcurrency(4)
+            .withWarmup(Duration.ofMillis(100))
+            .withDuration(Duration.ofMillis(300));
+
+    LoadTestReport report =
+        loadTestRunner.run(
+            ofVajram(HelloFriends.class), this::newRequestContext, this::helloFriendsRequest);
+
+    assertThat(report.completedRequests()).isPositive();
+    assertThat(report.failedRequests()).isZero();
+    assertThat(report.latencyAtPercentile(50)).isGreaterThanOrEqualTo(Duration.ofMillis(2));
+    assertThat(TestUserService.CALL_COUNTER.sum()).isZero();
+    SyntheticIOLogic syntheticIOLogic =
+        loadTestRunner.getSyntheticIOLogic(ofVajram(TestUserService.class)).orElseThrow();
+    // The user and friend infos of every request are batched into a single IO call
+    assertThat(syntheticIOLogic.ioCallFacetsCount())
+        .isEqualTo(3 * syntheticIOLogic.ioCallCount());
+  }
+
+  @Test
+  void run_openModelWithFailingSyntheticIO_failuresReported() throws Exception {
+    LoadTestReport report =
+        LoadTestRunner.prepareForLoadTest(
+                graph, KryonExecutorConfig.builder().kryonExecStrategy(GRANULAR))
+            .withSyntheticIO(
+                ofVajram(TestUserService.class),
+                LatencyDistribution.logNormal(Duration.ofMillis(1), 0.5),
+                1,
+                facets -> new TestUserInfo("synthetic"))
+            .withConcurrency(10)
+            .withRequestRate(100)
+            .withDuration(Duration.ofMillis(300))
+            .run(ofVajram(HelloFriends.class), this::newRequestContext, this::helloFriendsRequest);
+
+    assertThat(report.completedRequests()).isZero();
+    assertThat(report.failedRequests()).isPositive();
+    assertThat(report.errorRate()).isEqualTo(1);
+    assertThat(TestUserService.CALL_COUNTER.sum()).isZero();
+  }
+
+  private TestRequestContext newRequestContext() {
+    TestRequestContext requestContext = new TestRequestContext(Optional.of("user_id_1"), 2);
+    requestContext.requestId("loadTest_" + requestCounter.incrementAndGet());
+    return requestContext;
+  }
+
+  private HelloFriendsRequest helloFriendsRequest(TestRequestContext testRequestContext) {
+    return HelloFriendsRequest.builder()
+        .userId(testRequestContext.loggedInUserId().orElse(null))
+        .numberOfFriends(testRequestContext.numberOfFriends())
+        .build();
+  }
+}